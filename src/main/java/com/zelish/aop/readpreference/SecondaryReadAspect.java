@@ -0,0 +1,86 @@
+package com.zelish.aop.readpreference;
+
+import com.zelish.repository.SecondaryReads;
+import com.zelish.service.OperationTimeTracker;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.MongoClientException;
+import com.mongodb.client.ClientSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.MongoDbFactory;
+
+/**
+ * Aspect routing the reads of the methods annotated with {@link com.zelish.repository.SecondaryPreferred} to the
+ * secondaries.
+ * <p>
+ * When the current user wrote recently, the reads run in a causally consistent session advanced to that write, see
+ * {@link OperationTimeTracker}. Nested annotated methods reuse the scope of the outermost one.
+ */
+@Aspect
+public class SecondaryReadAspect {
+
+    private final Logger log = LoggerFactory.getLogger(SecondaryReadAspect.class);
+
+    private final MongoDbFactory mongoDbFactory;
+
+    private final OperationTimeTracker operationTimeTracker;
+
+    private final MeterRegistry meterRegistry;
+
+    public SecondaryReadAspect(MongoDbFactory mongoDbFactory, OperationTimeTracker operationTimeTracker,
+            MeterRegistry meterRegistry) {
+        this.mongoDbFactory = mongoDbFactory;
+        this.operationTimeTracker = operationTimeTracker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Advice routing the reads of an annotated method to the secondaries.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable throws the exception of the annotated method.
+     */
+    @Around("@annotation(com.zelish.repository.SecondaryPreferred) || @within(com.zelish.repository.SecondaryPreferred)")
+    public Object secondaryPreferred(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (SecondaryReads.isActive()) {
+            return joinPoint.proceed();
+        }
+        ClientSession session = operationTimeTracker.hasRecentWrite() ? startCausalSession() : null;
+        routed(session == null ? "none" : "causal").increment();
+        SecondaryReads.begin(session);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            SecondaryReads.end();
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private ClientSession startCausalSession() {
+        try {
+            ClientSession session = mongoDbFactory.getSession(ClientSessionOptions.builder().causallyConsistent(true).build());
+            operationTimeTracker.advance(session);
+            return session;
+        } catch (MongoClientException e) {
+            // Without sessions, the reads can still lag behind the writes of the user.
+            log.debug("Could not start a causally consistent session: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Counter routed(String session) {
+        return Counter.builder("mongodb.reads.secondary-preferred")
+            .description("Calls of the methods reading from the secondaries, by session")
+            .tag("session", session)
+            .register(meterRegistry);
+    }
+}
@@ -2,6 +2,11 @@ package com.zelish.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Properties specific to Jhipster Sample Application.
  * <p>
@@ -11,4 +16,631 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final DbRef dbRef = new DbRef();
+
+    private final OrgChart orgChart = new OrgChart();
+
+    private final Pagination pagination = new Pagination();
+
+    private final Bulk bulk = new Bulk();
+
+    private final Export export = new Export();
+
+    private final Import importing = new Import();
+
+    private final EntityCache entityCache = new EntityCache();
+
+    private final MongoCommands mongoCommands = new MongoCommands();
+
+    private final SecondaryReads secondaryReads = new SecondaryReads();
+
+    private final Audit audit = new Audit();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    public DbRef getDbRef() {
+        return dbRef;
+    }
+
+    public OrgChart getOrgChart() {
+        return orgChart;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Import getImport() {
+        return importing;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    public MongoCommands getMongoCommands() {
+        return mongoCommands;
+    }
+
+    public SecondaryReads getSecondaryReads() {
+        return secondaryReads;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public static class DbRef {
+
+        /**
+         * How many levels of {@code @DBRef} are prefetched with one {@code $in} query per collection.
+         * Deeper references fall back to one round trip per reference.
+         */
+        private int prefetchDepth = 2;
+
+        public int getPrefetchDepth() {
+            return prefetchDepth;
+        }
+
+        public void setPrefetchDepth(int prefetchDepth) {
+            this.prefetchDepth = prefetchDepth;
+        }
+    }
+
+    public static class OrgChart {
+
+        /**
+         * Maximum number of management levels walked by the org chart queries.
+         */
+        private int maxDepth = 1000;
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+        }
+    }
+
+    public static class Pagination {
+
+        /**
+         * Delay in milliseconds between two refreshes of the cached collection count estimates,
+         * returned as estimated totals by the paged endpoints called with {@code count=estimated}.
+         */
+        private long countRefreshDelay = 60000;
+
+        public long getCountRefreshDelay() {
+            return countRefreshDelay;
+        }
+
+        public void setCountRefreshDelay(long countRefreshDelay) {
+            this.countRefreshDelay = countRefreshDelay;
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Maximum number of items of a request to the {@code /bulk} endpoints.
+         */
+        private int maxItems = 1000;
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * Number of documents fetched from the cursor and converted together by the {@code /export} endpoints.
+         */
+        private int batchSize = 500;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Import {
+
+        /**
+         * Number of rows written with one {@code insertMany}.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Maximum number of batches being written at once; parsing waits for a batch to complete beyond it.
+         */
+        private int maxInFlightBatches = 4;
+
+        /**
+         * Maximum number of employees kept in the lookup of the references by email.
+         * Older ones are looked up again in the database.
+         */
+        private int lookupSize = 100000;
+
+        /**
+         * Number of rows between two progress reports.
+         */
+        private int progressInterval = 10000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxInFlightBatches() {
+            return maxInFlightBatches;
+        }
+
+        public void setMaxInFlightBatches(int maxInFlightBatches) {
+            this.maxInFlightBatches = maxInFlightBatches;
+        }
+
+        public int getLookupSize() {
+            return lookupSize;
+        }
+
+        public void setLookupSize(int lookupSize) {
+            this.lookupSize = lookupSize;
+        }
+
+        public int getProgressInterval() {
+            return progressInterval;
+        }
+
+        public void setProgressInterval(int progressInterval) {
+            this.progressInterval = progressInterval;
+        }
+    }
+
+    public static class EntityCache {
+
+        /**
+         * Collections whose documents are cached by id, for the lookups by id and the {@code @DBRef} resolution.
+         */
+        private List<String> collections = new ArrayList<>(Arrays.asList(
+            "region", "country", "location", "department", "job", "task", "employee", "job_history"));
+
+        /**
+         * Maximum number of documents cached per collection.
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * Seconds after which a cached document is read again, bounding the staleness of the documents written
+         * by other instances.
+         */
+        private long timeToLive = 300;
+
+        public List<String> getCollections() {
+            return collections;
+        }
+
+        public void setCollections(List<String> collections) {
+            this.collections = collections;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(long timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class MongoCommands {
+
+        /**
+         * Milliseconds above which a MongoDB command is logged with its query shape.
+         */
+        private long slowThreshold = 100;
+
+        /**
+         * Number of recent commands kept in memory for {@code /management/mongo-commands}.
+         */
+        private int recentCommands = 1000;
+
+        /**
+         * Number of slowest recent commands returned by default by {@code /management/mongo-commands}.
+         */
+        private int top = 20;
+
+        /**
+         * Milliseconds above which the plan of a query is explained in the background.
+         */
+        private long explainThreshold = 200;
+
+        /**
+         * Seconds before the plan of an explained query shape is explained again.
+         */
+        private long explainInterval = 3600;
+
+        /**
+         * Milliseconds between two runs of the background explains.
+         */
+        private long explainDelay = 10000;
+
+        /**
+         * Maximum number of queries explained per run, bounding the load added to the database.
+         */
+        private int maxExplains = 5;
+
+        public long getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(long slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public int getRecentCommands() {
+            return recentCommands;
+        }
+
+        public void setRecentCommands(int recentCommands) {
+            this.recentCommands = recentCommands;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public void setTop(int top) {
+            this.top = top;
+        }
+
+        public long getExplainThreshold() {
+            return explainThreshold;
+        }
+
+        public void setExplainThreshold(long explainThreshold) {
+            this.explainThreshold = explainThreshold;
+        }
+
+        public long getExplainInterval() {
+            return explainInterval;
+        }
+
+        public void setExplainInterval(long explainInterval) {
+            this.explainInterval = explainInterval;
+        }
+
+        public long getExplainDelay() {
+            return explainDelay;
+        }
+
+        public void setExplainDelay(long explainDelay) {
+            this.explainDelay = explainDelay;
+        }
+
+        public int getMaxExplains() {
+            return maxExplains;
+        }
+
+        public void setMaxExplains(int maxExplains) {
+            this.maxExplains = maxExplains;
+        }
+    }
+
+    public static class SecondaryReads {
+
+        /**
+         * Whether the methods annotated with {@code @SecondaryPreferred} read from the secondaries.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Seconds after a write of a user during which the reads of that user from the secondaries run in a causally
+         * consistent session.
+         */
+        private long causalWindow = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getCausalWindow() {
+            return causalWindow;
+        }
+
+        public void setCausalWindow(long causalWindow) {
+            this.causalWindow = causalWindow;
+        }
+    }
+
+    public static class Audit {
+
+        /**
+         * What to do with an audit event when the buffer is full.
+         */
+        public enum Overflow {
+            /**
+             * Wait until the writer made room, slowing down the request.
+             */
+            BLOCK,
+            /**
+             * Drop the oldest buffered event.
+             */
+            DROP_OLDEST,
+            /**
+             * Append the event to the spill file, written to the database once the buffer has room again.
+             */
+            SPILL
+        }
+
+        /**
+         * Number of audit events buffered in memory before the overflow policy applies, rounded up to a power of two.
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * Maximum number of audit events written with one {@code insertMany}.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Milliseconds between two writes of the buffered audit events, when the buffer does not fill a batch first.
+         */
+        private long flushInterval = 1000;
+
+        /**
+         * Write concern of the audit events, by name, such as {@code W1}, {@code MAJORITY} or {@code UNACKNOWLEDGED}.
+         */
+        private String writeConcern = "W1";
+
+        private Overflow overflow = Overflow.SPILL;
+
+        /**
+         * File receiving the audit events which overflowed the buffer or could not be written, one JSON document per line.
+         */
+        private String spillFile = Paths.get(System.getProperty("java.io.tmpdir"), "audit-spill.ndjson").toString();
+
+        /**
+         * Days after which the audit events are removed, or {@code 0} to keep them forever.
+         */
+        private int retentionDays = 0;
+
+        /**
+         * Whether the audit events are written to monthly collections, dropped as a whole once expired.
+         */
+        private boolean buckets = false;
+
+        /**
+         * Directory receiving the expired monthly collections as gzipped NDJSON files before they are dropped, or
+         * empty to drop them without archive.
+         */
+        private String archiveDirectory = "";
+
+        /**
+         * When the expired monthly collections are archived and dropped, as a cron expression.
+         */
+        private String retentionCron = "0 0 3 * * *";
+
+        /**
+         * Milliseconds between two writes of the in-memory counts of the audit events to their hourly statistics.
+         */
+        private long statsFlushInterval = 10000;
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public String getWriteConcern() {
+            return writeConcern;
+        }
+
+        public void setWriteConcern(String writeConcern) {
+            this.writeConcern = writeConcern;
+        }
+
+        public Overflow getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(Overflow overflow) {
+            this.overflow = overflow;
+        }
+
+        public String getSpillFile() {
+            return spillFile;
+        }
+
+        public void setSpillFile(String spillFile) {
+            this.spillFile = spillFile;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+
+        public boolean isBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(boolean buckets) {
+            this.buckets = buckets;
+        }
+
+        public String getArchiveDirectory() {
+            return archiveDirectory;
+        }
+
+        public void setArchiveDirectory(String archiveDirectory) {
+            this.archiveDirectory = archiveDirectory;
+        }
+
+        public String getRetentionCron() {
+            return retentionCron;
+        }
+
+        public void setRetentionCron(String retentionCron) {
+            this.retentionCron = retentionCron;
+        }
+
+        public long getStatsFlushInterval() {
+            return statsFlushInterval;
+        }
+
+        public void setStatsFlushInterval(long statsFlushInterval) {
+            this.statsFlushInterval = statsFlushInterval;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Number of threads sending the mails of the outbox, or {@code 0} to leave them in the outbox.
+         */
+        private int senders = 2;
+
+        /**
+         * Maximum number of mails sent through one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Milliseconds between two reads of the outbox by an idle sender, when no mail was added in between.
+         */
+        private long pollInterval = 1000;
+
+        /**
+         * Number of attempts to send a mail before it is left in the outbox as failed.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Seconds before the second attempt to send a mail, doubled after each failed attempt.
+         */
+        private long retryDelay = 30;
+
+        /**
+         * Maximum number of seconds between two attempts to send a mail.
+         */
+        private long maxRetryDelay = 3600;
+
+        /**
+         * Seconds after which a mail claimed by a sender which did not finish sending it is claimed again.
+         */
+        private long lease = 300;
+
+        public int getSenders() {
+            return senders;
+        }
+
+        public void setSenders(int senders) {
+            this.senders = senders;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(long pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(long retryDelay) {
+            this.retryDelay = retryDelay;
+        }
+
+        public long getMaxRetryDelay() {
+            return maxRetryDelay;
+        }
+
+        public void setMaxRetryDelay(long maxRetryDelay) {
+            this.maxRetryDelay = maxRetryDelay;
+        }
+
+        public long getLease() {
+            return lease;
+        }
+
+        public void setLease(long lease) {
+            this.lease = lease;
+        }
+    }
 }
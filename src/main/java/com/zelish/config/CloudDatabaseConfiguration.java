@@ -1,6 +1,8 @@
 package com.zelish.config;
 
 import com.github.mongobee.Mongobee;
+import com.zelish.config.audit.AuditEventDataConverters.AuditEventDataToDocumentConverter;
+import com.zelish.config.audit.AuditEventDataConverters.DocumentToAuditEventDataConverter;
 
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.domain.util.JSR310DateConverters.*;
@@ -28,6 +30,7 @@ import java.util.List;
 @Configuration
 @EnableMongoRepositories("com.zelish.repository")
 @Profile(JHipsterConstants.SPRING_PROFILE_CLOUD)
+@Import(MongoMappingConfiguration.class)
 public class CloudDatabaseConfiguration extends AbstractCloudConfig {
 
     private final Logger log = LoggerFactory.getLogger(CloudDatabaseConfiguration.class);
@@ -52,6 +55,8 @@ public class CloudDatabaseConfiguration extends AbstractCloudConfig {
         List<Converter<?, ?>> converterList = new ArrayList<>();
         converterList.add(DateToZonedDateTimeConverter.INSTANCE);
         converterList.add(ZonedDateTimeToDateConverter.INSTANCE);
+        converterList.add(AuditEventDataToDocumentConverter.INSTANCE);
+        converterList.add(DocumentToAuditEventDataConverter.INSTANCE);
         converterList.add(DurationToLongConverter.INSTANCE);
         return new MongoCustomConversions(converterList);
     }
@@ -3,6 +3,11 @@ package com.zelish.config;
 import io.github.jhipster.config.JHipsterConstants;
 import com.github.mongobee.Mongobee;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.zelish.config.audit.AuditEventDataConverters.AuditEventDataToDocumentConverter;
+import com.zelish.config.audit.AuditEventDataConverters.DocumentToAuditEventDataConverter;
+import com.zelish.service.MongoCommandMonitor;
+import com.zelish.service.OperationTimeTracker;
 import io.github.jhipster.domain.util.JSR310DateConverters.DateToZonedDateTimeConverter;
 import io.github.jhipster.domain.util.JSR310DateConverters.ZonedDateTimeToDateConverter;
 import org.slf4j.Logger;
@@ -27,12 +32,21 @@ import java.util.List;
 @Configuration
 @EnableMongoRepositories("com.zelish.repository")
 @Profile("!" + JHipsterConstants.SPRING_PROFILE_CLOUD)
-@Import(value = MongoAutoConfiguration.class)
+@Import(value = {MongoAutoConfiguration.class, MongoMappingConfiguration.class})
 @EnableMongoAuditing(auditorAwareRef = "springSecurityAuditorAware")
 public class DatabaseConfiguration {
 
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
+    @Bean
+    public MongoClientOptions mongoClientOptions(MongoCommandMonitor mongoCommandMonitor,
+            OperationTimeTracker operationTimeTracker) {
+        return MongoClientOptions.builder()
+            .addCommandListener(mongoCommandMonitor)
+            .addCommandListener(operationTimeTracker)
+            .build();
+    }
+
     @Bean
     public ValidatingMongoEventListener validatingMongoEventListener() {
         return new ValidatingMongoEventListener(validator());
@@ -48,6 +62,8 @@ public class DatabaseConfiguration {
         List<Converter<?, ?>> converters = new ArrayList<>();
         converters.add(DateToZonedDateTimeConverter.INSTANCE);
         converters.add(ZonedDateTimeToDateConverter.INSTANCE);
+        converters.add(AuditEventDataToDocumentConverter.INSTANCE);
+        converters.add(DocumentToAuditEventDataConverter.INSTANCE);
         return new MongoCustomConversions(converters);
     }
 
@@ -1,9 +1,18 @@
 package com.zelish.config;
 
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.domain.JobHistory;
+import com.zelish.web.rest.util.SparseFieldsFilter;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.zalando.problem.ProblemModule;
@@ -49,4 +58,20 @@ public class JacksonConfiguration {
     ConstraintViolationProblemModule constraintViolationProblemModule() {
         return new ConstraintViolationProblemModule();
     }
+
+    /*
+     * Entities supporting sparse fieldsets, written whole unless a request sets the filter.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+            .mixIn(Employee.class, SparseFieldsMixIn.class)
+            .mixIn(Job.class, SparseFieldsMixIn.class)
+            .mixIn(JobHistory.class, SparseFieldsMixIn.class)
+            .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(SparseFieldsFilter.ID)
+    interface SparseFieldsMixIn {
+    }
 }
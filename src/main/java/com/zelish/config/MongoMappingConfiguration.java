@@ -0,0 +1,53 @@
+package com.zelish.config;
+
+import com.zelish.repository.BatchingDbRefResolver;
+import com.zelish.repository.DocumentCache;
+import com.zelish.repository.RoutingMongoTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+
+/**
+ * The mapping and template of MongoDB shared by the {@link DatabaseConfiguration} and the
+ * {@link CloudDatabaseConfiguration}: the document cache, the batching DBRef resolver, the converter using them, and
+ * the template routing the reads.
+ */
+@Configuration
+public class MongoMappingConfiguration {
+
+    @Bean
+    public DocumentCache documentCache(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.EntityCache entityCache = applicationProperties.getEntityCache();
+        return new DocumentCache(meterRegistry, entityCache.getCollections(), entityCache.getMaximumSize(),
+            Duration.ofSeconds(entityCache.getTimeToLive()));
+    }
+
+    @Bean
+    public BatchingDbRefResolver dbRefResolver(MongoDbFactory mongoDbFactory, DocumentCache documentCache,
+            MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new BatchingDbRefResolver(mongoDbFactory, documentCache, meterRegistry,
+            applicationProperties.getDbRef().getPrefetchDepth());
+    }
+
+    @Bean
+    public MappingMongoConverter mappingMongoConverter(BatchingDbRefResolver dbRefResolver, MongoMappingContext mongoMappingContext,
+            MongoCustomConversions customConversions) {
+        MappingMongoConverter mappingConverter = new MappingMongoConverter(dbRefResolver, mongoMappingContext);
+        mappingConverter.setCustomConversions(customConversions);
+        return mappingConverter;
+    }
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter) {
+        return new RoutingMongoTemplate(mongoDbFactory, mongoConverter);
+    }
+}
@@ -0,0 +1,38 @@
+package com.zelish.config;
+
+import com.zelish.repository.ReferenceIdDbRefResolver;
+import com.zelish.service.MongoCommandMonitor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Configuration of the reactive MongoDB driver, used by the read-only {@code /api/rx} endpoints.
+ * <p>
+ * The reactive template has its own converter: the one of the blocking template resolves the {@code @DBRef}
+ * properties with blocking queries, which must not run on the threads of the reactive driver.
+ */
+@Configuration
+@EnableReactiveMongoRepositories("com.zelish.repository.reactive")
+public class ReactiveDatabaseConfiguration {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer commandMonitorCustomizer(MongoCommandMonitor mongoCommandMonitor) {
+        return builder -> builder.addCommandListener(mongoCommandMonitor);
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory,
+            MongoMappingContext mongoMappingContext, MongoCustomConversions customConversions) {
+        MappingMongoConverter mappingConverter = new MappingMongoConverter(new ReferenceIdDbRefResolver(), mongoMappingContext);
+        mappingConverter.setCustomConversions(customConversions);
+        mappingConverter.afterPropertiesSet();
+        return new ReactiveMongoTemplate(reactiveMongoDatabaseFactory, mappingConverter);
+    }
+}
@@ -0,0 +1,23 @@
+package com.zelish.config;
+
+import com.zelish.aop.readpreference.SecondaryReadAspect;
+import com.zelish.service.OperationTimeTracker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.data.mongodb.MongoDbFactory;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class SecondaryReadConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.secondary-reads", name = "enabled", matchIfMissing = true)
+    public SecondaryReadAspect secondaryReadAspect(MongoDbFactory mongoDbFactory, OperationTimeTracker operationTimeTracker,
+            MeterRegistry meterRegistry) {
+        return new SecondaryReadAspect(mongoDbFactory, operationTimeTracker, meterRegistry);
+    }
+}
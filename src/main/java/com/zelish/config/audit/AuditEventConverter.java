@@ -1,5 +1,6 @@
 package com.zelish.config.audit;
 
+import com.zelish.domain.AuditEventData;
 import com.zelish.domain.PersistentAuditEvent;
 
 import org.springframework.boot.actuate.audit.AuditEvent;
@@ -45,29 +46,29 @@ public class AuditEventConverter {
     /**
      * Internal conversion. This is needed to support the current SpringBoot actuator {@code AuditEventRepository} interface.
      *
+     * The data is not copied: the result is a read-only view of it.
+     *
      * @param data the data to convert.
      * @return a map of {@link String}, {@link Object}.
      */
     public Map<String, Object> convertDataToObjects(Map<String, String> data) {
-        Map<String, Object> results = new HashMap<>();
-
-        if (data != null) {
-            for (Map.Entry<String, String> entry : data.entrySet()) {
-                results.put(entry.getKey(), entry.getValue());
-            }
+        if (data == null) {
+            return Collections.emptyMap();
         }
-        return results;
+        return Collections.unmodifiableMap(data);
     }
 
     /**
      * Internal conversion. This method will allow to save additional data.
      * By default, it will save the object as string.
      *
+     * The data is encoded as it is converted, see {@link AuditEventData}.
+     *
      * @param data the data to convert.
      * @return a map of {@link String}, {@link String}.
      */
     public Map<String, String> convertDataToStrings(Map<String, Object> data) {
-        Map<String, String> results = new HashMap<>();
+        AuditEventData.Builder results = AuditEventData.builder();
 
         if (data != null) {
             for (Map.Entry<String, Object> entry : data.entrySet()) {
@@ -81,6 +82,6 @@ public class AuditEventConverter {
                 }
             }
         }
-        return results;
+        return results.build().asMap();
     }
 }
@@ -0,0 +1,39 @@
+package com.zelish.config.audit;
+
+import com.zelish.domain.AuditEventData;
+
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+/**
+ * MongoDB converters of the {@link AuditEventData}, storing its encoded document as it is.
+ */
+public final class AuditEventDataConverters {
+
+    private AuditEventDataConverters() {
+    }
+
+    @WritingConverter
+    public enum AuditEventDataToDocumentConverter implements Converter<AuditEventData, Document> {
+
+        INSTANCE;
+
+        @Override
+        public Document convert(AuditEventData source) {
+            return source.getEncoded();
+        }
+    }
+
+    @ReadingConverter
+    public enum DocumentToAuditEventDataConverter implements Converter<Document, AuditEventData> {
+
+        INSTANCE;
+
+        @Override
+        public AuditEventData convert(Document source) {
+            return AuditEventData.wrap(source);
+        }
+    }
+}
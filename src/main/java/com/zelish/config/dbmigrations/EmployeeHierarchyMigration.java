@@ -0,0 +1,73 @@
+package com.zelish.config.dbmigrations;
+
+import com.zelish.domain.Employee;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.*;
+
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_ID_FIELD;
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_PATH_FIELD;
+
+/**
+ * Adds the reporting hierarchy fields to the existing employees.
+ */
+@ChangeLog(order = "002")
+public class EmployeeHierarchyMigration {
+
+    @ChangeSet(order = "01", author = "initiator", id = "01-addManagerHierarchy")
+    public void addManagerHierarchy(MongoTemplate mongoTemplate) {
+        MongoCollection<Document> employees = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class));
+        employees.createIndex(Indexes.ascending(MANAGER_ID_FIELD));
+        employees.createIndex(Indexes.ascending(MANAGER_PATH_FIELD));
+
+        Map<Object, Object> managers = new HashMap<>();
+        for (Document employee : employees.find().projection(Projections.include("manager"))) {
+            Object manager = employee.get("manager");
+            managers.put(employee.get("_id"), manager instanceof DBRef ? ((DBRef) manager).getId() : null);
+        }
+        Map<Object, String> paths = new HashMap<>();
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : managers.entrySet()) {
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", entry.getKey()), Updates.combine(
+                Updates.set(MANAGER_ID_FIELD, entry.getValue()),
+                Updates.set(MANAGER_PATH_FIELD, path(entry.getKey(), managers, paths)))));
+        }
+        if (!writes.isEmpty()) {
+            employees.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+    }
+
+    /**
+     * Compute the path of an employee, walking up its managers until one with a known path.
+     * A management cycle starts a new root.
+     */
+    private static String path(Object id, Map<Object, Object> managers, Map<Object, String> paths) {
+        Deque<Object> chain = new ArrayDeque<>();
+        Set<Object> visited = new HashSet<>();
+        Object current = id;
+        while (current != null && !paths.containsKey(current) && visited.add(current)) {
+            chain.push(current);
+            current = managers.get(current);
+        }
+        String path = current != null && paths.containsKey(current) ? paths.get(current) + current + "/" : "/";
+        while (!chain.isEmpty()) {
+            Object employee = chain.pop();
+            paths.put(employee, path);
+            path = path + employee + "/";
+        }
+        return paths.get(id);
+    }
+}
@@ -0,0 +1,34 @@
+package com.zelish.config.dbmigrations;
+
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.domain.JobHistory;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+
+/**
+ * Adds the optimistic locking version to the existing versioned entities.
+ */
+@ChangeLog(order = "004")
+public class EntityVersionMigration {
+
+    private static final String VERSION_FIELD = "version";
+
+    /**
+     * Without a version, Spring Data would take the entities for new ones and insert them again on save.
+     */
+    @ChangeSet(order = "01", author = "initiator", id = "01-addEntityVersion")
+    public void addEntityVersion(MongoTemplate mongoTemplate) {
+        for (Class<?> entityClass : Arrays.asList(Employee.class, Job.class, Department.class, JobHistory.class)) {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass))
+                .updateMany(Filters.exists(VERSION_FIELD, false), Updates.set(VERSION_FIELD, 0L));
+        }
+    }
+}
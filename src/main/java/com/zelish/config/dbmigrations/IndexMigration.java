@@ -0,0 +1,40 @@
+package com.zelish.config.dbmigrations;
+
+import com.zelish.repository.DeclaredIndexes;
+
+import com.github.mongobee.changeset.ChangeLog;
+import com.github.mongobee.changeset.ChangeSet;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates the indexes declared in {@link DeclaredIndexes}.
+ */
+@ChangeLog(order = "003")
+public class IndexMigration {
+
+    /**
+     * Runs on every startup, so that newly declared indexes are created. Indexes already present
+     * under another name, such as the ones created from {@code @Indexed}, are left untouched.
+     */
+    @ChangeSet(order = "01", author = "initiator", id = "01-ensureDeclaredIndexes", runAlways = true)
+    public void ensureDeclaredIndexes(MongoTemplate mongoTemplate) {
+        for (Map.Entry<String, List<Index>> entry : DeclaredIndexes.all().entrySet()) {
+            Set<String> live = new HashSet<>();
+            for (Document index : mongoTemplate.getCollection(entry.getKey()).listIndexes()) {
+                live.add(DeclaredIndexes.signature(index));
+            }
+            for (Index index : entry.getValue()) {
+                if (!live.contains(DeclaredIndexes.signature(index))) {
+                    mongoTemplate.indexOps(entry.getKey()).ensureIndex(index);
+                }
+            }
+        }
+    }
+}
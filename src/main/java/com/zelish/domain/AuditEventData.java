@@ -0,0 +1,278 @@
+package com.zelish.domain;
+
+import org.bson.Document;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The data of a {@link PersistentAuditEvent}, stored in a compact form.
+ * <p>
+ * The well-known keys are stored under a one letter code, such as {@code a} for {@code remoteAddress}, and the common
+ * values, such as the authentication exceptions and their messages, as their index in a dictionary. The other keys
+ * and values are stored as they are, the keys clashing with a code being escaped with a leading {@code ~}. The
+ * documents written before this encoding hold their full keys and string values, and are read unchanged unless
+ * their keys are a code.
+ * <p>
+ * The encoded document is kept as read from the database: {@link #asMap()} is a read-only view decoding its entries
+ * when they are accessed, so that reading an event does not copy its data.
+ */
+public final class AuditEventData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final char ESCAPE = '~';
+
+    private static final Map<String, String> CODES = new HashMap<>();
+
+    private static final Map<String, String> KEYS = new HashMap<>();
+
+    /**
+     * The dictionary of the common values, indexed by their code: it is append-only, as the codes are stored.
+     */
+    private static final List<String> VALUES = Collections.unmodifiableList(Arrays.asList(
+        "org.springframework.security.authentication.BadCredentialsException",
+        "org.springframework.security.authentication.DisabledException",
+        "org.springframework.security.authentication.LockedException",
+        "org.springframework.security.authentication.AccountExpiredException",
+        "org.springframework.security.authentication.CredentialsExpiredException",
+        "org.springframework.security.authentication.InternalAuthenticationServiceException",
+        "org.springframework.security.core.userdetails.UsernameNotFoundException",
+        "com.zelish.security.UserNotActivatedException",
+        "Bad credentials",
+        "User is disabled",
+        "User account is locked",
+        "User account has expired",
+        "User credentials have expired",
+        "null"
+    ));
+
+    private static final Map<String, Integer> VALUE_CODES = new HashMap<>();
+
+    static {
+        code("remoteAddress", "a");
+        code("sessionId", "s");
+        code("type", "t");
+        code("message", "m");
+        code("details", "d");
+        for (int i = 0; i < VALUES.size(); i++) {
+            VALUE_CODES.put(VALUES.get(i), i);
+        }
+    }
+
+    private static final AuditEventData EMPTY = new AuditEventData(new Document());
+
+    private final Document encoded;
+
+    private transient Map<String, String> view;
+
+    private AuditEventData(Document encoded) {
+        this.encoded = encoded;
+    }
+
+    /**
+     * @return the data holding no entry.
+     */
+    public static AuditEventData empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Encode some data.
+     *
+     * @param data the data to encode, or {@code null}.
+     * @return the encoded data, or the data itself when it is already encoded.
+     */
+    public static AuditEventData of(Map<String, String> data) {
+        if (data == null || data.isEmpty()) {
+            return EMPTY;
+        }
+        if (data instanceof View) {
+            return ((View) data).owner();
+        }
+        Builder builder = builder();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Wrap a document read from the database, either encoded or written before the encoding.
+     *
+     * @param document the document.
+     * @return the data viewing the document.
+     */
+    public static AuditEventData wrap(Document document) {
+        return new AuditEventData(document);
+    }
+
+    /**
+     * @return a builder encoding the entries as they are put.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the encoded document, to be written to the database.
+     */
+    public Document getEncoded() {
+        return encoded;
+    }
+
+    /**
+     * @return the read-only view of the decoded data.
+     */
+    public Map<String, String> asMap() {
+        Map<String, String> map = view;
+        if (map == null) {
+            map = new View();
+            view = map;
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuditEventData)) {
+            return false;
+        }
+        return asMap().equals(((AuditEventData) o).asMap());
+    }
+
+    @Override
+    public int hashCode() {
+        return asMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private static void code(String key, String code) {
+        CODES.put(key, code);
+        KEYS.put(code, key);
+    }
+
+    private static String encodeKey(String key) {
+        String code = CODES.get(key);
+        if (code != null) {
+            return code;
+        }
+        if (KEYS.containsKey(key) || (!key.isEmpty() && key.charAt(0) == ESCAPE)) {
+            return ESCAPE + key;
+        }
+        return key;
+    }
+
+    private static String decodeKey(String key) {
+        if (!key.isEmpty() && key.charAt(0) == ESCAPE) {
+            return key.substring(1);
+        }
+        return KEYS.getOrDefault(key, key);
+    }
+
+    private static Object encodeValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        Integer code = VALUE_CODES.get(value);
+        return code != null ? code : value;
+    }
+
+    private static String decodeValue(Object value) {
+        if (value instanceof Integer) {
+            int code = (Integer) value;
+            return code >= 0 && code < VALUES.size() ? VALUES.get(code) : value.toString();
+        }
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * A builder of {@link AuditEventData}, encoding the entries into a single document.
+     */
+    public static final class Builder {
+
+        private final Document encoded = new Document();
+
+        private Builder() {
+        }
+
+        public Builder put(String key, String value) {
+            encoded.put(encodeKey(key), encodeValue(value));
+            return this;
+        }
+
+        public AuditEventData build() {
+            return encoded.isEmpty() ? EMPTY : new AuditEventData(encoded);
+        }
+    }
+
+    /**
+     * The read-only view of the decoded data, backed by the encoded document.
+     */
+    private final class View extends AbstractMap<String, String> {
+
+        private AuditEventData owner() {
+            return AuditEventData.this;
+        }
+
+        @Override
+        public int size() {
+            return encoded.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && encoded.containsKey(lookup((String) key));
+        }
+
+        @Override
+        public String get(Object key) {
+            return key instanceof String ? decodeValue(encoded.get(lookup((String) key))) : null;
+        }
+
+        /**
+         * The key of the encoded document holding an entry, which is the full key in the documents written before
+         * the encoding.
+         */
+        private String lookup(String key) {
+            String code = encodeKey(key);
+            return code.equals(key) || encoded.containsKey(code) ? code : key;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<Entry<String, String>>() {
+
+                @Override
+                public int size() {
+                    return encoded.size();
+                }
+
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    Iterator<Entry<String, Object>> entries = encoded.entrySet().iterator();
+                    return new Iterator<Entry<String, String>>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            Entry<String, Object> entry = entries.next();
+                            return new SimpleImmutableEntry<>(decodeKey(entry.getKey()), decodeValue(entry.getValue()));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
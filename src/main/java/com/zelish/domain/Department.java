@@ -1,6 +1,7 @@
 package com.zelish.domain;
 import io.swagger.annotations.ApiModelProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
@@ -21,6 +22,10 @@ public class Department implements Serializable {
     @Id
     private String id;
 
+    @Version
+    @Field("version")
+    private Long version;
+
     @NotNull
     @Field("department_name")
     private String departmentName;
@@ -46,6 +51,14 @@ public class Department implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getDepartmentName() {
         return departmentName;
     }
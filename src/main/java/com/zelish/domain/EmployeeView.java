@@ -0,0 +1,180 @@
+package com.zelish.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only, denormalized summary of an {@link Employee}, used by list screens.
+ * <p>
+ * It shares the id of its employee and embeds the names of the department and jobs, so it can be
+ * read without resolving any reference. It is maintained by {@link com.zelish.service.EmployeeViewService}.
+ */
+@Document(collection = "employee_view")
+public class EmployeeView implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String id;
+
+    @Field("first_name")
+    private String firstName;
+
+    @Field("last_name")
+    private String lastName;
+
+    @Field("email")
+    private String email;
+
+    @Indexed
+    @Field("department_id")
+    private String departmentId;
+
+    @Field("department_name")
+    private String departmentName;
+
+    @Field("jobs")
+    private List<JobSummary> jobs = new ArrayList<>();
+
+    @JsonIgnore
+    @Field("synced_at")
+    private Instant syncedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(String departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public List<JobSummary> getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(List<JobSummary> jobs) {
+        this.jobs = jobs;
+    }
+
+    public Instant getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(Instant syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EmployeeView)) {
+            return false;
+        }
+        return id != null && id.equals(((EmployeeView) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeView{" +
+            "id=" + getId() +
+            ", firstName='" + getFirstName() + "'" +
+            ", lastName='" + getLastName() + "'" +
+            ", email='" + getEmail() + "'" +
+            ", departmentName='" + getDepartmentName() + "'" +
+            "}";
+    }
+
+    /**
+     * The job of an employee, as embedded in its {@link EmployeeView}.
+     */
+    public static class JobSummary implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Indexed
+        @Field("job_id")
+        private String jobId;
+
+        @Field("job_title")
+        private String jobTitle;
+
+        public JobSummary() {
+        }
+
+        public JobSummary(String jobId, String jobTitle) {
+            this.jobId = jobId;
+            this.jobTitle = jobTitle;
+        }
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        public void setJobId(String jobId) {
+            this.jobId = jobId;
+        }
+
+        public String getJobTitle() {
+            return jobTitle;
+        }
+
+        public void setJobTitle(String jobTitle) {
+            this.jobTitle = jobTitle;
+        }
+    }
+}
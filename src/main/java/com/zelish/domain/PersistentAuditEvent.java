@@ -6,7 +6,6 @@ import org.springframework.data.mongodb.core.mapping.Field;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
 import java.time.Instant;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -32,7 +31,7 @@ public class PersistentAuditEvent implements Serializable {
     @Field("event_type")
     private String auditEventType;
 
-    private Map<String, String> data = new HashMap<>();
+    private AuditEventData data = AuditEventData.empty();
 
     public String getId() {
         return id;
@@ -66,12 +65,20 @@ public class PersistentAuditEvent implements Serializable {
         this.auditEventType = auditEventType;
     }
 
+    /**
+     * @return the read-only view of the data of the event.
+     */
     public Map<String, String> getData() {
-        return data;
+        return data.asMap();
     }
 
+    /**
+     * Set the data of the event, encoding it unless it is already the view of {@link AuditEventData}.
+     *
+     * @param data the data of the event.
+     */
     public void setData(Map<String, String> data) {
-        this.data = data;
+        this.data = AuditEventData.of(data);
     }
 
     @Override
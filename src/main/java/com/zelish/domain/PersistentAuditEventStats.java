@@ -0,0 +1,98 @@
+package com.zelish.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The number of {@link PersistentAuditEvent}s of a type and principal during an hour.
+ */
+@Document(collection = "jhi_persistent_audit_event_stats")
+public class PersistentAuditEventStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String id;
+
+    @Field("event_type")
+    private String auditEventType;
+
+    private String principal;
+
+    /**
+     * The start of the hour, in UTC.
+     */
+    private Instant hour;
+
+    private long count;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getAuditEventType() {
+        return auditEventType;
+    }
+
+    public void setAuditEventType(String auditEventType) {
+        this.auditEventType = auditEventType;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(String principal) {
+        this.principal = principal;
+    }
+
+    public Instant getHour() {
+        return hour;
+    }
+
+    public void setHour(Instant hour) {
+        this.hour = hour;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PersistentAuditEventStats)) {
+            return false;
+        }
+        return id != null && id.equals(((PersistentAuditEventStats) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentAuditEventStats{" +
+            "auditEventType='" + auditEventType + '\'' +
+            ", principal='" + principal + '\'' +
+            ", hour=" + hour +
+            ", count=" + count +
+            '}';
+    }
+}
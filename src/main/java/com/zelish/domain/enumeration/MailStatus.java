@@ -0,0 +1,8 @@
+package com.zelish.domain.enumeration;
+
+/**
+ * The MailStatus enumeration.
+ */
+public enum MailStatus {
+    PENDING, SENDING, FAILED
+}
@@ -0,0 +1,272 @@
+package com.zelish.repository;
+
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.PersistentAuditEvent;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The monthly collections of the {@link PersistentAuditEvent}s, used instead of the single audit collection when
+ * {@code application.audit.buckets} is enabled.
+ * <p>
+ * Each event goes to the bucket of the UTC month of its date, such as {@code jhi_persistent_audit_event_2019_07}, so
+ * that a date range only reads the buckets it overlaps, and that a month of events is removed by dropping its bucket.
+ * The pages of events spanning several buckets are sorted by date only, newest first unless the page is sorted by
+ * ascending {@code auditEventDate}.
+ */
+@Repository
+public class AuditEventBuckets {
+
+    private static final String DATE_FIELD = "auditEventDate";
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final MongoTemplate mongoTemplate;
+
+    private final boolean enabled;
+
+    private final String collection;
+
+    private final Pattern bucketPattern;
+
+    private final Set<String> indexedBuckets = ConcurrentHashMap.newKeySet();
+
+    public AuditEventBuckets(MongoTemplate mongoTemplate, ApplicationProperties applicationProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = applicationProperties.getAudit().isBuckets();
+        this.collection = mongoTemplate.getCollectionName(PersistentAuditEvent.class);
+        this.bucketPattern = Pattern.compile(Pattern.quote(collection) + "_\\d{4}_\\d{2}");
+    }
+
+    /**
+     * @return whether the audit events are written to monthly buckets.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the name of the single audit collection, whose indexes every bucket gets.
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * Get the collection of the audit events of a date, creating the indexes of its bucket the first time.
+     *
+     * @param date the date of the events.
+     * @return the name of the bucket of the month of the date, or of the single audit collection when the buckets
+     * are disabled.
+     */
+    public String collectionFor(Instant date) {
+        if (!enabled) {
+            return collection;
+        }
+        String bucket = bucket(YearMonth.from(date.atOffset(ZoneOffset.UTC)));
+        if (indexedBuckets.add(bucket)) {
+            for (Index index : DeclaredIndexes.all().getOrDefault(collection, Collections.emptyList())) {
+                mongoTemplate.indexOps(bucket).ensureIndex(index);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * @return the existing buckets, by month.
+     */
+    public SortedMap<YearMonth, String> findBuckets() {
+        SortedMap<YearMonth, String> buckets = new TreeMap<>();
+        for (String name : mongoTemplate.getCollectionNames()) {
+            if (bucketPattern.matcher(name).matches()) {
+                buckets.put(YearMonth.parse(name.substring(collection.length() + 1), MONTH_FORMAT), name);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Drop a bucket.
+     *
+     * @param bucket the name of the bucket.
+     */
+    public void drop(String bucket) {
+        mongoTemplate.dropCollection(bucket);
+        indexedBuckets.remove(bucket);
+    }
+
+    /**
+     * Get a page of the audit events between two dates, reading only the buckets of the months in between.
+     *
+     * @param fromDate the start of the period, exclusive, or {@code null}.
+     * @param toDate the end of the period, exclusive, or {@code null}.
+     * @param pageable the pagination information.
+     * @return the page of events.
+     */
+    public Page<PersistentAuditEvent> findByDates(Instant fromDate, Instant toDate, Pageable pageable) {
+        Sort.Direction direction = direction(pageable);
+        List<String> buckets = buckets(fromDate, toDate, direction);
+        List<PersistentAuditEvent> content = new ArrayList<>();
+        long total = 0;
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        for (String bucket : buckets) {
+            long count = mongoTemplate.count(new Query(between(fromDate, toDate)), PersistentAuditEvent.class, bucket);
+            total += count;
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+            if (pageable.isUnpaged() || content.size() < pageable.getPageSize()) {
+                Query page = new Query(between(fromDate, toDate)).with(Sort.by(direction, DATE_FIELD, "id")).skip(skip);
+                if (pageable.isPaged()) {
+                    page.limit(pageable.getPageSize() - content.size());
+                }
+                content.addAll(mongoTemplate.find(page, PersistentAuditEvent.class, bucket));
+            }
+            skip = 0;
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Get a slice of the audit events between two dates without counting them: the buckets are read in order until
+     * one more event than the page size was found, and a bucket is only counted, up to the events left to skip, when
+     * the page starts after its end.
+     *
+     * @param fromDate the start of the period, exclusive, or {@code null}.
+     * @param toDate the end of the period, exclusive, or {@code null}.
+     * @param pageable the pagination information.
+     * @return the slice of events.
+     */
+    public Slice<PersistentAuditEvent> findSliceByDates(Instant fromDate, Instant toDate, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<PersistentAuditEvent> content = findByDates(fromDate, toDate, pageable).getContent();
+            return new SliceImpl<>(content, pageable, false);
+        }
+        Sort.Direction direction = direction(pageable);
+        List<PersistentAuditEvent> content = new ArrayList<>();
+        long skip = pageable.getOffset();
+        int wanted = pageable.getPageSize() + 1;
+        for (String bucket : buckets(fromDate, toDate, direction)) {
+            if (content.size() >= wanted) {
+                break;
+            }
+            Query page = new Query(between(fromDate, toDate)).with(Sort.by(direction, DATE_FIELD, "id"))
+                .skip(skip).limit(wanted - content.size());
+            List<PersistentAuditEvent> found = mongoTemplate.find(page, PersistentAuditEvent.class, bucket);
+            if (found.isEmpty() && skip > 0) {
+                skip -= mongoTemplate.count(new Query(between(fromDate, toDate)).limit((int) Math.min(skip, Integer.MAX_VALUE)),
+                    PersistentAuditEvent.class, bucket);
+            } else {
+                content.addAll(found);
+                skip = 0;
+            }
+        }
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * Find the audit events of a principal, after a date and of a type.
+     *
+     * @param principal the principal.
+     * @param after the date after which the events happened.
+     * @param type the type of the events.
+     * @return the events, oldest first.
+     */
+    public List<PersistentAuditEvent> find(String principal, Instant after, String type) {
+        Query query = new Query(Criteria.where(DATE_FIELD).gt(after).and("principal").is(principal).and("auditEventType").is(type))
+            .with(Sort.by(DATE_FIELD));
+        return buckets(after, null).stream()
+            .flatMap(bucket -> mongoTemplate.find(query, PersistentAuditEvent.class, bucket).stream())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Find an audit event by id, in the bucket of the month of its id first.
+     *
+     * @param id the id of the event.
+     * @return the event, if found.
+     */
+    public Optional<PersistentAuditEvent> findById(String id) {
+        SortedMap<YearMonth, String> buckets = findBuckets();
+        List<String> candidates = new ArrayList<>(buckets.values());
+        Collections.reverse(candidates);
+        if (ObjectId.isValid(id)) {
+            String bucket = buckets.get(YearMonth.from(new ObjectId(id).getDate().toInstant().atOffset(ZoneOffset.UTC)));
+            if (bucket != null) {
+                candidates.remove(bucket);
+                candidates.add(0, bucket);
+            }
+        }
+        for (String bucket : candidates) {
+            PersistentAuditEvent event = mongoTemplate.findById(id, PersistentAuditEvent.class, bucket);
+            if (event != null) {
+                return Optional.of(event);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<String> buckets(Instant fromDate, Instant toDate, Sort.Direction direction) {
+        List<String> buckets = buckets(fromDate, toDate);
+        if (direction == Sort.Direction.DESC) {
+            Collections.reverse(buckets);
+        }
+        return buckets;
+    }
+
+    private static Sort.Direction direction(Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor(DATE_FIELD);
+        return order == null ? Sort.Direction.DESC : order.getDirection();
+    }
+
+    private List<String> buckets(Instant fromDate, Instant toDate) {
+        SortedMap<YearMonth, String> buckets = findBuckets();
+        if (fromDate != null) {
+            buckets = buckets.tailMap(YearMonth.from(fromDate.atOffset(ZoneOffset.UTC)));
+        }
+        if (toDate != null) {
+            buckets = buckets.headMap(YearMonth.from(toDate.atOffset(ZoneOffset.UTC)).plusMonths(1));
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private static Criteria between(Instant fromDate, Instant toDate) {
+        if (fromDate == null && toDate == null) {
+            return new Criteria();
+        }
+        Criteria criteria = Criteria.where(DATE_FIELD);
+        if (fromDate != null) {
+            criteria = criteria.gt(fromDate);
+        }
+        if (toDate != null) {
+            criteria = criteria.lt(toDate);
+        }
+        return criteria;
+    }
+
+    private String bucket(YearMonth month) {
+        return collection + "_" + month.format(MONTH_FORMAT);
+    }
+}
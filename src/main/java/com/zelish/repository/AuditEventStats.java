@@ -0,0 +1,210 @@
+package com.zelish.repository;
+
+import com.zelish.domain.PersistentAuditEvent;
+import com.zelish.domain.PersistentAuditEventStats;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The hourly statistics of the {@link PersistentAuditEvent}s, by type and principal.
+ * <p>
+ * The events are counted in memory as they are added, in one {@link LongAdder} per type, principal and hour. A
+ * counter is incremented within {@link Map#compute}, so that the flush removing the counter of a past hour cannot lose
+ * an increment made meanwhile. The counts are added to the {@link PersistentAuditEventStats} with {@code $inc}
+ * upserts at the flush interval, so that a statistics query reads one document per hour, type and principal whatever
+ * the number of events. The counts which cannot be written are kept for the next flush.
+ * <p>
+ * Only the events added since the statistics exist are counted, and the statistics lag behind them by up to the
+ * flush interval.
+ */
+@Repository
+public class AuditEventStats {
+
+    private static final String TYPE_FIELD = "event_type";
+
+    private static final String PRINCIPAL_FIELD = "principal";
+
+    private static final String HOUR_FIELD = "hour";
+
+    private static final String COUNT_FIELD = "count";
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventStats.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final String collection;
+
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public AuditEventStats(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.collection = mongoTemplate.getCollectionName(PersistentAuditEventStats.class);
+        Gauge.builder("audit.stats.pending", counters, Map::size)
+            .description("Hourly audit statistics counted in memory and not yet written")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Count an audit event.
+     *
+     * @param event the event.
+     */
+    public void count(PersistentAuditEvent event) {
+        Key key = new Key(event.getAuditEventType(), event.getPrincipal(),
+            event.getAuditEventDate().truncatedTo(ChronoUnit.HOURS));
+        counters.compute(key, (k, counter) -> {
+            LongAdder result = counter == null ? new LongAdder() : counter;
+            result.increment();
+            return result;
+        });
+    }
+
+    /**
+     * Add the counts of the events counted since the last flush to the statistics.
+     */
+    @Scheduled(fixedDelayString = "${application.audit.stats-flush-interval:10000}")
+    @PreDestroy
+    public synchronized void flush() {
+        Instant currentHour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        List<Key> keys = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        for (Map.Entry<Key, LongAdder> entry : counters.entrySet()) {
+            long count;
+            if (entry.getKey().hour.isBefore(currentHour.minus(1, ChronoUnit.HOURS))) {
+                // The events of the past hours are rare: their counter is removed, and recreated if needed.
+                long[] removed = new long[1];
+                counters.computeIfPresent(entry.getKey(), (k, counter) -> {
+                    removed[0] = counter.sum();
+                    return null;
+                });
+                count = removed[0];
+            } else {
+                LongAdder counter = entry.getValue();
+                count = counter.sum();
+                counter.add(-count);
+            }
+            if (count != 0) {
+                keys.add(entry.getKey());
+                counts.add(count);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<WriteModel<Document>> updates = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            updates.add(new UpdateOneModel<>(
+                Filters.and(Filters.eq(TYPE_FIELD, key.type), Filters.eq(HOUR_FIELD, Date.from(key.hour)),
+                    Filters.eq(PRINCIPAL_FIELD, key.principal)),
+                Updates.inc(COUNT_FIELD, counts.get(i)),
+                new UpdateOptions().upsert(true)));
+        }
+        try {
+            mongoTemplate.getCollection(collection).bulkWrite(updates, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            log.warn("Could not write {} of the hourly audit statistics, retrying later: {}",
+                e.getWriteErrors().size(), e.getMessage());
+            for (BulkWriteError error : e.getWriteErrors()) {
+                restore(keys.get(error.getIndex()), counts.get(error.getIndex()));
+            }
+        } catch (DataAccessException | MongoException e) {
+            log.warn("Could not write the hourly audit statistics, retrying later: {}", e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                restore(keys.get(i), counts.get(i));
+            }
+        }
+    }
+
+    /**
+     * Find the hourly statistics of the audit events between two dates.
+     *
+     * @param type the type of the events, or {@code null} for all the types.
+     * @param principal the principal of the events, or {@code null} for all the principals.
+     * @param fromDate the start of the period, inclusive.
+     * @param toDate the end of the period, exclusive.
+     * @return the statistics, by hour then type and principal.
+     */
+    public List<PersistentAuditEventStats> find(String type, String principal, Instant fromDate, Instant toDate) {
+        Criteria criteria = Criteria.where("hour").gte(fromDate).lt(toDate);
+        if (type != null) {
+            criteria = criteria.and("auditEventType").is(type);
+        }
+        if (principal != null) {
+            criteria = criteria.and("principal").is(principal);
+        }
+        return mongoTemplate.find(new Query(criteria).with(Sort.by("hour", "auditEventType", "principal")),
+            PersistentAuditEventStats.class);
+    }
+
+    private void restore(Key key, long count) {
+        counters.compute(key, (k, counter) -> {
+            LongAdder result = counter == null ? new LongAdder() : counter;
+            result.add(count);
+            return result;
+        });
+    }
+
+    private static final class Key {
+
+        private final String type;
+
+        private final String principal;
+
+        private final Instant hour;
+
+        private Key(String type, String principal, Instant hour) {
+            this.type = type;
+            this.principal = principal;
+            this.hour = hour;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(type, other.type) && Objects.equals(principal, other.principal) && hour.equals(other.hour);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, principal, hour);
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.zelish.repository;
+
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.PersistentAuditEvent;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the {@link PersistentAuditEvent}s in the background, by batch, so that the requests raising them do not wait
+ * for the database.
+ * <p>
+ * The events are put in a bounded lock-free ring buffer, and a single writer thread inserts them with
+ * {@code insertMany} and the configured write concern, when a batch is full or at the flush interval. When the buffer
+ * is full, the configured {@link ApplicationProperties.Audit.Overflow} policy applies. The batches which cannot be
+ * written are appended to the spill file, like the overflowing events of the {@code SPILL} policy; the spill file is
+ * written back once the buffer has room again. An event may then be written twice, the duplicates being ignored by id.
+ * <p>
+ * Once the writer is stopped, the events raised later during the shutdown are written on the calling thread.
+ * <p>
+ * The events go to the monthly bucket of their date when the {@link AuditEventBuckets} are enabled.
+ */
+@Component
+public class AuditEventWriter {
+
+    private static final String DATE_FIELD = "event_date";
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final AuditEventBuckets auditEventBuckets;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RingBuffer<PersistentAuditEvent> buffer;
+
+    private final int batchSize;
+
+    private final long flushIntervalNanos;
+
+    private final WriteConcern writeConcern;
+
+    private final ApplicationProperties.Audit.Overflow overflow;
+
+    private final Path spillFile;
+
+    private final Path replayFile;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Object spillLock = new Object();
+
+    private final Timer flushes;
+
+    private final Counter written;
+
+    private final Counter spilled;
+
+    private volatile Thread writer;
+
+    private volatile boolean running;
+
+    private volatile boolean stopped;
+
+    public AuditEventWriter(MongoTemplate mongoTemplate, AuditEventBuckets auditEventBuckets, MeterRegistry meterRegistry,
+            ApplicationProperties applicationProperties) {
+        ApplicationProperties.Audit properties = applicationProperties.getAudit();
+        this.mongoTemplate = mongoTemplate;
+        this.auditEventBuckets = auditEventBuckets;
+        this.meterRegistry = meterRegistry;
+        this.buffer = new RingBuffer<>(properties.getBufferSize());
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushInterval());
+        this.writeConcern = WriteConcern.valueOf(properties.getWriteConcern());
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown write concern " + properties.getWriteConcern());
+        }
+        this.overflow = properties.getOverflow();
+        this.spillFile = Paths.get(properties.getSpillFile());
+        this.replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+        Gauge.builder("audit.events.buffered", buffer, RingBuffer::size)
+            .description("Audit events waiting in the buffer of the writer")
+            .register(meterRegistry);
+        this.flushes = Timer.builder("audit.events.flushes")
+            .description("Writes of the buffered audit events")
+            .register(meterRegistry);
+        this.written = Counter.builder("audit.events.written")
+            .description("Audit events written to the database")
+            .register(meterRegistry);
+        this.spilled = Counter.builder("audit.events.spilled")
+            .description("Audit events appended to the spill file")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new CustomizableThreadFactory("audit-writer-").newThread(this::run);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer thread, once the buffered events are written.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer thread.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        flush();
+    }
+
+    /**
+     * Buffer an audit event, to be written in the background, or write it now once the writer is stopped.
+     *
+     * @param event the event.
+     */
+    public void write(PersistentAuditEvent event) {
+        if (stopped) {
+            insert(toDocuments(Collections.singletonList(event)));
+            return;
+        }
+        if (!buffer.offer(event)) {
+            overflow(event);
+        }
+        if (stopped) {
+            // Buffered while the writer was stopping, possibly after its last flush.
+            flush();
+            return;
+        }
+        if (buffer.size() >= batchSize) {
+            Thread thread = writer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Write the buffered events and the spill file now, on the calling thread.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PersistentAuditEvent> batch = new ArrayList<>(batchSize);
+            PersistentAuditEvent event;
+            while ((event = buffer.poll()) != null) {
+                batch.add(event);
+                if (batch.size() == batchSize) {
+                    insert(toDocuments(batch));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                insert(toDocuments(batch));
+            }
+            if (buffer.size() < buffer.capacity() / 2) {
+                replay();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Could not write the audit events", e);
+            }
+        }
+    }
+
+    private void overflow(PersistentAuditEvent event) {
+        switch (overflow) {
+            case BLOCK:
+                while (!buffer.offer(event)) {
+                    Thread thread = writer;
+                    if (!running || thread == null) {
+                        dropped("overflow").increment();
+                        return;
+                    }
+                    LockSupport.unpark(thread);
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                }
+                break;
+            case DROP_OLDEST:
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        dropped("overflow").increment();
+                    }
+                }
+                break;
+            case SPILL:
+            default:
+                spill(toDocuments(Collections.singletonList(event)));
+                break;
+        }
+    }
+
+    private List<Document> toDocuments(List<PersistentAuditEvent> events) {
+        List<Document> documents = new ArrayList<>(events.size());
+        for (PersistentAuditEvent event : events) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(event, document);
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    private void insert(List<Document> documents) {
+        long start = System.nanoTime();
+        try {
+            insertMany(documents);
+        } catch (DataAccessException | MongoException e) {
+            log.warn("Could not write {} audit events, spilling them: {}", documents.size(), e.getMessage());
+            spill(documents);
+        } finally {
+            flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Insert documents in the collections of their dates, ignoring those already written.
+     */
+    private void insertMany(List<Document> documents) {
+        Map<String, List<Document>> collections = new LinkedHashMap<>();
+        for (Document document : documents) {
+            Date date = document.getDate(DATE_FIELD);
+            collections.computeIfAbsent(auditEventBuckets.collectionFor(date == null ? Instant.now() : date.toInstant()),
+                collection -> new ArrayList<>()).add(document);
+        }
+        for (Map.Entry<String, List<Document>> entry : collections.entrySet()) {
+            MongoCollection<Document> collection = mongoTemplate.getCollection(entry.getKey()).withWriteConcern(writeConcern);
+            try {
+                collection.insertMany(entry.getValue(), new InsertManyOptions().ordered(false));
+                written.increment(entry.getValue().size());
+            } catch (MongoBulkWriteException e) {
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                        throw e;
+                    }
+                }
+                written.increment(entry.getValue().size() - e.getWriteErrors().size());
+            }
+        }
+    }
+
+    /**
+     * Append documents to the spill file. The documents have their id once written, so that writing them back is
+     * idempotent.
+     */
+    private void spill(List<Document> documents) {
+        for (Document document : documents) {
+            if (!document.containsKey("_id")) {
+                document.put("_id", new ObjectId());
+            }
+        }
+        synchronized (spillLock) {
+            try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Document document : documents) {
+                    out.write(document.toJson());
+                    out.newLine();
+                }
+                spilled.increment(documents.size());
+            } catch (IOException e) {
+                log.error("Could not spill {} audit events to {}: {}", documents.size(), spillFile, e.getMessage());
+                dropped("spill-failure").increment(documents.size());
+            }
+        }
+    }
+
+    /**
+     * Write back the spilled events. The spill file is first renamed, so that the events spilled meanwhile go to a new
+     * file; the renamed file is deleted once written, and written again by the next flush otherwise.
+     */
+    private void replay() {
+        try {
+            if (!Files.exists(replayFile)) {
+                synchronized (spillLock) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile);
+                }
+            }
+            int replayed = 0;
+            List<Document> batch = new ArrayList<>(batchSize);
+            try (BufferedReader in = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        batch.add(Document.parse(line));
+                    }
+                    if (batch.size() == batchSize) {
+                        replayed += replay(batch);
+                    }
+                }
+            }
+            replayed += replay(batch);
+            Files.delete(replayFile);
+            log.info("Wrote back {} spilled audit events", replayed);
+        } catch (IOException | DataAccessException | MongoException e) {
+            log.warn("Could not write back the spilled audit events of {}: {}", replayFile, e.getMessage());
+        }
+    }
+
+    private int replay(List<Document> batch) {
+        int size = batch.size();
+        if (size > 0) {
+            insertMany(batch);
+        }
+        batch.clear();
+        return size;
+    }
+
+    private Counter dropped(String reason) {
+        return Counter.builder("audit.events.dropped")
+            .description("Audit events lost, by reason")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A bounded multi-producer multi-consumer queue, whose slots carry a sequence number telling whether they are
+     * ready to be written or read, so that the producers and the consumers only compete through compare-and-set.
+     */
+    static final class RingBuffer<E> {
+
+        private final AtomicReferenceArray<E> elements;
+
+        private final AtomicLongArray sequences;
+
+        private final int mask;
+
+        private final AtomicLong head = new AtomicLong();
+
+        private final AtomicLong tail = new AtomicLong();
+
+        RingBuffer(int capacity) {
+            int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+            this.elements = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            this.mask = size - 1;
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(E element) {
+            long position;
+            int index;
+            while (true) {
+                position = tail.get();
+                index = (int) (position & mask);
+                long available = sequences.get(index) - position;
+                if (available == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        break;
+                    }
+                } else if (available < 0) {
+                    return false;
+                }
+            }
+            elements.set(index, element);
+            sequences.set(index, position + 1);
+            return true;
+        }
+
+        E poll() {
+            long position;
+            int index;
+            while (true) {
+                position = head.get();
+                index = (int) (position & mask);
+                long available = sequences.get(index) - (position + 1);
+                if (available == 0) {
+                    if (head.compareAndSet(position, position + 1)) {
+                        break;
+                    }
+                } else if (available < 0) {
+                    return null;
+                }
+            }
+            E element = elements.getAndSet(index, null);
+            sequences.set(index, position + mask + 1);
+            return element;
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.zelish.repository;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Filters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link DefaultDbRefResolver} able to resolve the {@code @DBRef}s of a whole batch of documents
+ * with a single {@code $in} query per referenced collection.
+ * <p>
+ * Inside {@link #readAll(List, Function)} the references of the given documents are prefetched up to
+ * the configured depth; the mapping converter then resolves them from that batch instead of issuing
+ * one round trip per reference. Outside of a batch, it behaves exactly like the default resolver.
+ * <p>
+ * The references missing from the batch are first looked up in the {@link DocumentCache}, and the documents
+ * read from the database are added to it, so that the frequently referenced documents are read once.
+ * <p>
+ * Inside a {@link SecondaryReads} scope the documents are read from the secondaries, and are not cached: a lagging
+ * secondary could return a document older than the last eviction.
+ */
+public class BatchingDbRefResolver extends DefaultDbRefResolver {
+
+    private static final String METRIC_RESOLVED = "mongo.dbref.resolved";
+
+    private static final String METRIC_QUERIES = "mongo.dbref.queries";
+
+    private final Logger log = LoggerFactory.getLogger(BatchingDbRefResolver.class);
+
+    private final MongoDbFactory mongoDbFactory;
+
+    private final DocumentCache documentCache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int prefetchDepth;
+
+    private final ThreadLocal<Map<String, Map<Object, Document>>> batch = new ThreadLocal<>();
+
+    public BatchingDbRefResolver(MongoDbFactory mongoDbFactory, DocumentCache documentCache, MeterRegistry meterRegistry,
+            int prefetchDepth) {
+        super(mongoDbFactory);
+        this.mongoDbFactory = mongoDbFactory;
+        this.documentCache = documentCache;
+        this.meterRegistry = meterRegistry;
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Read a batch of raw documents, resolving their references from a shared prefetch.
+     *
+     * @param documents the raw documents to read.
+     * @param reader the function mapping a raw document to an entity, usually {@code MongoConverter#read}.
+     * @param <T> the entity type.
+     * @return the mapped entities, in the same order as the documents.
+     */
+    public <T> List<T> readAll(List<Document> documents, Function<Document, T> reader) {
+        if (batch.get() != null) {
+            // Already inside a batch: the outer prefetch is reused.
+            return documents.stream().map(reader).collect(Collectors.toList());
+        }
+        batch.set(new HashMap<>());
+        try {
+            prefetch(documents);
+            return documents.stream().map(reader).collect(Collectors.toList());
+        } finally {
+            batch.remove();
+        }
+    }
+
+    /**
+     * Find a raw document by id, from the document cache if possible.
+     *
+     * @param collection the collection name.
+     * @param id the stored id of the document.
+     * @return the document, or {@code null} if there is none.
+     */
+    public Document findById(String collection, Object id) {
+        Document document = documentCache.get(collection, id);
+        if (document == null) {
+            long version = documentCache.version(collection);
+            document = SecondaryReads.getDatabase(mongoDbFactory).getCollection(collection).find(Filters.eq("_id", id)).first();
+            cache(collection, document, version);
+        }
+        return document;
+    }
+
+    @Override
+    public Document fetch(DBRef dbRef) {
+        String collection = dbRef.getCollectionName();
+        Map<Object, Document> documents = prefetched(collection);
+        if (documents != null && documents.containsKey(dbRef.getId())) {
+            resolved(collection, "batch", 1);
+            return documents.get(dbRef.getId());
+        }
+        Document document = documentCache.get(collection, dbRef.getId());
+        if (document != null) {
+            resolved(collection, "cache", 1);
+            return document;
+        }
+        queried(collection);
+        resolved(collection, "single", 1);
+        long version = documentCache.version(collection);
+        document = SecondaryReads.isActive()
+            ? SecondaryReads.getDatabase(mongoDbFactory).getCollection(collection).find(Filters.eq("_id", dbRef.getId())).first()
+            : super.fetch(dbRef);
+        cache(collection, document, version);
+        return document;
+    }
+
+    @Override
+    public List<Document> bulkFetch(List<DBRef> refs) {
+        if (refs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String collection = refs.get(0).getCollectionName();
+        Map<Object, Document> documents = prefetched(collection);
+        List<Object> unbatched = new ArrayList<>();
+        for (DBRef ref : refs) {
+            if (documents == null || !documents.containsKey(ref.getId())) {
+                unbatched.add(ref.getId());
+            }
+        }
+        resolved(collection, "batch", refs.size() - unbatched.size());
+        Map<Object, Document> found = new HashMap<>(documentCache.getAll(collection, unbatched));
+        List<DBRef> missing = new ArrayList<>();
+        for (DBRef ref : refs) {
+            if ((documents == null || !documents.containsKey(ref.getId())) && !found.containsKey(ref.getId())) {
+                missing.add(ref);
+            }
+        }
+        resolved(collection, "cache", unbatched.size() - missing.size());
+        if (!missing.isEmpty()) {
+            queried(collection);
+            resolved(collection, "single", missing.size());
+            long version = documentCache.version(collection);
+            for (Document document : bulkFetch(collection, missing)) {
+                found.put(document.get("_id"), document);
+                cache(collection, document, version);
+            }
+        }
+        List<Document> result = new ArrayList<>(refs.size());
+        for (DBRef ref : refs) {
+            Document document = found.containsKey(ref.getId()) || documents == null ? found.get(ref.getId()) : documents.get(ref.getId());
+            if (document != null) {
+                result.add(document);
+            }
+        }
+        return result;
+    }
+
+    private void prefetch(List<Document> documents) {
+        Map<String, Map<Object, Document>> prefetched = batch.get();
+        Map<String, Set<Object>> pending = new HashMap<>();
+        documents.forEach(document -> collectReferences(document, pending));
+        for (int depth = 0; depth < prefetchDepth && !pending.isEmpty(); depth++) {
+            Map<String, Set<Object>> next = new HashMap<>();
+            for (Map.Entry<String, Set<Object>> entry : pending.entrySet()) {
+                Map<Object, Document> known = prefetched.computeIfAbsent(entry.getKey(), key -> new HashMap<>());
+                Set<Object> ids = entry.getValue();
+                ids.removeAll(known.keySet());
+                for (Document document : documentCache.getAll(entry.getKey(), ids).values()) {
+                    known.put(document.get("_id"), document);
+                    collectReferences(document, next);
+                }
+                ids.removeAll(known.keySet());
+                if (ids.isEmpty()) {
+                    continue;
+                }
+                queried(entry.getKey());
+                log.trace("Prefetching {} references from {}", ids.size(), entry.getKey());
+                ids.forEach(id -> known.put(id, null));
+                long version = documentCache.version(entry.getKey());
+                for (Document document : SecondaryReads.getDatabase(mongoDbFactory).getCollection(entry.getKey())
+                        .find(Filters.in("_id", ids))) {
+                    known.put(document.get("_id"), document);
+                    cache(entry.getKey(), document, version);
+                    collectReferences(document, next);
+                }
+            }
+            pending = next;
+        }
+    }
+
+    private Iterable<Document> bulkFetch(String collection, List<DBRef> refs) {
+        if (!SecondaryReads.isActive()) {
+            return super.bulkFetch(refs);
+        }
+        List<Object> ids = refs.stream().map(DBRef::getId).collect(Collectors.toList());
+        return SecondaryReads.getDatabase(mongoDbFactory).getCollection(collection).find(Filters.in("_id", ids));
+    }
+
+    private void cache(String collection, Document document, long version) {
+        if (!SecondaryReads.isActive()) {
+            documentCache.put(collection, document, version);
+        }
+    }
+
+    private Map<Object, Document> prefetched(String collection) {
+        Map<String, Map<Object, Document>> prefetched = batch.get();
+        return prefetched == null ? null : prefetched.get(collection);
+    }
+
+    private static void collectReferences(Object value, Map<String, Set<Object>> references) {
+        if (value instanceof DBRef) {
+            DBRef ref = (DBRef) value;
+            references.computeIfAbsent(ref.getCollectionName(), key -> new HashSet<>()).add(ref.getId());
+        } else if (value instanceof Document) {
+            ((Document) value).values().forEach(nested -> collectReferences(nested, references));
+        } else if (value instanceof Collection) {
+            ((Collection<?>) value).forEach(nested -> collectReferences(nested, references));
+        }
+    }
+
+    private void resolved(String collection, String source, int count) {
+        if (count > 0) {
+            Counter.builder(METRIC_RESOLVED)
+                .description("Number of resolved DBRefs")
+                .tag("collection", collection)
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment(count);
+        }
+    }
+
+    private void queried(String collection) {
+        Counter.builder(METRIC_QUERIES)
+            .description("Number of queries issued to resolve DBRefs")
+            .tag("collection", collection)
+            .register(meterRegistry)
+            .increment();
+    }
+}
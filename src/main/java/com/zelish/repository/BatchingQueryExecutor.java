@@ -0,0 +1,344 @@
+package com.zelish.repository;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Runs entity queries whose {@code @DBRef}s are resolved in batch by the {@link BatchingDbRefResolver}.
+ * <p>
+ * The query is mapped and executed against the raw collection, then all documents of the result are
+ * converted together, so that a page costs one query per referenced collection instead of one per reference.
+ */
+@Component
+public class BatchingQueryExecutor {
+
+    private static final String ID_FIELD = "_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final BatchingDbRefResolver dbRefResolver;
+
+    private final QueryMapper queryMapper;
+
+    public BatchingQueryExecutor(MongoTemplate mongoTemplate, BatchingDbRefResolver dbRefResolver) {
+        this.mongoTemplate = mongoTemplate;
+        this.dbRefResolver = dbRefResolver;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    /**
+     * Find the entities matching a query.
+     *
+     * @param query the query, with its sort, skip, limit and projection.
+     * @param entityClass the entity type.
+     * @param <T> the entity type.
+     * @return the list of entities.
+     */
+    public <T> List<T> find(Query query, Class<T> entityClass) {
+        MongoPersistentEntity<?> entity = getEntity(entityClass);
+        FindIterable<Document> iterable = mongoTemplate.getCollection(entity.getCollection())
+            .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+            .projection(getMappedFields(query, entity))
+            .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+            .skip((int) query.getSkip());
+        if (query.getLimit() > 0) {
+            iterable = iterable.limit(query.getLimit());
+        }
+        return read(iterable.into(new ArrayList<>()), entityClass);
+    }
+
+    /**
+     * Find an entity by id, reading its document and the documents it references from the {@link DocumentCache}
+     * when they are cached.
+     *
+     * @param id the id of the entity.
+     * @param entityClass the entity type.
+     * @param <T> the entity type.
+     * @return the entity, if found.
+     */
+    public <T> Optional<T> findById(Object id, Class<T> entityClass) {
+        MongoPersistentEntity<?> entity = getEntity(entityClass);
+        Document document = dbRefResolver.findById(entity.getCollection(), queryMapper.convertId(id));
+        return document == null ? Optional.empty() : Optional.of(read(Collections.singletonList(document), entityClass).get(0));
+    }
+
+    /**
+     * Find a slice of the entities matching a query, without counting them.
+     *
+     * @param query the query, without pagination; it is modified to fetch the requested slice.
+     * @param pageable the pagination information.
+     * @param entityClass the entity type.
+     * @param <T> the entity type.
+     * @return the slice of entities.
+     */
+    public <T> Slice<T> findSlice(Query query, Pageable pageable, Class<T> entityClass) {
+        return toSlice(find(query.with(pageable).limit(pageable.getPageSize() + 1), entityClass), pageable);
+    }
+
+    /**
+     * Build a slice from the entities fetched with one more than its size, the extra one telling there is a next slice.
+     *
+     * @param content the entities of the slice, and possibly the first entity of the next one.
+     * @param pageable the pagination information.
+     * @param <T> the entity type.
+     * @return the slice.
+     */
+    public static <T> Slice<T> toSlice(List<T> content, Pageable pageable) {
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * Find a slice of the entities matching a query, seeking past the key of the previous slice.
+     * <p>
+     * The id is appended to the sort to make it total, and the slice starts right after the given key,
+     * so that with an index on the sort fields any slice costs the same as the first one, and does not
+     * shift when entities are inserted before it.
+     *
+     * @param query the query, without pagination; its projection is extended with the sort fields.
+     * @param pageable the size and sort of the slice; its page number is ignored.
+     * @param after the {@link KeysetSlice#getNextKey() next key} of the previous slice, or {@code null} for the first slice.
+     * @param entityClass the entity type.
+     * @param <T> the entity type.
+     * @return the slice of entities.
+     * @throws IllegalArgumentException if the key does not match the sort.
+     */
+    public <T> KeysetSlice<T> findSlice(Query query, Pageable pageable, List<Object> after, Class<T> entityClass) {
+        MongoPersistentEntity<?> entity = getEntity(entityClass);
+        Document sort = new Document(queryMapper.getMappedSort(new Query().with(pageable.getSort()).getSortObject(), entity));
+        if (!sort.containsKey(ID_FIELD)) {
+            sort.append(ID_FIELD, 1);
+        }
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        if (after != null) {
+            filter = new Document("$and", Arrays.asList(filter, seek(sort, after)));
+        }
+        Document fields = getMappedFields(query, entity);
+        if (!fields.isEmpty()) {
+            for (String field : sort.keySet()) {
+                fields.append(field, 1);
+            }
+        }
+        List<Document> documents = mongoTemplate.getCollection(entity.getCollection())
+            .find(filter)
+            .projection(fields)
+            .sort(sort)
+            .limit(pageable.getPageSize() + 1)
+            .into(new ArrayList<>());
+        List<Object> nextKey = null;
+        if (documents.size() > pageable.getPageSize()) {
+            documents = documents.subList(0, pageable.getPageSize());
+            Document last = documents.get(documents.size() - 1);
+            nextKey = new ArrayList<>();
+            for (String field : sort.keySet()) {
+                nextKey.add(value(last, field));
+            }
+        }
+        return new KeysetSlice<>(read(documents, entityClass), pageable, nextKey);
+    }
+
+    /**
+     * Run an aggregation whose output documents are entities of the given type.
+     * <p>
+     * The stages exceeding the memory limit of the server, such as a large {@code $sort}, may spill to disk.
+     *
+     * @param pipeline the aggregation pipeline, with mapped field names.
+     * @param entityClass the entity type, whose collection is aggregated.
+     * @param <T> the entity type.
+     * @return the list of entities.
+     */
+    public <T> List<T> aggregate(List<Document> pipeline, Class<T> entityClass) {
+        List<Document> documents = mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass))
+            .aggregate(pipeline)
+            .allowDiskUse(true)
+            .into(new ArrayList<>());
+        return read(documents, entityClass);
+    }
+
+    /**
+     * Stream the entities matching a query from a cursor.
+     * <p>
+     * The documents are fetched and converted by batch, so that only one batch of entities is held at a time
+     * and the references of a batch cost one query per referenced collection.
+     *
+     * @param query the query, with its sort and projection.
+     * @param batchSize the number of documents fetched and converted together.
+     * @param entityClass the entity type.
+     * @param <T> the entity type.
+     * @return the entities, to be closed once consumed.
+     */
+    public <T> CloseableIterator<T> stream(Query query, int batchSize, Class<T> entityClass) {
+        MongoPersistentEntity<?> entity = getEntity(entityClass);
+        MongoCursor<Document> cursor = mongoTemplate.getCollection(entity.getCollection())
+            .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+            .projection(getMappedFields(query, entity))
+            .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+            .batchSize(batchSize)
+            .iterator();
+        return new BatchingIterator<>(cursor, batchSize, entityClass);
+    }
+
+    /**
+     * Find a page of the entities matching a query.
+     *
+     * @param query the query, without pagination; it is modified to fetch the requested page.
+     * @param pageable the pagination information.
+     * @param entityClass the entity type.
+     * @param <T> the entity type.
+     * @return the page of entities.
+     */
+    public <T> Page<T> findPage(Query query, Pageable pageable, Class<T> entityClass) {
+        Document filter = query.getQueryObject();
+        List<T> content = find(query.with(pageable), entityClass);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(new BasicQuery(filter), entityClass));
+    }
+
+    /**
+     * Build a query returning only some properties of the entities.
+     * <p>
+     * The {@code @DBRef}s left out of the projection are not fetched, and the other properties of the entities are
+     * left {@code null}.
+     *
+     * @param fields the names of the properties to return, the id is always returned; all properties when empty.
+     * @return the query.
+     */
+    public static Query projecting(Collection<String> fields) {
+        Query query = new Query();
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+        return query;
+    }
+
+    /**
+     * Map the projection of a query from property names to field names. Only top-level properties can be projected.
+     */
+    private static Document getMappedFields(Query query, MongoPersistentEntity<?> entity) {
+        Document fields = new Document();
+        for (Map.Entry<String, Object> field : query.getFieldsObject().entrySet()) {
+            MongoPersistentProperty property = entity.getPersistentProperty(field.getKey());
+            fields.append(property == null ? field.getKey() : property.getFieldName(), field.getValue());
+        }
+        return fields;
+    }
+
+    private MongoPersistentEntity<?> getEntity(Class<?> entityClass) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+    }
+
+    private <T> List<T> read(List<Document> documents, Class<T> entityClass) {
+        MongoConverter converter = mongoTemplate.getConverter();
+        return dbRefResolver.readAll(documents, document -> converter.read(entityClass, document));
+    }
+
+    /**
+     * Build the filter matching the documents sorted after a key: for each sort field, the documents equal
+     * to the key on the previous fields and strictly after it on this one. Missing values sort first.
+     */
+    private static Document seek(Document sort, List<Object> after) {
+        if (after.size() != sort.size()) {
+            throw new IllegalArgumentException("The key " + after + " does not match the sort " + sort);
+        }
+        List<String> fields = new ArrayList<>(sort.keySet());
+        List<Document> branches = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            Object value = after.get(i);
+            boolean ascending = ((Number) sort.get(field)).intValue() > 0;
+            Document branch = new Document();
+            for (int j = 0; j < i; j++) {
+                branch.append(fields.get(j), after.get(j));
+            }
+            if (value == null) {
+                if (!ascending) {
+                    continue;
+                }
+                branch.append(field, new Document("$ne", null));
+            } else if (ascending) {
+                branch.append(field, new Document("$gt", value));
+            } else {
+                branch.append("$or", Arrays.asList(new Document(field, new Document("$lt", value)), new Document(field, null)));
+            }
+            branches.add(branch);
+        }
+        return branches.isEmpty() ? new Document(ID_FIELD, new Document("$exists", false)) : new Document("$or", branches);
+    }
+
+    private static Object value(Document document, String field) {
+        Object value = document;
+        for (String part : field.split("\\.")) {
+            value = value instanceof Document ? ((Document) value).get(part) : null;
+        }
+        return value;
+    }
+
+    /**
+     * Iterates over a cursor, converting its documents by batch.
+     */
+    private class BatchingIterator<T> implements CloseableIterator<T> {
+
+        private final MongoCursor<Document> cursor;
+
+        private final int batchSize;
+
+        private final Class<T> entityClass;
+
+        private Iterator<T> batch = Collections.emptyIterator();
+
+        BatchingIterator(MongoCursor<Document> cursor, int batchSize, Class<T> entityClass) {
+            this.cursor = cursor;
+            this.batchSize = batchSize;
+            this.entityClass = entityClass;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!batch.hasNext() && cursor.hasNext()) {
+                List<Document> documents = new ArrayList<>(batchSize);
+                while (documents.size() < batchSize && cursor.hasNext()) {
+                    documents.add(cursor.next());
+                }
+                batch = read(documents, entityClass).iterator();
+            }
+            return batch.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.next();
+        }
+
+        @Override
+        public void close() {
+            cursor.close();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.zelish.repository;
 
 import com.zelish.config.Constants;
 import com.zelish.config.audit.AuditEventConverter;
+import com.zelish.domain.AuditEventData;
 import com.zelish.domain.PersistentAuditEvent;
 
 import org.slf4j.Logger;
@@ -9,14 +10,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
 
 /**
  * An implementation of Spring Boot's {@link AuditEventRepository}.
+ * <p>
+ * The events are written in the background by the {@link AuditEventWriter}, so that they are found a little after
+ * they were added. They are counted in the hourly {@link AuditEventStats} as they are added.
  */
 @Repository
 public class CustomAuditEventRepository implements AuditEventRepository {
@@ -32,24 +34,34 @@ public class CustomAuditEventRepository implements AuditEventRepository {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventWriter auditEventWriter;
+
+    private final AuditEventBuckets auditEventBuckets;
+
+    private final AuditEventStats auditEventStats;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     public CustomAuditEventRepository(PersistenceAuditEventRepository persistenceAuditEventRepository,
-            AuditEventConverter auditEventConverter) {
+            AuditEventConverter auditEventConverter, AuditEventWriter auditEventWriter, AuditEventBuckets auditEventBuckets,
+            AuditEventStats auditEventStats) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.auditEventWriter = auditEventWriter;
+        this.auditEventBuckets = auditEventBuckets;
+        this.auditEventStats = auditEventStats;
     }
 
     @Override
     public List<AuditEvent> find(String principal, Instant after, String type) {
-        Iterable<PersistentAuditEvent> persistentAuditEvents =
-            persistenceAuditEventRepository.findByPrincipalAndAuditEventDateAfterAndAuditEventType(principal, after, type);
+        Iterable<PersistentAuditEvent> persistentAuditEvents = auditEventBuckets.isEnabled()
+            ? auditEventBuckets.find(principal, after, type)
+            : persistenceAuditEventRepository.findByPrincipalAndAuditEventDateAfterAndAuditEventType(principal, after, type);
         return auditEventConverter.convertToAuditEvent(persistentAuditEvents);
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void add(AuditEvent event) {
         if (!AUTHORIZATION_FAILURE.equals(event.getType()) &&
             !Constants.ANONYMOUS_USER.equals(event.getPrincipal())) {
@@ -60,7 +72,8 @@ public class CustomAuditEventRepository implements AuditEventRepository {
             persistentAuditEvent.setAuditEventDate(event.getTimestamp());
             Map<String, String> eventData = auditEventConverter.convertDataToStrings(event.getData());
             persistentAuditEvent.setData(truncate(eventData));
-            persistenceAuditEventRepository.save(persistentAuditEvent);
+            auditEventWriter.write(persistentAuditEvent);
+            auditEventStats.count(persistentAuditEvent);
         }
     }
 
@@ -68,7 +81,7 @@ public class CustomAuditEventRepository implements AuditEventRepository {
      * Truncate event data that might exceed column length.
      */
     private Map<String, String> truncate(Map<String, String> data) {
-        Map<String, String> results = new HashMap<>();
+        AuditEventData.Builder results = AuditEventData.builder();
 
         if (data != null) {
             for (Map.Entry<String, String> entry : data.entrySet()) {
@@ -84,6 +97,6 @@ public class CustomAuditEventRepository implements AuditEventRepository {
                 results.put(entry.getKey(), value);
             }
         }
-        return results;
+        return results.build().asMap();
     }
 }
@@ -0,0 +1,121 @@
+package com.zelish.repository;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_ID_FIELD;
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_PATH_FIELD;
+
+/**
+ * The secondary indexes expected on each collection.
+ * <p>
+ * They are created by the {@code IndexMigration} change log and checked against the live indexes at startup,
+ * so an index is added by declaring it here. Indexes are compared by keys and options, not by name, except for the
+ * {@link #AUDIT_TTL_INDEX}.
+ */
+public final class DeclaredIndexes {
+
+    /**
+     * The name of the TTL index of the audit events, whose expiry is configured: it is managed by
+     * {@code AuditRetentionService} rather than declared here.
+     */
+    public static final String AUDIT_TTL_INDEX = "event_date_ttl";
+
+    private static final Map<String, List<Index>> INDEXES = new LinkedHashMap<>();
+
+    static {
+        declare("employee",
+            new Index().on("hire_date", Sort.Direction.ASC),
+            new Index().on("department", Sort.Direction.ASC).on("hire_date", Sort.Direction.ASC),
+            new Index().on("job", Sort.Direction.ASC),
+            new Index().on(MANAGER_ID_FIELD, Sort.Direction.ASC),
+            new Index().on(MANAGER_PATH_FIELD, Sort.Direction.ASC),
+            new Index().on("email", Sort.Direction.ASC));
+        declare("employee_view",
+            new Index().on("department_id", Sort.Direction.ASC),
+            new Index().on("jobs.job_id", Sort.Direction.ASC));
+        declare("job_history",
+            new Index().on("start_date", Sort.Direction.DESC),
+            new Index().on("employee", Sort.Direction.ASC).on("start_date", Sort.Direction.DESC),
+            new Index().on("department", Sort.Direction.ASC).on("start_date", Sort.Direction.DESC),
+            new Index().on("job", Sort.Direction.ASC));
+        declare("job",
+            new Index().on("job_title", Sort.Direction.ASC),
+            new Index().on("employee", Sort.Direction.ASC));
+        declare("department",
+            new Index().on("department_name", Sort.Direction.ASC),
+            new Index().on("location", Sort.Direction.ASC));
+        declare("salary_rollup",
+            new Index().on("dimension", Sort.Direction.ASC));
+        declare("jhi_persistent_audit_event",
+            new Index().on("event_date", Sort.Direction.DESC),
+            new Index().on("principal", Sort.Direction.ASC).on("event_date", Sort.Direction.DESC),
+            new Index().on("principal", Sort.Direction.ASC).on("event_type", Sort.Direction.ASC).on("event_date", Sort.Direction.DESC));
+        declare("jhi_persistent_audit_event_stats",
+            new Index().on("event_type", Sort.Direction.ASC).on("hour", Sort.Direction.ASC).on("principal", Sort.Direction.ASC).unique(),
+            new Index().on("principal", Sort.Direction.ASC).on("hour", Sort.Direction.ASC));
+        declare("mail_outbox",
+            new Index().on("status", Sort.Direction.ASC).on("next_attempt_date", Sort.Direction.ASC));
+        declare("jhi_user",
+            new Index().on("login", Sort.Direction.ASC),
+            new Index().on("email", Sort.Direction.ASC));
+    }
+
+    private DeclaredIndexes() {
+    }
+
+    /**
+     * @return the declared indexes, by collection name.
+     */
+    public static Map<String, List<Index>> all() {
+        return Collections.unmodifiableMap(INDEXES);
+    }
+
+    /**
+     * @param index a declared index.
+     * @return the signature of the index, to be compared with {@link #signature(Document)}.
+     */
+    public static String signature(Index index) {
+        Document options = new Document(index.getIndexOptions());
+        options.put("key", index.getIndexKeys());
+        return signature(options);
+    }
+
+    /**
+     * @param index a live index, as listed by the {@code listIndexes} command.
+     * @return the signature of the index, made of its ordered keys and of the options changing its behavior.
+     */
+    public static String signature(Document index) {
+        StringJoiner signature = new StringJoiner("_");
+        for (Map.Entry<String, Object> key : index.get("key", Document.class).entrySet()) {
+            Object direction = key.getValue();
+            signature.add(key.getKey()).add(direction instanceof Number ? String.valueOf(((Number) direction).intValue()) : String.valueOf(direction));
+        }
+        StringBuilder result = new StringBuilder(signature.toString());
+        if (Boolean.TRUE.equals(index.get("unique"))) {
+            result.append(" unique");
+        }
+        if (Boolean.TRUE.equals(index.get("sparse"))) {
+            result.append(" sparse");
+        }
+        Object expireAfterSeconds = index.get("expireAfterSeconds");
+        if (expireAfterSeconds instanceof Number) {
+            result.append(" expireAfterSeconds=").append(((Number) expireAfterSeconds).longValue());
+        }
+        return result.toString();
+    }
+
+    private static void declare(String collection, Index... indexes) {
+        List<Index> declared = new ArrayList<>();
+        Collections.addAll(declared, indexes);
+        INDEXES.put(collection, declared);
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 
 /**
  * Spring Data MongoDB repository for the Department entity.
@@ -13,4 +14,11 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface DepartmentRepository extends MongoRepository<Department, String> {
 
+    /**
+     * Get all the departments without their employees, as listed by the department endpoint.
+     *
+     * @return the list of entities.
+     */
+    @Query(value = "{}", fields = "{ 'employee': 0 }")
+    List<Department> findAllWithoutEmployees();
 }
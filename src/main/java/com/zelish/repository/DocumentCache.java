@@ -0,0 +1,131 @@
+package com.zelish.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.Document;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of raw documents by collection and id, shared by the lookups by id and the {@code @DBRef} resolution.
+ * <p>
+ * Each cached collection has its own size- and time-bounded Caffeine cache, whose W-TinyLFU policy keeps the
+ * frequently referenced documents, such as departments and jobs. The entries are evicted on write by
+ * {@link com.zelish.service.DocumentCacheEventListener}; the time to live bounds the staleness of the documents
+ * written by other instances or by raw updates.
+ * <p>
+ * The documents are shared between threads and must not be modified.
+ */
+public class DocumentCache {
+
+    private final Map<String, Cache<Object, Document>> caches = new HashMap<>();
+
+    private final Map<String, AtomicLong> versions = new HashMap<>();
+
+    public DocumentCache(MeterRegistry meterRegistry, Collection<String> collections, long maximumSize, Duration timeToLive) {
+        for (String collection : collections) {
+            Cache<Object, Document> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, collection);
+            caches.put(collection, cache);
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    /**
+     * Get a cached document.
+     *
+     * @param collection the collection name.
+     * @param id the stored id of the document.
+     * @return the document, or {@code null} if it is not cached.
+     */
+    public Document get(String collection, Object id) {
+        Cache<Object, Document> cache = caches.get(collection);
+        return cache == null ? null : cache.getIfPresent(id);
+    }
+
+    /**
+     * Get the cached documents among some ids.
+     *
+     * @param collection the collection name.
+     * @param ids the stored ids of the documents.
+     * @return the cached documents by id.
+     */
+    public Map<Object, Document> getAll(String collection, Iterable<?> ids) {
+        Cache<Object, Document> cache = caches.get(collection);
+        return cache == null ? Collections.emptyMap() : cache.getAllPresent(ids);
+    }
+
+    /**
+     * Get the version of a collection, to be passed to {@link #put(String, Document, long)} for documents read
+     * after this call.
+     *
+     * @param collection the collection name.
+     * @return the number of evictions of the collection so far.
+     */
+    public long version(String collection) {
+        AtomicLong version = versions.get(collection);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Cache a document read from the database, unless an entry of its collection was evicted since it was read:
+     * the read may then have returned the document as it was before the write.
+     *
+     * @param collection the collection name.
+     * @param document the document, with its id.
+     * @param version the version of the collection before the document was read.
+     */
+    public void put(String collection, Document document, long version) {
+        Cache<Object, Document> cache = caches.get(collection);
+        if (cache == null || document == null) {
+            return;
+        }
+        AtomicLong current = versions.get(collection);
+        if (current.get() == version) {
+            Object id = document.get("_id");
+            cache.put(id, document);
+            if (current.get() != version) {
+                // Evicted while being put.
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    /**
+     * Evict a document after a write.
+     *
+     * @param collection the collection name.
+     * @param id the stored id of the document.
+     */
+    public void evict(String collection, Object id) {
+        Cache<Object, Document> cache = caches.get(collection);
+        if (cache != null) {
+            versions.get(collection).incrementAndGet();
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Evict all the documents of a collection, after a write not by id.
+     *
+     * @param collection the collection name.
+     */
+    public void evictAll(String collection) {
+        Cache<Object, Document> cache = caches.get(collection);
+        if (cache != null) {
+            versions.get(collection).incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+}
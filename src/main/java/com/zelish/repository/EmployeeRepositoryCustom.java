@@ -0,0 +1,113 @@
+package com.zelish.repository;
+
+import com.zelish.domain.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom queries for the Employee entity, not derivable by Spring Data.
+ * <p>
+ * The reporting hierarchy is queried through two persistence-only fields, maintained on every save
+ * by {@link com.zelish.service.EmployeeHierarchyEventListener}: the plain id of the manager, which
+ * {@code $graphLookup} can follow, and the materialized path of the managers from the root.
+ */
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Field holding the id of the manager of an employee.
+     */
+    String MANAGER_ID_FIELD = "manager_id";
+
+    /**
+     * Field holding the ids of the managers of an employee from the root, as {@code /rootId/.../managerId/}.
+     */
+    String MANAGER_PATH_FIELD = "manager_path";
+
+    /**
+     * Get the "id" employee, reading it and its references from the document cache when they are cached.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    Optional<Employee> findOneWithBatchedReferences(String id);
+
+    /**
+     * Get a page of employees, resolving their references with one query per referenced collection.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the page of entities.
+     */
+    Page<Employee> findAllWithBatchedReferences(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of employees, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    Slice<Employee> findSliceWithBatchedReferences(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of employees by keyset, resolving their references with one query per referenced collection.
+     *
+     * @param after the next key of the previous slice, or {@code null} for the first slice.
+     * @param pageable the size and sort of the slice.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    KeysetSlice<Employee> findAllAfter(List<Object> after, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of the direct and indirect reports of an employee, down to a number of levels.
+     *
+     * @param id the id of the manager.
+     * @param depth the number of levels, 1 meaning the direct reports only.
+     * @param pageable the size and number of the slice; the reports are always ordered by level.
+     * @return the slice of reports.
+     */
+    Slice<Employee> findReports(String id, int depth, Pageable pageable);
+
+    /**
+     * Get a page of all the direct and indirect reports of an employee.
+     *
+     * @param id the id of the manager.
+     * @param pageable the pagination information.
+     * @return the page of entities.
+     */
+    Page<Employee> findSubtree(String id, Pageable pageable);
+
+    /**
+     * Get a slice of the managers of an employee, up to the root or a number of levels.
+     *
+     * @param id the id of the employee.
+     * @param depth the number of levels, 1 meaning the direct manager only.
+     * @param pageable the size and number of the slice; the managers are always ordered from the direct manager upwards.
+     * @return the slice of managers.
+     */
+    Slice<Employee> findManagementChain(String id, int depth, Pageable pageable);
+
+    /**
+     * Rewrite the materialized paths of the direct and indirect reports of an employee whose own path changed.
+     *
+     * @param id the id of the employee, as stored.
+     * @param previousPath the previous path of the employee.
+     * @param path the new path of the employee.
+     */
+    void moveReports(Object id, String previousPath, String path);
+
+    /**
+     * Move the direct reports of a deleted employee to its own manager, or make them roots if it had none,
+     * and remove the employee from the materialized paths of all its direct and indirect reports.
+     *
+     * @param id the id of the deleted employee, as stored.
+     * @return the ids of the moved direct reports, as stored.
+     */
+    List<Object> reparentReports(Object id);
+}
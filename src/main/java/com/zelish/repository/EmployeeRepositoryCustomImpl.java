@@ -0,0 +1,174 @@
+package com.zelish.repository;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.zelish.domain.Employee;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link EmployeeRepositoryCustom}.
+ */
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private static final String DEPTH_FIELD = "_depth";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final QueryMapper queryMapper;
+
+    public EmployeeRepositoryCustomImpl(MongoTemplate mongoTemplate, BatchingQueryExecutor batchingQueryExecutor) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    @Override
+    public Optional<Employee> findOneWithBatchedReferences(String id) {
+        return batchingQueryExecutor.findById(id, Employee.class);
+    }
+
+    @Override
+    public Page<Employee> findAllWithBatchedReferences(Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findPage(BatchingQueryExecutor.projecting(fields), pageable, Employee.class);
+    }
+
+    @Override
+    public Slice<Employee> findSliceWithBatchedReferences(Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findSlice(BatchingQueryExecutor.projecting(fields), pageable, Employee.class);
+    }
+
+    @Override
+    public KeysetSlice<Employee> findAllAfter(List<Object> after, Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findSlice(BatchingQueryExecutor.projecting(fields), pageable, after, Employee.class);
+    }
+
+    @Override
+    public Slice<Employee> findReports(String id, int depth, Pageable pageable) {
+        return graphLookup(id, "$_id", "_id", MANAGER_ID_FIELD, depth, pageable);
+    }
+
+    @Override
+    public Slice<Employee> findManagementChain(String id, int depth, Pageable pageable) {
+        return graphLookup(id, "$" + MANAGER_ID_FIELD, MANAGER_ID_FIELD, "_id", depth, pageable);
+    }
+
+    @Override
+    public Page<Employee> findSubtree(String id, Pageable pageable) {
+        Object employeeId = queryMapper.convertId(id);
+        Document employee = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class))
+            .find(Filters.eq("_id", employeeId))
+            .projection(Projections.include(MANAGER_PATH_FIELD))
+            .first();
+        if (employee == null) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        String path = employee.getString(MANAGER_PATH_FIELD);
+        String prefix = (path == null ? "/" : path) + employeeId + "/";
+        Query query = new Query(where(MANAGER_PATH_FIELD).regex(pathPrefixRegex(prefix)));
+        return batchingQueryExecutor.findPage(query, pageable, Employee.class);
+    }
+
+    @Override
+    public void moveReports(Object id, String previousPath, String path) {
+        replacePathPrefix(previousPath + id + "/", path + id + "/");
+    }
+
+    @Override
+    public List<Object> reparentReports(Object id) {
+        MongoCollection<Document> employees = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class));
+        List<Object> reports = new ArrayList<>();
+        String reportPath = null;
+        for (Document report : employees.find(Filters.eq(MANAGER_ID_FIELD, id)).projection(Projections.include(MANAGER_PATH_FIELD))) {
+            reports.add(report.get("_id"));
+            reportPath = report.getString(MANAGER_PATH_FIELD);
+        }
+        if (reports.isEmpty()) {
+            return reports;
+        }
+        String suffix = id + "/";
+        String path = reportPath != null && reportPath.endsWith("/" + suffix)
+            ? reportPath.substring(0, reportPath.length() - suffix.length())
+            : "/";
+        // The manager of the deleted employee is the last id of its path, if any.
+        String[] managerIds = path.split("/");
+        Object managerId = managerIds.length == 0 ? null : queryMapper.convertId(managerIds[managerIds.length - 1]);
+        employees.updateMany(Filters.eq(MANAGER_ID_FIELD, id), Updates.combine(
+            managerId == null ? Updates.unset("manager") : Updates.set("manager", new DBRef(employees.getNamespace().getCollectionName(), managerId)),
+            Updates.set(MANAGER_ID_FIELD, managerId),
+            Updates.set(MANAGER_PATH_FIELD, path),
+            Updates.inc("version", 1)));
+        replacePathPrefix(path + suffix, path);
+        return reports;
+    }
+
+    /**
+     * Rewrite the materialized paths starting with a prefix, with one unordered bulk write.
+     */
+    private void replacePathPrefix(String previousPrefix, String prefix) {
+        MongoCollection<Document> employees = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class));
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        for (Document report : employees.find(Filters.regex(MANAGER_PATH_FIELD, pathPrefixRegex(previousPrefix)))
+                .projection(Projections.include(MANAGER_PATH_FIELD))) {
+            String reportPath = prefix + report.getString(MANAGER_PATH_FIELD).substring(previousPrefix.length());
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", report.get("_id")), Updates.set(MANAGER_PATH_FIELD, reportPath)));
+        }
+        if (!writes.isEmpty()) {
+            employees.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+    }
+
+    /**
+     * Build the regular expression matching the paths starting with a prefix.
+     * Anchored on a literal prefix, it is served by a range scan of the manager_path index.
+     */
+    private static String pathPrefixRegex(String prefix) {
+        return "^" + prefix.replaceAll("[\\W&&[^/]]", "\\\\$0");
+    }
+
+    /**
+     * Walk the hierarchy from an employee with {@code $graphLookup}, and return a slice of the reached employees by level.
+     */
+    private Slice<Employee> graphLookup(String id, String startWith, String connectFromField, String connectToField, int depth,
+            Pageable pageable) {
+        String collection = mongoTemplate.getCollectionName(Employee.class);
+        List<Document> pipeline = Arrays.asList(
+            new Document("$match", new Document("_id", queryMapper.convertId(id))),
+            new Document("$graphLookup", new Document("from", collection)
+                .append("startWith", startWith)
+                .append("connectFromField", connectFromField)
+                .append("connectToField", connectToField)
+                .append("as", "hierarchy")
+                .append("maxDepth", Math.max(depth, 1) - 1)
+                .append("depthField", DEPTH_FIELD)),
+            new Document("$unwind", "$hierarchy"),
+            new Document("$replaceRoot", new Document("newRoot", "$hierarchy")),
+            new Document("$sort", new Document(DEPTH_FIELD, 1).append("_id", 1)),
+            new Document("$skip", pageable.getOffset()),
+            new Document("$limit", pageable.getPageSize() + 1));
+        return BatchingQueryExecutor.toSlice(batchingQueryExecutor.aggregate(pipeline, Employee.class), pageable);
+    }
+}
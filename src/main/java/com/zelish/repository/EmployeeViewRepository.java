@@ -0,0 +1,13 @@
+package com.zelish.repository;
+
+import com.zelish.domain.EmployeeView;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB repository for the {@link EmployeeView} read model.
+ */
+@Repository
+public interface EmployeeViewRepository extends MongoRepository<EmployeeView, String> {
+
+}
@@ -11,6 +11,6 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface JobHistoryRepository extends MongoRepository<JobHistory, String> {
+public interface JobHistoryRepository extends MongoRepository<JobHistory, String>, JobHistoryRepositoryCustom {
 
 }
@@ -0,0 +1,43 @@
+package com.zelish.repository;
+
+import com.zelish.domain.JobHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom queries for the JobHistory entity, not derivable by Spring Data.
+ */
+public interface JobHistoryRepositoryCustom {
+
+    /**
+     * Get a page of jobHistories, resolving their references with one query per referenced collection.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the page of entities.
+     */
+    Page<JobHistory> findAllWithBatchedReferences(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of jobHistories, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    Slice<JobHistory> findSliceWithBatchedReferences(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of jobHistories by keyset, resolving their references with one query per referenced collection.
+     *
+     * @param after the next key of the previous slice, or {@code null} for the first slice.
+     * @param pageable the size and sort of the slice.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    KeysetSlice<JobHistory> findAllAfter(List<Object> after, Pageable pageable, Collection<String> fields);
+}
@@ -0,0 +1,36 @@
+package com.zelish.repository;
+
+import com.zelish.domain.JobHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of {@link JobHistoryRepositoryCustom}.
+ */
+public class JobHistoryRepositoryCustomImpl implements JobHistoryRepositoryCustom {
+
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    public JobHistoryRepositoryCustomImpl(BatchingQueryExecutor batchingQueryExecutor) {
+        this.batchingQueryExecutor = batchingQueryExecutor;
+    }
+
+    @Override
+    public Page<JobHistory> findAllWithBatchedReferences(Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findPage(BatchingQueryExecutor.projecting(fields), pageable, JobHistory.class);
+    }
+
+    @Override
+    public Slice<JobHistory> findSliceWithBatchedReferences(Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findSlice(BatchingQueryExecutor.projecting(fields), pageable, JobHistory.class);
+    }
+
+    @Override
+    public KeysetSlice<JobHistory> findAllAfter(List<Object> after, Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findSlice(BatchingQueryExecutor.projecting(fields), pageable, after, JobHistory.class);
+    }
+}
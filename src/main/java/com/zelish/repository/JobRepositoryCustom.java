@@ -0,0 +1,78 @@
+package com.zelish.repository;
+
+import com.zelish.domain.Job;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom queries for the Job entity, not derivable by Spring Data.
+ * <p>
+ * The "eager" queries load the jobs together with their tasks in a single aggregation,
+ * joining the {@code task} collection server-side with {@code $lookup}.
+ */
+public interface JobRepositoryCustom {
+
+    /**
+     * Get a page of jobs with their tasks.
+     *
+     * @param pageable the pagination information.
+     * @return the page of entities.
+     */
+    Page<Job> findAllWithEagerRelationships(Pageable pageable);
+
+    /**
+     * Get a page of jobs with their tasks, loading only some fields of the tasks.
+     *
+     * @param pageable the pagination information.
+     * @param taskFields the names of the task properties to load, the id is always loaded.
+     * @return the page of entities.
+     */
+    Page<Job> findAllWithEagerRelationships(Pageable pageable, Collection<String> taskFields);
+
+    /**
+     * Get a slice of jobs with their tasks, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @return the slice of entities.
+     */
+    Slice<Job> findSliceWithEagerRelationships(Pageable pageable);
+
+    /**
+     * Get a page of jobs, loading only some of their properties.
+     * The tasks, when loaded, are resolved with one query.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the page of entities.
+     */
+    Page<Job> findAllWithFields(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of jobs, loading only some of their properties, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    Slice<Job> findSliceWithFields(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get all the jobs with their tasks.
+     *
+     * @return the list of entities.
+     */
+    List<Job> findAllWithEagerRelationships();
+
+    /**
+     * Get the "id" job with its tasks, read from the document cache when they are cached.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    Optional<Job> findOneWithEagerRelationships(String id);
+}
@@ -0,0 +1,149 @@
+package com.zelish.repository;
+
+import com.zelish.domain.Job;
+import com.zelish.domain.Task;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import java.util.*;
+
+/**
+ * Implementation of {@link JobRepositoryCustom}.
+ * <p>
+ * The tasks of a job are stored as {@code @DBRef}s, which {@code $lookup} cannot join on directly:
+ * their ids are first extracted with {@code $objectToArray}, then joined on the {@code _id} index of the
+ * {@code task} collection. The back reference from the tasks to their jobs is never loaded.
+ */
+public class JobRepositoryCustomImpl implements JobRepositoryCustom {
+
+    private static final String TASK_IDS = "_taskIds";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final BatchingDbRefResolver dbRefResolver;
+
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final QueryMapper queryMapper;
+
+    public JobRepositoryCustomImpl(MongoTemplate mongoTemplate, BatchingDbRefResolver dbRefResolver,
+            BatchingQueryExecutor batchingQueryExecutor) {
+        this.mongoTemplate = mongoTemplate;
+        this.dbRefResolver = dbRefResolver;
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    @Override
+    public Page<Job> findAllWithEagerRelationships(Pageable pageable) {
+        return findAllWithEagerRelationships(pageable, Collections.emptyList());
+    }
+
+    @Override
+    public Page<Job> findAllWithEagerRelationships(Pageable pageable, Collection<String> taskFields) {
+        List<Job> content = aggregate(new Document(), pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), taskFields);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(new Query(), Job.class));
+    }
+
+    @Override
+    public Slice<Job> findSliceWithEagerRelationships(Pageable pageable) {
+        List<Job> content = aggregate(new Document(), pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1,
+            Collections.emptyList());
+        return BatchingQueryExecutor.toSlice(content, pageable);
+    }
+
+    @Override
+    public Page<Job> findAllWithFields(Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findPage(BatchingQueryExecutor.projecting(fields), pageable, Job.class);
+    }
+
+    @Override
+    public Slice<Job> findSliceWithFields(Pageable pageable, Collection<String> fields) {
+        return batchingQueryExecutor.findSlice(BatchingQueryExecutor.projecting(fields), pageable, Job.class);
+    }
+
+    @Override
+    public List<Job> findAllWithEagerRelationships() {
+        return aggregate(new Document(), Sort.unsorted(), 0, 0, Collections.emptyList());
+    }
+
+    @Override
+    public Optional<Job> findOneWithEagerRelationships(String id) {
+        // The job and its tasks are read from the document cache rather than aggregated.
+        return batchingQueryExecutor.findById(id, Job.class);
+    }
+
+    /**
+     * Run the eager aggregation, with a {@code limit} of 0 meaning no limit.
+     */
+    private List<Job> aggregate(Document filter, Sort sort, long skip, int limit, Collection<String> taskFields) {
+        MongoPersistentEntity<?> jobEntity = entity(Job.class);
+        MongoPersistentEntity<?> taskEntity = entity(Task.class);
+        String tasks = jobEntity.getRequiredPersistentProperty("tasks").getFieldName();
+
+        List<Document> pipeline = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            pipeline.add(new Document("$match", filter));
+        }
+        if (sort.isSorted()) {
+            pipeline.add(new Document("$sort", queryMapper.getMappedSort(new Query().with(sort).getSortObject(), jobEntity)));
+        }
+        if (skip > 0) {
+            pipeline.add(new Document("$skip", skip));
+        }
+        if (limit > 0) {
+            pipeline.add(new Document("$limit", limit));
+        }
+        // A DBRef is {$ref, $id}: its second entry holds the id
+        pipeline.add(new Document("$addFields", new Document(TASK_IDS, map(
+            new Document("$ifNull", Arrays.asList("$" + tasks, Collections.emptyList())), "ref",
+            new Document("$arrayElemAt", Arrays.asList(
+                map(new Document("$objectToArray", "$$ref"), "entry", "$$entry.v"), 1))))));
+        pipeline.add(new Document("$lookup", new Document("from", taskEntity.getCollection())
+            .append("localField", TASK_IDS)
+            .append("foreignField", "_id")
+            .append("as", tasks)));
+        pipeline.add(new Document("$addFields", new Document(tasks, map("$" + tasks, "task", taskProjection(taskEntity, taskFields)))));
+        pipeline.add(new Document("$project", new Document(TASK_IDS, 0)));
+
+        List<Document> documents = mongoTemplate.getCollection(jobEntity.getCollection())
+            .aggregate(pipeline)
+            .into(new ArrayList<>());
+        MongoConverter converter = mongoTemplate.getConverter();
+        return dbRefResolver.readAll(documents, document -> converter.read(Job.class, document));
+    }
+
+    /**
+     * Build the shape of a joined task: the requested properties, or all of them when none is requested,
+     * but never the back reference to its jobs, which would be resolved with the page.
+     */
+    private static Document taskProjection(MongoPersistentEntity<?> taskEntity, Collection<String> taskFields) {
+        Document projection = new Document("_id", "$$task._id");
+        taskEntity.doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+            if (!property.isIdProperty() && property.getActualType() != Job.class
+                    && (taskFields.isEmpty() || taskFields.contains(property.getName()))) {
+                projection.append(property.getFieldName(), "$$task." + property.getFieldName());
+            }
+        });
+        return projection;
+    }
+
+    private static Document map(Object input, String as, Object in) {
+        return new Document("$map", new Document("input", input).append("as", as).append("in", in));
+    }
+
+    private MongoPersistentEntity<?> entity(Class<?> type) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+    }
+}
@@ -0,0 +1,33 @@
+package com.zelish.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * A {@link org.springframework.data.domain.Slice} fetched by keyset, which knows the key to seek the next one from.
+ *
+ * @param <T> the type of the content.
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private final List<Object> nextKey;
+
+    /**
+     * @param content the content of the slice.
+     * @param pageable the size and sort of the slice.
+     * @param nextKey the sort values and id of the last entity, or {@code null} if there is no next slice.
+     */
+    public KeysetSlice(List<T> content, Pageable pageable, List<Object> nextKey) {
+        super(content, pageable, nextKey != null);
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * @return the key to pass to get the next slice, or {@code null} if this slice is the last one.
+     */
+    public List<Object> getNextKey() {
+        return nextKey;
+    }
+}
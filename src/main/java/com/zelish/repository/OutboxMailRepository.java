@@ -0,0 +1,20 @@
+package com.zelish.repository;
+
+import com.zelish.domain.OutboxMail;
+import com.zelish.domain.enumeration.MailStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data MongoDB repository for the {@link OutboxMail} entity.
+ */
+@Repository
+public interface OutboxMailRepository extends MongoRepository<OutboxMail, String> {
+
+    long countByStatusIn(Collection<MailStatus> statuses);
+
+    List<OutboxMail> findByStatus(MailStatus status);
+}
@@ -3,6 +3,7 @@ package com.zelish.repository;
 import com.zelish.domain.PersistentAuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.Instant;
@@ -22,4 +23,6 @@ public interface PersistenceAuditEventRepository extends MongoRepository<Persist
     List<PersistentAuditEvent> findByPrincipalAndAuditEventDateAfterAndAuditEventType(String principal, Instant after, String type);
 
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
+
+    Slice<PersistentAuditEvent> findSliceBy(Pageable pageable);
 }
@@ -0,0 +1,53 @@
+package com.zelish.repository;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.DbRefProxyHandler;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.DbRefResolverCallback;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DbRefResolver} reading the {@code @DBRef} properties as entities holding only their id, without querying
+ * their collection.
+ * <p>
+ * It is used by the reactive repositories, which cannot resolve references: a blocking lookup would hold the driver
+ * thread, and Spring Data would otherwise fail to read any entity with a reference. The referenced entities are read
+ * separately, such as from the cached reference data.
+ */
+public class ReferenceIdDbRefResolver implements DbRefResolver {
+
+    @Override
+    public Object resolveDbRef(MongoPersistentProperty property, DBRef dbref, DbRefResolverCallback callback,
+            DbRefProxyHandler proxyHandler) {
+        return callback.resolve(property);
+    }
+
+    @Override
+    public DBRef createDbRef(org.springframework.data.mongodb.core.mapping.DBRef annotation,
+            MongoPersistentEntity<?> entity, Object id) {
+        if (annotation != null && StringUtils.hasText(annotation.db())) {
+            return new DBRef(annotation.db(), entity.getCollection(), id);
+        }
+        return new DBRef(entity.getCollection(), id);
+    }
+
+    @Override
+    public Document fetch(DBRef dbRef) {
+        return new Document("_id", dbRef.getId());
+    }
+
+    @Override
+    public List<Document> bulkFetch(List<DBRef> dbRefs) {
+        List<Document> documents = new ArrayList<>(dbRefs.size());
+        for (DBRef dbRef : dbRefs) {
+            documents.add(fetch(dbRef));
+        }
+        return documents;
+    }
+}
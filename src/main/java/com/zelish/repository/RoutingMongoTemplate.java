@@ -0,0 +1,25 @@
+package com.zelish.repository;
+
+import com.mongodb.client.MongoDatabase;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * A {@link MongoTemplate} reading from the secondaries inside the methods annotated with {@link SecondaryPreferred}.
+ * <p>
+ * The repositories are bound to a single template: instead of a second template, this one switches to the
+ * {@code secondaryPreferred} read preference and to the causally consistent session of the current
+ * {@link SecondaryReads} scope, if any. Outside of such a scope, it behaves exactly like the default template.
+ */
+public class RoutingMongoTemplate extends MongoTemplate {
+
+    public RoutingMongoTemplate(MongoDbFactory mongoDbFactory, MongoConverter mongoConverter) {
+        super(mongoDbFactory, mongoConverter);
+    }
+
+    @Override
+    protected MongoDatabase doGetDatabase() {
+        return SecondaryReads.isActive() ? SecondaryReads.getDatabase(getMongoDbFactory()) : super.doGetDatabase();
+    }
+}
@@ -0,0 +1,17 @@
+package com.zelish.repository;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks an endpoint, a service or a repository method whose MongoDB reads may be served by a secondary.
+ * <p>
+ * While an annotated method runs, the reads of the {@code MongoTemplate}, of the repositories and of the
+ * {@code @DBRef} resolution use the {@code secondaryPreferred} read preference, see {@link SecondaryReads}. When the
+ * current user wrote recently, the reads also run in a causally consistent session, so that they see those writes.
+ * Annotating a class marks all its methods.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SecondaryPreferred {
+}
@@ -0,0 +1,77 @@
+package com.zelish.repository;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import org.springframework.data.mongodb.MongoDbFactory;
+
+/**
+ * The reads of the current thread routed to the secondaries, by the methods annotated with {@link SecondaryPreferred}.
+ * <p>
+ * The scope is thread-bound, like the {@code @DBRef} batches of {@link BatchingDbRefResolver}: it must be ended by the
+ * thread which began it.
+ */
+public final class SecondaryReads {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SecondaryReads() {
+    }
+
+    /**
+     * Route the reads of the current thread to the secondaries, until {@link #end()}.
+     *
+     * @param session the causally consistent session of the reads, or {@code null} to read without session.
+     */
+    public static void begin(ClientSession session) {
+        CURRENT.set(new Scope(session));
+    }
+
+    /**
+     * Route the reads of the current thread to the primary again.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return whether the reads of the current thread are routed to the secondaries.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * @return the causally consistent session of the current reads, or {@code null} if there is none.
+     */
+    public static ClientSession getSession() {
+        Scope scope = CURRENT.get();
+        return scope == null ? null : scope.session;
+    }
+
+    /**
+     * Get the database of the current reads.
+     *
+     * @param mongoDbFactory the factory of the database.
+     * @return the database with the {@code secondaryPreferred} read preference and bound to the session of the
+     * reads, if any, or the default database outside of a {@link SecondaryPreferred} method.
+     */
+    public static MongoDatabase getDatabase(MongoDbFactory mongoDbFactory) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return mongoDbFactory.getDb();
+        }
+        MongoDatabase database = scope.session == null
+            ? mongoDbFactory.getDb() : mongoDbFactory.withSession(scope.session).getDb();
+        return database.withReadPreference(ReadPreference.secondaryPreferred());
+    }
+
+    private static final class Scope {
+
+        private final ClientSession session;
+
+        private Scope(ClientSession session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.zelish.repository.reactive;
+
+import com.zelish.domain.Country;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Data MongoDB reactive repository for the Country entity.
+ */
+@Repository
+public interface ReactiveCountryRepository extends ReactiveMongoRepository<Country, String> {
+
+    Flux<Country> findAllBy(Pageable pageable);
+}
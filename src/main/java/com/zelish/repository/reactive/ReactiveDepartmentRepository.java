@@ -0,0 +1,16 @@
+package com.zelish.repository.reactive;
+
+import com.zelish.domain.Department;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Data MongoDB reactive repository for the Department entity.
+ */
+@Repository
+public interface ReactiveDepartmentRepository extends ReactiveMongoRepository<Department, String> {
+
+    Flux<Department> findAllBy(Pageable pageable);
+}
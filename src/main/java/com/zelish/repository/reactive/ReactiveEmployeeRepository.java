@@ -0,0 +1,16 @@
+package com.zelish.repository.reactive;
+
+import com.zelish.domain.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Data MongoDB reactive repository for the Employee entity.
+ */
+@Repository
+public interface ReactiveEmployeeRepository extends ReactiveMongoRepository<Employee, String> {
+
+    Flux<Employee> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.zelish.repository.reactive;
+
+import com.zelish.domain.JobHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Data MongoDB reactive repository for the JobHistory entity.
+ */
+@Repository
+public interface ReactiveJobHistoryRepository extends ReactiveMongoRepository<JobHistory, String> {
+
+    Flux<JobHistory> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.zelish.repository.reactive;
+
+import com.zelish.domain.Job;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Data MongoDB reactive repository for the Job entity.
+ */
+@Repository
+public interface ReactiveJobRepository extends ReactiveMongoRepository<Job, String> {
+
+    Flux<Job> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.zelish.repository.reactive;
+
+import com.zelish.domain.Location;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Data MongoDB reactive repository for the Location entity.
+ */
+@Repository
+public interface ReactiveLocationRepository extends ReactiveMongoRepository<Location, String> {
+
+    Flux<Location> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.zelish.repository.reactive;
+
+import com.zelish.domain.Region;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Data MongoDB reactive repository for the Region entity.
+ */
+@Repository
+public interface ReactiveRegionRepository extends ReactiveMongoRepository<Region, String> {
+
+    Flux<Region> findAllBy(Pageable pageable);
+}
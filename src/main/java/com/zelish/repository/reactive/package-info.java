@@ -0,0 +1,4 @@
+/**
+ * Spring Data MongoDB reactive repositories, reading the entities without resolving their references.
+ */
+package com.zelish.repository.reactive;
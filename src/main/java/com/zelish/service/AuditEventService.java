@@ -1,19 +1,26 @@
 package com.zelish.service;
 
 import com.zelish.config.audit.AuditEventConverter;
+import com.zelish.domain.PersistentAuditEvent;
+import com.zelish.domain.PersistentAuditEventStats;
+import com.zelish.repository.AuditEventBuckets;
+import com.zelish.repository.AuditEventStats;
 import com.zelish.repository.PersistenceAuditEventRepository;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Service for managing audit events.
  * <p>
- * This is the default implementation to support SpringBoot Actuator {@code AuditEventRepository}.
+ * This is the default implementation to support SpringBoot Actuator {@code AuditEventRepository}. When the audit
+ * events are written to monthly buckets, they are read from the {@link AuditEventBuckets}.
  */
 @Service
 public class AuditEventService {
@@ -22,28 +29,81 @@ public class AuditEventService {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventBuckets auditEventBuckets;
+
+    private final AuditEventStats auditEventStats;
+
+    private final TotalCountService totalCountService;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter) {
+        AuditEventConverter auditEventConverter,
+        AuditEventBuckets auditEventBuckets,
+        AuditEventStats auditEventStats,
+        TotalCountService totalCountService) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.auditEventBuckets = auditEventBuckets;
+        this.auditEventStats = auditEventStats;
+        this.totalCountService = totalCountService;
     }
 
     public Page<AuditEvent> findAll(Pageable pageable) {
-        return persistenceAuditEventRepository.findAll(pageable)
-            .map(auditEventConverter::convertToAuditEvent);
+        Page<PersistentAuditEvent> page = auditEventBuckets.isEnabled()
+            ? auditEventBuckets.findByDates(null, null, pageable)
+            : persistenceAuditEventRepository.findAll(pageable);
+        return page.map(auditEventConverter::convertToAuditEvent);
+    }
+
+    public Slice<AuditEvent> findSlice(Pageable pageable) {
+        Slice<PersistentAuditEvent> slice = auditEventBuckets.isEnabled()
+            ? auditEventBuckets.findSliceByDates(null, null, pageable)
+            : persistenceAuditEventRepository.findSliceBy(pageable);
+        return slice.map(auditEventConverter::convertToAuditEvent);
+    }
+
+    /**
+     * Estimate the number of audit events, summing the estimates of the buckets when they are enabled.
+     *
+     * @return the estimated number of audit events.
+     */
+    public long estimateCount() {
+        if (!auditEventBuckets.isEnabled()) {
+            return totalCountService.estimate(PersistentAuditEvent.class);
+        }
+        long count = 0;
+        for (String bucket : auditEventBuckets.findBuckets().values()) {
+            count += totalCountService.estimate(bucket);
+        }
+        return count;
     }
 
     public Page<AuditEvent> findByDates(Instant fromDate, Instant toDate, Pageable pageable) {
-        return persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable)
-            .map(auditEventConverter::convertToAuditEvent);
+        Page<PersistentAuditEvent> page = auditEventBuckets.isEnabled()
+            ? auditEventBuckets.findByDates(fromDate, toDate, pageable)
+            : persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable);
+        return page.map(auditEventConverter::convertToAuditEvent);
     }
 
     public Optional<AuditEvent> find(String id) {
-        return Optional.ofNullable(persistenceAuditEventRepository.findById(id))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .map(auditEventConverter::convertToAuditEvent);
+        Optional<PersistentAuditEvent> event = auditEventBuckets.isEnabled()
+            ? auditEventBuckets.findById(id)
+            : persistenceAuditEventRepository.findById(id);
+        return event.map(auditEventConverter::convertToAuditEvent);
+    }
+
+    /**
+     * Get the hourly statistics of the audit events, read from their {@link AuditEventStats} rather than from the
+     * events themselves.
+     *
+     * @param type the type of the events, or {@code null} for all the types.
+     * @param principal the principal of the events, or {@code null} for all the principals.
+     * @param fromDate the start of the period, inclusive.
+     * @param toDate the end of the period, exclusive.
+     * @return the number of events of each hour, type and principal having some.
+     */
+    public List<PersistentAuditEventStats> findStats(String type, String principal, Instant fromDate, Instant toDate) {
+        return auditEventStats.find(type, principal, fromDate, toDate);
     }
 }
@@ -0,0 +1,157 @@
+package com.zelish.service;
+
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.PersistentAuditEvent;
+import com.zelish.repository.AuditEventBuckets;
+import com.zelish.repository.DeclaredIndexes;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service removing the audit events older than the configured retention.
+ * <p>
+ * The events of the single audit collection are removed by MongoDB itself, through a TTL index on their date which
+ * is created, updated or dropped at startup to match the retention. The monthly buckets are dropped as a whole once
+ * their whole month is expired, after being archived as a gzipped NDJSON file when an archive directory is configured.
+ */
+@Service
+public class AuditRetentionService {
+
+    private static final String DATE_FIELD = "event_date";
+
+    private final Logger log = LoggerFactory.getLogger(AuditRetentionService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final AuditEventBuckets auditEventBuckets;
+
+    private final int retentionDays;
+
+    private final String archiveDirectory;
+
+    public AuditRetentionService(MongoTemplate mongoTemplate, AuditEventBuckets auditEventBuckets,
+            ApplicationProperties applicationProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.auditEventBuckets = auditEventBuckets;
+        this.retentionDays = applicationProperties.getAudit().getRetentionDays();
+        this.archiveDirectory = applicationProperties.getAudit().getArchiveDirectory();
+    }
+
+    /**
+     * Create, update or drop the TTL index of the single audit collection, to match the retention.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureTimeToLive() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(PersistentAuditEvent.class));
+        Document live = null;
+        for (Document index : collection.listIndexes()) {
+            if (DeclaredIndexes.AUDIT_TTL_INDEX.equals(index.getString("name"))) {
+                live = index;
+            }
+        }
+        if (retentionDays <= 0 || auditEventBuckets.isEnabled()) {
+            if (live != null) {
+                log.info("Dropping the TTL index of the audit events");
+                collection.dropIndex(DeclaredIndexes.AUDIT_TTL_INDEX);
+            }
+            return;
+        }
+        long seconds = TimeUnit.DAYS.toSeconds(retentionDays);
+        if (live == null) {
+            log.info("Creating the TTL index of the audit events, expiring them after {} days", retentionDays);
+            collection.createIndex(Indexes.ascending(DATE_FIELD),
+                new IndexOptions().name(DeclaredIndexes.AUDIT_TTL_INDEX).expireAfter(seconds, TimeUnit.SECONDS));
+        } else if (!(live.get("expireAfterSeconds") instanceof Number)
+                || ((Number) live.get("expireAfterSeconds")).longValue() != seconds) {
+            log.info("Updating the TTL index of the audit events, expiring them after {} days", retentionDays);
+            mongoTemplate.getDb().runCommand(new Document("collMod", collection.getNamespace().getCollectionName())
+                .append("index", new Document("name", DeclaredIndexes.AUDIT_TTL_INDEX).append("expireAfterSeconds", seconds)));
+        }
+    }
+
+    /**
+     * Archive and drop the expired monthly buckets.
+     */
+    @Scheduled(cron = "${application.audit.retention-cron:0 0 3 * * *}")
+    public void removeExpiredBuckets() {
+        if (auditEventBuckets.isEnabled() && retentionDays > 0) {
+            removeExpiredBuckets(Instant.now());
+        }
+    }
+
+    /**
+     * Archive and drop the monthly buckets whose whole month is older than the retention.
+     *
+     * @param now the current time.
+     * @return the names of the dropped buckets.
+     */
+    public List<String> removeExpiredBuckets(Instant now) {
+        YearMonth expired = YearMonth.from(now.minus(retentionDays, ChronoUnit.DAYS).atOffset(ZoneOffset.UTC));
+        List<String> dropped = new ArrayList<>();
+        for (Map.Entry<YearMonth, String> bucket : auditEventBuckets.findBuckets().headMap(expired).entrySet()) {
+            try {
+                if (StringUtils.hasText(archiveDirectory)) {
+                    Path archive = archive(bucket.getValue());
+                    log.info("Archived the audit events of {} to {}", bucket.getKey(), archive);
+                }
+                auditEventBuckets.drop(bucket.getValue());
+                dropped.add(bucket.getValue());
+                log.info("Dropped the audit events of {}", bucket.getKey());
+            } catch (IOException | DataAccessException | MongoException e) {
+                log.error("Could not archive the audit events of {}, keeping them: {}", bucket.getKey(), e.getMessage());
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Write the events of a bucket to a gzipped NDJSON file, renamed once complete.
+     */
+    private Path archive(String bucket) throws IOException {
+        Path directory = Paths.get(archiveDirectory);
+        Files.createDirectories(directory);
+        Path archive = directory.resolve(bucket + ".ndjson.gz");
+        Path partial = directory.resolve(bucket + ".ndjson.gz.part");
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(partial)), StandardCharsets.UTF_8))) {
+            for (Document document : mongoTemplate.getCollection(bucket).find().sort(Sorts.ascending(DATE_FIELD))) {
+                out.write(document.toJson());
+                out.newLine();
+            }
+        }
+        Files.move(partial, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return archive;
+    }
+}
@@ -0,0 +1,638 @@
+package com.zelish.service;
+
+import com.mongodb.DBRef;
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.repository.DocumentCache;
+import com.zelish.repository.EmployeeRepository;
+import com.zelish.service.dto.BulkItemResultDTO;
+import com.zelish.web.rest.errors.BadRequestAlertException;
+import com.zelish.web.rest.util.EntityTagUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_ID_FIELD;
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_PATH_FIELD;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service for creating, updating and deleting entities in bulk.
+ * <p>
+ * The valid items of a request are sent in one unordered bulk write, so that a failing item does not stop the
+ * others. The items bypass the save and delete mapping events: they are validated one by one, and the data derived
+ * from them is updated once per batch, as by {@link ImportService}. The reporting hierarchy fields of the employees
+ * are computed from the paths of their managers read with one query, and their previous state is read with the
+ * query checking that they exist. The cached documents, the reference data snapshots, the employee views and the
+ * salary rollups are then updated for all the written items at once.
+ */
+@Service
+public class BulkService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private static final String CREATE = "create";
+
+    private static final String UPDATE = "update";
+
+    private static final String DELETE = "delete";
+
+    private static final String ROOT_PATH = "/";
+
+    private final Logger log = LoggerFactory.getLogger(BulkService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Validator validator;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmployeeViewService employeeViewService;
+
+    private final SalaryAnalyticsService salaryAnalyticsService;
+
+    private final DocumentCache documentCache;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final QueryMapper queryMapper;
+
+    public BulkService(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher, Validator validator,
+            EmployeeRepository employeeRepository, EmployeeViewService employeeViewService,
+            SalaryAnalyticsService salaryAnalyticsService, DocumentCache documentCache, ReferenceDataCache referenceDataCache,
+            MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.employeeRepository = employeeRepository;
+        this.employeeViewService = employeeViewService;
+        this.salaryAnalyticsService = salaryAnalyticsService;
+        this.documentCache = documentCache;
+        this.referenceDataCache = referenceDataCache;
+        this.meterRegistry = meterRegistry;
+        this.applicationProperties = applicationProperties;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    /**
+     * Create entities in bulk.
+     *
+     * @param entities the entities to create, without ids.
+     * @param entityClass the entity type.
+     * @param entityName the name of the entity, for the errors.
+     * @param <T> the entity type.
+     * @return the result of each item, in the order of the request.
+     */
+    public <T> List<BulkItemResultDTO> create(List<T> entities, Class<T> entityClass, String entityName) {
+        checkSize(entities.size(), entityName);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        MongoPersistentEntity<?> entity = getEntity(entityClass);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[entities.size()];
+        List<PendingItem> pending = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            T item = entities.get(i);
+            if (item == null) {
+                results[i] = failure(i, null, HttpStatus.BAD_REQUEST, "Missing entity");
+                continue;
+            }
+            PersistentPropertyAccessor accessor = entity.getPropertyAccessor(item);
+            MongoPersistentProperty idProperty = entity.getRequiredIdProperty();
+            if (accessor.getProperty(idProperty) != null) {
+                results[i] = failure(i, null, HttpStatus.BAD_REQUEST, "A new " + entityName + " cannot already have an ID");
+                continue;
+            }
+            ObjectId id = new ObjectId();
+            accessor.setProperty(idProperty, idProperty.getType() == String.class ? id.toHexString() : id);
+            if (entity.hasVersionProperty() && accessor.getProperty(entity.getRequiredVersionProperty()) == null) {
+                // As initialized by a single insert.
+                accessor.setProperty(entity.getRequiredVersionProperty(), 0L);
+            }
+            try {
+                pending.add(new PendingItem(i, id.toHexString(), item, toDocument(item, entity), null));
+            } catch (RuntimeException e) {
+                accessor.setProperty(idProperty, null);
+                results[i] = failure(i, null, HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        if (entityClass == Employee.class) {
+            setHierarchy(pending, results);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, entityClass);
+        pending.forEach(item -> bulk.insert(item.document));
+        afterSave(entity, execute(bulk, pending, results, entity, HttpStatus.CREATED, false), Collections.emptyMap());
+        return record(CREATE, entity, sample, results);
+    }
+
+    /**
+     * Update existing entities in bulk, replacing all their properties.
+     * <p>
+     * The update of a versioned entity is conditional on its version: the one of the item if present, otherwise
+     * the one read when checking that the entity exists. When some updates match nothing, the versions of the items
+     * are read back: an item whose entity was modified or deleted meanwhile fails with status {@code 409 (Conflict)}.
+     *
+     * @param entities the entities to update, with their ids.
+     * @param entityClass the entity type.
+     * @param entityName the name of the entity, for the errors.
+     * @param <T> the entity type.
+     * @return the result of each item, in the order of the request.
+     */
+    public <T> List<BulkItemResultDTO> update(List<T> entities, Class<T> entityClass, String entityName) {
+        checkSize(entities.size(), entityName);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        MongoPersistentEntity<?> entity = getEntity(entityClass);
+        MongoPersistentProperty idProperty = entity.getRequiredIdProperty();
+        String versionField = entity.hasVersionProperty() ? entity.getRequiredVersionProperty().getFieldName() : null;
+        List<Object> ids = new ArrayList<>();
+        for (T item : entities) {
+            ids.add(item == null ? null : entity.getPropertyAccessor(item).getProperty(idProperty));
+        }
+        Map<Object, Document> existing = findExisting(ids, entity);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[entities.size()];
+        List<PendingItem> pending = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            T item = entities.get(i);
+            Object id = ids.get(i);
+            if (id == null) {
+                results[i] = failure(i, null, HttpStatus.BAD_REQUEST, "Invalid id");
+                continue;
+            }
+            if (!existing.containsKey(queryMapper.convertId(id))) {
+                results[i] = failure(i, id.toString(), HttpStatus.NOT_FOUND, "Entity not found");
+                continue;
+            }
+            try {
+                Document document = toDocument(item, entity);
+                Long expectedVersion = expectedVersion(document, existing.get(queryMapper.convertId(id)), versionField);
+                pending.add(new PendingItem(i, id.toString(), item, document, expectedVersion));
+            } catch (RuntimeException e) {
+                results[i] = failure(i, id.toString(), HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+        if (entityClass == Employee.class) {
+            setHierarchy(pending, results);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, entityClass);
+        pending.forEach(item -> {
+            Query query = new Query(where("_id").is(item.document.get("_id")));
+            if (item.expectedVersion != null) {
+                query.addCriteria(where(versionField).is(item.expectedVersion));
+            }
+            bulk.updateOne(query, replacement(item.document, entity));
+        });
+        afterSave(entity, execute(bulk, pending, results, entity, HttpStatus.OK, true), existing);
+        return record(UPDATE, entity, sample, results);
+    }
+
+    /**
+     * Delete entities in bulk.
+     *
+     * @param ids the ids of the entities to delete.
+     * @param entityClass the entity type.
+     * @param entityName the name of the entity, for the errors.
+     * @return the result of each item, in the order of the request.
+     */
+    public List<BulkItemResultDTO> delete(List<String> ids, Class<?> entityClass, String entityName) {
+        checkSize(ids.size(), entityName);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        MongoPersistentEntity<?> entity = getEntity(entityClass);
+        Map<Object, Document> existing = findExisting(new ArrayList<>(ids), entity);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[ids.size()];
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, entityClass);
+        List<PendingItem> pending = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            if (id == null || !existing.containsKey(queryMapper.convertId(id))) {
+                results[i] = failure(i, id, HttpStatus.NOT_FOUND, "Entity not found");
+                continue;
+            }
+            Document query = new Document("_id", queryMapper.convertId(id));
+            bulk.remove(new Query(where("_id").is(query.get("_id"))));
+            pending.add(new PendingItem(i, id, null, query, null));
+        }
+        afterDelete(entity, execute(bulk, pending, results, entity, HttpStatus.NO_CONTENT, false), existing);
+        return record(DELETE, entity, sample, results);
+    }
+
+    private void checkSize(int size, String entityName) {
+        int maxItems = applicationProperties.getBulk().getMaxItems();
+        if (size > maxItems) {
+            throw new BadRequestAlertException("A bulk request cannot have more than " + maxItems + " items", entityName, "bulktoolarge");
+        }
+    }
+
+    /**
+     * Validate and convert an entity, publishing the event before its conversion.
+     */
+    private Document toDocument(Object item, MongoPersistentEntity<?> entity) {
+        eventPublisher.publishEvent(new BeforeConvertEvent<>(item, entity.getCollection()));
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        Document document = new Document();
+        mongoTemplate.getConverter().write(item, document);
+        return document;
+    }
+
+    /**
+     * Set the reporting hierarchy fields of employees, from the stored paths of their managers read with one query.
+     * An employee which would be managed by one of its reports is rejected.
+     */
+    private void setHierarchy(List<PendingItem> pending, BulkItemResultDTO[] results) {
+        Set<Object> managerIds = new HashSet<>();
+        for (PendingItem item : pending) {
+            Object manager = item.document.get("manager");
+            if (manager instanceof DBRef) {
+                managerIds.add(((DBRef) manager).getId());
+            }
+        }
+        Map<Object, String> managerPaths = new HashMap<>();
+        if (!managerIds.isEmpty()) {
+            for (Document manager : employees().find(Filters.in("_id", managerIds)).projection(Projections.include(MANAGER_PATH_FIELD))) {
+                managerPaths.put(manager.get("_id"), manager.getString(MANAGER_PATH_FIELD));
+            }
+        }
+        for (Iterator<PendingItem> iterator = pending.iterator(); iterator.hasNext(); ) {
+            PendingItem item = iterator.next();
+            Object managerId = null;
+            String path = ROOT_PATH;
+            Object manager = item.document.get("manager");
+            if (manager instanceof DBRef) {
+                managerId = ((DBRef) manager).getId();
+                String managerPath = managerPaths.get(managerId);
+                path = (managerPath == null ? ROOT_PATH : managerPath) + managerId + "/";
+                if (path.contains("/" + item.document.get("_id") + "/")) {
+                    results[item.index] = failure(item.index, item.id, HttpStatus.BAD_REQUEST,
+                        "An employee cannot be managed by one of its reports");
+                    iterator.remove();
+                    continue;
+                }
+            }
+            item.document.put(MANAGER_ID_FIELD, managerId);
+            item.document.put(MANAGER_PATH_FIELD, path);
+        }
+    }
+
+    /**
+     * Build the update replacing the fields of a document, unsetting the properties which are now {@code null}.
+     * The version of a versioned entity is incremented rather than replaced.
+     */
+    static Update replacement(Document document, MongoPersistentEntity<?> entity) {
+        Update update = new Update();
+        String version = entity.hasVersionProperty() ? entity.getRequiredVersionProperty().getFieldName() : null;
+        for (Map.Entry<String, Object> field : document.entrySet()) {
+            if (!"_id".equals(field.getKey()) && !field.getKey().equals(version)) {
+                update.set(field.getKey(), field.getValue());
+            }
+        }
+        entity.doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+            if (!property.isIdProperty() && !property.isVersionProperty() && !document.containsKey(property.getFieldName())) {
+                update.unset(property.getFieldName());
+            }
+        });
+        if (version != null) {
+            update.inc(version, 1);
+        }
+        return update;
+    }
+
+    /**
+     * Find the stored entities among some ids, by their stored id. Only the ids and versions are read, but for the
+     * employees whose previous state is needed to update their derived data.
+     */
+    private Map<Object, Document> findExisting(List<Object> ids, MongoPersistentEntity<?> entity) {
+        List<Object> convertedIds = new ArrayList<>();
+        for (Object id : ids) {
+            if (id != null) {
+                convertedIds.add(queryMapper.convertId(id));
+            }
+        }
+        Map<Object, Document> existing = new HashMap<>();
+        if (convertedIds.isEmpty()) {
+            return existing;
+        }
+        FindIterable<Document> documents = mongoTemplate.getCollection(entity.getCollection()).find(Filters.in("_id", convertedIds));
+        if (entity.getType() != Employee.class) {
+            documents = documents.projection(entity.hasVersionProperty()
+                ? Projections.include("_id", entity.getRequiredVersionProperty().getFieldName())
+                : Projections.include("_id"));
+        }
+        for (Document document : documents) {
+            existing.put(document.get("_id"), document);
+        }
+        return existing;
+    }
+
+    /**
+     * Run the bulk write, and report the failing and succeeding items. The bulk index of a write error is the
+     * position of the item among the pending ones.
+     *
+     * @param conditional whether the items are updates which match nothing when their entity was modified or deleted.
+     * @return the written items.
+     */
+    private List<PendingItem> execute(BulkOperations bulk, List<PendingItem> pending, BulkItemResultDTO[] results,
+            MongoPersistentEntity<?> entity, HttpStatus successStatus, boolean conditional) {
+        if (pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Integer> failed = new HashSet<>();
+        int matched;
+        try {
+            matched = bulk.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            matched = e.getResult().getMatchedCount();
+            e.getErrors().forEach(error -> {
+                PendingItem item = pending.get(error.getIndex());
+                HttpStatus status = error.getCode() == DUPLICATE_KEY ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR;
+                results[item.index] = failure(item.index, item.id, status, error.getMessage());
+                failed.add(error.getIndex());
+            });
+        } catch (DataAccessException e) {
+            log.error("Bulk write on collection {} failed", entity.getCollection(), e);
+            for (PendingItem item : pending) {
+                results[item.index] = failure(item.index, item.id, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            return Collections.emptyList();
+        }
+        if (conditional && matched < pending.size() - failed.size()) {
+            conflicts(pending, failed, results, entity);
+        }
+        List<PendingItem> written = new ArrayList<>(pending.size() - failed.size());
+        for (int i = 0; i < pending.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            PendingItem item = pending.get(i);
+            results[item.index] = new BulkItemResultDTO(item.index, item.id, successStatus.value(), null);
+            results[item.index].setEtag(EntityTagUtil.etag(writtenVersion(item, entity)));
+            written.add(item);
+        }
+        return written;
+    }
+
+    /**
+     * Find the conditional updates which matched nothing, by reading back the versions of the updated items with one
+     * query: an item whose entity is missing was deleted, and an item whose version is not the one it wrote was
+     * modified by another request.
+     */
+    private void conflicts(List<PendingItem> pending, Set<Integer> failed, BulkItemResultDTO[] results,
+            MongoPersistentEntity<?> entity) {
+        String versionField = entity.hasVersionProperty() ? entity.getRequiredVersionProperty().getFieldName() : null;
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            if (!failed.contains(i)) {
+                ids.add(pending.get(i).document.get("_id"));
+            }
+        }
+        Map<Object, Document> stored = new HashMap<>();
+        FindIterable<Document> documents = mongoTemplate.getCollection(entity.getCollection()).find(Filters.in("_id", ids))
+            .projection(versionField == null ? Projections.include("_id") : Projections.include("_id", versionField));
+        for (Document document : documents) {
+            stored.put(document.get("_id"), document);
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            PendingItem item = pending.get(i);
+            Document document = stored.get(item.document.get("_id"));
+            String since = item.expectedVersion == null ? "" : " since version " + item.expectedVersion;
+            if (document == null) {
+                results[item.index] = failure(item.index, item.id, HttpStatus.CONFLICT,
+                    "The " + entity.getCollection() + " " + item.id + " was deleted" + since);
+                failed.add(i);
+            } else if (item.expectedVersion != null) {
+                Object version = document.get(versionField);
+                if (!(version instanceof Number) || ((Number) version).longValue() != item.expectedVersion + 1) {
+                    results[item.index] = failure(item.index, item.id, HttpStatus.CONFLICT,
+                        "The " + entity.getCollection() + " " + item.id + " was modified" + since);
+                    failed.add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Update the data derived from saved entities: the paths of the reports of the employees whose path changed,
+     * the employee views and the salary rollups, or the job titles in the employee views. A failure is logged,
+     * without failing the written items.
+     *
+     * @param previous the stored documents before the write, by stored id.
+     */
+    private void afterSave(MongoPersistentEntity<?> entity, List<PendingItem> written, Map<Object, Document> previous) {
+        if (written.isEmpty()) {
+            return;
+        }
+        evict(entity, written);
+        try {
+            if (entity.getType() == Employee.class) {
+                List<Document> documents = new ArrayList<>(written.size());
+                List<Document> previousDocuments = new ArrayList<>();
+                for (PendingItem item : written) {
+                    Object id = item.document.get("_id");
+                    documents.add(item.document);
+                    Document stored = previous.get(id);
+                    if (stored == null) {
+                        continue;
+                    }
+                    previousDocuments.add(stored);
+                    String previousPath = stored.getString(MANAGER_PATH_FIELD);
+                    String path = item.document.getString(MANAGER_PATH_FIELD);
+                    if (previousPath != null && path != null && !previousPath.equals(path)) {
+                        employeeRepository.moveReports(id, previousPath, path);
+                    }
+                }
+                employeeViewService.refresh(documents);
+                salaryAnalyticsService.remove(previousDocuments);
+                salaryAnalyticsService.add(documents);
+            } else if (entity.getType() == Job.class) {
+                employeeViewService.refreshJobs(written.stream().map(item -> (Job) item.entity).collect(Collectors.toList()));
+            }
+        } catch (DataAccessException | MongoException e) {
+            log.error("Could not update the data derived from {} {} written in bulk", written.size(), entity.getType().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Update the data derived from deleted entities: the reports of the employees are moved to their managers,
+     * deepest first, and the employees are removed from their views and salary rollups, or the jobs from the
+     * employee views. A failure is logged, without failing the deleted items.
+     *
+     * @param previous the stored documents before the delete, by stored id.
+     */
+    private void afterDelete(MongoPersistentEntity<?> entity, List<PendingItem> written, Map<Object, Document> previous) {
+        if (written.isEmpty()) {
+            return;
+        }
+        evict(entity, written);
+        List<Object> ids = written.stream().map(item -> item.document.get("_id")).collect(Collectors.toList());
+        List<String> viewIds = written.stream().map(item -> item.id).collect(Collectors.toList());
+        try {
+            if (entity.getType() == Employee.class) {
+                List<Document> managers = new ArrayList<>();
+                for (Object managerId : employees().distinct(MANAGER_ID_FIELD, Filters.in(MANAGER_ID_FIELD, ids), Object.class)) {
+                    Document manager = previous.get(managerId);
+                    if (manager != null) {
+                        managers.add(manager);
+                    }
+                }
+                managers.sort((first, second) -> Integer.compare(pathLength(second), pathLength(first)));
+                for (Document manager : managers) {
+                    for (Object report : employeeRepository.reparentReports(manager.get("_id"))) {
+                        documentCache.evict(entity.getCollection(), report);
+                    }
+                }
+                employeeViewService.delete(viewIds);
+                salaryAnalyticsService.remove(ids.stream().map(previous::get).filter(Objects::nonNull).collect(Collectors.toList()));
+            } else if (entity.getType() == Job.class) {
+                employeeViewService.deleteJobs(viewIds);
+            }
+        } catch (DataAccessException | MongoException e) {
+            log.error("Could not update the data derived from {} {} deleted in bulk", written.size(), entity.getType().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Evict the written entities from the document cache, and invalidate the reference data snapshots of their type.
+     */
+    private void evict(MongoPersistentEntity<?> entity, List<PendingItem> written) {
+        for (PendingItem item : written) {
+            documentCache.evict(entity.getCollection(), item.document.get("_id"));
+        }
+        referenceDataCache.invalidate(entity.getType());
+    }
+
+    /**
+     * Get the version an update must find: the one of the item, otherwise the one of the stored entity.
+     */
+    private static Long expectedVersion(Document document, Document stored, String versionField) {
+        if (versionField == null) {
+            return null;
+        }
+        Object version = document.get(versionField) != null ? document.get(versionField) : stored.get(versionField);
+        return version instanceof Number ? ((Number) version).longValue() : null;
+    }
+
+    /**
+     * Get the version of a written entity: the one it was inserted with, or the expected one incremented by its update.
+     */
+    private static Long writtenVersion(PendingItem item, MongoPersistentEntity<?> entity) {
+        if (item.entity == null || !entity.hasVersionProperty()) {
+            return null;
+        }
+        if (item.expectedVersion != null) {
+            return item.expectedVersion + 1;
+        }
+        Object version = item.document.get(entity.getRequiredVersionProperty().getFieldName());
+        return version instanceof Number ? ((Number) version).longValue() : null;
+    }
+
+    private static int pathLength(Document employee) {
+        String path = employee.getString(MANAGER_PATH_FIELD);
+        return path == null ? 0 : path.length();
+    }
+
+    private List<BulkItemResultDTO> record(String operation, MongoPersistentEntity<?> entity, Timer.Sample sample,
+            BulkItemResultDTO[] results) {
+        String collection = entity.getCollection();
+        sample.stop(Timer.builder("bulk.requests")
+            .description("Bulk requests, by collection and operation")
+            .tag("collection", collection)
+            .tag("operation", operation)
+            .register(meterRegistry));
+        DistributionSummary.builder("bulk.batch.size")
+            .description("Items per bulk request")
+            .tag("collection", collection)
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .record(results.length);
+        long succeeded = Arrays.stream(results).filter(result -> result.getError() == null).count();
+        itemCounter(collection, operation, "success").increment(succeeded);
+        itemCounter(collection, operation, "failure").increment(results.length - succeeded);
+        return Arrays.asList(results);
+    }
+
+    private Counter itemCounter(String collection, String operation, String outcome) {
+        return Counter.builder("bulk.items")
+            .description("Items of the bulk requests, by outcome")
+            .tag("collection", collection)
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static BulkItemResultDTO failure(int index, String id, HttpStatus status, String error) {
+        return new BulkItemResultDTO(index, id, status.value(), error);
+    }
+
+    private MongoCollection<Document> employees() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class));
+    }
+
+    private MongoPersistentEntity<?> getEntity(Class<?> entityClass) {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+    }
+
+    /**
+     * An item added to the bulk write: an entity to save, or the query of a delete.
+     */
+    private static class PendingItem {
+
+        private final int index;
+
+        private final String id;
+
+        private final Object entity;
+
+        private final Document document;
+
+        private final Long expectedVersion;
+
+        PendingItem(int index, String id, Object entity, Document document, Long expectedVersion) {
+            this.index = index;
+            this.id = id;
+            this.entity = entity;
+            this.document = document;
+            this.expectedVersion = expectedVersion;
+        }
+    }
+}
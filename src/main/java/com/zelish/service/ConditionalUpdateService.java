@@ -0,0 +1,74 @@
+package com.zelish.service;
+
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for updating versioned entities on the condition that they were not modified since a known version.
+ * <p>
+ * The condition and the update are sent as a single {@code findAndModify}, which increments the version and returns
+ * the updated document: a concurrent update can neither be overwritten nor need a second read. The mapping events
+ * are published as for a save, so that the listeners maintaining derived data still apply.
+ */
+@Service
+public class ConditionalUpdateService {
+
+    private final Logger log = LoggerFactory.getLogger(ConditionalUpdateService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ConditionalUpdateService(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Replace all the properties of an entity, if it has the expected version.
+     *
+     * @param entity the entity to update, with its id; its version is ignored.
+     * @param expectedVersion the version the entity must have, or {@code null} to update it whatever its version,
+     *                        creating it if it does not exist.
+     * @param entityClass the entity type, which must have a {@code @Version} property.
+     * @param <T> the entity type.
+     * @return the updated entity, with its new version.
+     * @throws OptimisticLockingFailureException if the entity does not have the expected version, or does not exist.
+     */
+    public <T> T update(T entity, Long expectedVersion, Class<T> entityClass) {
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(entityClass);
+        String collection = persistentEntity.getCollection();
+        eventPublisher.publishEvent(new BeforeConvertEvent<>(entity, collection));
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        eventPublisher.publishEvent(new BeforeSaveEvent<>(entity, document, collection));
+
+        Document filter = new Document("_id", document.get("_id"));
+        if (expectedVersion != null) {
+            filter.append(persistentEntity.getRequiredVersionProperty().getFieldName(), expectedVersion);
+        }
+        Document updated = mongoTemplate.getCollection(collection).findOneAndUpdate(filter,
+            BulkService.replacement(document, persistentEntity).getUpdateObject(),
+            new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER).upsert(expectedVersion == null));
+        if (updated == null) {
+            log.debug("Version {} of {} {} not found", expectedVersion, collection, document.get("_id"));
+            throw new OptimisticLockingFailureException("The " + collection + " " + document.get("_id")
+                + " was modified or deleted since version " + expectedVersion);
+        }
+        T result = mongoTemplate.getConverter().read(entityClass, updated);
+        eventPublisher.publishEvent(new AfterSaveEvent<>(result, updated, collection));
+        return result;
+    }
+}
@@ -25,6 +25,13 @@ public interface CountryService {
      */
     List<Country> findAll();
 
+    /**
+     * Get all the countries, with the ETag of the list.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    ReferenceDataCache.Snapshot<Country> findAllSnapshot();
+
 
     /**
      * Get the "id" country.
@@ -19,12 +19,29 @@ public interface DepartmentService {
     Department save(Department department);
 
     /**
-     * Get all the departments.
+     * Update a department, if it has the expected version.
+     *
+     * @param department the entity to update.
+     * @param expectedVersion the version the entity must have, or {@code null} for any version.
+     * @return the persisted entity, with its new version.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the entity does not have the expected version.
+     */
+    Department update(Department department, Long expectedVersion);
+
+    /**
+     * Get all the departments, without their employees.
      *
      * @return the list of entities.
      */
     List<Department> findAll();
 
+    /**
+     * Get all the departments without their employees, with the ETag of the list.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    ReferenceDataCache.Snapshot<Department> findAllSnapshot();
+
 
     /**
      * Get the "id" department.
@@ -0,0 +1,59 @@
+package com.zelish.service;
+
+import com.zelish.repository.DocumentCache;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the written documents from the {@link DocumentCache}.
+ * <p>
+ * A delete which is not by id evicts the whole collection.
+ */
+@Component
+public class DocumentCacheEventListener extends AbstractMongoEventListener<Object> {
+
+    private final DocumentCache documentCache;
+
+    private final QueryMapper queryMapper;
+
+    public DocumentCacheEventListener(DocumentCache documentCache, MongoTemplate mongoTemplate) {
+        this.documentCache = documentCache;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object id = event.getDocument() == null ? null : event.getDocument().get("_id");
+        if (id == null) {
+            documentCache.evictAll(event.getCollectionName());
+        } else {
+            documentCache.evict(event.getCollectionName(), id);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Object id = deletedId(event.getSource());
+        if (id == null) {
+            documentCache.evictAll(event.getCollectionName());
+        } else {
+            documentCache.evict(event.getCollectionName(), queryMapper.convertId(id));
+        }
+    }
+
+    /**
+     * Extract the id from the query of a delete by id, or {@code null} for any other query.
+     */
+    private static Object deletedId(Document query) {
+        Object id = query.containsKey("_id") ? query.get("_id") : query.get("id");
+        if (id == null || id instanceof Document || query.size() != 1) {
+            return null;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,126 @@
+package com.zelish.service;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.zelish.domain.Employee;
+import com.zelish.repository.DocumentCache;
+import com.zelish.repository.EmployeeRepository;
+import org.bson.Document;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_ID_FIELD;
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_PATH_FIELD;
+
+/**
+ * Maintains the reporting hierarchy fields of the {@link Employee} documents.
+ * <p>
+ * Before an employee is saved, the plain id of its manager and its materialized path are computed from
+ * the stored path of the manager. Once the save succeeded, the paths of all its reports are rewritten if
+ * they do not start with its new path, as read from one of its direct reports. Once an employee is deleted,
+ * its direct reports are moved to its own manager.
+ */
+@Component
+public class EmployeeHierarchyEventListener extends AbstractMongoEventListener<Employee> {
+
+    private static final String ROOT_PATH = "/";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final DocumentCache documentCache;
+
+    private final QueryMapper queryMapper;
+
+    public EmployeeHierarchyEventListener(MongoTemplate mongoTemplate, @Lazy EmployeeRepository employeeRepository,
+            DocumentCache documentCache) {
+        this.mongoTemplate = mongoTemplate;
+        this.employeeRepository = employeeRepository;
+        this.documentCache = documentCache;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Employee> event) {
+        Document document = event.getDocument();
+        if (document == null) {
+            return;
+        }
+        MongoCollection<Document> employees = mongoTemplate.getCollection(event.getCollectionName());
+        Object id = document.get("_id");
+        Object managerId = null;
+        String path = ROOT_PATH;
+        Object manager = document.get("manager");
+        if (manager instanceof DBRef) {
+            managerId = ((DBRef) manager).getId();
+            String managerPath = storedPath(employees, managerId);
+            path = (managerPath == null ? ROOT_PATH : managerPath) + managerId + "/";
+            if (id != null && path.contains("/" + id + "/")) {
+                throw new ManagerCycleException("An employee cannot be managed by one of its reports");
+            }
+        }
+        document.put(MANAGER_ID_FIELD, managerId);
+        document.put(MANAGER_PATH_FIELD, path);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Employee> event) {
+        Document document = event.getDocument();
+        if (document == null) {
+            return;
+        }
+        Object id = document.get("_id");
+        String path = document.getString(MANAGER_PATH_FIELD);
+        String previousPath = reportedPath(mongoTemplate.getCollection(event.getCollectionName()), id);
+        if (previousPath != null && path != null && !previousPath.equals(path)) {
+            employeeRepository.moveReports(id, previousPath, path);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Employee> event) {
+        Document query = event.getSource();
+        Object id = query.containsKey("_id") ? query.get("_id") : query.get("id");
+        if (id == null || id instanceof Document || query.size() != 1) {
+            // Not a delete by id: the reports of the deleted employees are unknown.
+            return;
+        }
+        for (Object report : employeeRepository.reparentReports(queryMapper.convertId(id))) {
+            documentCache.evict(event.getCollectionName(), report);
+        }
+    }
+
+    /**
+     * Get the path of an employee as written in the paths of its reports, from one of its direct reports.
+     */
+    private static String reportedPath(MongoCollection<Document> employees, Object id) {
+        if (id == null) {
+            return null;
+        }
+        Document report = employees.find(Filters.eq(MANAGER_ID_FIELD, id))
+            .projection(Projections.include(MANAGER_PATH_FIELD))
+            .first();
+        String reportPath = report == null ? null : report.getString(MANAGER_PATH_FIELD);
+        String suffix = id + "/";
+        if (reportPath == null || !reportPath.endsWith("/" + suffix)) {
+            return null;
+        }
+        return reportPath.substring(0, reportPath.length() - suffix.length());
+    }
+
+    private static String storedPath(MongoCollection<Document> employees, Object id) {
+        Document employee = employees.find(Filters.eq("_id", id))
+            .projection(Projections.include(MANAGER_PATH_FIELD))
+            .first();
+        return employee == null ? null : employee.getString(MANAGER_PATH_FIELD);
+    }
+}
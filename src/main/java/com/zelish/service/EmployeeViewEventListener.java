@@ -0,0 +1,99 @@
+package com.zelish.service;
+
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link com.zelish.domain.EmployeeView} read model in sync with the {@link Employee},
+ * {@link Department} and {@link Job} collections.
+ * <p>
+ * A failure to update a view never fails the original write: it is logged, and the views can be
+ * regenerated with {@link EmployeeViewService#rebuild()}. A delete by any other query than by ids
+ * regenerates the views in the background rather than on the caller's thread.
+ */
+@Component
+public class EmployeeViewEventListener extends AbstractMongoEventListener<Object> {
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeViewEventListener.class);
+
+    private final EmployeeViewService employeeViewService;
+
+    public EmployeeViewEventListener(EmployeeViewService employeeViewService) {
+        this.employeeViewService = employeeViewService;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        try {
+            if (source instanceof Employee) {
+                employeeViewService.refresh((Employee) source);
+            } else if (source instanceof Department) {
+                employeeViewService.refreshDepartment((Department) source);
+            } else if (source instanceof Job) {
+                employeeViewService.refreshJob((Job) source);
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not update the employee views after saving {}", source, e);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Class<?> type = event.getType();
+        if (type != Employee.class && type != Department.class && type != Job.class) {
+            return;
+        }
+        List<String> ids = deletedIds(event.getSource());
+        if (ids == null) {
+            // Not a delete by ids: the affected views are unknown, and regenerating them all is left to the background.
+            employeeViewService.rebuildInBackground();
+            return;
+        }
+        try {
+            for (String id : ids) {
+                if (type == Employee.class) {
+                    employeeViewService.delete(id);
+                } else if (type == Department.class) {
+                    employeeViewService.deleteDepartment(id);
+                } else {
+                    employeeViewService.deleteJob(id);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("Could not update the employee views after deleting {} {}", type.getSimpleName(), ids, e);
+        }
+    }
+
+    /**
+     * Extract the ids from the query of a delete by id or by a list of ids, or {@code null} for any other query.
+     */
+    private static List<String> deletedIds(Document query) {
+        Object id = query.containsKey("_id") ? query.get("_id") : query.get("id");
+        if (id == null || query.size() != 1) {
+            return null;
+        }
+        if (!(id instanceof Document)) {
+            return Collections.singletonList(id.toString());
+        }
+        Document condition = (Document) id;
+        if (condition.size() != 1 || !(condition.get("$in") instanceof Collection)) {
+            return null;
+        }
+        return ((Collection<?>) condition.get("$in")).stream().map(Object::toString).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,306 @@
+package com.zelish.service;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.EmployeeView;
+import com.zelish.domain.Job;
+import com.zelish.repository.EmployeeViewRepository;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Service maintaining the {@link EmployeeView} read model.
+ * <p>
+ * Views are refreshed incrementally when an employee, department or job is written, and can be
+ * regenerated in bulk with {@link #rebuild()}. Employees are always read as raw documents, so that
+ * building a view never resolves a {@code @DBRef}.
+ */
+@Service
+public class EmployeeViewService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeViewService.class);
+
+    private final Object rebuildLock = new Object();
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    private final MongoTemplate mongoTemplate;
+
+    private final EmployeeViewRepository employeeViewRepository;
+
+    public EmployeeViewService(MongoTemplate mongoTemplate, EmployeeViewRepository employeeViewRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.employeeViewRepository = employeeViewRepository;
+    }
+
+    public Page<EmployeeView> findAll(Pageable pageable) {
+        return employeeViewRepository.findAll(pageable);
+    }
+
+    public Optional<EmployeeView> findOne(String id) {
+        return employeeViewRepository.findById(id);
+    }
+
+    /**
+     * Create or replace the view of an employee.
+     *
+     * @param employee the saved employee.
+     */
+    public void refresh(Employee employee) {
+        log.debug("Refreshing the view of Employee : {}", employee.getId());
+        Document document = new Document();
+        mongoTemplate.getConverter().write(employee, document);
+        toViews(Collections.singletonList(document), Instant.now()).forEach(mongoTemplate::save);
+    }
+
+    /**
+     * Delete the view of an employee.
+     *
+     * @param employeeId the id of the deleted employee.
+     */
+    public void delete(String employeeId) {
+        log.debug("Deleting the view of Employee : {}", employeeId);
+        employeeViewRepository.deleteById(employeeId);
+    }
+
+    /**
+     * Delete the views of employees, with one query.
+     *
+     * @param employeeIds the ids of the deleted employees.
+     */
+    public void delete(List<String> employeeIds) {
+        log.debug("Deleting the views of {} Employees", employeeIds.size());
+        if (!employeeIds.isEmpty()) {
+            mongoTemplate.remove(query(where("id").in(employeeIds)), EmployeeView.class);
+        }
+    }
+
+    /**
+     * Propagate the name of a department to the views of its employees.
+     *
+     * @param department the saved department.
+     */
+    public void refreshDepartment(Department department) {
+        mongoTemplate.updateMulti(query(where("departmentId").is(department.getId())),
+            new Update().set("departmentName", department.getDepartmentName()), EmployeeView.class);
+    }
+
+    /**
+     * Detach a deleted department from the views of its employees.
+     *
+     * @param departmentId the id of the deleted department.
+     */
+    public void deleteDepartment(String departmentId) {
+        mongoTemplate.updateMulti(query(where("departmentId").is(departmentId)),
+            new Update().unset("departmentId").unset("departmentName"), EmployeeView.class);
+    }
+
+    /**
+     * Propagate the title of a job to the views of the employees holding it.
+     *
+     * @param job the saved job.
+     */
+    public void refreshJob(Job job) {
+        mongoTemplate.updateMulti(query(where("jobs.job_id").is(job.getId())),
+            new Update().set("jobs.$.job_title", job.getJobTitle()), EmployeeView.class);
+    }
+
+    /**
+     * Propagate the titles of jobs to the views of the employees holding them, with one unordered bulk write.
+     *
+     * @param jobs the saved jobs.
+     */
+    public void refreshJobs(List<Job> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, EmployeeView.class);
+        for (Job job : jobs) {
+            bulk.updateMulti(query(where("jobs.job_id").is(job.getId())), new Update().set("jobs.$.job_title", job.getJobTitle()));
+        }
+        bulk.execute();
+    }
+
+    /**
+     * Remove a deleted job from the views of the employees holding it.
+     *
+     * @param jobId the id of the deleted job.
+     */
+    public void deleteJob(String jobId) {
+        mongoTemplate.updateMulti(query(where("jobs.job_id").is(jobId)),
+            new Update().pull("jobs", new Document("job_id", jobId)), EmployeeView.class);
+    }
+
+    /**
+     * Remove deleted jobs from the views of the employees holding them, with one query.
+     *
+     * @param jobIds the ids of the deleted jobs.
+     */
+    public void deleteJobs(List<String> jobIds) {
+        if (!jobIds.isEmpty()) {
+            mongoTemplate.updateMulti(query(where("jobs.job_id").in(jobIds)),
+                new Update().pull("jobs", new Document("job_id", new Document("$in", jobIds))), EmployeeView.class);
+        }
+    }
+
+    /**
+     * Create or replace the views of employees written as raw documents, with a single unordered bulk write.
+     *
+     * @param employees the saved employee documents.
+     */
+    public void refresh(List<Document> employees) {
+        log.debug("Refreshing the views of {} Employees", employees.size());
+        if (!employees.isEmpty()) {
+            write(employees, Instant.now());
+        }
+    }
+
+    /**
+     * Regenerate all views from the employee collection.
+     * <p>
+     * Employees are read in {@code _id} order by batches, each batch being written with a single unordered
+     * bulk write. Views that were not refreshed by the rebuild belong to deleted employees and are removed.
+     *
+     * @return the number of views written.
+     */
+    public long rebuild() {
+        log.info("Rebuilding the employee views");
+        Instant start = Instant.now();
+        MongoCollection<Document> employees = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class));
+        long count = 0;
+        Object lastId = null;
+        while (true) {
+            Bson filter = lastId == null ? new Document() : Filters.gt("_id", lastId);
+            List<Document> batch = employees.find(filter)
+                .projection(Projections.include("first_name", "last_name", "email", "department", "job"))
+                .sort(Sorts.ascending("_id"))
+                .limit(REBUILD_BATCH_SIZE)
+                .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+            write(batch, start);
+            count += batch.size();
+            lastId = batch.get(batch.size() - 1).get("_id");
+        }
+        mongoTemplate.remove(query(where("syncedAt").not().gte(start)), EmployeeView.class);
+        log.info("Rebuilt {} employee views", count);
+        return count;
+    }
+
+    /**
+     * Regenerate all views in the background.
+     * <p>
+     * The requests made while a rebuild is running are served by a single rebuild started after it.
+     */
+    @Async
+    public void rebuildInBackground() {
+        rebuildRequested.set(true);
+        synchronized (rebuildLock) {
+            if (rebuildRequested.compareAndSet(true, false)) {
+                try {
+                    rebuild();
+                } catch (DataAccessException e) {
+                    log.error("Could not rebuild the employee views", e);
+                }
+            }
+        }
+    }
+
+    private void write(List<Document> employees, Instant syncedAt) {
+        MongoCollection<Document> views = mongoTemplate.getCollection(mongoTemplate.getCollectionName(EmployeeView.class));
+        List<ReplaceOneModel<Document>> writes = new ArrayList<>(employees.size());
+        for (EmployeeView view : toViews(employees, syncedAt)) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(view, document);
+            writes.add(new ReplaceOneModel<>(Filters.eq("_id", document.get("_id")), document, new ReplaceOptions().upsert(true)));
+        }
+        views.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+    }
+
+    private List<EmployeeView> toViews(List<Document> employees, Instant syncedAt) {
+        Set<Object> departmentIds = new HashSet<>();
+        Set<Object> jobIds = new HashSet<>();
+        for (Document employee : employees) {
+            Object department = employee.get("department");
+            if (department instanceof DBRef) {
+                departmentIds.add(((DBRef) department).getId());
+            }
+            references(employee.get("job")).forEach(job -> jobIds.add(job.getId()));
+        }
+        Map<Object, String> departmentNames = names(Department.class, "department_name", departmentIds);
+        Map<Object, String> jobTitles = names(Job.class, "job_title", jobIds);
+
+        List<EmployeeView> views = new ArrayList<>(employees.size());
+        for (Document employee : employees) {
+            EmployeeView view = new EmployeeView();
+            view.setId(employee.get("_id").toString());
+            view.setFirstName(employee.getString("first_name"));
+            view.setLastName(employee.getString("last_name"));
+            view.setEmail(employee.getString("email"));
+            Object department = employee.get("department");
+            if (department instanceof DBRef) {
+                Object departmentId = ((DBRef) department).getId();
+                view.setDepartmentId(departmentId.toString());
+                view.setDepartmentName(departmentNames.get(departmentId));
+            }
+            view.setJobs(references(employee.get("job")).stream()
+                .map(job -> new EmployeeView.JobSummary(job.getId().toString(), jobTitles.get(job.getId())))
+                .collect(Collectors.toList()));
+            view.setSyncedAt(syncedAt);
+            views.add(view);
+        }
+        return views;
+    }
+
+    private Map<Object, String> names(Class<?> entityClass, String field, Set<Object> ids) {
+        Map<Object, String> names = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Document document : mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass))
+                    .find(Filters.in("_id", ids))
+                    .projection(Projections.include(field))) {
+                names.put(document.get("_id"), document.getString(field));
+            }
+        }
+        return names;
+    }
+
+    private static List<DBRef> references(Object value) {
+        if (!(value instanceof Collection)) {
+            return Collections.emptyList();
+        }
+        return ((Collection<?>) value).stream()
+            .filter(DBRef.class::isInstance)
+            .map(DBRef.class::cast)
+            .collect(Collectors.toList());
+    }
+}
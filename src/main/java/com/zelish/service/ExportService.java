@@ -0,0 +1,72 @@
+package com.zelish.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.repository.BatchingQueryExecutor;
+import com.zelish.repository.SecondaryPreferred;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service for exporting whole collections as newline delimited JSON.
+ * <p>
+ * The entities are written as they are read from a database cursor, so that the memory used by an export
+ * does not depend on the size of the collection. The exports are read from the secondaries.
+ */
+@Service
+public class ExportService {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int NEWLINE = '\n';
+
+    private final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ExportService(BatchingQueryExecutor batchingQueryExecutor, ObjectMapper objectMapper,
+            ApplicationProperties applicationProperties) {
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.objectMapper = objectMapper;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Write all the entities of a type, one JSON document per line, in their natural order.
+     *
+     * @param entityClass the entity type.
+     * @param out the stream to write to; it is flushed after each batch, and not closed.
+     * @param <T> the entity type.
+     * @throws IOException if the stream cannot be written, for instance when the client went away.
+     */
+    @SecondaryPreferred
+    public <T> void export(Class<T> entityClass, OutputStream out) throws IOException {
+        int batchSize = applicationProperties.getExport().getBatchSize();
+        ObjectWriter writer = objectMapper.writerFor(entityClass);
+        OutputStream buffered = new BufferedOutputStream(out);
+        long count = 0;
+        try (CloseableIterator<T> entities = batchingQueryExecutor.stream(new Query(), batchSize, entityClass)) {
+            while (entities.hasNext()) {
+                buffered.write(writer.writeValueAsBytes(entities.next()));
+                buffered.write(NEWLINE);
+                if (++count % batchSize == 0) {
+                    buffered.flush();
+                }
+            }
+        }
+        buffered.flush();
+        log.debug("Exported {} {} entities", count, entityClass.getSimpleName());
+    }
+}
@@ -0,0 +1,86 @@
+package com.zelish.service;
+
+import com.zelish.service.dto.ImportProgressDTO;
+import com.zelish.service.dto.ImportRejectDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Runs an import from the command line, then stops the application:
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none --import-file=employees.csv --import-entity=employees
+ * </pre>
+ * The format is given by the extension of the file, {@code .csv} or else newline delimited JSON, and the entity
+ * is {@code employees} or {@code job-histories}. The exit code is 1 if a row was rejected, 2 if the import failed.
+ */
+@Component
+public class ImportRunner implements ApplicationRunner {
+
+    public static final String FILE_OPTION = "import-file";
+
+    public static final String ENTITY_OPTION = "import-entity";
+
+    private final Logger log = LoggerFactory.getLogger(ImportRunner.class);
+
+    private final ImportService importService;
+
+    private final ApplicationContext applicationContext;
+
+    public ImportRunner(ImportService importService, ApplicationContext applicationContext) {
+        this.importService = importService;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(FILE_OPTION)) {
+            return;
+        }
+        String file = option(args, FILE_OPTION);
+        String entity = option(args, ENTITY_OPTION);
+        int exitCode;
+        try (InputStream in = Files.newInputStream(Paths.get(file))) {
+            ImportService.Format format = ImportService.Format.of(file);
+            ImportService.Listener listener = new ImportService.Listener() {
+                @Override
+                public void onProgress(ImportProgressDTO progress) {
+                    log.info("Import of {}: {}", file, progress);
+                }
+
+                @Override
+                public void onReject(ImportRejectDTO reject) {
+                    log.warn("Import of {}: rejected row {}: {}", file, reject.getRow(), reject.getError());
+                }
+            };
+            ImportProgressDTO progress;
+            if ("job-histories".equals(entity)) {
+                progress = importService.importJobHistories(in, format, listener);
+            } else if (entity == null || "employees".equals(entity)) {
+                progress = importService.importEmployees(in, format, listener);
+            } else {
+                throw new IllegalArgumentException("Unknown entity to import: " + entity);
+            }
+            exitCode = progress.getRejected() > 0 ? 1 : 0;
+        } catch (Exception e) {
+            log.error("Import of {} failed", file, e);
+            exitCode = 2;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
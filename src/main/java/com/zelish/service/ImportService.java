@@ -0,0 +1,680 @@
+package com.zelish.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.domain.JobHistory;
+import com.zelish.service.dto.ImportProgressDTO;
+import com.zelish.service.dto.ImportRejectDTO;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_ID_FIELD;
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_PATH_FIELD;
+
+/**
+ * Service for importing large numbers of {@link Employee}s and {@link JobHistory}s from CSV or newline delimited JSON.
+ * <p>
+ * The input is parsed row by row, and the rows are written by batch with {@code insertMany}, a bounded number of
+ * batches being written at once while the next one is parsed. The references are given by natural key: departments
+ * by name and jobs by title, looked up in tables loaded once, and employees by email, looked up in a bounded table
+ * filled by the import itself and backed by the database. The memory used thus does not depend on the size of the input.
+ * <p>
+ * The rows bypass the mapping events: the reporting hierarchy fields of the employees are computed from the lookup
+ * table, and the employee views and salary rollups are updated once per batch.
+ * <p>
+ * An employee is in the lookup table before its batch is written. When its insert fails, it is evicted from the
+ * table, and the rows referencing it as manager are rejected before they are written: a row is written only once
+ * the batch of its manager is, after its manager in the same batch.
+ */
+@Service
+public class ImportService {
+
+    private static final String ROOT_PATH = "/";
+
+    private static final String VALUES_SEPARATOR = "|";
+
+    private final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    private final Validator validator;
+
+    private final EmployeeViewService employeeViewService;
+
+    private final SalaryAnalyticsService salaryAnalyticsService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ImportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper, Validator validator,
+            EmployeeViewService employeeViewService, SalaryAnalyticsService salaryAnalyticsService,
+            ApplicationProperties applicationProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.employeeViewService = employeeViewService;
+        this.salaryAnalyticsService = salaryAnalyticsService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * The formats of the imported files.
+     */
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Find the format of a media type or a file name.
+         *
+         * @param mediaTypeOrFileName the media type of the input, or its file name.
+         * @return {@link #CSV} if it mentions csv, {@link #NDJSON} otherwise.
+         */
+        public static Format of(String mediaTypeOrFileName) {
+            return mediaTypeOrFileName != null && mediaTypeOrFileName.toLowerCase(Locale.ROOT).contains("csv") ? CSV : NDJSON;
+        }
+    }
+
+    /**
+     * Receives the progress and the rejected rows of an import, as they happen. Calls are never concurrent.
+     */
+    public interface Listener {
+
+        void onProgress(ImportProgressDTO progress);
+
+        void onReject(ImportRejectDTO reject);
+    }
+
+    /**
+     * Import employees.
+     * <p>
+     * Besides the properties of {@link Employee}, a row may have a {@code department} column with the name of
+     * a department, a {@code jobs} column with job titles separated by {@code |}, and a {@code manager} column
+     * with the email of an existing employee or of an employee of a previous row.
+     *
+     * @param in the input, without ids; it is closed at the end.
+     * @param format the format of the input.
+     * @param listener the listener of the progress and rejected rows.
+     * @return the final progress.
+     * @throws IOException if the input cannot be read or parsed.
+     */
+    public ImportProgressDTO importEmployees(InputStream in, Format format, Listener listener) throws IOException {
+        return run(Employee.class, in, format, listener, this::toEmployee, employees -> {
+            employeeViewService.refresh(employees);
+            salaryAnalyticsService.add(employees);
+        });
+    }
+
+    /**
+     * Import job histories.
+     * <p>
+     * Besides the properties of {@link JobHistory}, a row may have a {@code job} column with the title of a job,
+     * a {@code department} column with the name of a department, and an {@code employee} column with the email
+     * of an employee.
+     *
+     * @param in the input, without ids; it is closed at the end.
+     * @param format the format of the input.
+     * @param listener the listener of the progress and rejected rows.
+     * @return the final progress.
+     * @throws IOException if the input cannot be read or parsed.
+     */
+    public ImportProgressDTO importJobHistories(InputStream in, Format format, Listener listener) throws IOException {
+        return run(JobHistory.class, in, format, listener, this::toJobHistory, documents -> { });
+    }
+
+    private ImportProgressDTO run(Class<?> entityClass, InputStream in, Format format, Listener listener,
+            RowConverter converter, Consumer<List<Document>> afterWrite) throws IOException {
+        log.info("Importing {} from {}", entityClass.getSimpleName(), format);
+        ApplicationProperties.Import properties = applicationProperties.getImport();
+        ImportJob job = new ImportJob(entityClass, listener, afterWrite);
+        try (MappingIterator<Map<String, Object>> rows = reader(format).readValues(in)) {
+            while (rows.hasNextValue()) {
+                Map<String, Object> row = rows.nextValue();
+                long rowNumber = ++job.read;
+                try {
+                    job.add(rowNumber, converter.convert(normalize(row), job));
+                } catch (RowRejectedException e) {
+                    job.reject(rowNumber, e.getMessage());
+                }
+                if (rowNumber % properties.getProgressInterval() == 0) {
+                    job.progress(false);
+                }
+            }
+            job.flush();
+        } finally {
+            job.close();
+        }
+        ImportProgressDTO progress = job.progress(true);
+        log.info("Imported {} {}: {}", entityClass.getSimpleName(), format, progress);
+        return progress;
+    }
+
+    private ObjectReader reader(Format format) {
+        if (format == Format.CSV) {
+            return csvMapper.readerFor(Map.class).with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(Map.class);
+    }
+
+    private Document toEmployee(Map<String, Object> row, ImportJob job) {
+        String departmentName = text(row.remove("department"));
+        String managerEmail = text(row.remove("manager"));
+        List<String> jobTitles = texts(row.remove("jobs"));
+        Employee employee = convert(row, Employee.class);
+        if (departmentName != null) {
+            Department department = new Department();
+            department.setId(job.department(departmentName));
+            employee.setDepartment(department);
+        }
+        for (String jobTitle : jobTitles) {
+            Job reference = new Job();
+            reference.setId(job.job(jobTitle));
+            employee.getJobs().add(reference);
+        }
+        Object managerId = null;
+        String path = ROOT_PATH;
+        if (managerEmail != null) {
+            Document manager = job.employee(managerEmail);
+            managerId = manager.get("_id");
+            Employee reference = new Employee();
+            reference.setId(managerId.toString());
+            employee.setManager(reference);
+            String managerPath = manager.getString(MANAGER_PATH_FIELD);
+            path = (managerPath == null ? ROOT_PATH : managerPath) + managerId + "/";
+        }
+        Document document = write(employee);
+        document.put(MANAGER_ID_FIELD, managerId);
+        document.put(MANAGER_PATH_FIELD, path);
+        if (employee.getEmail() != null) {
+            job.remember(employee.getEmail(), new Document("_id", document.get("_id")).append(MANAGER_PATH_FIELD, path));
+        }
+        return document;
+    }
+
+    private Document toJobHistory(Map<String, Object> row, ImportJob job) {
+        String jobTitle = text(row.remove("job"));
+        String departmentName = text(row.remove("department"));
+        String employeeEmail = text(row.remove("employee"));
+        JobHistory jobHistory = convert(row, JobHistory.class);
+        if (jobTitle != null) {
+            Job reference = new Job();
+            reference.setId(job.job(jobTitle));
+            jobHistory.setJob(reference);
+        }
+        if (departmentName != null) {
+            Department department = new Department();
+            department.setId(job.department(departmentName));
+            jobHistory.setDepartment(department);
+        }
+        if (employeeEmail != null) {
+            Employee employee = new Employee();
+            employee.setId(job.employee(employeeEmail).get("_id").toString());
+            jobHistory.setEmployee(employee);
+        }
+        return write(jobHistory);
+    }
+
+    /**
+     * Convert the properties of a row to a new entity with a generated id, and validate it.
+     */
+    private <T> T convert(Map<String, Object> row, Class<T> entityClass) {
+        if (row.get("id") != null) {
+            throw new RowRejectedException("A new " + entityClass.getSimpleName() + " cannot already have an ID");
+        }
+        row.put("id", new ObjectId().toHexString());
+        T entity;
+        try {
+            entity = objectMapper.convertValue(row, entityClass);
+        } catch (IllegalArgumentException e) {
+            throw new RowRejectedException(e.getMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            throw new RowRejectedException(violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining(", ")));
+        }
+        return entity;
+    }
+
+    private Document write(Object entity) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(entity, document);
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(entity.getClass());
+        if (persistentEntity.hasVersionProperty()) {
+            // As initialized by a single insert.
+            document.putIfAbsent(persistentEntity.getRequiredVersionProperty().getFieldName(), 0L);
+        }
+        return document;
+    }
+
+    /**
+     * Trim the values of a row, blank values being missing ones.
+     */
+    private static Map<String, Object> normalize(Map<String, Object> row) {
+        Map<String, Object> normalized = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                value = ((String) value).trim();
+                value = ((String) value).isEmpty() ? null : value;
+            }
+            normalized.put(entry.getKey().trim(), value);
+        }
+        return normalized;
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Read the values of a column: a JSON array, or a string of values separated by {@code |}.
+     */
+    private static List<String> texts(Object value) {
+        List<String> texts = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                if (item != null) {
+                    texts.add(item.toString());
+                }
+            }
+        } else if (value != null) {
+            for (String item : value.toString().split(Pattern.quote(VALUES_SEPARATOR))) {
+                if (!item.trim().isEmpty()) {
+                    texts.add(item.trim());
+                }
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Converts a normalized row to the document to insert.
+     */
+    @FunctionalInterface
+    private interface RowConverter {
+
+        Document convert(Map<String, Object> row, ImportJob job);
+    }
+
+    /**
+     * Thrown when a row cannot be imported; the import goes on with the next one.
+     */
+    private static class RowRejectedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        RowRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The state of a running import: the lookup tables, the batch being filled, and the batches being written.
+     */
+    private class ImportJob {
+
+        private final MongoCollection<Document> collection;
+
+        private final Listener listener;
+
+        private final Consumer<List<Document>> afterWrite;
+
+        private final int batchSize;
+
+        private final int maxInFlightBatches;
+
+        private final Semaphore inFlightBatches;
+
+        private final ExecutorService executor;
+
+        private final Map<String, String> departments;
+
+        private final Map<String, String> jobs;
+
+        private final Map<String, Document> employees;
+
+        private final AtomicLong imported = new AtomicLong();
+
+        private final AtomicLong rejected = new AtomicLong();
+
+        /**
+         * The batches not written yet, by the id of their documents.
+         */
+        private final Map<Object, Batch> unwrittenBatches = new ConcurrentHashMap<>();
+
+        /**
+         * The ids of the documents which could not be inserted.
+         */
+        private final Set<Object> failedIds = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The emails of the employees which could not be inserted, to be evicted from the lookup table.
+         */
+        private final Queue<String> failedEmails = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The batches not written yet of the employees evicted from the lookup table, by email.
+         */
+        private final Map<String, Batch> evictedEmails = new HashMap<>();
+
+        private long read;
+
+        private Batch batch = new Batch();
+
+        ImportJob(Class<?> entityClass, Listener listener, Consumer<List<Document>> afterWrite) {
+            ApplicationProperties.Import properties = applicationProperties.getImport();
+            this.collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass));
+            this.listener = listener;
+            this.afterWrite = afterWrite;
+            this.batchSize = properties.getBatchSize();
+            this.maxInFlightBatches = properties.getMaxInFlightBatches();
+            this.inFlightBatches = new Semaphore(maxInFlightBatches);
+            this.executor = Executors.newFixedThreadPool(maxInFlightBatches, new CustomizableThreadFactory("import-"));
+            this.departments = names(Department.class, "department_name");
+            this.jobs = names(Job.class, "job_title");
+            int lookupSize = properties.getLookupSize();
+            this.employees = new LinkedHashMap<String, Document>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+                    if (size() <= lookupSize) {
+                        return false;
+                    }
+                    Batch unwritten = unwrittenBatches.get(eldest.getValue().get("_id"));
+                    if (unwritten != null) {
+                        if (evictedEmails.size() >= lookupSize) {
+                            evictedEmails.values().removeIf(evicted -> evicted.written.getCount() == 0);
+                        }
+                        evictedEmails.put(eldest.getKey(), unwritten);
+                    }
+                    return true;
+                }
+            };
+        }
+
+        String department(String name) {
+            String id = departments.get(name);
+            if (id == null) {
+                throw new RowRejectedException("Unknown department: " + name);
+            }
+            return id;
+        }
+
+        String job(String title) {
+            String id = jobs.get(title);
+            if (id == null) {
+                throw new RowRejectedException("Unknown job: " + title);
+            }
+            return id;
+        }
+
+        /**
+         * Find the id and path of an employee by email. An employee evicted from the lookup table before its batch
+         * was written is looked up in the database once that batch is written; any other employee missing from the
+         * lookup table is looked up right away, and rejected if unknown.
+         */
+        Document employee(String email) {
+            for (String failedEmail = failedEmails.poll(); failedEmail != null; failedEmail = failedEmails.poll()) {
+                employees.remove(failedEmail);
+            }
+            Document employee = employees.get(email);
+            if (employee == null) {
+                Batch evicted = evictedEmails.remove(email);
+                if (evicted != null) {
+                    if (evicted == batch) {
+                        flush();
+                    }
+                    evicted.await();
+                }
+                employee = findEmployee(email);
+                if (employee == null) {
+                    throw new RowRejectedException("Unknown employee: " + email);
+                }
+                employees.put(email, employee);
+            }
+            return employee;
+        }
+
+        void remember(String email, Document employee) {
+            employees.put(email, employee);
+        }
+
+        void add(long row, Document document) {
+            batch.documents.add(document);
+            batch.rows.add(row);
+            unwrittenBatches.put(document.get("_id"), batch);
+            if (batch.documents.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Hand the current batch to a writer thread, once fewer than the maximum number of batches are being written.
+         */
+        void flush() {
+            if (batch.documents.isEmpty()) {
+                return;
+            }
+            Batch documents = batch;
+            batch = new Batch();
+            inFlightBatches.acquireUninterruptibly();
+            try {
+                executor.execute(() -> {
+                    try {
+                        write(documents);
+                    } finally {
+                        for (Document document : documents.documents) {
+                            unwrittenBatches.remove(document.get("_id"));
+                        }
+                        documents.written.countDown();
+                        inFlightBatches.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlightBatches.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Write a batch in rounds: each round inserts the documents whose manager is not in the rest of the batch,
+         * once the previous batch holding their manager is written. A document whose manager could not be inserted
+         * is rejected.
+         */
+        private void write(Batch batch) {
+            List<Integer> remaining = new ArrayList<>(batch.documents.size());
+            for (int i = 0; i < batch.documents.size(); i++) {
+                remaining.add(i);
+            }
+            List<Document> written = new ArrayList<>(batch.documents.size());
+            while (!remaining.isEmpty()) {
+                Set<Object> remainingIds = new HashSet<>();
+                remaining.forEach(i -> remainingIds.add(batch.documents.get(i).get("_id")));
+                List<Integer> round = new ArrayList<>();
+                List<Integer> deferred = new ArrayList<>();
+                for (int i : remaining) {
+                    Document document = batch.documents.get(i);
+                    Object managerId = document.get(MANAGER_ID_FIELD);
+                    if (managerId != null && remainingIds.contains(managerId)) {
+                        deferred.add(i);
+                        continue;
+                    }
+                    Batch managerBatch = managerId == null ? null : unwrittenBatches.get(managerId);
+                    if (managerBatch != null && managerBatch != batch) {
+                        managerBatch.await();
+                    }
+                    if (managerId != null && failedIds.contains(managerId)) {
+                        fail(batch, i, "The manager of the row could not be imported");
+                    } else {
+                        round.add(i);
+                    }
+                }
+                if (!insert(batch, round, written)) {
+                    deferred.forEach(i -> fail(batch, i, "The batch of the manager of the row could not be imported"));
+                    break;
+                }
+                remaining = deferred;
+            }
+            imported.addAndGet(written.size());
+            try {
+                afterWrite.accept(written);
+            } catch (DataAccessException | MongoException e) {
+                log.error("Could not update the views of {} imported rows", written.size(), e);
+            }
+        }
+
+        /**
+         * Insert some documents of a batch, rejecting the failing ones.
+         *
+         * @return {@code false} if none could be inserted.
+         */
+        private boolean insert(Batch batch, List<Integer> indexes, List<Document> written) {
+            if (indexes.isEmpty()) {
+                return true;
+            }
+            List<Document> documents = new ArrayList<>(indexes.size());
+            indexes.forEach(i -> documents.add(batch.documents.get(i)));
+            Set<Integer> failed = new HashSet<>();
+            try {
+                collection.insertMany(documents, new InsertManyOptions().ordered(false));
+            } catch (MongoBulkWriteException e) {
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    failed.add(error.getIndex());
+                    fail(batch, indexes.get(error.getIndex()), error.getMessage());
+                }
+            } catch (MongoException e) {
+                log.error("Could not import a batch of {} rows", documents.size(), e);
+                indexes.forEach(i -> fail(batch, i, e.getMessage()));
+                return false;
+            }
+            for (int i = 0; i < documents.size(); i++) {
+                if (!failed.contains(i)) {
+                    written.add(documents.get(i));
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reject a row which could not be inserted, evicting it from the lookup table.
+         */
+        private void fail(Batch batch, int index, String error) {
+            Document document = batch.documents.get(index);
+            failedIds.add(document.get("_id"));
+            Object email = document.get("email");
+            if (email != null) {
+                failedEmails.add(email.toString());
+            }
+            reject(batch.rows.get(index), error);
+        }
+
+        synchronized void reject(long row, String error) {
+            rejected.incrementAndGet();
+            listener.onReject(new ImportRejectDTO(row, error));
+        }
+
+        synchronized ImportProgressDTO progress(boolean done) {
+            ImportProgressDTO progress = new ImportProgressDTO(read, imported.get(), rejected.get(), done);
+            listener.onProgress(progress);
+            return progress;
+        }
+
+        /**
+         * Wait for all the batches being written.
+         */
+        void drain() {
+            inFlightBatches.acquireUninterruptibly(maxInFlightBatches);
+            inFlightBatches.release(maxInFlightBatches);
+        }
+
+        void close() {
+            drain();
+            executor.shutdown();
+        }
+
+        private Document findEmployee(String email) {
+            return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class))
+                .find(Filters.eq("email", email))
+                .projection(Projections.include(MANAGER_PATH_FIELD))
+                .first();
+        }
+
+        /**
+         * Load the ids of all the entities of a collection by a unique name.
+         */
+        private Map<String, String> names(Class<?> entityClass, String nameField) {
+            Map<String, String> ids = new HashMap<>();
+            for (Document document : mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass))
+                    .find()
+                    .projection(Projections.include(nameField))) {
+                Object name = document.get(nameField);
+                if (name != null) {
+                    ids.putIfAbsent(name.toString(), document.get("_id").toString());
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * The rows of a batch, and a latch released once it is written.
+     */
+    private static class Batch {
+
+        private final List<Document> documents = new ArrayList<>();
+
+        private final List<Long> rows = new ArrayList<>();
+
+        private final CountDownLatch written = new CountDownLatch(1);
+
+        void await() {
+            try {
+                written.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a batch to be written", e);
+            }
+        }
+    }
+}
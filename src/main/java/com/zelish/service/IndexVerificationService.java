@@ -0,0 +1,125 @@
+package com.zelish.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.zelish.repository.AuditEventBuckets;
+import com.zelish.repository.DeclaredIndexes;
+import com.zelish.service.dto.CollectionIndexesDTO;
+import com.zelish.service.dto.CollectionIndexesDTO.IndexUsageDTO;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for comparing the live indexes of the collections with the {@link DeclaredIndexes}.
+ * <p>
+ * The monthly {@link AuditEventBuckets} are compared with the indexes declared for the audit collection.
+ */
+@Service
+public class IndexVerificationService {
+
+    private static final String ID_INDEX = "_id_";
+
+    private final Logger log = LoggerFactory.getLogger(IndexVerificationService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final AuditEventBuckets auditEventBuckets;
+
+    public IndexVerificationService(MongoTemplate mongoTemplate, AuditEventBuckets auditEventBuckets) {
+        this.mongoTemplate = mongoTemplate;
+        this.auditEventBuckets = auditEventBuckets;
+    }
+
+    /**
+     * Check the indexes once the application started, and report the drift in the logs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        for (CollectionIndexesDTO collection : findAll(false)) {
+            if (collection.isDrifted()) {
+                log.warn("Indexes of collection {} drifted from the declared ones, missing: {}, unexpected: {}",
+                    collection.getCollection(), collection.getMissing(), collection.getUnexpected());
+            }
+        }
+    }
+
+    /**
+     * Compare the live indexes of every declared collection, and of every audit bucket, with the declared ones.
+     *
+     * @param withUsage whether the usage of each index is read with {@code $indexStats}.
+     * @return the state of the indexes, by collection.
+     */
+    public List<CollectionIndexesDTO> findAll(boolean withUsage) {
+        List<CollectionIndexesDTO> result = new ArrayList<>();
+        Map<String, List<Index>> all = DeclaredIndexes.all();
+        for (Map.Entry<String, List<Index>> entry : all.entrySet()) {
+            result.add(verify(entry.getKey(), entry.getValue(), withUsage));
+        }
+        if (auditEventBuckets.isEnabled()) {
+            List<Index> auditIndexes = all.getOrDefault(auditEventBuckets.getCollection(), Collections.emptyList());
+            for (String bucket : auditEventBuckets.findBuckets().values()) {
+                result.add(verify(bucket, auditIndexes, withUsage));
+            }
+        }
+        return result;
+    }
+
+    private CollectionIndexesDTO verify(String collectionName, List<Index> declaredIndexes, boolean withUsage) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        CollectionIndexesDTO indexes = new CollectionIndexesDTO(collectionName);
+        Set<String> declared = new LinkedHashSet<>();
+        for (Index index : declaredIndexes) {
+            declared.add(DeclaredIndexes.signature(index));
+        }
+        Set<String> live = new LinkedHashSet<>();
+        for (Document index : collection.listIndexes()) {
+            String name = index.getString("name");
+            if (!ID_INDEX.equals(name) && !DeclaredIndexes.AUDIT_TTL_INDEX.equals(name)) {
+                live.add(DeclaredIndexes.signature(index));
+            }
+        }
+        for (String signature : declared) {
+            if (!live.contains(signature)) {
+                indexes.getMissing().add(signature);
+            }
+        }
+        for (String signature : live) {
+            if (!declared.contains(signature)) {
+                indexes.getUnexpected().add(signature);
+            }
+        }
+        if (withUsage) {
+            indexes.setUsage(usage(collection));
+        }
+        return indexes;
+    }
+
+    private List<IndexUsageDTO> usage(MongoCollection<Document> collection) {
+        List<IndexUsageDTO> usage = new ArrayList<>();
+        try {
+            for (Document stats : collection.aggregate(Collections.singletonList(new Document("$indexStats", new Document())))) {
+                Document accesses = stats.get("accesses", Document.class);
+                Date since = accesses.getDate("since");
+                usage.add(new IndexUsageDTO(stats.getString("name"), ((Number) accesses.get("ops")).longValue(),
+                    since == null ? null : since.toInstant()));
+            }
+        } catch (MongoException e) {
+            log.warn("Could not read the index usage of collection {}: {}", collection.getNamespace(), e.getMessage());
+        }
+        return usage;
+    }
+}
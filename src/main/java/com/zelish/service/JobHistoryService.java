@@ -1,10 +1,14 @@
 package com.zelish.service;
 
 import com.zelish.domain.JobHistory;
+import com.zelish.repository.KeysetSlice;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,13 +24,50 @@ public interface JobHistoryService {
      */
     JobHistory save(JobHistory jobHistory);
 
+    /**
+     * Update a jobHistory, if it has the expected version.
+     *
+     * @param jobHistory the entity to update.
+     * @param expectedVersion the version the entity must have, or {@code null} for any version.
+     * @return the persisted entity, with its new version.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the entity does not have the expected version.
+     */
+    JobHistory update(JobHistory jobHistory, Long expectedVersion);
+
     /**
      * Get all the jobHistories.
      *
      * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
      * @return the list of entities.
      */
-    Page<JobHistory> findAll(Pageable pageable);
+    Page<JobHistory> findAll(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of the jobHistories, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    Slice<JobHistory> findSlice(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Get a slice of the jobHistories by keyset.
+     *
+     * @param after the next key of the previous slice, or {@code null} for the first slice.
+     * @param pageable the size and sort of the slice.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    KeysetSlice<JobHistory> findAllAfter(List<Object> after, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Count the jobHistories.
+     *
+     * @return the number of entities.
+     */
+    long count();
 
 
     /**
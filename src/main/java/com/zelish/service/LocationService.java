@@ -25,6 +25,13 @@ public interface LocationService {
      */
     List<Location> findAll();
 
+    /**
+     * Get all the locations, with the ETag of the list.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    ReferenceDataCache.Snapshot<Location> findAllSnapshot();
+
 
     /**
      * Get the "id" location.
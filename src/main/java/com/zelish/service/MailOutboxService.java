@@ -0,0 +1,343 @@
+package com.zelish.service;
+
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.OutboxMail;
+import com.zelish.domain.enumeration.MailStatus;
+import com.zelish.repository.OutboxMailRepository;
+
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service sending the mails of the outbox.
+ * <p>
+ * The mails are first stored in the outbox collection, so that they survive a restart, and sent in the background
+ * by a dedicated pool of sender threads. Each sender claims up to a batch of due mails, by moving their next attempt
+ * past a lease, and sends them through a single SMTP connection. The sent mails are removed from the outbox; the
+ * others are attempted again after a delay doubling at each attempt, and left in the outbox as {@code FAILED} after
+ * the last one. The mails of a sender which stopped while sending them are claimed again once their lease expired,
+ * so that a mail may exceptionally be sent twice.
+ * <p>
+ * The backlog of the outbox is counted by the senders after a batch, at most once per poll interval, rather than by
+ * each read of its gauge.
+ */
+@Service
+public class MailOutboxService {
+
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final OutboxMailRepository outboxMailRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final int senderCount;
+
+    private final int batchSize;
+
+    private final long pollInterval;
+
+    private final int maxAttempts;
+
+    private final Duration retryDelay;
+
+    private final Duration maxRetryDelay;
+
+    private final Duration lease;
+
+    private final Object signal = new Object();
+
+    private final List<Thread> senders = new ArrayList<>();
+
+    private final Counter sent;
+
+    private final Counter retried;
+
+    private final Counter abandoned;
+
+    private final Timer latency;
+
+    private final Timer batches;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private volatile long backlogCountedAt;
+
+    private boolean signaled;
+
+    private volatile boolean running;
+
+    public MailOutboxService(MongoTemplate mongoTemplate, OutboxMailRepository outboxMailRepository,
+            JavaMailSender javaMailSender, MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+        this.mongoTemplate = mongoTemplate;
+        this.outboxMailRepository = outboxMailRepository;
+        this.javaMailSender = javaMailSender;
+        this.senderCount = properties.getSenders();
+        this.batchSize = properties.getBatchSize();
+        this.pollInterval = properties.getPollInterval();
+        this.maxAttempts = properties.getMaxAttempts();
+        this.retryDelay = Duration.ofSeconds(properties.getRetryDelay());
+        this.maxRetryDelay = Duration.ofSeconds(properties.getMaxRetryDelay());
+        this.lease = Duration.ofSeconds(properties.getLease());
+        Gauge.builder("mail.outbox.backlog", backlog, AtomicLong::get)
+            .description("Mails waiting in the outbox to be sent")
+            .register(meterRegistry);
+        this.sent = Counter.builder("mail.outbox.sent")
+            .description("Mails of the outbox sent")
+            .register(meterRegistry);
+        this.retried = Counter.builder("mail.outbox.failures")
+            .description("Failed attempts to send a mail of the outbox")
+            .tag("outcome", "retry")
+            .register(meterRegistry);
+        this.abandoned = Counter.builder("mail.outbox.failures")
+            .description("Failed attempts to send a mail of the outbox")
+            .tag("outcome", "abandon")
+            .register(meterRegistry);
+        this.latency = Timer.builder("mail.outbox.latency")
+            .description("Time between the addition of a mail to the outbox and its sending")
+            .register(meterRegistry);
+        this.batches = Timer.builder("mail.outbox.batches")
+            .description("SMTP connections sending a batch of mails of the outbox")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mail-sender-");
+        threadFactory.setDaemon(true);
+        for (int i = 0; i < senderCount; i++) {
+            Thread sender = threadFactory.newThread(this::run);
+            senders.add(sender);
+            sender.start();
+        }
+    }
+
+    /**
+     * Stop the sender threads, once they sent their current batch.
+     *
+     * @throws InterruptedException if interrupted while waiting for the sender threads.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        for (Thread sender : senders) {
+            sender.join(TimeUnit.SECONDS.toMillis(STOP_TIMEOUT_SECONDS));
+        }
+        senders.clear();
+    }
+
+    /**
+     * Add a mail to the outbox, to be sent in the background.
+     *
+     * @param mail the mail.
+     */
+    public void add(OutboxMail mail) {
+        Instant now = Instant.now();
+        mail.setStatus(MailStatus.PENDING);
+        mail.setCreatedDate(now);
+        mail.setNextAttemptDate(now);
+        mongoTemplate.insert(mail);
+        synchronized (signal) {
+            signaled = true;
+            signal.notify();
+        }
+    }
+
+    /**
+     * Send a batch of the due mails of the outbox through one SMTP connection, on the calling thread.
+     *
+     * @return the number of mails attempted.
+     */
+    public int sendBatch() {
+        List<OutboxMail> mails = claim();
+        Map<MimeMessage, OutboxMail> messages = new LinkedHashMap<>();
+        for (OutboxMail mail : mails) {
+            try {
+                messages.put(createMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                // The mail itself is invalid, such as its address: it would fail again.
+                fail(mail, e, maxAttempts);
+            }
+        }
+        if (!messages.isEmpty()) {
+            send(messages);
+        }
+        countBacklog();
+        return mails.size();
+    }
+
+    /**
+     * Prepare the message of a mail.
+     *
+     * @param mail the mail.
+     * @return the message.
+     * @throws MessagingException if the mail is invalid.
+     */
+    public MimeMessage createMimeMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getTo());
+        message.setFrom(mail.getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.isHtml());
+        return mimeMessage;
+    }
+
+    private void run() {
+        while (running) {
+            int attempted;
+            try {
+                attempted = sendBatch();
+            } catch (DataAccessException | MongoException e) {
+                log.warn("Could not read the mail outbox: {}", e.getMessage());
+                attempted = 0;
+            } catch (RuntimeException e) {
+                log.error("Could not send the mails of the outbox", e);
+                attempted = 0;
+            }
+            if (attempted < batchSize) {
+                synchronized (signal) {
+                    try {
+                        if (running && !signaled) {
+                            signal.wait(pollInterval);
+                        }
+                        signaled = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Claim the due mails, one at a time so that the senders never claim the same mail.
+     */
+    private List<OutboxMail> claim() {
+        List<OutboxMail> mails = new ArrayList<>();
+        Instant now = Instant.now();
+        Query due = new Query(Criteria.where("status").in(MailStatus.PENDING, MailStatus.SENDING)
+            .and("nextAttemptDate").lte(now)).with(Sort.by("nextAttemptDate"));
+        Update claim = new Update().set("status", MailStatus.SENDING).set("nextAttemptDate", now.plus(lease));
+        while (mails.size() < batchSize) {
+            OutboxMail mail = mongoTemplate.findAndModify(due, claim, FindAndModifyOptions.options().returnNew(true), OutboxMail.class);
+            if (mail == null) {
+                break;
+            }
+            mails.add(mail);
+        }
+        return mails;
+    }
+
+    private void send(Map<MimeMessage, OutboxMail> messages) {
+        Map<Object, Exception> failures = Collections.emptyMap();
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Empty when the messages were sent but the connection could not be closed.
+            failures = e.getFailedMessages();
+        } catch (MailException e) {
+            failures = new IdentityHashMap<>();
+            for (MimeMessage message : messages.keySet()) {
+                failures.put(message, e);
+            }
+        } finally {
+            batches.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        Instant now = Instant.now();
+        List<String> sentIds = new ArrayList<>();
+        for (Map.Entry<MimeMessage, OutboxMail> entry : messages.entrySet()) {
+            OutboxMail mail = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sentIds.add(mail.getId());
+                sent.increment();
+                latency.record(Duration.between(mail.getCreatedDate(), now));
+            } else {
+                fail(mail, failure, mail.getAttempts() + 1);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            mongoTemplate.remove(new Query(Criteria.where("id").in(sentIds)), OutboxMail.class);
+        }
+        log.debug("Sent {} of {} mails of the outbox", sentIds.size(), messages.size());
+    }
+
+    /**
+     * Schedule the next attempt to send a mail, or leave it in the outbox as failed after the last attempt.
+     */
+    private void fail(OutboxMail mail, Exception e, int attempts) {
+        String error = String.valueOf(e.getMessage());
+        Update update = new Update()
+            .set("attempts", attempts)
+            .set("lastError", error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= maxAttempts) {
+            log.warn("Email could not be sent to user '{}' after {} attempts, giving up: {}", mail.getTo(), attempts, error);
+            update.set("status", MailStatus.FAILED);
+            abandoned.increment();
+        } else {
+            Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+            if (delay.compareTo(maxRetryDelay) > 0) {
+                delay = maxRetryDelay;
+            }
+            log.debug("Email could not be sent to user '{}', retrying in {}: {}", mail.getTo(), delay, error);
+            update.set("status", MailStatus.PENDING).set("nextAttemptDate", Instant.now().plus(delay));
+            retried.increment();
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(mail.getId())), update, OutboxMail.class);
+    }
+
+    /**
+     * Count the mails waiting in the outbox for the backlog gauge, unless they were counted less than a poll interval ago.
+     */
+    private void countBacklog() {
+        long now = System.nanoTime();
+        long countedAt = backlogCountedAt;
+        if (countedAt != 0 && now - countedAt < TimeUnit.MILLISECONDS.toNanos(pollInterval)) {
+            return;
+        }
+        backlogCountedAt = now;
+        backlog.set(outboxMailRepository.countByStatusIn(EnumSet.of(MailStatus.PENDING, MailStatus.SENDING)));
+    }
+}
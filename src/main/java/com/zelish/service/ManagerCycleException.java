@@ -0,0 +1,13 @@
+package com.zelish.service;
+
+/**
+ * This exception is thrown when an employee would be managed by one of its own reports.
+ */
+public class ManagerCycleException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ManagerCycleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,210 @@
+package com.zelish.service;
+
+import com.zelish.repository.BatchingDbRefResolver;
+import com.zelish.repository.DocumentCache;
+import com.zelish.web.rest.errors.BadRequestAlertException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Service for applying JSON Merge Patches (RFC 7396) to the entities, writing only the patched fields.
+ * <p>
+ * The patch is applied to the stored entity, usually read from the {@link DocumentCache}, and the mapping events are
+ * published as for a save, so that the entity is validated and the listeners maintaining derived data still apply.
+ * The database is then sent a single {@code updateFirst}, which {@code $set}s or {@code $unset}s the patched fields
+ * and the fields derived by the listeners, instead of replacing the whole document. A versioned entity is updated on
+ * the condition that it still has the version it was patched from; if the cached document was outdated, the patch is
+ * applied once more to the document read from the database.
+ * <p>
+ * As in a merge patch, the properties absent from the patch are kept and the {@code null} ones are removed; the
+ * references and the arrays are replaced as a whole.
+ */
+@Service
+public class MergePatchService {
+
+    public static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final Logger log = LoggerFactory.getLogger(MergePatchService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final BatchingDbRefResolver dbRefResolver;
+
+    private final DocumentCache documentCache;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final QueryMapper queryMapper;
+
+    public MergePatchService(MongoTemplate mongoTemplate, BatchingDbRefResolver dbRefResolver, DocumentCache documentCache,
+            ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.dbRefResolver = dbRefResolver;
+        this.documentCache = documentCache;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    /**
+     * Get the version of the entity a patch was made from.
+     *
+     * @param patch the patch.
+     * @return the {@code version} of the patch, or {@code null} if absent.
+     */
+    public static Long version(ObjectNode patch) {
+        JsonNode version = patch.get("version");
+        return version == null || !version.isIntegralNumber() ? null : version.asLong();
+    }
+
+    /**
+     * Patch an entity.
+     *
+     * @param id the id of the entity.
+     * @param patch the merge patch, whose {@code id} must be absent or the one of the entity.
+     * @param expectedVersion the version the entity must have, or {@code null} to patch it whatever its version.
+     * @param entityClass the entity type.
+     * @param entityName the name of the entity, for the errors.
+     * @param <T> the entity type.
+     * @return the patched entity, or an empty {@link Optional} if it does not exist.
+     * @throws BadRequestAlertException if the patch has unknown properties or cannot be applied.
+     * @throws OptimisticLockingFailureException if the entity does not have the expected version.
+     */
+    public <T> Optional<T> patch(String id, ObjectNode patch, Long expectedVersion, Class<T> entityClass, String entityName) {
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(entityClass);
+        ObjectNode changes = patch.deepCopy();
+        Set<String> patchedFields = patchedFields(id, changes, persistentEntity, entityName);
+        String collection = persistentEntity.getCollection();
+        Object documentId = queryMapper.convertId(id);
+
+        Document stored = dbRefResolver.findById(collection, documentId);
+        for (boolean reloaded = false; stored != null; reloaded = true) {
+            T result = apply(stored, changes, patchedFields, expectedVersion, entityClass, persistentEntity, entityName);
+            if (result != null) {
+                return Optional.of(result);
+            }
+            if (reloaded) {
+                throw new OptimisticLockingFailureException("The " + collection + " " + id
+                    + " was modified since version " + expectedVersion);
+            }
+            log.debug("Patching the {} {} again from the database", collection, id);
+            documentCache.evict(collection, documentId);
+            stored = dbRefResolver.findById(collection, documentId);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Apply a patch to a stored document.
+     *
+     * @return the patched entity, or {@code null} if the document was modified or deleted since it was read.
+     */
+    private <T> T apply(Document stored, ObjectNode patch, Set<String> patchedFields, Long expectedVersion,
+            Class<T> entityClass, MongoPersistentEntity<?> persistentEntity, String entityName) {
+        MongoConverter converter = mongoTemplate.getConverter();
+        String collection = persistentEntity.getCollection();
+        MongoPersistentProperty versionProperty = persistentEntity.getVersionProperty();
+        Number version = versionProperty == null ? null : (Number) stored.get(versionProperty.getFieldName());
+        Long storedVersion = version == null ? null : version.longValue();
+        if (expectedVersion != null && !expectedVersion.equals(storedVersion)) {
+            return null;
+        }
+
+        T entity = converter.read(entityClass, stored);
+        try {
+            entity = objectMapper.readerForUpdating(entity).readValue(patch);
+        } catch (IOException e) {
+            throw new BadRequestAlertException("Invalid patch: " + e.getMessage(), entityName, "invalidpatch");
+        }
+        eventPublisher.publishEvent(new BeforeConvertEvent<>(entity, collection));
+        Document document = new Document();
+        converter.write(entity, document);
+        eventPublisher.publishEvent(new BeforeSaveEvent<>(entity, document, collection));
+
+        Update update = new Update();
+        for (Map.Entry<String, Object> field : document.entrySet()) {
+            String name = field.getKey();
+            boolean versionField = versionProperty != null && name.equals(versionProperty.getFieldName());
+            if (!name.equals("_id") && !versionField
+                    && (patchedFields.contains(name) || !Objects.equals(field.getValue(), stored.get(name)))) {
+                update.set(name, field.getValue());
+            }
+        }
+        for (String name : patchedFields) {
+            if (!document.containsKey(name) && stored.containsKey(name)) {
+                update.unset(name);
+            }
+        }
+
+        Criteria criteria = where("_id").is(stored.get("_id"));
+        if (versionProperty != null) {
+            criteria = criteria.and(versionProperty.getFieldName()).is(storedVersion);
+            update.inc(versionProperty.getFieldName(), 1);
+            document.put(versionProperty.getFieldName(), storedVersion == null ? 1L : storedVersion + 1);
+        }
+        if (!update.getUpdateObject().isEmpty()
+                && mongoTemplate.updateFirst(Query.query(criteria), update, collection).getMatchedCount() == 0) {
+            return null;
+        }
+        log.debug("Patched the {} {} with {}", collection, stored.get("_id"), update.getUpdateObject());
+        T result = converter.read(entityClass, document);
+        eventPublisher.publishEvent(new AfterSaveEvent<>(result, document, collection));
+        return result;
+    }
+
+    /**
+     * Check the properties of a patch, and remove its id and version, which are not patched.
+     *
+     * @return the field names of the patched properties.
+     */
+    private Set<String> patchedFields(String id, ObjectNode patch, MongoPersistentEntity<?> persistentEntity,
+            String entityName) {
+        Set<String> fields = new HashSet<>();
+        Iterator<Map.Entry<String, JsonNode>> properties = patch.fields();
+        while (properties.hasNext()) {
+            Map.Entry<String, JsonNode> entry = properties.next();
+            MongoPersistentProperty property = persistentEntity.getPersistentProperty(entry.getKey());
+            if (property == null) {
+                throw new BadRequestAlertException("Unknown field: " + entry.getKey(), entityName, "unknownfield");
+            }
+            if (property.isIdProperty()) {
+                if (!entry.getValue().isNull() && !id.equals(entry.getValue().asText())) {
+                    throw new BadRequestAlertException("The id cannot be patched", entityName, "idinvalid");
+                }
+                properties.remove();
+            } else if (property.isVersionProperty()) {
+                properties.remove();
+            } else {
+                fields.add(property.getFieldName());
+            }
+        }
+        return fields;
+    }
+}
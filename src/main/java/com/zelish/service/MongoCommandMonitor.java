@@ -0,0 +1,369 @@
+package com.zelish.service;
+
+import com.zelish.config.ApplicationProperties;
+import com.zelish.service.dto.MongoCommandDTO;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.connection.ServerType;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Service timing the commands sent to MongoDB by both the blocking and the reactive drivers.
+ * <p>
+ * Each command is timed by collection and command name, with a histogram for the latency percentiles, and the
+ * documents returned by the queries are counted. The commands slower than the threshold are logged, the queries with
+ * their shape: their filter and sort without the values, which identifies the query and the index it needs. The
+ * shape is only computed for the queries which can be explained, not for the writes and other commands. The recent
+ * commands are kept in a fixed-size ring buffer, written without locking, for
+ * {@link com.zelish.web.rest.MongoCommandResource}.
+ * <p>
+ * The queries slower than the explain threshold are queued for {@link QueryPlanService}, once per shape and explain
+ * interval. A command is only copied when its shape was already seen slower than the threshold and is due for an
+ * explain: the first slow occurrence of a shape marks it, and the next one is explained. The queue is bounded: a
+ * burst of slow queries drops the extra ones rather than delaying the application.
+ * <p>
+ * The successful reads are also counted by the type of server which served them, to follow the share of the reads
+ * routed to the secondaries.
+ */
+@Service
+public class MongoCommandMonitor implements CommandListener {
+
+    private static final String NONE = "none";
+
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+
+    private static final Set<String> EXPLAINABLE = new HashSet<>(Arrays.asList("find", "aggregate", "count", "distinct"));
+
+    private static final Set<String> READS = new HashSet<>(Arrays.asList("find", "getMore", "aggregate", "count", "distinct"));
+
+    private static final int SLOW_QUERIES = 100;
+
+    private final Logger log = LoggerFactory.getLogger(MongoCommandMonitor.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowThresholdNanos;
+
+    private final int top;
+
+    private final Map<Integer, StartedCommand> started = new ConcurrentHashMap<>();
+
+    private final AtomicReferenceArray<MongoCommandDTO> recent;
+
+    private final AtomicLong recorded = new AtomicLong();
+
+    private final long explainThresholdNanos;
+
+    private final Cache<String, Boolean> explainedShapes;
+
+    private final Cache<String, Boolean> slowShapes;
+
+    private final BlockingQueue<SlowQuery> slowQueries = new ArrayBlockingQueue<>(SLOW_QUERIES);
+
+    public MongoCommandMonitor(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.MongoCommands properties = applicationProperties.getMongoCommands();
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowThreshold());
+        this.top = properties.getTop();
+        this.recent = new AtomicReferenceArray<>(properties.getRecentCommands());
+        this.explainThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getExplainThreshold());
+        this.explainedShapes = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofSeconds(properties.getExplainInterval()))
+            .build();
+        this.slowShapes = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofSeconds(properties.getExplainInterval()))
+            .build();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // The command is only readable during this call: its shape is computed right away.
+        BsonDocument command = event.getCommand();
+        String name = event.getCommandName();
+        String collection = collection(name, command);
+        String shape = EXPLAINABLE.contains(name) ? shape(name, command) : null;
+        BsonDocument explainable = null;
+        if (EXPLAINABLE.contains(name) && slowShapes.getIfPresent(collection + shape) != null
+                && explainedShapes.getIfPresent(collection + shape) == null) {
+            explainable = command.clone();
+        }
+        started.put(event.getRequestId(),
+            new StartedCommand(event.getDatabaseName(), collection, shape, explainable));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedCommand command = started.remove(event.getRequestId());
+        if (command != null) {
+            Integer documents = documents(event.getCommandName(), event.getResponse());
+            long nanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+            record(event.getCommandName(), command, nanos, documents, null);
+            if (READS.contains(event.getCommandName())) {
+                reads(command.collection, event.getConnectionDescription().getServerType()).increment();
+            }
+            if (nanos >= explainThresholdNanos && EXPLAINABLE.contains(event.getCommandName())) {
+                String key = command.collection + command.shape;
+                if (command.command == null) {
+                    slowShapes.put(key, Boolean.TRUE);
+                } else {
+                    explainedShapes.put(key, Boolean.TRUE);
+                    slowShapes.invalidate(key);
+                    slowQueries.offer(new SlowQuery(command.database, command.collection, command.shape, command.command,
+                        nanos / 1e6));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        StartedCommand command = started.remove(event.getRequestId());
+        if (command != null) {
+            record(event.getCommandName(), command, event.getElapsedTime(TimeUnit.NANOSECONDS), null,
+                String.valueOf(event.getThrowable().getMessage()));
+        }
+    }
+
+    /**
+     * Get the slowest of the recent commands.
+     *
+     * @param limit the maximum number of commands, or {@code null} for the configured number.
+     * @return the commands, slowest first.
+     */
+    public List<MongoCommandDTO> findSlowest(Integer limit) {
+        List<MongoCommandDTO> commands = new ArrayList<>(recent.length());
+        for (int i = 0; i < recent.length(); i++) {
+            MongoCommandDTO command = recent.get(i);
+            if (command != null) {
+                commands.add(command);
+            }
+        }
+        commands.sort(Comparator.comparingDouble(MongoCommandDTO::getDurationMillis).reversed());
+        int size = Math.min(commands.size(), limit == null ? top : Math.max(limit, 0));
+        return new ArrayList<>(commands.subList(0, size));
+    }
+
+    /**
+     * Take the next slow query to explain.
+     *
+     * @return the query, or {@code null} if there is none.
+     */
+    public SlowQuery pollSlowQuery() {
+        return slowQueries.poll();
+    }
+
+    private void record(String name, StartedCommand command, long nanos, Integer documents, String failure) {
+        Timer.builder("mongodb.commands")
+            .description("Commands sent to MongoDB, by collection, command and outcome")
+            .tag("collection", command.collection)
+            .tag("command", name)
+            .tag("status", failure == null ? "success" : "failure")
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (documents != null) {
+            DistributionSummary.builder("mongodb.commands.documents")
+                .description("Documents returned by the MongoDB queries, by collection and command")
+                .tag("collection", command.collection)
+                .tag("command", name)
+                .register(meterRegistry)
+                .record(documents);
+        }
+
+        double millis = nanos / 1e6;
+        if (nanos >= slowThresholdNanos) {
+            if (command.shape == null) {
+                log.warn("Slow MongoDB {} on {} took {} ms", name, command.collection, String.format("%.1f", millis));
+            } else {
+                log.warn("Slow MongoDB {} on {} took {} ms: {}", name, command.collection, String.format("%.1f", millis),
+                    command.shape);
+            }
+        }
+        if (recent.length() > 0) {
+            MongoCommandDTO dto = new MongoCommandDTO(name, command.collection, command.shape, command.startedAt,
+                millis, documents, failure);
+            recent.set((int) (recorded.getAndIncrement() % recent.length()), dto);
+        }
+    }
+
+    private Counter reads(String collection, ServerType serverType) {
+        String server;
+        switch (serverType) {
+            case REPLICA_SET_PRIMARY:
+                server = "primary";
+                break;
+            case REPLICA_SET_SECONDARY:
+                server = "secondary";
+                break;
+            default:
+                server = serverType.name().toLowerCase(Locale.ROOT);
+                break;
+        }
+        return Counter.builder("mongodb.reads")
+            .description("Successful reads, by collection and type of the server which served them")
+            .tag("collection", collection)
+            .tag("server", server)
+            .register(meterRegistry);
+    }
+
+    private static String collection(String name, BsonDocument command) {
+        BsonValue collection = name.equals("getMore") ? command.get("collection") : command.get(name);
+        return collection != null && collection.isString() ? collection.asString().getValue() : NONE;
+    }
+
+    /**
+     * Get the filter and sort of a query, without their values.
+     */
+    private static String shape(String name, BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "find":
+                putShape(shape, "filter", command.get("filter"));
+                putShape(shape, "sort", command.get("sort"));
+                break;
+            case "count":
+            case "distinct":
+                putShape(shape, "filter", command.get("query"));
+                break;
+            case "aggregate":
+                putShape(shape, "pipeline", command.get("pipeline"));
+                break;
+            default:
+                break;
+        }
+        return shape.toJson();
+    }
+
+    private static void putShape(BsonDocument shape, String key, BsonValue value) {
+        if (value != null) {
+            shape.put(key, key.equals("sort") ? value : withoutValues(value));
+        }
+    }
+
+    private static BsonValue withoutValues(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument shape = new BsonDocument();
+            for (Map.Entry<String, BsonValue> field : value.asDocument().entrySet()) {
+                shape.put(field.getKey(), withoutValues(field.getValue()));
+            }
+            return shape;
+        }
+        if (value.isArray()) {
+            // The operands of $and, $or and of the pipeline stages are shapes themselves, not values.
+            BsonArray array = value.asArray();
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                BsonArray shape = new BsonArray();
+                for (BsonValue element : array) {
+                    shape.add(withoutValues(element));
+                }
+                return shape;
+            }
+        }
+        return PLACEHOLDER;
+    }
+
+    private static Integer documents(String name, BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                ? cursor.asDocument().get("firstBatch") : cursor.asDocument().get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : null;
+        }
+        if (name.equalsIgnoreCase("findAndModify")) {
+            BsonValue value = response.get("value");
+            return value == null || value.isNull() ? 0 : 1;
+        }
+        return null;
+    }
+
+    private static final class StartedCommand {
+
+        private final String database;
+
+        private final String collection;
+
+        private final String shape;
+
+        private final BsonDocument command;
+
+        private final Instant startedAt = Instant.now();
+
+        private StartedCommand(String database, String collection, String shape, BsonDocument command) {
+            this.database = database;
+            this.collection = collection;
+            this.shape = shape;
+            this.command = command;
+        }
+    }
+
+    /**
+     * A query slower than the explain threshold.
+     */
+    public static final class SlowQuery {
+
+        private final String database;
+
+        private final String collection;
+
+        private final String shape;
+
+        private final BsonDocument command;
+
+        private final double durationMillis;
+
+        public SlowQuery(String database, String collection, String shape, BsonDocument command, double durationMillis) {
+            this.database = database;
+            this.collection = collection;
+            this.shape = shape;
+            this.command = command;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getDatabase() {
+            return database;
+        }
+
+        public String getCollection() {
+            return collection;
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public BsonDocument getCommand() {
+            return command;
+        }
+
+        public double getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
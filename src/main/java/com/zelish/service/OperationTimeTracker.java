@@ -0,0 +1,114 @@
+package com.zelish.service;
+
+import com.zelish.config.ApplicationProperties;
+import com.zelish.security.SecurityUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.ClientSession;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service remembering the time of the last write of each user, for the causally consistent reads from the secondaries.
+ * <p>
+ * A replica set returns the {@code operationTime} and the {@code $clusterTime} of each write. They are kept by user
+ * login for the configured window, and advanced into the session of the next reads of that user routed to a
+ * secondary: the secondary then waits until it has replicated those writes before answering. The users who did not
+ * write during the window read without session. A standalone server returns no operation time, so nothing is tracked.
+ */
+@Service
+public class OperationTimeTracker implements CommandListener {
+
+    private static final Set<String> WRITES = new HashSet<>(Arrays.asList("insert", "update", "delete", "findandmodify"));
+
+    private final Cache<String, OperationTime> lastWrites;
+
+    public OperationTimeTracker(ApplicationProperties applicationProperties) {
+        this.lastWrites = Caffeine.newBuilder()
+            .maximumSize(100000)
+            .expireAfterWrite(Duration.ofSeconds(applicationProperties.getSecondaryReads().getCausalWindow()))
+            .build();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        // The operation time is only known once the write succeeded.
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        if (!WRITES.contains(event.getCommandName().toLowerCase(Locale.ROOT))) {
+            return;
+        }
+        BsonDocument response = event.getResponse();
+        BsonValue operationTime = response.get("operationTime");
+        BsonValue clusterTime = response.get("$clusterTime");
+        if (operationTime == null || !operationTime.isTimestamp()) {
+            return;
+        }
+        // The response is only readable during this call: the cluster time is copied right away.
+        OperationTime write = new OperationTime(operationTime.asTimestamp(),
+            clusterTime != null && clusterTime.isDocument() ? clusterTime.asDocument().clone() : null);
+        SecurityUtils.getCurrentUserLogin().ifPresent(login -> lastWrites.asMap().merge(login, write, OperationTime::latest));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        // A failed write has nothing to be read back.
+    }
+
+    /**
+     * @return whether the current user wrote during the causal window.
+     */
+    public boolean hasRecentWrite() {
+        return lastWrite().isPresent();
+    }
+
+    /**
+     * Advance a session to the last write of the current user, so that its reads see that write.
+     *
+     * @param session the causally consistent session.
+     */
+    public void advance(ClientSession session) {
+        lastWrite().ifPresent(write -> {
+            if (write.clusterTime != null) {
+                session.advanceClusterTime(write.clusterTime);
+            }
+            session.advanceOperationTime(write.operationTime);
+        });
+    }
+
+    private Optional<OperationTime> lastWrite() {
+        return SecurityUtils.getCurrentUserLogin().map(lastWrites::getIfPresent);
+    }
+
+    private static final class OperationTime {
+
+        private final BsonTimestamp operationTime;
+
+        private final BsonDocument clusterTime;
+
+        private OperationTime(BsonTimestamp operationTime, BsonDocument clusterTime) {
+            this.operationTime = operationTime;
+            this.clusterTime = clusterTime;
+        }
+
+        private static OperationTime latest(OperationTime first, OperationTime second) {
+            return first.operationTime.compareTo(second.operationTime) >= 0 ? first : second;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.zelish.service;
+
+import com.zelish.config.ApplicationProperties;
+import com.zelish.service.dto.QueryPlanDTO;
+
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Service explaining the plans of the slow queries, to find the missing indexes before they cause an outage.
+ * <p>
+ * The queries queued by {@link MongoCommandMonitor} are explained in the background with the {@code queryPlanner}
+ * verbosity, which plans the query without running it, and at most a few per run. The plans whose winning plan scans
+ * the whole collection ({@code COLLSCAN}) or sorts in memory ({@code SORT}) are logged and counted by the
+ * {@code mongodb.query.plans} gauge.
+ */
+@Service
+public class QueryPlanService {
+
+    /**
+     * The fields added to the commands by the driver, which are not part of the query.
+     */
+    private static final Set<String> SESSION_FIELDS = new HashSet<>(Arrays.asList(
+        "lsid", "txnNumber", "autocommit", "startTransaction"));
+
+    private static final int MAX_PLANS = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(QueryPlanService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MongoCommandMonitor mongoCommandMonitor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxExplains;
+
+    private final Map<String, QueryPlanDTO> plans = new ConcurrentHashMap<>();
+
+    public QueryPlanService(MongoTemplate mongoTemplate, MongoCommandMonitor mongoCommandMonitor, MeterRegistry meterRegistry,
+            ApplicationProperties applicationProperties) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoCommandMonitor = mongoCommandMonitor;
+        this.meterRegistry = meterRegistry;
+        this.maxExplains = applicationProperties.getMongoCommands().getMaxExplains();
+        flagged("collscan", QueryPlanDTO::isCollectionScan);
+        flagged("sort", QueryPlanDTO::isInMemorySort);
+    }
+
+    /**
+     * Explain the next queued slow queries.
+     */
+    @Scheduled(fixedDelayString = "${application.mongo-commands.explain-delay:10000}")
+    public void explainSlowQueries() {
+        for (int i = 0; i < maxExplains; i++) {
+            MongoCommandMonitor.SlowQuery query = mongoCommandMonitor.pollSlowQuery();
+            if (query == null) {
+                return;
+            }
+            try {
+                explain(query);
+            } catch (DataAccessException | MongoException e) {
+                log.warn("Could not explain the query on {} {}: {}", query.getCollection(), query.getShape(), e.getMessage());
+                explains(query.getCollection(), "failed").increment();
+            }
+        }
+    }
+
+    /**
+     * Explain the plan of a query.
+     *
+     * @param query the slow query.
+     * @return the plan of the query.
+     */
+    public QueryPlanDTO explain(MongoCommandMonitor.SlowQuery query) {
+        BsonDocument command = new BsonDocument();
+        for (Map.Entry<String, BsonValue> field : query.getCommand().entrySet()) {
+            if (!field.getKey().startsWith("$") && !SESSION_FIELDS.contains(field.getKey())) {
+                command.put(field.getKey(), field.getValue());
+            }
+        }
+        Document explain = mongoTemplate.getMongoDbFactory().getDb(query.getDatabase())
+            .runCommand(new BsonDocument("explain", command).append("verbosity", new BsonString("queryPlanner")));
+
+        QueryPlanDTO plan = new QueryPlanDTO(query.getCollection(), query.getShape(), query.getDurationMillis(), Instant.now());
+        analyze(explain, plan);
+        String key = query.getCollection() + query.getShape();
+        if (plans.size() < MAX_PLANS || plans.containsKey(key)) {
+            plans.put(key, plan);
+        }
+        if (plan.isCollectionScan() || plan.isInMemorySort()) {
+            log.warn("Slow query on {} {} has the plan {}", query.getCollection(), query.getShape(), plan.getStages());
+        }
+        explains(query.getCollection(), plan.isCollectionScan() ? "collscan" : plan.isInMemorySort() ? "sort" : "indexed")
+            .increment();
+        return plan;
+    }
+
+    /**
+     * Get the plans of the slow queries explained so far.
+     *
+     * @return the plans, those scanning a collection or sorting in memory first, then the slowest first.
+     */
+    public List<QueryPlanDTO> findAll() {
+        List<QueryPlanDTO> result = new ArrayList<>(plans.values());
+        result.sort(Comparator.comparing((QueryPlanDTO plan) -> !(plan.isCollectionScan() || plan.isInMemorySort()))
+            .thenComparing(Comparator.comparingDouble(QueryPlanDTO::getDurationMillis).reversed()));
+        return result;
+    }
+
+    /**
+     * Find the stages of the winning plans of an explain, including those of an aggregation pipeline or of the
+     * shards.
+     */
+    private static void analyze(Object value, QueryPlanDTO plan) {
+        if (value instanceof Document) {
+            for (Map.Entry<String, Object> field : ((Document) value).entrySet()) {
+                if (field.getKey().equals("winningPlan") && field.getValue() instanceof Document) {
+                    addStages((Document) field.getValue(), plan);
+                } else if (field.getKey().equals("$sort")) {
+                    // A $sort stage of a pipeline which could not use the index of its $cursor.
+                    plan.getStages().add("$sort");
+                    plan.setInMemorySort(true);
+                } else if (!field.getKey().equals("rejectedPlans")) {
+                    analyze(field.getValue(), plan);
+                }
+            }
+        } else if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                analyze(element, plan);
+            }
+        }
+    }
+
+    private static void addStages(Document stage, QueryPlanDTO plan) {
+        String name = stage.getString("stage");
+        if (name != null) {
+            plan.getStages().add(name);
+            if (name.equals("COLLSCAN")) {
+                plan.setCollectionScan(true);
+            } else if (name.equals("SORT")) {
+                plan.setInMemorySort(true);
+            }
+        }
+        Object inputStage = stage.get("inputStage");
+        if (inputStage instanceof Document) {
+            addStages((Document) inputStage, plan);
+        }
+        Object inputStages = stage.get("inputStages");
+        if (inputStages instanceof List) {
+            for (Object input : (List<?>) inputStages) {
+                if (input instanceof Document) {
+                    addStages((Document) input, plan);
+                }
+            }
+        }
+        analyze(stage.get("shards"), plan);
+    }
+
+    private void flagged(String issue, Predicate<QueryPlanDTO> predicate) {
+        Gauge.builder("mongodb.query.plans", plans, explained -> explained.values().stream().filter(predicate).count())
+            .description("Explained query shapes whose plan scans a collection or sorts in memory, by issue")
+            .tag("issue", issue)
+            .register(meterRegistry);
+    }
+
+    private Counter explains(String collection, String result) {
+        return Counter.builder("mongodb.query.explains")
+            .description("Explains of slow queries, by collection and result")
+            .tag("collection", collection)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
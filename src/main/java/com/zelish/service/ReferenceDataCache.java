@@ -0,0 +1,219 @@
+package com.zelish.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Service caching whole reference data collections, which are read on every form but rarely written.
+ * <p>
+ * Each collection is held as an immutable {@link Snapshot} with an ETag, so that the list endpoints can answer
+ * {@code 304 (Not Modified)} to clients already holding it. The snapshots are loaded at startup and on the first
+ * read after being invalidated by {@link ReferenceDataEventListener} when the collection, or a collection its
+ * entities embed through a {@code @DBRef}, is written.
+ */
+@Service
+public class ReferenceDataCache {
+
+    private final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Class<?>, Entry<?>> entries = new ConcurrentHashMap<>();
+
+    public ReferenceDataCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Cache the entities of a type.
+     *
+     * @param type the entity type.
+     * @param loader the query reading all the entities.
+     * @param dependencies the other entity types embedded in the entities, whose writes invalidate the snapshot too.
+     * @param <T> the entity type.
+     */
+    public <T> void register(Class<T> type, Supplier<List<T>> loader, Class<?>... dependencies) {
+        entries.put(type, new Entry<>(type, loader, new HashSet<>(Arrays.asList(dependencies))));
+    }
+
+    /**
+     * Get the snapshot of all the entities of a type, loading it if needed.
+     *
+     * @param type the entity type, which must have been registered.
+     * @param <T> the entity type.
+     * @return the snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Snapshot<T> get(Class<T> type) {
+        Entry<T> entry = (Entry<T>) entries.get(type);
+        if (entry == null) {
+            throw new IllegalArgumentException("No reference data registered for " + type.getName());
+        }
+        Snapshot<T> snapshot = entry.snapshot;
+        if (snapshot != null) {
+            entry.hits.increment();
+            return snapshot;
+        }
+        entry.misses.increment();
+        return load(entry);
+    }
+
+    /**
+     * Drop the snapshots holding entities of a type, directly or through their references.
+     *
+     * @param type the written entity type.
+     */
+    public void invalidate(Class<?> type) {
+        invalidate(type, new HashSet<>());
+    }
+
+    /**
+     * Drop all the snapshots.
+     */
+    public void invalidateAll() {
+        for (Entry<?> entry : entries.values()) {
+            synchronized (entry) {
+                entry.snapshot = null;
+            }
+        }
+    }
+
+    /**
+     * Load the snapshots which are not loaded yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        for (Entry<?> entry : entries.values()) {
+            try {
+                if (entry.snapshot == null) {
+                    load(entry);
+                }
+            } catch (DataAccessException | MongoException e) {
+                log.warn("Could not load the {} reference data: {}", entry.type.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void invalidate(Class<?> type, Set<Class<?>> visited) {
+        if (!visited.add(type)) {
+            return;
+        }
+        for (Entry<?> entry : entries.values()) {
+            if (entry.type == type || entry.dependencies.contains(type)) {
+                // Waits for a load in progress, which may have read the collection before the write.
+                synchronized (entry) {
+                    entry.snapshot = null;
+                }
+                invalidate(entry.type, visited);
+            }
+        }
+    }
+
+    private <T> Snapshot<T> load(Entry<T> entry) {
+        synchronized (entry) {
+            Snapshot<T> snapshot = entry.snapshot;
+            if (snapshot == null) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                List<T> entities = Collections.unmodifiableList(new ArrayList<>(entry.loader.get()));
+                snapshot = new Snapshot<>(entities, etag(entities));
+                sample.stop(entry.loads);
+                log.debug("Loaded {} {} reference entities", entities.size(), entry.type.getSimpleName());
+                entry.snapshot = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Hash the JSON representation of the entities, so that all the instances give the same ETag to the same data.
+     */
+    private String etag(List<?> entities) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(entities)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the reference data", e);
+        }
+    }
+
+    /**
+     * The entities of a type, as read at a point in time.
+     * <p>
+     * The snapshots are shared between the requests: the list cannot be modified, and neither should its entities.
+     *
+     * @param <T> the entity type.
+     */
+    public static class Snapshot<T> {
+
+        private final List<T> entities;
+
+        private final String etag;
+
+        Snapshot(List<T> entities, String etag) {
+            this.entities = entities;
+            this.etag = etag;
+        }
+
+        public List<T> getEntities() {
+            return entities;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+    }
+
+    private final class Entry<T> {
+
+        private final Class<T> type;
+
+        private final Supplier<List<T>> loader;
+
+        private final Set<Class<?>> dependencies;
+
+        private final Counter hits;
+
+        private final Counter misses;
+
+        private final Timer loads;
+
+        private volatile Snapshot<T> snapshot;
+
+        private Entry(Class<T> type, Supplier<List<T>> loader, Set<Class<?>> dependencies) {
+            this.type = type;
+            this.loader = loader;
+            this.dependencies = dependencies;
+            this.hits = requests(type, "hit");
+            this.misses = requests(type, "miss");
+            this.loads = Timer.builder("reference.cache.loads")
+                .description("Loads of reference data snapshots, by entity")
+                .tag("entity", type.getSimpleName())
+                .register(meterRegistry);
+        }
+    }
+
+    private Counter requests(Class<?> type, String result) {
+        return Counter.builder("reference.cache.requests")
+            .description("Reads of reference data snapshots, by entity and result")
+            .tag("entity", type.getSimpleName())
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
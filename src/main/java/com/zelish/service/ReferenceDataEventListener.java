@@ -0,0 +1,34 @@
+package com.zelish.service;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates the {@link ReferenceDataCache} snapshots when an entity is saved or deleted.
+ */
+@Component
+public class ReferenceDataEventListener extends AbstractMongoEventListener<Object> {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public ReferenceDataEventListener(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        referenceDataCache.invalidate(event.getSource().getClass());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        if (event.getType() == null) {
+            // Delete by collection name: the written entities are unknown.
+            referenceDataCache.invalidateAll();
+        } else {
+            referenceDataCache.invalidate(event.getType());
+        }
+    }
+}
@@ -25,6 +25,13 @@ public interface RegionService {
      */
     List<Region> findAll();
 
+    /**
+     * Get all the regions, with the ETag of the list.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    ReferenceDataCache.Snapshot<Region> findAllSnapshot();
+
 
     /**
      * Get the "id" region.
@@ -0,0 +1,675 @@
+package com.zelish.service;
+
+import com.mongodb.DBRef;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.zelish.domain.Country;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.domain.Location;
+import com.zelish.domain.Region;
+import com.zelish.service.dto.SalaryStatsDTO;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service for the salary statistics of the employees by department, job and region.
+ * <p>
+ * The statistics are read from the {@value #COLLECTION} collection, holding for each group the count, sum, minimum
+ * and maximum of the salaries, and a histogram of the salaries rounded to three significant digits from which the
+ * percentiles are estimated. The rollups are updated with {@code $inc} when an employee is saved or deleted, so that
+ * reading them costs one document per group. Only removing the minimum or maximum salary of a group needs to
+ * aggregate the employees of the group again.
+ * <p>
+ * The rollups of several employees are updated with one bulk write, the increments being merged by group.
+ * <p>
+ * The region of an employee is found through its department, location and country. When those change, the
+ * rollups of the previous and current regions of the affected departments are rebuilt in the background.
+ */
+@Service
+public class SalaryAnalyticsService {
+
+    public static final String COLLECTION = "salary_rollup";
+
+    private static final String DIMENSION_FIELD = "dimension";
+
+    private static final String KEY_FIELD = "key";
+
+    private static final String COUNT_FIELD = "count";
+
+    private static final String SALARY_SUM_FIELD = "salary_sum";
+
+    private static final String MIN_FIELD = "min";
+
+    private static final String MAX_FIELD = "max";
+
+    private static final String COMMISSION_COUNT_FIELD = "commission_count";
+
+    private static final String COMMISSION_SUM_FIELD = "commission_sum";
+
+    private static final String HISTOGRAM_FIELD = "histogram";
+
+    private static final String SYNCED_AT_FIELD = "synced_at";
+
+    private static final String GROUP_FIELD = "group";
+
+    private static final String SALARY = "salary";
+
+    private static final String COMMISSION_PCT = "commission_pct";
+
+    /**
+     * Salaries are rounded down to three significant digits in the histograms.
+     */
+    private static final long SIGNIFICANT_LIMIT = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(SalaryAnalyticsService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final QueryMapper queryMapper;
+
+    private final Map<Object, Optional<Object>> regionsByDepartment = new ConcurrentHashMap<>();
+
+    private final Object rebuildLock = new Object();
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    public SalaryAnalyticsService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    /**
+     * The groupings of the salary statistics.
+     */
+    public enum Dimension {
+        DEPARTMENT(Department.class, "department_name"),
+        JOB(Job.class, "job_title"),
+        REGION(Region.class, "region_name");
+
+        private final Class<?> entityClass;
+
+        private final String nameField;
+
+        Dimension(Class<?> entityClass, String nameField) {
+            this.entityClass = entityClass;
+            this.nameField = nameField;
+        }
+
+        /**
+         * @return the name of the dimension, as given to the REST API.
+         */
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Optional<Dimension> of(String name) {
+            return Arrays.stream(values()).filter(dimension -> dimension.getName().equals(name)).findFirst();
+        }
+    }
+
+    /**
+     * Get the salary statistics of all the groups of a dimension, sorted by name.
+     *
+     * @param dimension the dimension.
+     * @return the statistics of each group having employees with a salary.
+     */
+    public List<SalaryStatsDTO> findAll(Dimension dimension) {
+        String nameField = GROUP_FIELD + "." + dimension.nameField;
+        List<Document> pipeline = Arrays.asList(
+            new Document("$match", new Document(DIMENSION_FIELD, dimension.getName()).append(COUNT_FIELD, new Document("$gt", 0))),
+            new Document("$lookup", new Document("from", mongoTemplate.getCollectionName(dimension.entityClass))
+                .append("localField", KEY_FIELD)
+                .append("foreignField", "_id")
+                .append("as", GROUP_FIELD)),
+            new Document("$unwind", new Document("path", "$" + GROUP_FIELD).append("preserveNullAndEmptyArrays", true)),
+            new Document("$sort", new Document(nameField, 1).append("_id", 1)));
+        List<SalaryStatsDTO> stats = new ArrayList<>();
+        for (Document rollup : rollups().aggregate(pipeline)) {
+            stats.add(toStats(dimension, rollup));
+        }
+        return stats;
+    }
+
+    /**
+     * Add a saved employee to the rollups of its groups.
+     *
+     * @param employee the employee document, as written.
+     */
+    public void add(Document employee) {
+        add(Collections.singletonList(employee));
+    }
+
+    /**
+     * Add saved employees to the rollups of their groups, the increments of each group being merged into one
+     * update of a single unordered bulk write.
+     *
+     * @param employees the employee documents, as written.
+     */
+    public void add(List<Document> employees) {
+        Date now = new Date();
+        Map<String, Document> deltas = accumulate(employees, now);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<UpdateOneModel<Document>> writes = new ArrayList<>(deltas.size());
+        for (Document delta : deltas.values()) {
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", delta.get("_id")), Updates.combine(
+                Updates.setOnInsert(DIMENSION_FIELD, delta.get(DIMENSION_FIELD)),
+                Updates.setOnInsert(KEY_FIELD, delta.get(KEY_FIELD)),
+                Updates.set(SYNCED_AT_FIELD, now),
+                Updates.min(MIN_FIELD, delta.get(MIN_FIELD)),
+                Updates.max(MAX_FIELD, delta.get(MAX_FIELD)),
+                new Document("$inc", increments(delta, 1))), new UpdateOptions().upsert(true)));
+        }
+        rollups().bulkWrite(writes, new BulkWriteOptions().ordered(false));
+    }
+
+    /**
+     * Remove a deleted employee, or the previous state of a saved one, from the rollups of its groups.
+     *
+     * @param employee the employee document, as it was before the write.
+     */
+    public void remove(Document employee) {
+        remove(Collections.singletonList(employee));
+    }
+
+    /**
+     * Remove deleted employees, or the previous state of saved ones, from the rollups of their groups, the
+     * decrements of each group being merged into one update of a single unordered bulk write.
+     *
+     * @param employees the employee documents, as they were before the write.
+     */
+    public void remove(List<Document> employees) {
+        Date now = new Date();
+        Map<String, Document> deltas = accumulate(employees, now);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<UpdateOneModel<Document>> writes = new ArrayList<>(deltas.size());
+        for (Document delta : deltas.values()) {
+            writes.add(new UpdateOneModel<>(Filters.eq("_id", delta.get("_id")), Updates.combine(
+                Updates.set(SYNCED_AT_FIELD, now),
+                new Document("$inc", increments(delta, -1)))));
+        }
+        rollups().bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        List<Object> emptied = new ArrayList<>();
+        for (Document rollup : rollups().find(Filters.in("_id", deltas.keySet()))) {
+            Document delta = deltas.get(rollup.getString("_id"));
+            if (number(rollup.get(COUNT_FIELD)) <= 0) {
+                emptied.add(rollup.get("_id"));
+            } else if (delta.get(MIN_FIELD).equals(number(rollup.get(MIN_FIELD)))
+                    || delta.get(MAX_FIELD).equals(number(rollup.get(MAX_FIELD)))) {
+                refreshBounds(group(delta));
+            }
+        }
+        if (!emptied.isEmpty()) {
+            rollups().deleteMany(Filters.and(Filters.in("_id", emptied), Filters.lte(COUNT_FIELD, 0)));
+        }
+    }
+
+    /**
+     * Find the stored fields of an employee used by the rollups.
+     *
+     * @param id the id of the employee.
+     * @return the employee document, or {@code null} if it does not exist.
+     */
+    public Document findEmployee(Object id) {
+        return employees().find(Filters.eq("_id", queryMapper.convertId(id)))
+            .projection(Projections.include(SALARY, COMMISSION_PCT, "department", "job"))
+            .first();
+    }
+
+    /**
+     * Find the stored fields of employees used by the rollups, with one query.
+     *
+     * @param ids the ids of the employees.
+     * @return the documents of the existing employees.
+     */
+    public List<Document> findEmployees(Collection<?> ids) {
+        List<Object> convertedIds = new ArrayList<>(ids.size());
+        ids.forEach(id -> convertedIds.add(queryMapper.convertId(id)));
+        return employees().find(Filters.in("_id", convertedIds))
+            .projection(Projections.include(SALARY, COMMISSION_PCT, "department", "job"))
+            .into(new ArrayList<>());
+    }
+
+    /**
+     * Load the regions of the departments, then rebuild the rollups from the employee collection if they were
+     * never built.
+     * <p>
+     * The regions are loaded first so that the previous region of a department is known when its location changes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        loadRegions();
+        if (rollups().countDocuments() == 0 && employees().countDocuments(Filters.ne(SALARY, null)) > 0) {
+            rebuild(EnumSet.allOf(Dimension.class));
+        }
+    }
+
+    /**
+     * Rebuild the rollups affected by a write in the background.
+     * <p>
+     * For a department, location or country, only the rollups of the previous and current regions of its
+     * departments are rebuilt, from their employees. Without the id of the written entity, or for employees,
+     * all the rollups are rebuilt. The requests made while a full rebuild is running are served by a single
+     * rebuild started after it.
+     *
+     * @param entityClass the written {@link Employee}, {@link Department}, {@link Location} or {@link Country} class.
+     * @param id the id of the written entity, or {@code null} if unknown.
+     */
+    @Async
+    public void rebuildInBackground(Class<?> entityClass, Object id) {
+        try {
+            if (id != null && entityClass != Employee.class) {
+                refreshRegions(entityClass, id);
+                return;
+            }
+            rebuildRequested.set(true);
+            synchronized (rebuildLock) {
+                if (rebuildRequested.compareAndSet(true, false)) {
+                    rebuild(EnumSet.allOf(Dimension.class));
+                }
+            }
+        } catch (DataAccessException | MongoException e) {
+            log.error("Could not rebuild the salary rollups after writing {} {}", entityClass.getSimpleName(), id, e);
+        }
+    }
+
+    /**
+     * Rebuild the region rollups affected by a written department, location or country.
+     *
+     * @param entityClass the written {@link Department}, {@link Location} or {@link Country} class.
+     * @param id the id of the written entity.
+     * @return the number of region rollups rebuilt.
+     */
+    public int refreshRegions(Class<?> entityClass, Object id) {
+        List<Object> departmentIds = Collections.singletonList(queryMapper.convertId(id));
+        if (entityClass == Country.class) {
+            departmentIds = referencing(Location.class, "country", Country.class, departmentIds);
+        }
+        if (entityClass == Country.class || entityClass == Location.class) {
+            departmentIds = referencing(Department.class, "location", Location.class, departmentIds);
+        }
+        Set<Object> regionIds = new LinkedHashSet<>();
+        for (Object departmentId : departmentIds) {
+            Optional<Object> previous = regionsByDepartment.remove(departmentId);
+            if (previous != null) {
+                previous.ifPresent(regionIds::add);
+            }
+            regionOf(departmentId).ifPresent(regionIds::add);
+        }
+        for (Object regionId : regionIds) {
+            rebuild(new Group(Dimension.REGION, regionId));
+        }
+        log.debug("Rebuilt the salary rollups of regions {} after writing {} {}", regionIds, entityClass.getSimpleName(), id);
+        return regionIds.size();
+    }
+
+    /**
+     * Regenerate the rollups of some dimensions from the employee collection, in one scan.
+     * <p>
+     * The rollups that were not written by the rebuild belong to groups without employees any more and are removed.
+     * Rebuilding the regions also forgets the regions of the departments, to be used after a department, location
+     * or country changed.
+     *
+     * @param dimensions the dimensions to rebuild.
+     * @return the number of rollups written.
+     */
+    public int rebuild(Set<Dimension> dimensions) {
+        log.info("Rebuilding the salary rollups of {}", dimensions);
+        Date start = new Date();
+        if (dimensions.contains(Dimension.REGION)) {
+            regionsByDepartment.clear();
+        }
+        Map<String, Document> rebuilt = new HashMap<>();
+        for (Document employee : employees().find(Filters.ne(SALARY, null))
+                .projection(Projections.include(SALARY, COMMISSION_PCT, "department", "job"))) {
+            accumulate(rebuilt, employee, dimensions, start);
+        }
+        List<ReplaceOneModel<Document>> writes = new ArrayList<>(rebuilt.size());
+        for (Document rollup : rebuilt.values()) {
+            writes.add(new ReplaceOneModel<>(Filters.eq("_id", rollup.get("_id")), rollup, new ReplaceOptions().upsert(true)));
+        }
+        if (!writes.isEmpty()) {
+            rollups().bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        }
+        List<String> names = new ArrayList<>();
+        dimensions.forEach(dimension -> names.add(dimension.getName()));
+        rollups().deleteMany(Filters.and(Filters.in(DIMENSION_FIELD, names), Filters.not(Filters.gte(SYNCED_AT_FIELD, start))));
+        log.info("Rebuilt {} salary rollups", rebuilt.size());
+        return rebuilt.size();
+    }
+
+    /**
+     * Rebuild the rollup of one group from its employees, removing it if the group has no employees any more.
+     */
+    private void rebuild(Group group) {
+        Document rollup = newRollup(group, new Date());
+        for (Document employee : employees().find(Filters.and(filter(group), Filters.ne(SALARY, null)))
+                .projection(Projections.include(SALARY, COMMISSION_PCT))) {
+            Long salary = number(employee.get(SALARY));
+            if (salary != null) {
+                accumulate(rollup, salary, number(employee.get(COMMISSION_PCT)));
+            }
+        }
+        if (rollup.containsKey(COUNT_FIELD)) {
+            rollups().replaceOne(Filters.eq("_id", group.id()), rollup, new ReplaceOptions().upsert(true));
+        } else {
+            rollups().deleteOne(Filters.eq("_id", group.id()));
+        }
+    }
+
+    /**
+     * Accumulate the salaries of employees by group, in documents shaped as rollups.
+     */
+    private Map<String, Document> accumulate(List<Document> employees, Date syncedAt) {
+        Map<String, Document> rollups = new LinkedHashMap<>();
+        for (Document employee : employees) {
+            accumulate(rollups, employee, EnumSet.allOf(Dimension.class), syncedAt);
+        }
+        return rollups;
+    }
+
+    private void accumulate(Map<String, Document> rollups, Document employee, Set<Dimension> dimensions, Date syncedAt) {
+        Long salary = number(employee.get(SALARY));
+        if (salary == null) {
+            return;
+        }
+        Long commission = number(employee.get(COMMISSION_PCT));
+        for (Group group : groups(employee)) {
+            if (dimensions.contains(group.dimension)) {
+                accumulate(rollups.computeIfAbsent(group.id(), id -> newRollup(group, syncedAt)), salary, commission);
+            }
+        }
+    }
+
+    private static Document newRollup(Group group, Date syncedAt) {
+        return new Document("_id", group.id())
+            .append(DIMENSION_FIELD, group.dimension.getName())
+            .append(KEY_FIELD, group.key)
+            .append(SYNCED_AT_FIELD, syncedAt)
+            .append(HISTOGRAM_FIELD, new Document());
+    }
+
+    /**
+     * Build the {@code $inc} of the accumulated salaries of a group.
+     */
+    private static Document increments(Document accumulated, int sign) {
+        Document increments = new Document();
+        for (String field : Arrays.asList(COUNT_FIELD, SALARY_SUM_FIELD, COMMISSION_COUNT_FIELD, COMMISSION_SUM_FIELD)) {
+            Long value = number(accumulated.get(field));
+            if (value != null) {
+                increments.append(field, sign * value);
+            }
+        }
+        for (Map.Entry<String, Object> bucket : accumulated.get(HISTOGRAM_FIELD, Document.class).entrySet()) {
+            increments.append(HISTOGRAM_FIELD + "." + bucket.getKey(), sign * number(bucket.getValue()));
+        }
+        return increments;
+    }
+
+    private static void accumulate(Document rollup, long salary, Long commission) {
+        rollup.put(COUNT_FIELD, rollup.get(COUNT_FIELD, 0L) + 1);
+        rollup.put(SALARY_SUM_FIELD, rollup.get(SALARY_SUM_FIELD, 0L) + salary);
+        rollup.put(MIN_FIELD, Math.min(rollup.get(MIN_FIELD, salary), salary));
+        rollup.put(MAX_FIELD, Math.max(rollup.get(MAX_FIELD, salary), salary));
+        if (commission != null) {
+            rollup.put(COMMISSION_COUNT_FIELD, rollup.get(COMMISSION_COUNT_FIELD, 0L) + 1);
+            rollup.put(COMMISSION_SUM_FIELD, rollup.get(COMMISSION_SUM_FIELD, 0L) + commission);
+        }
+        Document histogram = rollup.get(HISTOGRAM_FIELD, Document.class);
+        String bucket = String.valueOf(bucket(salary));
+        histogram.put(bucket, histogram.get(bucket, 0L) + 1);
+    }
+
+    /**
+     * Round a salary down to three significant digits.
+     */
+    static long bucket(long salary) {
+        long unit = 1;
+        while (salary / unit >= SIGNIFICANT_LIMIT) {
+            unit *= 10;
+        }
+        return salary / unit * unit;
+    }
+
+    /**
+     * Aggregate again the minimum and maximum salaries of a group, after one of them was removed.
+     */
+    private void refreshBounds(Group group) {
+        Document bounds = employees().aggregate(Arrays.asList(
+            new Document("$match", new Document("$and", Arrays.asList(filter(group), new Document(SALARY, new Document("$ne", null))))),
+            new Document("$group", new Document("_id", null)
+                .append(MIN_FIELD, new Document("$min", "$" + SALARY))
+                .append(MAX_FIELD, new Document("$max", "$" + SALARY))))).first();
+        if (bounds != null) {
+            rollups().updateOne(Filters.eq("_id", group.id()),
+                Updates.combine(Updates.set(MIN_FIELD, bounds.get(MIN_FIELD)), Updates.set(MAX_FIELD, bounds.get(MAX_FIELD))));
+        }
+    }
+
+    /**
+     * Build the filter of the employees of a group, served by the indexes on the department and job references.
+     */
+    private Bson filter(Group group) {
+        switch (group.dimension) {
+            case DEPARTMENT:
+                return Filters.eq("department", new DBRef(collectionName(Department.class), group.key));
+            case JOB:
+                return Filters.eq("job", new DBRef(collectionName(Job.class), group.key));
+            default:
+                List<DBRef> departments = new ArrayList<>();
+                List<Object> countries = referencing(Country.class, "region", Region.class, Collections.singletonList(group.key));
+                List<Object> locations = referencing(Location.class, "country", Country.class, countries);
+                for (Object departmentId : referencing(Department.class, "location", Location.class, locations)) {
+                    departments.add(new DBRef(collectionName(Department.class), departmentId));
+                }
+                return Filters.in("department", departments);
+        }
+    }
+
+    /**
+     * Find the ids of the entities referencing some entities of the referenced collection.
+     */
+    private List<Object> referencing(Class<?> entityClass, String referenceField, Class<?> referencedClass, List<Object> referencedIds) {
+        List<DBRef> references = new ArrayList<>();
+        for (Object id : referencedIds) {
+            references.add(new DBRef(collectionName(referencedClass), id));
+        }
+        List<Object> ids = new ArrayList<>();
+        for (Document document : mongoTemplate.getCollection(collectionName(entityClass))
+                .find(Filters.in(referenceField, references))
+                .projection(Projections.include("_id"))) {
+            ids.add(document.get("_id"));
+        }
+        return ids;
+    }
+
+    private static Group group(Document rollup) {
+        return new Group(Dimension.of(rollup.getString(DIMENSION_FIELD)).orElseThrow(IllegalStateException::new), rollup.get(KEY_FIELD));
+    }
+
+    private List<Group> groups(Document employee) {
+        List<Group> groups = new ArrayList<>();
+        Object departmentId = referenceId(employee.get("department"));
+        if (departmentId != null) {
+            groups.add(new Group(Dimension.DEPARTMENT, departmentId));
+            regionOf(departmentId).ifPresent(regionId -> groups.add(new Group(Dimension.REGION, regionId)));
+        }
+        Object jobs = employee.get("job");
+        if (jobs instanceof Collection) {
+            Set<Object> jobIds = new LinkedHashSet<>();
+            for (Object job : (Collection<?>) jobs) {
+                Object jobId = referenceId(job);
+                if (jobId != null && jobIds.add(jobId)) {
+                    groups.add(new Group(Dimension.JOB, jobId));
+                }
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Find the region of a department through its location and country.
+     */
+    private Optional<Object> regionOf(Object departmentId) {
+        return regionsByDepartment.computeIfAbsent(departmentId, id -> {
+            Object locationId = referenceId(field(Department.class, id, "location"));
+            Object countryId = locationId == null ? null : referenceId(field(Location.class, locationId, "country"));
+            return Optional.ofNullable(countryId == null ? null : referenceId(field(Country.class, countryId, "region")));
+        });
+    }
+
+    /**
+     * Load the regions of all the departments, with one query per collection.
+     */
+    private void loadRegions() {
+        Map<Object, Object> regionsByCountry = references(Country.class, "region");
+        Map<Object, Object> countriesByLocation = references(Location.class, "country");
+        references(Department.class, "location").forEach((departmentId, locationId) -> regionsByDepartment.put(departmentId,
+            Optional.ofNullable(regionsByCountry.get(countriesByLocation.get(locationId)))));
+    }
+
+    /**
+     * Find the id referenced by a field of each entity of a collection.
+     */
+    private Map<Object, Object> references(Class<?> entityClass, String referenceField) {
+        Map<Object, Object> references = new HashMap<>();
+        for (Document document : mongoTemplate.getCollection(collectionName(entityClass))
+                .find()
+                .projection(Projections.include(referenceField))) {
+            references.put(document.get("_id"), referenceId(document.get(referenceField)));
+        }
+        return references;
+    }
+
+    private Object field(Class<?> entityClass, Object id, String field) {
+        Document document = mongoTemplate.getCollection(collectionName(entityClass))
+            .find(Filters.eq("_id", id))
+            .projection(Projections.include(field))
+            .first();
+        return document == null ? null : document.get(field);
+    }
+
+    private SalaryStatsDTO toStats(Dimension dimension, Document rollup) {
+        SalaryStatsDTO stats = new SalaryStatsDTO();
+        stats.setDimension(dimension.getName());
+        stats.setId(rollup.get(KEY_FIELD).toString());
+        Document group = rollup.get(GROUP_FIELD, Document.class);
+        if (group != null) {
+            stats.setName(group.getString(dimension.nameField));
+            if (dimension == Dimension.JOB) {
+                stats.setJobMinSalary(number(group.get("min_salary")));
+                stats.setJobMaxSalary(number(group.get("max_salary")));
+            }
+        }
+        long count = number(rollup.get(COUNT_FIELD));
+        stats.setCount(count);
+        stats.setMin(number(rollup.get(MIN_FIELD)));
+        stats.setMax(number(rollup.get(MAX_FIELD)));
+        stats.setAverage((double) number(rollup.get(SALARY_SUM_FIELD)) / count);
+        Long commissionCount = number(rollup.get(COMMISSION_COUNT_FIELD));
+        if (commissionCount != null && commissionCount > 0) {
+            stats.setAverageCommissionPct((double) number(rollup.get(COMMISSION_SUM_FIELD)) / commissionCount);
+        }
+        TreeMap<Long, Long> histogram = new TreeMap<>();
+        Document buckets = rollup.get(HISTOGRAM_FIELD, Document.class);
+        if (buckets != null) {
+            for (Map.Entry<String, Object> bucket : buckets.entrySet()) {
+                Long bucketCount = number(bucket.getValue());
+                if (bucketCount != null && bucketCount > 0) {
+                    histogram.put(Long.parseLong(bucket.getKey()), bucketCount);
+                }
+            }
+        }
+        stats.setP50(percentile(histogram, count, 0.5, stats));
+        stats.setP90(percentile(histogram, count, 0.9, stats));
+        stats.setP99(percentile(histogram, count, 0.99, stats));
+        return stats;
+    }
+
+    /**
+     * Estimate a percentile as the bucket reaching its rank, within the exact minimum and maximum.
+     */
+    private static Long percentile(TreeMap<Long, Long> histogram, long count, double percentile, SalaryStatsDTO stats) {
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (Map.Entry<Long, Long> bucket : histogram.entrySet()) {
+            seen += bucket.getValue();
+            if (seen >= rank) {
+                long value = bucket.getKey();
+                if (stats.getMin() != null) {
+                    value = Math.max(value, stats.getMin());
+                }
+                if (stats.getMax() != null) {
+                    value = Math.min(value, stats.getMax());
+                }
+                return value;
+            }
+        }
+        return stats.getMax();
+    }
+
+    private static Object referenceId(Object reference) {
+        return reference instanceof DBRef ? ((DBRef) reference).getId() : null;
+    }
+
+    private static Long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private String collectionName(Class<?> entityClass) {
+        return mongoTemplate.getCollectionName(entityClass);
+    }
+
+    private MongoCollection<Document> rollups() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+
+    private MongoCollection<Document> employees() {
+        return mongoTemplate.getCollection(collectionName(Employee.class));
+    }
+
+    /**
+     * A group of employees: a department, a job or a region.
+     */
+    private static class Group {
+
+        private final Dimension dimension;
+
+        private final Object key;
+
+        Group(Dimension dimension, Object key) {
+            this.dimension = dimension;
+            this.key = key;
+        }
+
+        String id() {
+            return dimension.getName() + ":" + key;
+        }
+    }
+}
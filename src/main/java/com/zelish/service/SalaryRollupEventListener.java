@@ -0,0 +1,144 @@
+package com.zelish.service;
+
+import com.mongodb.MongoException;
+import com.zelish.domain.Country;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Location;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the salary rollups of {@link SalaryAnalyticsService} in sync with the {@link Employee} collection.
+ * <p>
+ * The stored state of an employee is read before it is saved or deleted, and moved out of the rollups once the
+ * write succeeded. The states read for a write which failed, such as on an optimistic locking failure, are dropped
+ * by the next write of the thread. A failure to update the rollups never fails the original write: it is logged, and the rollups
+ * can be regenerated with {@link SalaryAnalyticsService#rebuild}. The region rollups affected by a department,
+ * location or country, and all the rollups after a delete of employees by any other query than by ids, are
+ * rebuilt in the background rather than on the caller's thread.
+ */
+@Component
+public class SalaryRollupEventListener extends AbstractMongoEventListener<Object> {
+
+    private final Logger log = LoggerFactory.getLogger(SalaryRollupEventListener.class);
+
+    private final SalaryAnalyticsService salaryAnalyticsService;
+
+    private final QueryMapper queryMapper;
+
+    private final ThreadLocal<Map<Object, Document>> previousEmployees = ThreadLocal.withInitial(HashMap::new);
+
+    public SalaryRollupEventListener(SalaryAnalyticsService salaryAnalyticsService, MongoTemplate mongoTemplate) {
+        this.salaryAnalyticsService = salaryAnalyticsService;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Object> event) {
+        Document document = event.getDocument();
+        if (event.getSource() instanceof Employee && document != null && document.get("_id") != null) {
+            Map<Object, Document> previousById = previousEmployees.get();
+            previousById.clear();
+            Document previous = salaryAnalyticsService.findEmployee(document.get("_id"));
+            if (previous != null) {
+                previousById.put(previous.get("_id"), previous);
+            }
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        try {
+            if (source instanceof Employee && event.getDocument() != null) {
+                Document previous = previousEmployees.get().remove(event.getDocument().get("_id"));
+                if (previous != null) {
+                    salaryAnalyticsService.remove(previous);
+                }
+                salaryAnalyticsService.add(event.getDocument());
+            } else if (source instanceof Department || source instanceof Location || source instanceof Country) {
+                Object id = event.getDocument() == null ? null : event.getDocument().get("_id");
+                salaryAnalyticsService.rebuildInBackground(source.getClass(), id);
+            }
+        } catch (DataAccessException | MongoException e) {
+            log.error("Could not update the salary rollups after saving {}", source, e);
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Object> event) {
+        if (event.getType() == Employee.class) {
+            List<Object> ids = deletedIds(event.getSource());
+            Map<Object, Document> previousById = previousEmployees.get();
+            previousById.clear();
+            if (ids != null && !ids.isEmpty()) {
+                for (Document previous : salaryAnalyticsService.findEmployees(ids)) {
+                    previousById.put(previous.get("_id"), previous);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Class<?> type = event.getType();
+        List<Object> ids = deletedIds(event.getSource());
+        try {
+            if (type == Employee.class) {
+                if (ids == null) {
+                    // Not a delete by ids: the affected groups are unknown, and rebuilding them all is left to the background.
+                    salaryAnalyticsService.rebuildInBackground(type, null);
+                } else {
+                    List<Document> previous = new ArrayList<>();
+                    for (Object id : ids) {
+                        Document employee = previousEmployees.get().remove(queryMapper.convertId(id));
+                        if (employee != null) {
+                            previous.add(employee);
+                        }
+                    }
+                    salaryAnalyticsService.remove(previous);
+                }
+            } else if (type == Department.class || type == Location.class || type == Country.class) {
+                salaryAnalyticsService.rebuildInBackground(type, ids == null || ids.size() != 1 ? null : ids.get(0));
+            }
+        } catch (DataAccessException | MongoException e) {
+            log.error("Could not update the salary rollups after deleting {}", type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Extract the ids from the query of a delete by id or by a list of ids, or {@code null} for any other query.
+     */
+    private static List<Object> deletedIds(Document query) {
+        Object id = query.containsKey("_id") ? query.get("_id") : query.get("id");
+        if (id == null || query.size() != 1) {
+            return null;
+        }
+        if (!(id instanceof Document)) {
+            return Collections.singletonList(id);
+        }
+        Document condition = (Document) id;
+        if (condition.size() != 1 || !(condition.get("$in") instanceof Collection)) {
+            return null;
+        }
+        return new ArrayList<>((Collection<?>) condition.get("$in"));
+    }
+}
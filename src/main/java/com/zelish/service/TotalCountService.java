@@ -0,0 +1,66 @@
+package com.zelish.service;
+
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for estimating the number of entities of a collection without counting it on each request.
+ * <p>
+ * The estimates come from the metadata of the collections, with {@code estimatedDocumentCount}, which is as exact as a
+ * count without filter but does not scan the collection. They are cached, and refreshed in the background.
+ */
+@Service
+public class TotalCountService {
+
+    private final Logger log = LoggerFactory.getLogger(TotalCountService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    public TotalCountService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Estimate the number of entities of a type.
+     *
+     * @param entityClass the entity type.
+     * @return the estimated number of entities.
+     */
+    public long estimate(Class<?> entityClass) {
+        return estimate(mongoTemplate.getCollectionName(entityClass));
+    }
+
+    /**
+     * Estimate the number of documents of a collection.
+     *
+     * @param collection the name of the collection.
+     * @return the estimated number of documents.
+     */
+    public long estimate(String collection) {
+        return counts.computeIfAbsent(collection, name -> mongoTemplate.getCollection(name).estimatedDocumentCount());
+    }
+
+    /**
+     * Refresh the estimates of the collections estimated so far.
+     */
+    @Scheduled(fixedDelayString = "${application.pagination.count-refresh-delay:60000}")
+    public void refreshCounts() {
+        for (String collection : counts.keySet()) {
+            try {
+                counts.put(collection, mongoTemplate.getCollection(collection).estimatedDocumentCount());
+            } catch (DataAccessException | MongoException e) {
+                log.warn("Could not estimate the count of collection {}: {}", collection, e.getMessage());
+            }
+        }
+    }
+}
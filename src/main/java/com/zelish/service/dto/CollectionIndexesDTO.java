@@ -0,0 +1,124 @@
+package com.zelish.service.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the state of the indexes of a collection, compared with the declared ones.
+ */
+public class CollectionIndexesDTO {
+
+    private String collection;
+
+    private List<String> missing = new ArrayList<>();
+
+    private List<String> unexpected = new ArrayList<>();
+
+    private List<IndexUsageDTO> usage = new ArrayList<>();
+
+    public CollectionIndexesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CollectionIndexesDTO(String collection) {
+        this.collection = collection;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * @return the signatures of the declared indexes missing from the collection.
+     */
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+
+    /**
+     * @return the signatures of the live indexes which are not declared.
+     */
+    public List<String> getUnexpected() {
+        return unexpected;
+    }
+
+    public void setUnexpected(List<String> unexpected) {
+        this.unexpected = unexpected;
+    }
+
+    public List<IndexUsageDTO> getUsage() {
+        return usage;
+    }
+
+    public void setUsage(List<IndexUsageDTO> usage) {
+        this.usage = usage;
+    }
+
+    public boolean isDrifted() {
+        return !missing.isEmpty() || !unexpected.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionIndexesDTO{" +
+            "collection='" + collection + '\'' +
+            ", missing=" + missing +
+            ", unexpected=" + unexpected +
+            "}";
+    }
+
+    /**
+     * The usage of an index since the server started, as reported by {@code $indexStats}.
+     */
+    public static class IndexUsageDTO {
+
+        private String name;
+
+        private long ops;
+
+        private Instant since;
+
+        public IndexUsageDTO() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public IndexUsageDTO(String name, long ops, Instant since) {
+            this.name = name;
+            this.ops = ops;
+            this.since = since;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getOps() {
+            return ops;
+        }
+
+        public void setOps(long ops) {
+            this.ops = ops;
+        }
+
+        public Instant getSince() {
+            return since;
+        }
+
+        public void setSince(Instant since) {
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.zelish.service.dto;
+
+/**
+ * A DTO representing the progress of an import.
+ */
+public class ImportProgressDTO {
+
+    private long read;
+
+    private long imported;
+
+    private long rejected;
+
+    private boolean done;
+
+    public ImportProgressDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ImportProgressDTO(long read, long imported, long rejected, boolean done) {
+        this.read = read;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.done = done;
+    }
+
+    /**
+     * @return the number of rows parsed so far.
+     */
+    public long getRead() {
+        return read;
+    }
+
+    public void setRead(long read) {
+        this.read = read;
+    }
+
+    /**
+     * @return the number of rows written so far.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * @return whether the whole input was read and written.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportProgressDTO{" +
+            "read=" + read +
+            ", imported=" + imported +
+            ", rejected=" + rejected +
+            ", done=" + done +
+            "}";
+    }
+}
@@ -0,0 +1,47 @@
+package com.zelish.service.dto;
+
+/**
+ * A DTO representing a row rejected by an import.
+ */
+public class ImportRejectDTO {
+
+    private long row;
+
+    private String error;
+
+    public ImportRejectDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ImportRejectDTO(long row, String error) {
+        this.row = row;
+        this.error = error;
+    }
+
+    /**
+     * @return the position of the row in the input, starting at 1 after the CSV header.
+     */
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportRejectDTO{" +
+            "row=" + row +
+            ", error='" + error + "'" +
+            "}";
+    }
+}
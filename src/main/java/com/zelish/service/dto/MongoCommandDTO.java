@@ -0,0 +1,116 @@
+package com.zelish.service.dto;
+
+import java.time.Instant;
+
+/**
+ * A DTO representing a MongoDB command sent by the application.
+ */
+public class MongoCommandDTO {
+
+    private String command;
+
+    private String collection;
+
+    private String shape;
+
+    private Instant startedAt;
+
+    private double durationMillis;
+
+    private Integer documents;
+
+    private String failure;
+
+    public MongoCommandDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public MongoCommandDTO(String command, String collection, String shape, Instant startedAt, double durationMillis,
+            Integer documents, String failure) {
+        this.command = command;
+        this.collection = collection;
+        this.shape = shape;
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.documents = documents;
+        this.failure = failure;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * @return the filter and sort of the command, with {@code "?"} in place of the values.
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    public void setShape(String shape) {
+        this.shape = shape;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(double durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return the number of documents returned, or {@code null} if the command does not return documents.
+     */
+    public Integer getDocuments() {
+        return documents;
+    }
+
+    public void setDocuments(Integer documents) {
+        this.documents = documents;
+    }
+
+    /**
+     * @return the error of the command, or {@code null} if it succeeded.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    @Override
+    public String toString() {
+        return "MongoCommandDTO{" +
+            "command='" + command + "'" +
+            ", collection='" + collection + "'" +
+            ", shape='" + shape + "'" +
+            ", startedAt=" + startedAt +
+            ", durationMillis=" + durationMillis +
+            ", documents=" + documents +
+            ", failure='" + failure + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,117 @@
+package com.zelish.service.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the winning plan of a slow query shape.
+ */
+public class QueryPlanDTO {
+
+    private String collection;
+
+    private String shape;
+
+    private double durationMillis;
+
+    private Instant explainedAt;
+
+    private List<String> stages = new ArrayList<>();
+
+    private boolean collectionScan;
+
+    private boolean inMemorySort;
+
+    public QueryPlanDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public QueryPlanDTO(String collection, String shape, double durationMillis, Instant explainedAt) {
+        this.collection = collection;
+        this.shape = shape;
+        this.durationMillis = durationMillis;
+        this.explainedAt = explainedAt;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public void setShape(String shape) {
+        this.shape = shape;
+    }
+
+    /**
+     * @return the duration of the slow query which caused the explain.
+     */
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(double durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public Instant getExplainedAt() {
+        return explainedAt;
+    }
+
+    public void setExplainedAt(Instant explainedAt) {
+        this.explainedAt = explainedAt;
+    }
+
+    /**
+     * @return the stages of the winning plan, from the root to the leaves.
+     */
+    public List<String> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<String> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * @return whether the plan scans the whole collection, which usually means an index is missing.
+     */
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+
+    public void setCollectionScan(boolean collectionScan) {
+        this.collectionScan = collectionScan;
+    }
+
+    /**
+     * @return whether the plan sorts the documents in memory, instead of reading them in the order of an index.
+     */
+    public boolean isInMemorySort() {
+        return inMemorySort;
+    }
+
+    public void setInMemorySort(boolean inMemorySort) {
+        this.inMemorySort = inMemorySort;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlanDTO{" +
+            "collection='" + collection + "'" +
+            ", shape='" + shape + "'" +
+            ", durationMillis=" + durationMillis +
+            ", explainedAt=" + explainedAt +
+            ", stages=" + stages +
+            ", collectionScan=" + collectionScan +
+            ", inMemorySort=" + inMemorySort +
+            "}";
+    }
+}
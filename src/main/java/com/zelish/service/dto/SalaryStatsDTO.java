@@ -0,0 +1,177 @@
+package com.zelish.service.dto;
+
+/**
+ * A DTO representing the salary statistics of a department, job or region.
+ */
+public class SalaryStatsDTO {
+
+    private String dimension;
+
+    private String id;
+
+    private String name;
+
+    private long count;
+
+    private Long min;
+
+    private Long max;
+
+    private Double average;
+
+    private Long p50;
+
+    private Long p90;
+
+    private Long p99;
+
+    private Double averageCommissionPct;
+
+    private Long jobMinSalary;
+
+    private Long jobMaxSalary;
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the number of employees with a salary.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Long getMin() {
+        return min;
+    }
+
+    public void setMin(Long min) {
+        this.min = min;
+    }
+
+    public Long getMax() {
+        return max;
+    }
+
+    public void setMax(Long max) {
+        this.max = max;
+    }
+
+    public Double getAverage() {
+        return average;
+    }
+
+    public void setAverage(Double average) {
+        this.average = average;
+    }
+
+    /**
+     * @return the median salary, approximated to three significant digits.
+     */
+    public Long getP50() {
+        return p50;
+    }
+
+    public void setP50(Long p50) {
+        this.p50 = p50;
+    }
+
+    /**
+     * @return the 90th percentile of the salaries, approximated to three significant digits.
+     */
+    public Long getP90() {
+        return p90;
+    }
+
+    public void setP90(Long p90) {
+        this.p90 = p90;
+    }
+
+    /**
+     * @return the 99th percentile of the salaries, approximated to three significant digits.
+     */
+    public Long getP99() {
+        return p99;
+    }
+
+    public void setP99(Long p99) {
+        this.p99 = p99;
+    }
+
+    /**
+     * @return the average commission of the employees having one.
+     */
+    public Double getAverageCommissionPct() {
+        return averageCommissionPct;
+    }
+
+    public void setAverageCommissionPct(Double averageCommissionPct) {
+        this.averageCommissionPct = averageCommissionPct;
+    }
+
+    /**
+     * @return the minimum salary of the job, for the job dimension only.
+     */
+    public Long getJobMinSalary() {
+        return jobMinSalary;
+    }
+
+    public void setJobMinSalary(Long jobMinSalary) {
+        this.jobMinSalary = jobMinSalary;
+    }
+
+    /**
+     * @return the maximum salary of the job, for the job dimension only.
+     */
+    public Long getJobMaxSalary() {
+        return jobMaxSalary;
+    }
+
+    public void setJobMaxSalary(Long jobMaxSalary) {
+        this.jobMaxSalary = jobMaxSalary;
+    }
+
+    @Override
+    public String toString() {
+        return "SalaryStatsDTO{" +
+            "dimension='" + dimension + "'" +
+            ", id='" + id + "'" +
+            ", name='" + name + "'" +
+            ", count=" + count +
+            ", min=" + min +
+            ", max=" + max +
+            ", average=" + average +
+            ", p50=" + p50 +
+            ", p90=" + p90 +
+            ", p99=" + p99 +
+            ", averageCommissionPct=" + averageCommissionPct +
+            ", jobMinSalary=" + jobMinSalary +
+            ", jobMaxSalary=" + jobMaxSalary +
+            "}";
+    }
+}
@@ -2,6 +2,9 @@ package com.zelish.service.impl;
 
 import com.zelish.service.CountryService;
 import com.zelish.domain.Country;
+import com.zelish.domain.Region;
+import com.zelish.service.ReferenceDataCache;
+import com.zelish.repository.BatchingQueryExecutor;
 import com.zelish.repository.CountryRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +24,16 @@ public class CountryServiceImpl implements CountryService {
 
     private final CountryRepository countryRepository;
 
-    public CountryServiceImpl(CountryRepository countryRepository) {
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public CountryServiceImpl(CountryRepository countryRepository, BatchingQueryExecutor batchingQueryExecutor,
+            ReferenceDataCache referenceDataCache) {
         this.countryRepository = countryRepository;
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.referenceDataCache = referenceDataCache;
+        referenceDataCache.register(Country.class, countryRepository::findAll, Region.class);
     }
 
     /**
@@ -40,12 +51,22 @@ public class CountryServiceImpl implements CountryService {
     /**
      * Get all the countries.
      *
-     * @return the list of entities.
+     * @return the list of entities, which must not be modified.
      */
     @Override
     public List<Country> findAll() {
+        return findAllSnapshot().getEntities();
+    }
+
+    /**
+     * Get all the countries, from the reference data cache.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    @Override
+    public ReferenceDataCache.Snapshot<Country> findAllSnapshot() {
         log.debug("Request to get all Countries");
-        return countryRepository.findAll();
+        return referenceDataCache.get(Country.class);
     }
 
 
@@ -58,7 +79,7 @@ public class CountryServiceImpl implements CountryService {
     @Override
     public Optional<Country> findOne(String id) {
         log.debug("Request to get Country : {}", id);
-        return countryRepository.findById(id);
+        return batchingQueryExecutor.findById(id, Country.class);
     }
 
     /**
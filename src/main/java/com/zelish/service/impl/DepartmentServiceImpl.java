@@ -1,7 +1,11 @@
 package com.zelish.service.impl;
 
+import com.zelish.service.ConditionalUpdateService;
 import com.zelish.service.DepartmentService;
 import com.zelish.domain.Department;
+import com.zelish.domain.Location;
+import com.zelish.service.ReferenceDataCache;
+import com.zelish.repository.BatchingQueryExecutor;
 import com.zelish.repository.DepartmentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +25,21 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
 
-    public DepartmentServiceImpl(DepartmentRepository departmentRepository) {
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final ConditionalUpdateService conditionalUpdateService;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public DepartmentServiceImpl(DepartmentRepository departmentRepository, BatchingQueryExecutor batchingQueryExecutor,
+            ReferenceDataCache referenceDataCache, ConditionalUpdateService conditionalUpdateService) {
         this.departmentRepository = departmentRepository;
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.conditionalUpdateService = conditionalUpdateService;
+        this.referenceDataCache = referenceDataCache;
+        // The list does not embed the employees, so that the writes of the employees and of their jobs and tasks
+        // do not invalidate it.
+        referenceDataCache.register(Department.class, departmentRepository::findAllWithoutEmployees, Location.class);
     }
 
     /**
@@ -38,14 +55,37 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     /**
-     * Get all the departments.
+     * Update a department, if it has the expected version.
      *
-     * @return the list of entities.
+     * @param department the entity to update.
+     * @param expectedVersion the version the entity must have, or {@code null} for any version.
+     * @return the persisted entity, with its new version.
+     */
+    @Override
+    public Department update(Department department, Long expectedVersion) {
+        log.debug("Request to update Department : {} at version {}", department, expectedVersion);
+        return conditionalUpdateService.update(department, expectedVersion, Department.class);
+    }
+
+    /**
+     * Get all the departments, without their employees.
+     *
+     * @return the list of entities, which must not be modified.
      */
     @Override
     public List<Department> findAll() {
+        return findAllSnapshot().getEntities();
+    }
+
+    /**
+     * Get all the departments without their employees, from the reference data cache.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    @Override
+    public ReferenceDataCache.Snapshot<Department> findAllSnapshot() {
         log.debug("Request to get all Departments");
-        return departmentRepository.findAll();
+        return referenceDataCache.get(Department.class);
     }
 
 
@@ -58,7 +98,7 @@ public class DepartmentServiceImpl implements DepartmentService {
     @Override
     public Optional<Department> findOne(String id) {
         log.debug("Request to get Department : {}", id);
-        return departmentRepository.findById(id);
+        return batchingQueryExecutor.findById(id, Department.class);
     }
 
     /**
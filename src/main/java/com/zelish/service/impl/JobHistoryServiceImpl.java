@@ -1,15 +1,21 @@
 package com.zelish.service.impl;
 
+import com.zelish.service.ConditionalUpdateService;
 import com.zelish.service.JobHistoryService;
 import com.zelish.domain.JobHistory;
+import com.zelish.repository.BatchingQueryExecutor;
 import com.zelish.repository.JobHistoryRepository;
+import com.zelish.repository.KeysetSlice;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,8 +28,15 @@ public class JobHistoryServiceImpl implements JobHistoryService {
 
     private final JobHistoryRepository jobHistoryRepository;
 
-    public JobHistoryServiceImpl(JobHistoryRepository jobHistoryRepository) {
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final ConditionalUpdateService conditionalUpdateService;
+
+    public JobHistoryServiceImpl(JobHistoryRepository jobHistoryRepository, BatchingQueryExecutor batchingQueryExecutor,
+            ConditionalUpdateService conditionalUpdateService) {
         this.jobHistoryRepository = jobHistoryRepository;
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.conditionalUpdateService = conditionalUpdateService;
     }
 
     /**
@@ -38,16 +51,67 @@ public class JobHistoryServiceImpl implements JobHistoryService {
         return jobHistoryRepository.save(jobHistory);
     }
 
+    /**
+     * Update a jobHistory, if it has the expected version.
+     *
+     * @param jobHistory the entity to update.
+     * @param expectedVersion the version the entity must have, or {@code null} for any version.
+     * @return the persisted entity, with its new version.
+     */
+    @Override
+    public JobHistory update(JobHistory jobHistory, Long expectedVersion) {
+        log.debug("Request to update JobHistory : {} at version {}", jobHistory, expectedVersion);
+        return conditionalUpdateService.update(jobHistory, expectedVersion, JobHistory.class);
+    }
+
     /**
      * Get all the jobHistories.
      *
      * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
      * @return the list of entities.
      */
     @Override
-    public Page<JobHistory> findAll(Pageable pageable) {
+    public Page<JobHistory> findAll(Pageable pageable, Collection<String> fields) {
         log.debug("Request to get all JobHistories");
-        return jobHistoryRepository.findAll(pageable);
+        return jobHistoryRepository.findAllWithBatchedReferences(pageable, fields);
+    }
+
+    /**
+     * Get a slice of the jobHistories, without counting them.
+     *
+     * @param pageable the pagination information.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    @Override
+    public Slice<JobHistory> findSlice(Pageable pageable, Collection<String> fields) {
+        log.debug("Request to get a slice of JobHistories");
+        return jobHistoryRepository.findSliceWithBatchedReferences(pageable, fields);
+    }
+
+    /**
+     * Get a slice of the jobHistories by keyset.
+     *
+     * @param after the next key of the previous slice, or {@code null} for the first slice.
+     * @param pageable the size and sort of the slice.
+     * @param fields the names of the properties to load, all properties when empty.
+     * @return the slice of entities.
+     */
+    @Override
+    public KeysetSlice<JobHistory> findAllAfter(List<Object> after, Pageable pageable, Collection<String> fields) {
+        log.debug("Request to get JobHistories after : {}", after);
+        return jobHistoryRepository.findAllAfter(after, pageable, fields);
+    }
+
+    /**
+     * Count the jobHistories.
+     *
+     * @return the number of entities.
+     */
+    @Override
+    public long count() {
+        return jobHistoryRepository.count();
     }
 
 
@@ -60,7 +124,7 @@ public class JobHistoryServiceImpl implements JobHistoryService {
     @Override
     public Optional<JobHistory> findOne(String id) {
         log.debug("Request to get JobHistory : {}", id);
-        return jobHistoryRepository.findById(id);
+        return batchingQueryExecutor.findById(id, JobHistory.class);
     }
 
     /**
@@ -1,7 +1,10 @@
 package com.zelish.service.impl;
 
 import com.zelish.service.LocationService;
+import com.zelish.domain.Country;
 import com.zelish.domain.Location;
+import com.zelish.service.ReferenceDataCache;
+import com.zelish.repository.BatchingQueryExecutor;
 import com.zelish.repository.LocationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +24,16 @@ public class LocationServiceImpl implements LocationService {
 
     private final LocationRepository locationRepository;
 
-    public LocationServiceImpl(LocationRepository locationRepository) {
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public LocationServiceImpl(LocationRepository locationRepository, BatchingQueryExecutor batchingQueryExecutor,
+            ReferenceDataCache referenceDataCache) {
         this.locationRepository = locationRepository;
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.referenceDataCache = referenceDataCache;
+        referenceDataCache.register(Location.class, locationRepository::findAll, Country.class);
     }
 
     /**
@@ -40,12 +51,22 @@ public class LocationServiceImpl implements LocationService {
     /**
      * Get all the locations.
      *
-     * @return the list of entities.
+     * @return the list of entities, which must not be modified.
      */
     @Override
     public List<Location> findAll() {
+        return findAllSnapshot().getEntities();
+    }
+
+    /**
+     * Get all the locations, from the reference data cache.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    @Override
+    public ReferenceDataCache.Snapshot<Location> findAllSnapshot() {
         log.debug("Request to get all Locations");
-        return locationRepository.findAll();
+        return referenceDataCache.get(Location.class);
     }
 
 
@@ -58,7 +79,7 @@ public class LocationServiceImpl implements LocationService {
     @Override
     public Optional<Location> findOne(String id) {
         log.debug("Request to get Location : {}", id);
-        return locationRepository.findById(id);
+        return batchingQueryExecutor.findById(id, Location.class);
     }
 
     /**
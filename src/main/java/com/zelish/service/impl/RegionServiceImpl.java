@@ -2,6 +2,8 @@ package com.zelish.service.impl;
 
 import com.zelish.service.RegionService;
 import com.zelish.domain.Region;
+import com.zelish.service.ReferenceDataCache;
+import com.zelish.repository.BatchingQueryExecutor;
 import com.zelish.repository.RegionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +23,16 @@ public class RegionServiceImpl implements RegionService {
 
     private final RegionRepository regionRepository;
 
-    public RegionServiceImpl(RegionRepository regionRepository) {
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public RegionServiceImpl(RegionRepository regionRepository, BatchingQueryExecutor batchingQueryExecutor,
+            ReferenceDataCache referenceDataCache) {
         this.regionRepository = regionRepository;
+        this.batchingQueryExecutor = batchingQueryExecutor;
+        this.referenceDataCache = referenceDataCache;
+        referenceDataCache.register(Region.class, regionRepository::findAll);
     }
 
     /**
@@ -40,12 +50,22 @@ public class RegionServiceImpl implements RegionService {
     /**
      * Get all the regions.
      *
-     * @return the list of entities.
+     * @return the list of entities, which must not be modified.
      */
     @Override
     public List<Region> findAll() {
+        return findAllSnapshot().getEntities();
+    }
+
+    /**
+     * Get all the regions, from the reference data cache.
+     *
+     * @return the cached snapshot of the entities.
+     */
+    @Override
+    public ReferenceDataCache.Snapshot<Region> findAllSnapshot() {
         log.debug("Request to get all Regions");
-        return regionRepository.findAll();
+        return referenceDataCache.get(Region.class);
     }
 
 
@@ -58,7 +78,7 @@ public class RegionServiceImpl implements RegionService {
     @Override
     public Optional<Region> findOne(String id) {
         log.debug("Request to get Region : {}", id);
-        return regionRepository.findById(id);
+        return batchingQueryExecutor.findById(id, Region.class);
     }
 
     /**
@@ -2,6 +2,7 @@ package com.zelish.service.impl;
 
 import com.zelish.service.TaskService;
 import com.zelish.domain.Task;
+import com.zelish.repository.BatchingQueryExecutor;
 import com.zelish.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +22,11 @@ public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
 
-    public TaskServiceImpl(TaskRepository taskRepository) {
+    private final BatchingQueryExecutor batchingQueryExecutor;
+
+    public TaskServiceImpl(TaskRepository taskRepository, BatchingQueryExecutor batchingQueryExecutor) {
         this.taskRepository = taskRepository;
+        this.batchingQueryExecutor = batchingQueryExecutor;
     }
 
     /**
@@ -58,7 +62,7 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public Optional<Task> findOne(String id) {
         log.debug("Request to get Task : {}", id);
-        return taskRepository.findById(id);
+        return batchingQueryExecutor.findById(id, Task.class);
     }
 
     /**
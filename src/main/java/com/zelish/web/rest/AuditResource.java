@@ -1,12 +1,15 @@
 package com.zelish.web.rest;
 
+import com.zelish.domain.PersistentAuditEventStats;
 import com.zelish.service.AuditEventService;
+import com.zelish.web.rest.util.SlicePaginationUtil;
 
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,12 +40,20 @@ public class AuditResource {
      * @param queryParams a {@link MultiValueMap} query parameters.
      * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
      * @param pageable the pagination information.
+     * @param count {@code estimated} to skip the count of the {@link AuditEvent}s.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of {@link AuditEvent}s in body.
      */
     @GetMapping
-    public ResponseEntity<List<AuditEvent>> getAll(@RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder, Pageable pageable) {
+    public ResponseEntity<List<AuditEvent>> getAll(@RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder, Pageable pageable,
+            @RequestParam(value = SlicePaginationUtil.COUNT_PARAM, required = false) String count) {
+        if (SlicePaginationUtil.isEstimated(count)) {
+            Slice<AuditEvent> slice = auditEventService.findSlice(pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder.queryParams(queryParams), slice,
+                auditEventService.estimateCount());
+            return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+        }
         Page<AuditEvent> page = auditEventService.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
@@ -71,6 +82,28 @@ public class AuditResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET  /audits/stats} : get the number of {@link AuditEvent}s of each hour, type and principal between the
+     * {@code fromDate} and {@code toDate}.
+     *
+     * @param fromDate the start of the time period of the statistics to get.
+     * @param toDate the end of the time period of the statistics to get.
+     * @param type the type of the events, all the types when absent.
+     * @param principal the principal of the events, all the principals when absent.
+     * @return the {@link List} of hourly statistics, by hour then type and principal.
+     */
+    @GetMapping("/stats")
+    public List<PersistentAuditEventStats> getStats(
+        @RequestParam(value = "fromDate") LocalDate fromDate,
+        @RequestParam(value = "toDate") LocalDate toDate,
+        @RequestParam(value = "type", required = false) String type,
+        @RequestParam(value = "principal", required = false) String principal) {
+
+        return auditEventService.findStats(type, principal,
+            fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant(),
+            toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant());
+    }
+
     /**
      * {@code GET  /audits/:id} : get an {@link AuditEvent} by id.
      *
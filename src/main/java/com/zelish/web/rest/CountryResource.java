@@ -2,13 +2,18 @@ package com.zelish.web.rest;
 
 import com.zelish.domain.Country;
 import com.zelish.service.CountryService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.ReferenceDataCache;
 import com.zelish.web.rest.errors.BadRequestAlertException;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,8 +39,11 @@ public class CountryResource {
 
     private final CountryService countryService;
 
-    public CountryResource(CountryService countryService) {
+    private final MergePatchService mergePatchService;
+
+    public CountryResource(CountryService countryService, MergePatchService mergePatchService) {
         this.countryService = countryService;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -78,15 +86,36 @@ public class CountryResource {
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /countries/:id} : Partially updates an existing country with a JSON Merge Patch.
+     *
+     * @param id the id of the country to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated country,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the country does not exist.
+     */
+    @PatchMapping(value = "/countries/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Country> partialUpdateCountry(@PathVariable String id, @RequestBody ObjectNode patch) {
+        log.debug("REST request to patch Country {} : {}", id, patch);
+        Optional<Country> result = mergePatchService.patch(id, patch, null, Country.class, ENTITY_NAME);
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     /**
      * {@code GET  /countries} : get all the countries.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of countries in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of countries in body,
+     * or with status {@code 304 (Not Modified)} if the list still matches the {@code If-None-Match} ETag.
      */
     @GetMapping("/countries")
-    public List<Country> getAllCountries() {
+    public ResponseEntity<List<Country>> getAllCountries() {
         log.debug("REST request to get all Countries");
-        return countryService.findAll();
+        ReferenceDataCache.Snapshot<Country> countries = countryService.findAllSnapshot();
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(countries.getETag())
+            .body(countries.getEntities());
     }
 
     /**
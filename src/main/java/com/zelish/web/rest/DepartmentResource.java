@@ -2,13 +2,20 @@ package com.zelish.web.rest;
 
 import com.zelish.domain.Department;
 import com.zelish.service.DepartmentService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.ReferenceDataCache;
 import com.zelish.web.rest.errors.BadRequestAlertException;
+import com.zelish.web.rest.util.EntityTagUtil;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,8 +42,11 @@ public class DepartmentResource {
 
     private final DepartmentService departmentService;
 
-    public DepartmentResource(DepartmentService departmentService) {
+    private final MergePatchService mergePatchService;
+
+    public DepartmentResource(DepartmentService departmentService, MergePatchService mergePatchService) {
         this.departmentService = departmentService;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -62,45 +72,80 @@ public class DepartmentResource {
      * {@code PUT  /departments} : Updates an existing department.
      *
      * @param department the department to update.
+     * @param ifMatch the ETag the department must still have, or {@code null} to check the version of the body if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated department,
      * or with status {@code 400 (Bad Request)} if the department is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the body is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the department does not match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the department couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/departments")
-    public ResponseEntity<Department> updateDepartment(@Valid @RequestBody Department department) throws URISyntaxException {
+    public ResponseEntity<Department> updateDepartment(@Valid @RequestBody Department department,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Department : {}", department);
         if (department.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Department result = departmentService.save(department);
+        Department result = EntityTagUtil.updateIfMatch(ifMatch, department.getVersion(), ENTITY_NAME,
+            version -> departmentService.update(department, version));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, department.getId().toString()))
+            .headers(EntityTagUtil.headers(result.getVersion()))
             .body(result);
     }
 
     /**
-     * {@code GET  /departments} : get all the departments.
+     * {@code PATCH  /departments/:id} : Partially updates an existing department with a JSON Merge Patch.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of departments in body.
+     * @param id the id of the department to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @param ifMatch the ETag the department must still have, or {@code null} to check the version of the patch if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated department,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the department does not exist,
+     * or with status {@code 409 (Conflict)} if the version of the patch is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the department does not match {@code If-Match}.
+     */
+    @PatchMapping(value = "/departments/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Department> partialUpdateDepartment(@PathVariable String id, @RequestBody ObjectNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to patch Department {} : {}", id, patch);
+        Optional<Department> result = EntityTagUtil.updateIfMatch(ifMatch, MergePatchService.version(patch), ENTITY_NAME,
+            version -> mergePatchService.patch(id, patch, version, Department.class, ENTITY_NAME));
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id);
+        headers.putAll(EntityTagUtil.headers(result.map(Department::getVersion).orElse(null)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
+
+    /**
+     * {@code GET  /departments} : get all the departments, without their employees.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of departments in body,
+     * or with status {@code 304 (Not Modified)} if the list still matches the {@code If-None-Match} ETag.
      */
     @GetMapping("/departments")
-    public List<Department> getAllDepartments() {
+    public ResponseEntity<List<Department>> getAllDepartments() {
         log.debug("REST request to get all Departments");
-        return departmentService.findAll();
+        ReferenceDataCache.Snapshot<Department> departments = departmentService.findAllSnapshot();
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(departments.getETag())
+            .body(departments.getEntities());
     }
 
     /**
      * {@code GET  /departments/:id} : get the "id" department.
      *
      * @param id the id of the department to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the department, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the department and its ETag,
+     * or with status {@code 304 (Not Modified)} if it still matches {@code If-None-Match}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/departments/{id}")
     public ResponseEntity<Department> getDepartment(@PathVariable String id) {
         log.debug("REST request to get Department : {}", id);
         Optional<Department> department = departmentService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(department);
+        return EntityTagUtil.wrapOrNotFound(department, Department::getVersion);
     }
 
     /**
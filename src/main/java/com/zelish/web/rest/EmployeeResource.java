@@ -1,9 +1,24 @@
 package com.zelish.web.rest;
 
+import com.zelish.config.ApplicationProperties;
 import com.zelish.domain.Employee;
 import com.zelish.repository.EmployeeRepository;
+import com.zelish.repository.KeysetSlice;
+import com.zelish.repository.SecondaryPreferred;
+import com.zelish.service.BulkService;
+import com.zelish.service.ConditionalUpdateService;
+import com.zelish.service.ExportService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.TotalCountService;
+import com.zelish.service.dto.BulkItemResultDTO;
 import com.zelish.web.rest.errors.BadRequestAlertException;
+import com.zelish.web.rest.util.EntityTagUtil;
+import com.zelish.web.rest.util.KeysetPaginationUtil;
+import com.zelish.web.rest.util.SlicePaginationUtil;
+import com.zelish.web.rest.util.SparseFields;
+import com.zelish.web.rest.util.SparseFieldsUtil;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -12,18 +27,23 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.zelish.domain.Employee}.
@@ -41,8 +61,28 @@ public class EmployeeResource {
 
     private final EmployeeRepository employeeRepository;
 
-    public EmployeeResource(EmployeeRepository employeeRepository) {
+    private final TotalCountService totalCountService;
+
+    private final BulkService bulkService;
+
+    private final ExportService exportService;
+
+    private final ConditionalUpdateService conditionalUpdateService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final MergePatchService mergePatchService;
+
+    public EmployeeResource(EmployeeRepository employeeRepository, TotalCountService totalCountService, BulkService bulkService,
+            ExportService exportService, ConditionalUpdateService conditionalUpdateService, ApplicationProperties applicationProperties,
+            MergePatchService mergePatchService) {
         this.employeeRepository = employeeRepository;
+        this.totalCountService = totalCountService;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.conditionalUpdateService = conditionalUpdateService;
+        this.applicationProperties = applicationProperties;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -68,50 +108,223 @@ public class EmployeeResource {
      * {@code PUT  /employees} : Updates an existing employee.
      *
      * @param employee the employee to update.
+     * @param ifMatch the ETag the employee must still have, or {@code null} to check the version of the body if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated employee,
      * or with status {@code 400 (Bad Request)} if the employee is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the body is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the employee does not match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the employee couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/employees")
-    public ResponseEntity<Employee> updateEmployee(@RequestBody Employee employee) throws URISyntaxException {
+    public ResponseEntity<Employee> updateEmployee(@RequestBody Employee employee,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Employee : {}", employee);
         if (employee.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Employee result = employeeRepository.save(employee);
+        Employee result = EntityTagUtil.updateIfMatch(ifMatch, employee.getVersion(), ENTITY_NAME,
+            version -> conditionalUpdateService.update(employee, version, Employee.class));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, employee.getId().toString()))
+            .headers(EntityTagUtil.headers(result.getVersion()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /employees/:id} : Partially updates an existing employee with a JSON Merge Patch.
+     *
+     * @param id the id of the employee to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @param ifMatch the ETag the employee must still have, or {@code null} to check the version of the patch if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated employee,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the employee does not exist,
+     * or with status {@code 409 (Conflict)} if the version of the patch is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the employee does not match {@code If-Match}.
+     */
+    @PatchMapping(value = "/employees/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Employee> partialUpdateEmployee(@PathVariable String id, @RequestBody ObjectNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to patch Employee {} : {}", id, patch);
+        Optional<Employee> result = EntityTagUtil.updateIfMatch(ifMatch, MergePatchService.version(patch), ENTITY_NAME,
+            version -> mergePatchService.patch(id, patch, version, Employee.class, ENTITY_NAME));
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id);
+        headers.putAll(EntityTagUtil.headers(result.map(Employee::getVersion).orElse(null)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
+
     /**
      * {@code GET  /employees} : get all the employees.
+     * <p>
+     * The first page and the requests with an {@code after} token are fetched by keyset, and give the token
+     * of the next slice in the {@code Link} header, with the {@code after} relation. The other pages are fetched by offset.
+     * With {@code count=estimated}, the entities are not counted and the total is estimated.
      *
      * @param pageable the pagination information.
+     * @param after the token of the slice to get, from the {@code Link} header of the previous one.
+     * @param count {@code estimated} to skip the count of the entities.
+     * @param fields the comma separated properties to get, all properties when absent.
      * @param queryParams a {@link MultiValueMap} query parameters.
      * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body.
      */
     @GetMapping("/employees")
-    public ResponseEntity<List<Employee>> getAllEmployees(Pageable pageable, @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder) {
+    @SecondaryPreferred
+    @SparseFields
+    public ResponseEntity<List<Employee>> getAllEmployees(Pageable pageable, @RequestParam(value = KeysetPaginationUtil.AFTER_PARAM, required = false) String after,
+            @RequestParam(value = SlicePaginationUtil.COUNT_PARAM, required = false) String count,
+            @RequestParam(value = SparseFieldsUtil.FIELDS_PARAM, required = false) String fields,
+            @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder) {
         log.debug("REST request to get a page of Employees");
-        Page<Employee> page = employeeRepository.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        UriComponentsBuilder requestUriBuilder = uriBuilder.queryParams(queryParams);
+        boolean estimated = SlicePaginationUtil.isEstimated(count);
+        Set<String> projection = SparseFieldsUtil.parseFields(fields, Employee.class, ENTITY_NAME);
+        if (after == null && pageable.getPageNumber() > 0) {
+            if (estimated) {
+                Slice<Employee> slice = employeeRepository.findSliceWithBatchedReferences(pageable, projection);
+                HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(requestUriBuilder, slice, totalCountService.estimate(Employee.class));
+                return ResponseEntity.ok().headers(headers).body(slice.getContent());
+            }
+            Page<Employee> page = employeeRepository.findAllWithBatchedReferences(pageable, projection);
+            HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(requestUriBuilder, page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
+        KeysetSlice<Employee> slice = employeeRepository.findAllAfter(KeysetPaginationUtil.decodeAfter(after, pageable, ENTITY_NAME), pageable, projection);
+        HttpHeaders headers;
+        if (after != null) {
+            headers = new HttpHeaders();
+        } else if (estimated) {
+            headers = SlicePaginationUtil.generateSliceHttpHeaders(requestUriBuilder, slice, totalCountService.estimate(Employee.class));
+        } else {
+            headers = SlicePaginationUtil.generatePaginationHttpHeaders(requestUriBuilder,
+                PageableExecutionUtils.getPage(slice.getContent(), pageable, employeeRepository::count));
+        }
+        KeysetPaginationUtil.addAfterLink(headers, requestUriBuilder, slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /employees/export} : export all the employees.
+     * <p>
+     * The employees are streamed from a database cursor as newline delimited JSON, one employee per line.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the employees in body.
+     */
+    @GetMapping("/employees/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        log.debug("REST request to export all Employees");
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(ExportService.APPLICATION_NDJSON_VALUE))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.ndjson\"")
+            .body(out -> exportService.export(Employee.class, out));
     }
 
     /**
      * {@code GET  /employees/:id} : get the "id" employee.
      *
      * @param id the id of the employee to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee and its ETag,
+     * or with status {@code 304 (Not Modified)} if it still matches {@code If-None-Match}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/employees/{id}")
     public ResponseEntity<Employee> getEmployee(@PathVariable String id) {
         log.debug("REST request to get Employee : {}", id);
-        Optional<Employee> employee = employeeRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(employee);
+        Optional<Employee> employee = employeeRepository.findOneWithBatchedReferences(id);
+        return EntityTagUtil.wrapOrNotFound(employee, Employee::getVersion);
+    }
+
+    /**
+     * {@code GET  /employees/:id/reports} : get the direct and indirect reports of the "id" employee.
+     * <p>
+     * Without {@code depth}, the whole subtree is paged through the materialized path of the managers.
+     * With {@code depth}, the hierarchy is walked down that number of levels, and sliced by level.
+     *
+     * @param id the id of the manager.
+     * @param depth the optional number of levels, 1 meaning the direct reports only.
+     * @param pageable the pagination information.
+     * @param queryParams a {@link MultiValueMap} query parameters.
+     * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of reports in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/employees/{id}/reports")
+    public ResponseEntity<List<Employee>> getEmployeeReports(@PathVariable String id, @RequestParam(required = false) Integer depth,
+            Pageable pageable, @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder) {
+        log.debug("REST request to get the reports of Employee : {}", id);
+        if (!employeeRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (depth != null) {
+            Slice<Employee> slice = employeeRepository.findReports(id, boundedDepth(depth), pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder.queryParams(queryParams), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<Employee> page = employeeRepository.findSubtree(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /employees/:id/chain} : get the managers of the "id" employee, up to the root.
+     *
+     * @param id the id of the employee.
+     * @param depth the optional number of levels, 1 meaning the direct manager only.
+     * @param pageable the pagination information.
+     * @param queryParams a {@link MultiValueMap} query parameters.
+     * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of managers in body, from the direct manager upwards,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/employees/{id}/chain")
+    public ResponseEntity<List<Employee>> getEmployeeChain(@PathVariable String id, @RequestParam(required = false) Integer depth,
+            Pageable pageable, @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder) {
+        log.debug("REST request to get the management chain of Employee : {}", id);
+        if (!employeeRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        int maxDepth = applicationProperties.getOrgChart().getMaxDepth();
+        Slice<Employee> slice = employeeRepository.findManagementChain(id, depth == null ? maxDepth : boundedDepth(depth), pageable);
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder.queryParams(queryParams), slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code POST  /employees/bulk} : Create new employees in bulk.
+     *
+     * @param employees the employees to create, without ids.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each employee, with the status
+     * its creation would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many employees.
+     */
+    @PostMapping("/employees/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> createEmployees(@RequestBody List<Employee> employees) {
+        log.debug("REST request to save {} Employees in bulk", employees.size());
+        return ResponseEntity.ok(bulkService.create(employees, Employee.class, ENTITY_NAME));
+    }
+
+    /**
+     * {@code PUT  /employees/bulk} : Updates existing employees in bulk.
+     *
+     * @param employees the employees to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each employee, with the status
+     * its update would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many employees.
+     */
+    @PutMapping("/employees/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> updateEmployees(@RequestBody List<Employee> employees) {
+        log.debug("REST request to update {} Employees in bulk", employees.size());
+        return ResponseEntity.ok(bulkService.update(employees, Employee.class, ENTITY_NAME));
+    }
+
+    /**
+     * {@code DELETE  /employees/bulk} : delete employees in bulk.
+     *
+     * @param ids the ids of the employees to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each id, with the status
+     * its deletion would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many ids.
+     */
+    @DeleteMapping("/employees/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> deleteEmployees(@RequestBody List<String> ids) {
+        log.debug("REST request to delete {} Employees in bulk", ids.size());
+        return ResponseEntity.ok(bulkService.delete(ids, Employee.class, ENTITY_NAME));
     }
 
     /**
@@ -126,4 +339,8 @@ public class EmployeeResource {
         employeeRepository.deleteById(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id)).build();
     }
+
+    private int boundedDepth(int depth) {
+        return Math.max(1, Math.min(depth, applicationProperties.getOrgChart().getMaxDepth()));
+    }
 }
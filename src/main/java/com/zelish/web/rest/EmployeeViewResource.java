@@ -0,0 +1,80 @@
+package com.zelish.web.rest;
+
+import com.zelish.domain.EmployeeView;
+import com.zelish.repository.SecondaryPreferred;
+import com.zelish.security.AuthoritiesConstants;
+import com.zelish.service.EmployeeViewService;
+
+import io.github.jhipster.web.util.PaginationUtil;
+import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller for reading the {@link EmployeeView} read model.
+ */
+@RestController
+@RequestMapping("/api")
+public class EmployeeViewResource {
+
+    private final Logger log = LoggerFactory.getLogger(EmployeeViewResource.class);
+
+    private final EmployeeViewService employeeViewService;
+
+    public EmployeeViewResource(EmployeeViewService employeeViewService) {
+        this.employeeViewService = employeeViewService;
+    }
+
+    /**
+     * {@code GET  /employee-views} : get all the employee views.
+     *
+     * @param pageable the pagination information.
+     * @param queryParams a {@link MultiValueMap} query parameters.
+     * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employee views in body.
+     */
+    @GetMapping("/employee-views")
+    @SecondaryPreferred
+    public ResponseEntity<List<EmployeeView>> getAllEmployeeViews(Pageable pageable, @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder) {
+        log.debug("REST request to get a page of EmployeeViews");
+        Page<EmployeeView> page = employeeViewService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /employee-views/:id} : get the view of the "id" employee.
+     *
+     * @param id the id of the employee.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee view, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/employee-views/{id}")
+    public ResponseEntity<EmployeeView> getEmployeeView(@PathVariable String id) {
+        log.debug("REST request to get EmployeeView : {}", id);
+        Optional<EmployeeView> employeeView = employeeViewService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(employeeView);
+    }
+
+    /**
+     * {@code POST  /employee-views/rebuild} : regenerate all the employee views.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of views written.
+     */
+    @PostMapping("/employee-views/rebuild")
+    @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Long> rebuildEmployeeViews() {
+        log.debug("REST request to rebuild EmployeeViews");
+        return ResponseEntity.ok(employeeViewService.rebuild());
+    }
+}
@@ -0,0 +1,117 @@
+package com.zelish.web.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zelish.security.AuthoritiesConstants;
+import com.zelish.service.ExportService;
+import com.zelish.service.ImportService;
+import com.zelish.service.dto.ImportProgressDTO;
+import com.zelish.service.dto.ImportRejectDTO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * REST controller for importing {@link com.zelish.domain.Employee}s and {@link com.zelish.domain.JobHistory}s in bulk.
+ * <p>
+ * The request body is a CSV file with a header, or newline delimited JSON, according to its content type.
+ * The response is newline delimited JSON, streamed while the import runs: a line for each rejected row,
+ * with its position and error, and a line with the progress at regular intervals, the last one being {@code done}.
+ */
+@RestController
+@RequestMapping("/api")
+@PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class ImportResource {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final Logger log = LoggerFactory.getLogger(ImportResource.class);
+
+    private final ImportService importService;
+
+    private final ObjectMapper objectMapper;
+
+    public ImportResource(ImportService importService, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * {@code POST  /employees/import} : import employees.
+     *
+     * @param request the request, whose body is read while the import runs.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the progress and rejected rows in body.
+     */
+    @PostMapping(value = "/employees/import", consumes = {TEXT_CSV_VALUE, ExportService.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importEmployees(HttpServletRequest request) {
+        log.debug("REST request to import Employees from {}", request.getContentType());
+        ImportService.Format format = ImportService.Format.of(request.getContentType());
+        return stream(out -> importService.importEmployees(request.getInputStream(), format, new NdjsonListener(out)));
+    }
+
+    /**
+     * {@code POST  /job-histories/import} : import job histories.
+     *
+     * @param request the request, whose body is read while the import runs.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the progress and rejected rows in body.
+     */
+    @PostMapping(value = "/job-histories/import", consumes = {TEXT_CSV_VALUE, ExportService.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importJobHistories(HttpServletRequest request) {
+        log.debug("REST request to import JobHistories from {}", request.getContentType());
+        ImportService.Format format = ImportService.Format.of(request.getContentType());
+        return stream(out -> importService.importJobHistories(request.getInputStream(), format, new NdjsonListener(out)));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(ExportService.APPLICATION_NDJSON_VALUE))
+            .body(body);
+    }
+
+    /**
+     * Writes the events of an import as JSON lines. The progress lines are flushed to the client.
+     */
+    private class NdjsonListener implements ImportService.Listener {
+
+        private final OutputStream out;
+
+        NdjsonListener(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onProgress(ImportProgressDTO progress) {
+            write(progress);
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void onReject(ImportRejectDTO reject) {
+            write(reject);
+        }
+
+        private void write(Object event) {
+            try {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.zelish.web.rest;
+
+import com.zelish.service.IndexVerificationService;
+import com.zelish.service.dto.CollectionIndexesDTO;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for checking the indexes of the collections.
+ */
+@RestController
+@RequestMapping("/management/indexes")
+public class IndexResource {
+
+    private final IndexVerificationService indexVerificationService;
+
+    public IndexResource(IndexVerificationService indexVerificationService) {
+        this.indexVerificationService = indexVerificationService;
+    }
+
+    /**
+     * {@code GET /indexes} : get the drift of the indexes from the declared ones, with their usage.
+     *
+     * @return the {@link List} of indexes by collection.
+     */
+    @GetMapping
+    public List<CollectionIndexesDTO> getAll() {
+        return indexVerificationService.findAll(true);
+    }
+}
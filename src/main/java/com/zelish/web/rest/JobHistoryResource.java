@@ -1,29 +1,46 @@
 package com.zelish.web.rest;
 
 import com.zelish.domain.JobHistory;
+import com.zelish.repository.KeysetSlice;
+import com.zelish.repository.SecondaryPreferred;
+import com.zelish.service.BulkService;
+import com.zelish.service.ExportService;
 import com.zelish.service.JobHistoryService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.TotalCountService;
+import com.zelish.service.dto.BulkItemResultDTO;
 import com.zelish.web.rest.errors.BadRequestAlertException;
+import com.zelish.web.rest.util.EntityTagUtil;
+import com.zelish.web.rest.util.KeysetPaginationUtil;
+import com.zelish.web.rest.util.SlicePaginationUtil;
+import com.zelish.web.rest.util.SparseFields;
+import com.zelish.web.rest.util.SparseFieldsUtil;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.zelish.domain.JobHistory}.
@@ -41,8 +58,22 @@ public class JobHistoryResource {
 
     private final JobHistoryService jobHistoryService;
 
-    public JobHistoryResource(JobHistoryService jobHistoryService) {
+    private final TotalCountService totalCountService;
+
+    private final BulkService bulkService;
+
+    private final ExportService exportService;
+
+    private final MergePatchService mergePatchService;
+
+    public JobHistoryResource(JobHistoryService jobHistoryService, TotalCountService totalCountService, BulkService bulkService,
+            ExportService exportService,
+            MergePatchService mergePatchService) {
         this.jobHistoryService = jobHistoryService;
+        this.totalCountService = totalCountService;
+        this.bulkService = bulkService;
+        this.exportService = exportService;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -68,50 +99,169 @@ public class JobHistoryResource {
      * {@code PUT  /job-histories} : Updates an existing jobHistory.
      *
      * @param jobHistory the jobHistory to update.
+     * @param ifMatch the ETag the jobHistory must still have, or {@code null} to check the version of the body if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated jobHistory,
      * or with status {@code 400 (Bad Request)} if the jobHistory is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the body is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the jobHistory does not match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the jobHistory couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/job-histories")
-    public ResponseEntity<JobHistory> updateJobHistory(@RequestBody JobHistory jobHistory) throws URISyntaxException {
+    public ResponseEntity<JobHistory> updateJobHistory(@RequestBody JobHistory jobHistory,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update JobHistory : {}", jobHistory);
         if (jobHistory.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        JobHistory result = jobHistoryService.save(jobHistory);
+        JobHistory result = EntityTagUtil.updateIfMatch(ifMatch, jobHistory.getVersion(), ENTITY_NAME,
+            version -> jobHistoryService.update(jobHistory, version));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, jobHistory.getId().toString()))
+            .headers(EntityTagUtil.headers(result.getVersion()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /job-histories/:id} : Partially updates an existing jobHistory with a JSON Merge Patch.
+     *
+     * @param id the id of the jobHistory to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @param ifMatch the ETag the jobHistory must still have, or {@code null} to check the version of the patch if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated jobHistory,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the jobHistory does not exist,
+     * or with status {@code 409 (Conflict)} if the version of the patch is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the jobHistory does not match {@code If-Match}.
+     */
+    @PatchMapping(value = "/job-histories/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<JobHistory> partialUpdateJobHistory(@PathVariable String id, @RequestBody ObjectNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to patch JobHistory {} : {}", id, patch);
+        Optional<JobHistory> result = EntityTagUtil.updateIfMatch(ifMatch, MergePatchService.version(patch), ENTITY_NAME,
+            version -> mergePatchService.patch(id, patch, version, JobHistory.class, ENTITY_NAME));
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id);
+        headers.putAll(EntityTagUtil.headers(result.map(JobHistory::getVersion).orElse(null)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
+
     /**
      * {@code GET  /job-histories} : get all the jobHistories.
+     * <p>
+     * The first page and the requests with an {@code after} token are fetched by keyset, and give the token
+     * of the next slice in the {@code Link} header, with the {@code after} relation. The other pages are fetched by offset.
+     * With {@code count=estimated}, the entities are not counted and the total is estimated.
      *
      * @param pageable the pagination information.
+     * @param after the token of the slice to get, from the {@code Link} header of the previous one.
+     * @param count {@code estimated} to skip the count of the entities.
+     * @param fields the comma separated properties to get, all properties when absent.
      * @param queryParams a {@link MultiValueMap} query parameters.
      * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobHistories in body.
      */
     @GetMapping("/job-histories")
-    public ResponseEntity<List<JobHistory>> getAllJobHistories(Pageable pageable, @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder) {
+    @SecondaryPreferred
+    @SparseFields
+    public ResponseEntity<List<JobHistory>> getAllJobHistories(Pageable pageable, @RequestParam(value = KeysetPaginationUtil.AFTER_PARAM, required = false) String after,
+            @RequestParam(value = SlicePaginationUtil.COUNT_PARAM, required = false) String count,
+            @RequestParam(value = SparseFieldsUtil.FIELDS_PARAM, required = false) String fields,
+            @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder) {
         log.debug("REST request to get a page of JobHistories");
-        Page<JobHistory> page = jobHistoryService.findAll(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        UriComponentsBuilder requestUriBuilder = uriBuilder.queryParams(queryParams);
+        boolean estimated = SlicePaginationUtil.isEstimated(count);
+        Set<String> projection = SparseFieldsUtil.parseFields(fields, JobHistory.class, ENTITY_NAME);
+        if (after == null && pageable.getPageNumber() > 0) {
+            if (estimated) {
+                Slice<JobHistory> slice = jobHistoryService.findSlice(pageable, projection);
+                HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(requestUriBuilder, slice, totalCountService.estimate(JobHistory.class));
+                return ResponseEntity.ok().headers(headers).body(slice.getContent());
+            }
+            Page<JobHistory> page = jobHistoryService.findAll(pageable, projection);
+            HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(requestUriBuilder, page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
+        KeysetSlice<JobHistory> slice = jobHistoryService.findAllAfter(KeysetPaginationUtil.decodeAfter(after, pageable, ENTITY_NAME), pageable, projection);
+        HttpHeaders headers;
+        if (after != null) {
+            headers = new HttpHeaders();
+        } else if (estimated) {
+            headers = SlicePaginationUtil.generateSliceHttpHeaders(requestUriBuilder, slice, totalCountService.estimate(JobHistory.class));
+        } else {
+            headers = SlicePaginationUtil.generatePaginationHttpHeaders(requestUriBuilder,
+                PageableExecutionUtils.getPage(slice.getContent(), pageable, jobHistoryService::count));
+        }
+        KeysetPaginationUtil.addAfterLink(headers, requestUriBuilder, slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /job-histories/export} : export all the jobHistories.
+     * <p>
+     * The jobHistories are streamed from a database cursor as newline delimited JSON, one jobHistory per line.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the jobHistories in body.
+     */
+    @GetMapping("/job-histories/export")
+    public ResponseEntity<StreamingResponseBody> exportJobHistories() {
+        log.debug("REST request to export all JobHistories");
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(ExportService.APPLICATION_NDJSON_VALUE))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"job-histories.ndjson\"")
+            .body(out -> exportService.export(JobHistory.class, out));
     }
 
     /**
      * {@code GET  /job-histories/:id} : get the "id" jobHistory.
      *
      * @param id the id of the jobHistory to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the jobHistory, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the jobHistory and its ETag,
+     * or with status {@code 304 (Not Modified)} if it still matches {@code If-None-Match}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/job-histories/{id}")
     public ResponseEntity<JobHistory> getJobHistory(@PathVariable String id) {
         log.debug("REST request to get JobHistory : {}", id);
         Optional<JobHistory> jobHistory = jobHistoryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(jobHistory);
+        return EntityTagUtil.wrapOrNotFound(jobHistory, JobHistory::getVersion);
+    }
+
+    /**
+     * {@code POST  /job-histories/bulk} : Create new jobHistories in bulk.
+     *
+     * @param jobHistories the jobHistories to create, without ids.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each jobHistory, with the status
+     * its creation would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many jobHistories.
+     */
+    @PostMapping("/job-histories/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> createJobHistories(@RequestBody List<JobHistory> jobHistories) {
+        log.debug("REST request to save {} JobHistories in bulk", jobHistories.size());
+        return ResponseEntity.ok(bulkService.create(jobHistories, JobHistory.class, ENTITY_NAME));
+    }
+
+    /**
+     * {@code PUT  /job-histories/bulk} : Updates existing jobHistories in bulk.
+     *
+     * @param jobHistories the jobHistories to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each jobHistory, with the status
+     * its update would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many jobHistories.
+     */
+    @PutMapping("/job-histories/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> updateJobHistories(@RequestBody List<JobHistory> jobHistories) {
+        log.debug("REST request to update {} JobHistories in bulk", jobHistories.size());
+        return ResponseEntity.ok(bulkService.update(jobHistories, JobHistory.class, ENTITY_NAME));
+    }
+
+    /**
+     * {@code DELETE  /job-histories/bulk} : delete jobHistories in bulk.
+     *
+     * @param ids the ids of the jobHistories to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each id, with the status
+     * its deletion would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many ids.
+     */
+    @DeleteMapping("/job-histories/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> deleteJobHistories(@RequestBody List<String> ids) {
+        log.debug("REST request to delete {} JobHistories in bulk", ids.size());
+        return ResponseEntity.ok(bulkService.delete(ids, JobHistory.class, ENTITY_NAME));
     }
 
     /**
@@ -2,20 +2,32 @@ package com.zelish.web.rest;
 
 import com.zelish.domain.Job;
 import com.zelish.repository.JobRepository;
+import com.zelish.repository.SecondaryPreferred;
+import com.zelish.service.BulkService;
+import com.zelish.service.ConditionalUpdateService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.TotalCountService;
+import com.zelish.service.dto.BulkItemResultDTO;
 import com.zelish.web.rest.errors.BadRequestAlertException;
+import com.zelish.web.rest.util.EntityTagUtil;
+import com.zelish.web.rest.util.SlicePaginationUtil;
+import com.zelish.web.rest.util.SparseFields;
+import com.zelish.web.rest.util.SparseFieldsUtil;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,6 +36,7 @@ import java.net.URISyntaxException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing {@link com.zelish.domain.Job}.
@@ -41,8 +54,22 @@ public class JobResource {
 
     private final JobRepository jobRepository;
 
-    public JobResource(JobRepository jobRepository) {
+    private final TotalCountService totalCountService;
+
+    private final BulkService bulkService;
+
+    private final ConditionalUpdateService conditionalUpdateService;
+
+    private final MergePatchService mergePatchService;
+
+    public JobResource(JobRepository jobRepository, TotalCountService totalCountService, BulkService bulkService,
+            ConditionalUpdateService conditionalUpdateService,
+            MergePatchService mergePatchService) {
         this.jobRepository = jobRepository;
+        this.totalCountService = totalCountService;
+        this.bulkService = bulkService;
+        this.conditionalUpdateService = conditionalUpdateService;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -68,23 +95,52 @@ public class JobResource {
      * {@code PUT  /jobs} : Updates an existing job.
      *
      * @param job the job to update.
+     * @param ifMatch the ETag the job must still have, or {@code null} to check the version of the body if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated job,
      * or with status {@code 400 (Bad Request)} if the job is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the body is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the job does not match {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the job couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/jobs")
-    public ResponseEntity<Job> updateJob(@RequestBody Job job) throws URISyntaxException {
+    public ResponseEntity<Job> updateJob(@RequestBody Job job,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Job : {}", job);
         if (job.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Job result = jobRepository.save(job);
+        Job result = EntityTagUtil.updateIfMatch(ifMatch, job.getVersion(), ENTITY_NAME,
+            version -> conditionalUpdateService.update(job, version, Job.class));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, job.getId().toString()))
+            .headers(EntityTagUtil.headers(result.getVersion()))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /jobs/:id} : Partially updates an existing job with a JSON Merge Patch.
+     *
+     * @param id the id of the job to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @param ifMatch the ETag the job must still have, or {@code null} to check the version of the patch if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated job,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the job does not exist,
+     * or with status {@code 409 (Conflict)} if the version of the patch is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the job does not match {@code If-Match}.
+     */
+    @PatchMapping(value = "/jobs/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Job> partialUpdateJob(@PathVariable String id, @RequestBody ObjectNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to patch Job {} : {}", id, patch);
+        Optional<Job> result = EntityTagUtil.updateIfMatch(ifMatch, MergePatchService.version(patch), ENTITY_NAME,
+            version -> mergePatchService.patch(id, patch, version, Job.class, ENTITY_NAME));
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id);
+        headers.putAll(EntityTagUtil.headers(result.map(Job::getVersion).orElse(null)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
+
     /**
      * {@code GET  /jobs} : get all the jobs.
      *
@@ -92,18 +148,39 @@ public class JobResource {
      * @param queryParams a {@link MultiValueMap} query parameters.
      * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param count {@code estimated} to skip the count of the entities.
+     * @param fields the comma separated properties to get, all properties when absent; the tasks are then loaded only if requested.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobs in body.
      */
     @GetMapping("/jobs")
-    public ResponseEntity<List<Job>> getAllJobs(Pageable pageable, @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder, @RequestParam(required = false, defaultValue = "false") boolean eagerload) {
+    @SecondaryPreferred
+    @SparseFields
+    public ResponseEntity<List<Job>> getAllJobs(Pageable pageable, @RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder, @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+            @RequestParam(value = SlicePaginationUtil.COUNT_PARAM, required = false) String count,
+            @RequestParam(value = SparseFieldsUtil.FIELDS_PARAM, required = false) String fields) {
         log.debug("REST request to get a page of Jobs");
+        Set<String> projection = SparseFieldsUtil.parseFields(fields, Job.class, ENTITY_NAME);
+        if (SlicePaginationUtil.isEstimated(count)) {
+            Slice<Job> slice;
+            if (!projection.isEmpty()) {
+                slice = jobRepository.findSliceWithFields(pageable, projection);
+            } else if (eagerload) {
+                slice = jobRepository.findSliceWithEagerRelationships(pageable);
+            } else {
+                slice = jobRepository.findSliceBy(pageable);
+            }
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder.queryParams(queryParams), slice, totalCountService.estimate(Job.class));
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         Page<Job> page;
-        if (eagerload) {
+        if (!projection.isEmpty()) {
+            page = jobRepository.findAllWithFields(pageable, projection);
+        } else if (eagerload) {
             page = jobRepository.findAllWithEagerRelationships(pageable);
         } else {
             page = jobRepository.findAll(pageable);
         }
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -111,13 +188,53 @@ public class JobResource {
      * {@code GET  /jobs/:id} : get the "id" job.
      *
      * @param id the id of the job to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job and its ETag,
+     * or with status {@code 304 (Not Modified)} if it still matches {@code If-None-Match}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/jobs/{id}")
     public ResponseEntity<Job> getJob(@PathVariable String id) {
         log.debug("REST request to get Job : {}", id);
         Optional<Job> job = jobRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(job);
+        return EntityTagUtil.wrapOrNotFound(job, Job::getVersion);
+    }
+
+    /**
+     * {@code POST  /jobs/bulk} : Create new jobs in bulk.
+     *
+     * @param jobs the jobs to create, without ids.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each job, with the status
+     * its creation would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many jobs.
+     */
+    @PostMapping("/jobs/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> createJobs(@RequestBody List<Job> jobs) {
+        log.debug("REST request to save {} Jobs in bulk", jobs.size());
+        return ResponseEntity.ok(bulkService.create(jobs, Job.class, ENTITY_NAME));
+    }
+
+    /**
+     * {@code PUT  /jobs/bulk} : Updates existing jobs in bulk.
+     *
+     * @param jobs the jobs to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each job, with the status
+     * its update would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many jobs.
+     */
+    @PutMapping("/jobs/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> updateJobs(@RequestBody List<Job> jobs) {
+        log.debug("REST request to update {} Jobs in bulk", jobs.size());
+        return ResponseEntity.ok(bulkService.update(jobs, Job.class, ENTITY_NAME));
+    }
+
+    /**
+     * {@code DELETE  /jobs/bulk} : delete jobs in bulk.
+     *
+     * @param ids the ids of the jobs to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each id, with the status
+     * its deletion would have had as a single request, or with status {@code 400 (Bad Request)} if there are too many ids.
+     */
+    @DeleteMapping("/jobs/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> deleteJobs(@RequestBody List<String> ids) {
+        log.debug("REST request to delete {} Jobs in bulk", ids.size());
+        return ResponseEntity.ok(bulkService.delete(ids, Job.class, ENTITY_NAME));
     }
 
     /**
@@ -2,13 +2,18 @@ package com.zelish.web.rest;
 
 import com.zelish.domain.Location;
 import com.zelish.service.LocationService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.ReferenceDataCache;
 import com.zelish.web.rest.errors.BadRequestAlertException;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,8 +39,11 @@ public class LocationResource {
 
     private final LocationService locationService;
 
-    public LocationResource(LocationService locationService) {
+    private final MergePatchService mergePatchService;
+
+    public LocationResource(LocationService locationService, MergePatchService mergePatchService) {
         this.locationService = locationService;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -78,15 +86,36 @@ public class LocationResource {
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /locations/:id} : Partially updates an existing location with a JSON Merge Patch.
+     *
+     * @param id the id of the location to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated location,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the location does not exist.
+     */
+    @PatchMapping(value = "/locations/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Location> partialUpdateLocation(@PathVariable String id, @RequestBody ObjectNode patch) {
+        log.debug("REST request to patch Location {} : {}", id, patch);
+        Optional<Location> result = mergePatchService.patch(id, patch, null, Location.class, ENTITY_NAME);
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     /**
      * {@code GET  /locations} : get all the locations.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of locations in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of locations in body,
+     * or with status {@code 304 (Not Modified)} if the list still matches the {@code If-None-Match} ETag.
      */
     @GetMapping("/locations")
-    public List<Location> getAllLocations() {
+    public ResponseEntity<List<Location>> getAllLocations() {
         log.debug("REST request to get all Locations");
-        return locationService.findAll();
+        ReferenceDataCache.Snapshot<Location> locations = locationService.findAllSnapshot();
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(locations.getETag())
+            .body(locations.getEntities());
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.zelish.web.rest;
+
+import com.zelish.service.MongoCommandMonitor;
+import com.zelish.service.dto.MongoCommandDTO;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for finding the slowest recent MongoDB commands.
+ */
+@RestController
+@RequestMapping("/management/mongo-commands")
+public class MongoCommandResource {
+
+    private final MongoCommandMonitor mongoCommandMonitor;
+
+    public MongoCommandResource(MongoCommandMonitor mongoCommandMonitor) {
+        this.mongoCommandMonitor = mongoCommandMonitor;
+    }
+
+    /**
+     * {@code GET /mongo-commands} : get the slowest of the recent MongoDB commands.
+     *
+     * @param limit the maximum number of commands, the configured number when absent.
+     * @return the {@link List} of commands, slowest first.
+     */
+    @GetMapping
+    public List<MongoCommandDTO> getSlowest(@RequestParam(required = false) Integer limit) {
+        return mongoCommandMonitor.findSlowest(limit);
+    }
+}
@@ -0,0 +1,34 @@
+package com.zelish.web.rest;
+
+import com.zelish.service.QueryPlanService;
+import com.zelish.service.dto.QueryPlanDTO;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for checking the plans of the slow queries.
+ */
+@RestController
+@RequestMapping("/management/query-plans")
+public class QueryPlanResource {
+
+    private final QueryPlanService queryPlanService;
+
+    public QueryPlanResource(QueryPlanService queryPlanService) {
+        this.queryPlanService = queryPlanService;
+    }
+
+    /**
+     * {@code GET /query-plans} : get the plans of the slow queries, those scanning a collection or sorting in memory first.
+     *
+     * @return the {@link List} of query plans.
+     */
+    @GetMapping
+    public List<QueryPlanDTO> getAll() {
+        return queryPlanService.findAll();
+    }
+}
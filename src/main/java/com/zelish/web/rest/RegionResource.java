@@ -1,14 +1,19 @@
 package com.zelish.web.rest;
 
 import com.zelish.domain.Region;
+import com.zelish.service.MergePatchService;
 import com.zelish.service.RegionService;
+import com.zelish.service.ReferenceDataCache;
 import com.zelish.web.rest.errors.BadRequestAlertException;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,8 +39,11 @@ public class RegionResource {
 
     private final RegionService regionService;
 
-    public RegionResource(RegionService regionService) {
+    private final MergePatchService mergePatchService;
+
+    public RegionResource(RegionService regionService, MergePatchService mergePatchService) {
         this.regionService = regionService;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -78,15 +86,36 @@ public class RegionResource {
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /regions/:id} : Partially updates an existing region with a JSON Merge Patch.
+     *
+     * @param id the id of the region to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated region,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the region does not exist.
+     */
+    @PatchMapping(value = "/regions/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Region> partialUpdateRegion(@PathVariable String id, @RequestBody ObjectNode patch) {
+        log.debug("REST request to patch Region {} : {}", id, patch);
+        Optional<Region> result = mergePatchService.patch(id, patch, null, Region.class, ENTITY_NAME);
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     /**
      * {@code GET  /regions} : get all the regions.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of regions in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of regions in body,
+     * or with status {@code 304 (Not Modified)} if the list still matches the {@code If-None-Match} ETag.
      */
     @GetMapping("/regions")
-    public List<Region> getAllRegions() {
+    public ResponseEntity<List<Region>> getAllRegions() {
         log.debug("REST request to get all Regions");
-        return regionService.findAll();
+        ReferenceDataCache.Snapshot<Region> regions = regionService.findAllSnapshot();
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(regions.getETag())
+            .body(regions.getEntities());
     }
 
     /**
@@ -0,0 +1,63 @@
+package com.zelish.web.rest;
+
+import com.zelish.repository.SecondaryPreferred;
+import com.zelish.security.AuthoritiesConstants;
+import com.zelish.service.SalaryAnalyticsService;
+import com.zelish.service.dto.SalaryStatsDTO;
+import com.zelish.web.rest.errors.BadRequestAlertException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * REST controller for the salary statistics of the employees.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class SalaryAnalyticsResource {
+
+    private static final String ENTITY_NAME = "salaryStats";
+
+    private final Logger log = LoggerFactory.getLogger(SalaryAnalyticsResource.class);
+
+    private final SalaryAnalyticsService salaryAnalyticsService;
+
+    public SalaryAnalyticsResource(SalaryAnalyticsService salaryAnalyticsService) {
+        this.salaryAnalyticsService = salaryAnalyticsService;
+    }
+
+    /**
+     * {@code GET  /analytics/salary} : get the salary statistics by department, job or region.
+     *
+     * @param by the dimension: {@code department}, {@code job} or {@code region}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the statistics of each group in body,
+     * or with status {@code 400 (Bad Request)} if the dimension is unknown.
+     */
+    @GetMapping("/salary")
+    @SecondaryPreferred
+    public ResponseEntity<List<SalaryStatsDTO>> getSalaryStats(@RequestParam(defaultValue = "department") String by) {
+        log.debug("REST request to get the salary statistics by {}", by);
+        SalaryAnalyticsService.Dimension dimension = SalaryAnalyticsService.Dimension.of(by)
+            .orElseThrow(() -> new BadRequestAlertException("Unknown dimension " + by, ENTITY_NAME, "unknowndimension"));
+        return ResponseEntity.ok(salaryAnalyticsService.findAll(dimension));
+    }
+
+    /**
+     * {@code POST  /analytics/salary/rebuild} : regenerate the salary rollups from the employees.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/salary/rebuild")
+    @PreAuthorize("hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildSalaryStats() {
+        log.debug("REST request to rebuild the salary statistics");
+        salaryAnalyticsService.rebuild(EnumSet.allOf(SalaryAnalyticsService.Dimension.class));
+        return ResponseEntity.noContent().build();
+    }
+}
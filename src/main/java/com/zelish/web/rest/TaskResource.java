@@ -1,14 +1,17 @@
 package com.zelish.web.rest;
 
 import com.zelish.domain.Task;
+import com.zelish.service.MergePatchService;
 import com.zelish.service.TaskService;
 import com.zelish.web.rest.errors.BadRequestAlertException;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,8 +37,11 @@ public class TaskResource {
 
     private final TaskService taskService;
 
-    public TaskResource(TaskService taskService) {
+    private final MergePatchService mergePatchService;
+
+    public TaskResource(TaskService taskService, MergePatchService mergePatchService) {
         this.taskService = taskService;
+        this.mergePatchService = mergePatchService;
     }
 
     /**
@@ -78,6 +84,22 @@ public class TaskResource {
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /tasks/:id} : Partially updates an existing task with a JSON Merge Patch.
+     *
+     * @param id the id of the task to update.
+     * @param patch the properties to update, {@code null} to remove them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated task,
+     * or with status {@code 400 (Bad Request)} if the patch is not valid,
+     * or with status {@code 404 (Not Found)} if the task does not exist.
+     */
+    @PatchMapping(value = "/tasks/{id}", consumes = {MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Task> partialUpdateTask(@PathVariable String id, @RequestBody ObjectNode patch) {
+        log.debug("REST request to patch Task {} : {}", id, patch);
+        Optional<Task> result = mergePatchService.patch(id, patch, null, Task.class, ENTITY_NAME);
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id));
+    }
+
     /**
      * {@code GET  /tasks} : get all the tasks.
      *
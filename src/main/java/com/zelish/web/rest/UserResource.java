@@ -5,14 +5,15 @@ import com.zelish.domain.User;
 import com.zelish.repository.UserRepository;
 import com.zelish.security.AuthoritiesConstants;
 import com.zelish.service.MailService;
+import com.zelish.service.TotalCountService;
 import com.zelish.service.UserService;
 import com.zelish.service.dto.UserDTO;
 import com.zelish.web.rest.errors.BadRequestAlertException;
 import com.zelish.web.rest.errors.EmailAlreadyUsedException;
 import com.zelish.web.rest.errors.LoginAlreadyUsedException;
+import com.zelish.web.rest.util.SlicePaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 
 import org.slf4j.Logger;
@@ -20,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -72,11 +74,15 @@ public class UserResource {
 
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final TotalCountService totalCountService;
+
+    public UserResource(UserService userService, UserRepository userRepository, MailService mailService,
+            TotalCountService totalCountService) {
 
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
+        this.totalCountService = totalCountService;
     }
 
     /**
@@ -144,12 +150,21 @@ public class UserResource {
      * @param queryParams a {@link MultiValueMap} query parameters.
      * @param uriBuilder a {@link UriComponentsBuilder} URI builder.
      * @param pageable the pagination information.
+     * @param count {@code estimated} to skip the count of the users.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllUsers(@RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder, Pageable pageable) {
+    public ResponseEntity<List<UserDTO>> getAllUsers(@RequestParam MultiValueMap<String, String> queryParams, UriComponentsBuilder uriBuilder, Pageable pageable,
+            @RequestParam(value = SlicePaginationUtil.COUNT_PARAM, required = false) String count) {
+        if (SlicePaginationUtil.isEstimated(count)) {
+            final Slice<UserDTO> slice = userService.getSliceOfManagedUsers(pageable);
+            // The estimate counts the anonymous user, which is not listed.
+            long estimatedTotal = Math.max(totalCountService.estimate(User.class) - 1, 0);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder.queryParams(queryParams), slice, estimatedTotal);
+            return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+        }
         final Page<UserDTO> page = userService.getAllManagedUsers(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(uriBuilder.queryParams(queryParams), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
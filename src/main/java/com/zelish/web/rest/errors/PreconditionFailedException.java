@@ -0,0 +1,38 @@
+package com.zelish.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thrown when the {@code If-Match} condition of a request does not hold, with the status {@code 412 (Precondition Failed)}.
+ */
+public class PreconditionFailedException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+
+    public PreconditionFailedException(String defaultMessage, String entityName) {
+        super(ErrorConstants.PRECONDITION_FAILED_TYPE, defaultMessage, Status.PRECONDITION_FAILED, null, null, null,
+            getAlertParameters(entityName));
+        this.entityName = entityName;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getErrorKey() {
+        return "preconditionfailed";
+    }
+
+    private static Map<String, Object> getAlertParameters(String entityName) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("message", "error.preconditionfailed");
+        parameters.put("params", entityName);
+        return parameters;
+    }
+}
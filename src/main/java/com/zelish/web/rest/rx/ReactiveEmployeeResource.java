@@ -0,0 +1,63 @@
+package com.zelish.web.rest.rx;
+
+import com.zelish.domain.Employee;
+import com.zelish.repository.reactive.ReactiveEmployeeRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller for reading {@link com.zelish.domain.Employee}.
+ * <p>
+ * The department, manager and jobs of the employees hold only their id.
+ */
+@RestController
+@RequestMapping("/api/rx")
+public class ReactiveEmployeeResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReactiveEmployeeResource.class);
+
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    public ReactiveEmployeeResource(ReactiveEmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * {@code GET  /rx/employees} : get a page of the employees.
+     * <p>
+     * As {@code application/stream+json}, the employees are written one per line as they are read from the cursor,
+     * which is only read further once they are written.
+     *
+     * @param pageable the pagination information.
+     * @return the employees.
+     */
+    @GetMapping(value = "/employees", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<Employee> getAllEmployees(Pageable pageable) {
+        log.debug("REST request to get a page of Employees, reactively");
+        return employeeRepository.findAllBy(pageable);
+    }
+
+    /**
+     * {@code GET  /rx/employees/:id} : get the "id" employee.
+     *
+     * @param id the id of the employee to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/employees/{id}")
+    public Mono<ResponseEntity<Employee>> getEmployee(@PathVariable String id) {
+        log.debug("REST request to get Employee : {}, reactively", id);
+        return employeeRepository.findById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,62 @@
+package com.zelish.web.rest.rx;
+
+import com.zelish.domain.JobHistory;
+import com.zelish.repository.reactive.ReactiveJobHistoryRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller for reading {@link com.zelish.domain.JobHistory}; the job, department and employee of the
+ * jobHistories hold only their id.
+ */
+@RestController
+@RequestMapping("/api/rx")
+public class ReactiveJobHistoryResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReactiveJobHistoryResource.class);
+
+    private final ReactiveJobHistoryRepository jobHistoryRepository;
+
+    public ReactiveJobHistoryResource(ReactiveJobHistoryRepository jobHistoryRepository) {
+        this.jobHistoryRepository = jobHistoryRepository;
+    }
+
+    /**
+     * {@code GET  /rx/job-histories} : get a page of the jobHistories.
+     * <p>
+     * As {@code application/stream+json}, the jobHistories are written one per line as they are read from the cursor,
+     * which is only read further once they are written.
+     *
+     * @param pageable the pagination information.
+     * @return the jobHistories.
+     */
+    @GetMapping(value = "/job-histories", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<JobHistory> getAllJobHistories(Pageable pageable) {
+        log.debug("REST request to get a page of JobHistories, reactively");
+        return jobHistoryRepository.findAllBy(pageable);
+    }
+
+    /**
+     * {@code GET  /rx/job-histories/:id} : get the "id" jobHistory.
+     *
+     * @param id the id of the jobHistory to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the jobHistory, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/job-histories/{id}")
+    public Mono<ResponseEntity<JobHistory>> getJobHistory(@PathVariable String id) {
+        log.debug("REST request to get JobHistory : {}, reactively", id);
+        return jobHistoryRepository.findById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,61 @@
+package com.zelish.web.rest.rx;
+
+import com.zelish.domain.Job;
+import com.zelish.repository.reactive.ReactiveJobRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller for reading {@link com.zelish.domain.Job}; the tasks of the jobs hold only their id.
+ */
+@RestController
+@RequestMapping("/api/rx")
+public class ReactiveJobResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReactiveJobResource.class);
+
+    private final ReactiveJobRepository jobRepository;
+
+    public ReactiveJobResource(ReactiveJobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    /**
+     * {@code GET  /rx/jobs} : get a page of the jobs.
+     * <p>
+     * As {@code application/stream+json}, the jobs are written one per line as they are read from the cursor,
+     * which is only read further once they are written.
+     *
+     * @param pageable the pagination information.
+     * @return the jobs.
+     */
+    @GetMapping(value = "/jobs", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<Job> getAllJobs(Pageable pageable) {
+        log.debug("REST request to get a page of Jobs, reactively");
+        return jobRepository.findAllBy(pageable);
+    }
+
+    /**
+     * {@code GET  /rx/jobs/:id} : get the "id" job.
+     *
+     * @param id the id of the job to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/jobs/{id}")
+    public Mono<ResponseEntity<Job>> getJob(@PathVariable String id) {
+        log.debug("REST request to get Job : {}, reactively", id);
+        return jobRepository.findById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,168 @@
+package com.zelish.web.rest.rx;
+
+import com.zelish.domain.Country;
+import com.zelish.domain.Department;
+import com.zelish.domain.Location;
+import com.zelish.domain.Region;
+import com.zelish.repository.reactive.ReactiveCountryRepository;
+import com.zelish.repository.reactive.ReactiveDepartmentRepository;
+import com.zelish.repository.reactive.ReactiveLocationRepository;
+import com.zelish.repository.reactive.ReactiveRegionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive REST controller for reading the reference entities: regions, countries, locations and departments.
+ * <p>
+ * Their references hold only their id; the entities themselves are usually read whole through the ETag-cached
+ * list endpoints.
+ */
+@RestController
+@RequestMapping("/api/rx")
+public class ReactiveReferenceDataResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReactiveReferenceDataResource.class);
+
+    private final ReactiveRegionRepository regionRepository;
+
+    private final ReactiveCountryRepository countryRepository;
+
+    private final ReactiveLocationRepository locationRepository;
+
+    private final ReactiveDepartmentRepository departmentRepository;
+
+    public ReactiveReferenceDataResource(ReactiveRegionRepository regionRepository,
+            ReactiveCountryRepository countryRepository, ReactiveLocationRepository locationRepository,
+            ReactiveDepartmentRepository departmentRepository) {
+        this.regionRepository = regionRepository;
+        this.countryRepository = countryRepository;
+        this.locationRepository = locationRepository;
+        this.departmentRepository = departmentRepository;
+    }
+
+    /**
+     * {@code GET  /rx/regions} : get a page of the regions.
+     * <p>
+     * As {@code application/stream+json}, the regions are written one per line as they are read from the cursor,
+     * which is only read further once they are written.
+     *
+     * @param pageable the pagination information.
+     * @return the regions.
+     */
+    @GetMapping(value = "/regions", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<Region> getAllRegions(Pageable pageable) {
+        log.debug("REST request to get a page of Regions, reactively");
+        return regionRepository.findAllBy(pageable);
+    }
+
+    /**
+     * {@code GET  /rx/regions/:id} : get the "id" region.
+     *
+     * @param id the id of the region to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the region, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/regions/{id}")
+    public Mono<ResponseEntity<Region>> getRegion(@PathVariable String id) {
+        log.debug("REST request to get Region : {}, reactively", id);
+        return regionRepository.findById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET  /rx/countries} : get a page of the countries.
+     * <p>
+     * As {@code application/stream+json}, the countries are written one per line as they are read from the cursor,
+     * which is only read further once they are written.
+     *
+     * @param pageable the pagination information.
+     * @return the countries.
+     */
+    @GetMapping(value = "/countries", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<Country> getAllCountries(Pageable pageable) {
+        log.debug("REST request to get a page of Countries, reactively");
+        return countryRepository.findAllBy(pageable);
+    }
+
+    /**
+     * {@code GET  /rx/countries/:id} : get the "id" country.
+     *
+     * @param id the id of the country to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the country, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/countries/{id}")
+    public Mono<ResponseEntity<Country>> getCountry(@PathVariable String id) {
+        log.debug("REST request to get Country : {}, reactively", id);
+        return countryRepository.findById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET  /rx/locations} : get a page of the locations.
+     * <p>
+     * As {@code application/stream+json}, the locations are written one per line as they are read from the cursor,
+     * which is only read further once they are written.
+     *
+     * @param pageable the pagination information.
+     * @return the locations.
+     */
+    @GetMapping(value = "/locations", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<Location> getAllLocations(Pageable pageable) {
+        log.debug("REST request to get a page of Locations, reactively");
+        return locationRepository.findAllBy(pageable);
+    }
+
+    /**
+     * {@code GET  /rx/locations/:id} : get the "id" location.
+     *
+     * @param id the id of the location to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the location, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/locations/{id}")
+    public Mono<ResponseEntity<Location>> getLocation(@PathVariable String id) {
+        log.debug("REST request to get Location : {}, reactively", id);
+        return locationRepository.findById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET  /rx/departments} : get a page of the departments.
+     * <p>
+     * As {@code application/stream+json}, the departments are written one per line as they are read from the cursor,
+     * which is only read further once they are written.
+     *
+     * @param pageable the pagination information.
+     * @return the departments.
+     */
+    @GetMapping(value = "/departments", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_STREAM_JSON_VALUE})
+    public Flux<Department> getAllDepartments(Pageable pageable) {
+        log.debug("REST request to get a page of Departments, reactively");
+        return departmentRepository.findAllBy(pageable);
+    }
+
+    /**
+     * {@code GET  /rx/departments/:id} : get the "id" department.
+     *
+     * @param id the id of the department to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the department, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/departments/{id}")
+    public Mono<ResponseEntity<Department>> getDepartment(@PathVariable String id) {
+        log.debug("REST request to get Department : {}, reactively", id);
+        return departmentRepository.findById(id)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Read-only REST controllers backed by the reactive repositories.
+ * <p>
+ * They return {@code Flux} and {@code Mono} publishers, which Spring MVC completes asynchronously: no servlet
+ * thread is held while the reactive driver waits for MongoDB, and the {@code JWTFilter} authenticates them as any
+ * other {@code /api} request. The references of the entities are not resolved, as that would need blocking queries.
+ */
+package com.zelish.web.rest.rx;
@@ -0,0 +1,110 @@
+package com.zelish.web.rest.util;
+
+import com.zelish.web.rest.errors.PreconditionFailedException;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Utility class for the ETags of the versioned entities.
+ * <p>
+ * The ETag of an entity is its {@code @Version}, as a strong tag such as {@code "3"}. It changes whenever the document
+ * of the entity is written; the entities it references have their own ETags. A {@code GET} with a matching
+ * {@code If-None-Match} is answered with {@code 304 (Not Modified)} before the body is serialized, and an
+ * {@code If-Match} makes an update conditional on the version.
+ */
+public final class EntityTagUtil {
+
+    private EntityTagUtil() {
+    }
+
+    /**
+     * Build the ETag of a version.
+     *
+     * @param version the version of the entity.
+     * @return the strong ETag, or {@code null} if the entity has no version.
+     */
+    public static String etag(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Parse the version expected by an {@code If-Match} header.
+     *
+     * @param ifMatch the value of the header, or {@code null}.
+     * @param entityName the name of the entity, for the error.
+     * @return the expected version, or {@code null} if any version matches.
+     * @throws PreconditionFailedException if the header cannot match a version, such as a weak or malformed tag.
+     */
+    public static Long parseIfMatch(String ifMatch, String entityName) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not one of our tags.
+            }
+        }
+        throw new PreconditionFailedException("The entity does not match " + ifMatch, entityName);
+    }
+
+    /**
+     * Run an update conditional on the version of the entity: the one of the {@code If-Match} header if present,
+     * otherwise the one of the request body.
+     *
+     * @param ifMatch the value of the {@code If-Match} header, or {@code null}.
+     * @param version the version of the entity in the request body, or {@code null} to update any version.
+     * @param entityName the name of the entity, for the error.
+     * @param update the update, given the expected version.
+     * @param <T> the entity type.
+     * @return the updated entity.
+     * @throws PreconditionFailedException if the {@code If-Match} version does not match.
+     * @throws OptimisticLockingFailureException if the version of the body does not match.
+     */
+    public static <T> T updateIfMatch(String ifMatch, Long version, String entityName, Function<Long, T> update) {
+        if (ifMatch == null) {
+            return update.apply(version);
+        }
+        try {
+            return update.apply(parseIfMatch(ifMatch, entityName));
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("The entity does not match " + ifMatch, entityName);
+        }
+    }
+
+    /**
+     * Build the headers holding the ETag of a version.
+     *
+     * @param version the version of the entity.
+     * @return the headers, empty if the entity has no version.
+     */
+    public static HttpHeaders headers(Long version) {
+        HttpHeaders headers = new HttpHeaders();
+        if (version != null) {
+            headers.setETag(etag(version));
+        }
+        return headers;
+    }
+
+    /**
+     * Wrap an entity into a response with its ETag, or with status {@code 404 (Not Found)} if it is absent.
+     *
+     * @param entity the entity.
+     * @param version the getter of the version of the entity.
+     * @param <T> the entity type.
+     * @return the response.
+     */
+    public static <T> ResponseEntity<T> wrapOrNotFound(Optional<T> entity, Function<T, Long> version) {
+        return entity.map(value -> ResponseEntity.ok().headers(headers(version.apply(value))).body(value))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+}
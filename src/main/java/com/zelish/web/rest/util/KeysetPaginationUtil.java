@@ -0,0 +1,101 @@
+package com.zelish.web.rest.util;
+
+import com.zelish.repository.KeysetSlice;
+import com.zelish.web.rest.errors.BadRequestAlertException;
+
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for keyset pagination.
+ * <p>
+ * The client scrolls with an opaque {@code after} token, given in the {@code Link} header with the {@code after}
+ * relation. The token holds the sort values and id of the last entity of the previous slice, and the sort they
+ * belong to.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAM = "after";
+
+    private static final String SORT = "sort";
+
+    private static final String KEY = "key";
+
+    private KeysetPaginationUtil() {
+    }
+
+    /**
+     * Decode an {@code after} token.
+     *
+     * @param after the token, or {@code null} for the first slice.
+     * @param pageable the pagination information of the request, whose sort must be the one of the token.
+     * @param entityName the name of the paged entity, for the error.
+     * @return the key to seek from, or {@code null} for the first slice.
+     * @throws BadRequestAlertException if the token is malformed, holds other values than scalars, or was built for another sort.
+     */
+    public static List<Object> decodeAfter(String after, Pageable pageable, String entityName) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            Document token = Document.parse(new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8));
+            if (pageable.getSort().toString().equals(token.getString(SORT)) && token.get(KEY) instanceof List) {
+                List<Object> key = token.get(KEY, List.class);
+                if (key.stream().allMatch(KeysetPaginationUtil::isScalar)) {
+                    return key;
+                }
+            }
+        } catch (RuntimeException e) {
+            // reported below
+        }
+        throw new BadRequestAlertException("Invalid pagination token", entityName, "invalidafter");
+    }
+
+    /**
+     * Tell whether a value of a key is a scalar, rather than a document or an array which could hold query operators.
+     */
+    private static boolean isScalar(Object value) {
+        return !(value instanceof Map || value instanceof Collection);
+    }
+
+    /**
+     * Encode the next key of a slice as an {@code after} token.
+     *
+     * @param slice the slice, which must have a next one.
+     * @return the token.
+     */
+    public static String encodeAfter(KeysetSlice<?> slice) {
+        String token = new Document(SORT, slice.getSort().toString()).append(KEY, slice.getNextKey()).toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Add the link to the next slice to the {@code Link} header, if any.
+     *
+     * @param headers the headers, possibly already holding the {@code Link} header generated by {@code PaginationUtil}.
+     * @param uriBuilder the URI builder of the request, with its query parameters.
+     * @param slice the slice.
+     * @return the headers.
+     */
+    public static HttpHeaders addAfterLink(HttpHeaders headers, UriComponentsBuilder uriBuilder, KeysetSlice<?> slice) {
+        if (!slice.hasNext()) {
+            return headers;
+        }
+        String link = "<" + uriBuilder.cloneBuilder()
+            .replaceQueryParam("page")
+            .replaceQueryParam("size", slice.getSize())
+            .replaceQueryParam(AFTER_PARAM, encodeAfter(slice))
+            .toUriString() + ">; rel=\"" + AFTER_PARAM + "\"";
+        String existing = headers.getFirst(HttpHeaders.LINK);
+        headers.set(HttpHeaders.LINK, existing == null ? link : existing + "," + link);
+        return headers;
+    }
+}
@@ -0,0 +1,101 @@
+package com.zelish.web.rest.util;
+
+import io.github.jhipster.web.util.PaginationUtil;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for the paged endpoints able to skip the count of the entities.
+ * <p>
+ * Called with {@code count=estimated}, such an endpoint fetches a {@link Slice}, whose {@code X-Total-Count} header
+ * is an estimate, and whose {@code Link} header has no {@code last} relation. The {@code X-Total-Count-Accuracy}
+ * header tells whether the total is {@code exact} or {@code estimated}.
+ */
+public final class SlicePaginationUtil {
+
+    public static final String COUNT_PARAM = "count";
+
+    public static final String EXACT = "exact";
+
+    public static final String ESTIMATED = "estimated";
+
+    public static final String TOTAL_COUNT_ACCURACY_HEADER = "X-Total-Count-Accuracy";
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"%s\"";
+
+    private SlicePaginationUtil() {
+    }
+
+    /**
+     * @param count the value of the {@code count} request parameter.
+     * @return whether the request asked for an estimated total.
+     */
+    public static boolean isEstimated(String count) {
+        return ESTIMATED.equals(count);
+    }
+
+    /**
+     * Generate the pagination headers of a page, whose total is exact.
+     *
+     * @param uriBuilder the URI builder of the request, with its query parameters.
+     * @param page the page.
+     * @return the headers.
+     */
+    public static HttpHeaders generatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, Page<?> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(uriBuilder, page);
+        headers.add(TOTAL_COUNT_ACCURACY_HEADER, EXACT);
+        return headers;
+    }
+
+    /**
+     * Generate the pagination headers of a slice, with an estimated total.
+     *
+     * @param uriBuilder the URI builder of the request, with its query parameters.
+     * @param slice the slice.
+     * @param estimatedTotal the estimated number of entities.
+     * @return the headers.
+     */
+    public static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice, long estimatedTotal) {
+        HttpHeaders headers = generateSliceHttpHeaders(uriBuilder, slice);
+        headers.add(HEADER_X_TOTAL_COUNT, Long.toString(estimatedTotal));
+        headers.add(TOTAL_COUNT_ACCURACY_HEADER, ESTIMATED);
+        return headers;
+    }
+
+    /**
+     * Generate the pagination headers of a slice, without total.
+     *
+     * @param uriBuilder the URI builder of the request, with its query parameters.
+     * @param slice the slice.
+     * @return the headers.
+     */
+    public static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        List<String> links = new ArrayList<>();
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        if (slice.hasNext()) {
+            links.add(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev"));
+        }
+        links.add(prepareLink(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        return String.format(HEADER_LINK_FORMAT, uriBuilder.cloneBuilder()
+            .replaceQueryParam("page", pageNumber)
+            .replaceQueryParam("size", pageSize)
+            .toUriString(), relType);
+    }
+}
@@ -0,0 +1,16 @@
+package com.zelish.web.rest.util;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks an endpoint whose response body is filtered by the {@code fields} request parameter, see
+ * {@link SparseFieldsResponseBodyAdvice}.
+ * <p>
+ * The endpoint must validate the requested names with {@link SparseFieldsUtil#parseFields} and project its query
+ * on them: the filter only trims the properties which were loaded anyway.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SparseFields {
+}
@@ -0,0 +1,43 @@
+package com.zelish.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+import java.util.Set;
+
+/**
+ * Jackson filter writing only the requested properties of the entities of a response body.
+ * <p>
+ * Only the top-level entities, or the entities of a top-level list, are filtered: the entities they reference
+ * are written whole.
+ */
+public class SparseFieldsFilter extends SimpleBeanPropertyFilter {
+
+    /**
+     * Id of the filter, set on the entities supporting sparse fieldsets.
+     */
+    public static final String ID = "sparseFields";
+
+    private final Set<String> fields;
+
+    public SparseFieldsFilter(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+        if (fields.isEmpty() || fields.contains(writer.getName()) || !isTopLevel(jgen.getOutputContext())) {
+            writer.serializeAsField(pojo, jgen, provider);
+        } else if (!jgen.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, jgen, provider);
+        }
+    }
+
+    private static boolean isTopLevel(JsonStreamContext context) {
+        JsonStreamContext parent = context.getParent();
+        return parent != null && (parent.inRoot() || parent.inArray() && parent.getParent() != null && parent.getParent().inRoot());
+    }
+}
@@ -0,0 +1,64 @@
+package com.zelish.web.rest.util;
+
+import com.zelish.web.rest.errors.BadRequestAlertException;
+
+import org.springframework.beans.BeanUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Utility class for sparse fieldsets.
+ * <p>
+ * A {@code fields} request parameter, such as {@code fields=firstName,lastName}, restricts the properties of the
+ * entities read from the database and written in the response. The id is always included.
+ */
+public final class SparseFieldsUtil {
+
+    public static final String FIELDS_PARAM = "fields";
+
+    private static final String ID = "id";
+
+    private SparseFieldsUtil() {
+    }
+
+    /**
+     * Split the value of a {@code fields} request parameter.
+     *
+     * @param fields the comma separated property names, or {@code null}.
+     * @return the property names with the id, or an empty set for all properties.
+     */
+    public static Set<String> split(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        result.add(ID);
+        for (String field : fields.split(",")) {
+            if (!field.trim().isEmpty()) {
+                result.add(field.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parse the value of a {@code fields} request parameter, checking that each field is a property of the entity.
+     *
+     * @param fields the comma separated property names, or {@code null}.
+     * @param entityClass the entity type.
+     * @param entityName the name of the entity, for the error.
+     * @return the property names with the id, or an empty set for all properties.
+     * @throws BadRequestAlertException if a field is not a property of the entity.
+     */
+    public static Set<String> parseFields(String fields, Class<?> entityClass, String entityName) {
+        Set<String> result = split(fields);
+        for (String field : result) {
+            if (BeanUtils.getPropertyDescriptor(entityClass, field) == null) {
+                throw new BadRequestAlertException("Unknown field " + field, entityName, "unknownfield");
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package com.zelish.domain;
+
+import com.zelish.config.audit.AuditEventConverter;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the reading of the audit event data, as the full keys and string values copied into maps which were
+ * stored before {@link AuditEventData}, and as its compact form viewed without copy.
+ * <p>
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.zelish.domain.AuditEventDataBenchmark}: the {@code gc.alloc.rate.norm} of the results is the
+ * memory allocated per read event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditEventDataBenchmark {
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    private final AuditEventConverter auditEventConverter = new AuditEventConverter();
+
+    private ByteBuffer legacy;
+
+    private ByteBuffer compact;
+
+    @Setup
+    public void setup() {
+        legacy = bytes(legacyData());
+        compact = bytes(compactData());
+    }
+
+    @Benchmark
+    public Map<String, Object> readLegacy() {
+        Document data = decode(legacy);
+        Map<String, String> strings = new HashMap<>();
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            strings.put(entry.getKey(), (String) entry.getValue());
+        }
+        Map<String, Object> objects = new HashMap<>();
+        for (Map.Entry<String, String> entry : strings.entrySet()) {
+            objects.put(entry.getKey(), entry.getValue());
+        }
+        return objects;
+    }
+
+    @Benchmark
+    public Map<String, Object> readCompact() {
+        return auditEventConverter.convertDataToObjects(AuditEventData.wrap(decode(compact)).asMap());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AuditEventDataBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+
+    /**
+     * The data of an authentication failure, as stored before {@link AuditEventData}.
+     */
+    private static Document legacyData() {
+        return new Document("remoteAddress", "192.168.10.42")
+            .append("sessionId", "6A4F3C2B1D0E9F8A7B6C5D4E3F2A1B0C")
+            .append("type", "org.springframework.security.authentication.BadCredentialsException")
+            .append("message", "Bad credentials");
+    }
+
+    private static Document compactData() {
+        AuditEventData.Builder builder = AuditEventData.builder();
+        for (Map.Entry<String, Object> entry : legacyData().entrySet()) {
+            builder.put(entry.getKey(), (String) entry.getValue());
+        }
+        return builder.build().getEncoded();
+    }
+
+    private static ByteBuffer bytes(Document document) {
+        return new RawBsonDocument(document, CODEC).getByteBuffer().asNIO();
+    }
+
+    private static Document decode(ByteBuffer bytes) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(bytes.duplicate())) {
+            return CODEC.decode(reader, DecoderContext.builder().build());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.zelish.repository;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.PersistentAuditEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuditEventBuckets}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class AuditEventBucketsIT {
+
+    private static final Instant MAY = Instant.parse("2019-05-20T10:00:00Z");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private AuditEventBuckets auditEventBuckets;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAudit().setBuckets(true);
+        auditEventBuckets = new AuditEventBuckets(mongoTemplate, applicationProperties);
+        // Three events in May, two in June and one in July.
+        for (int i = 0; i < 6; i++) {
+            Instant date = MAY.plus(i < 3 ? i : i < 5 ? 30 + i : 60, ChronoUnit.DAYS);
+            PersistentAuditEvent event = new PersistentAuditEvent();
+            event.setPrincipal("user-" + i);
+            event.setAuditEventType("AUTHENTICATION_SUCCESS");
+            event.setAuditEventDate(date);
+            mongoTemplate.insert(event, auditEventBuckets.collectionFor(date));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        auditEventBuckets.findBuckets().values().forEach(auditEventBuckets::drop);
+    }
+
+    @Test
+    public void writesTheEventsToTheBucketOfTheirMonth() {
+        assertThat(auditEventBuckets.findBuckets().values()).containsExactly(
+            "jhi_persistent_audit_event_2019_05", "jhi_persistent_audit_event_2019_06", "jhi_persistent_audit_event_2019_07");
+    }
+
+    @Test
+    public void pagesAcrossTheBucketsNewestFirst() {
+        Page<PersistentAuditEvent> first = auditEventBuckets.findByDates(null, null, PageRequest.of(0, 4));
+        Page<PersistentAuditEvent> second = auditEventBuckets.findByDates(null, null, PageRequest.of(1, 4));
+
+        assertThat(first.getTotalElements()).isEqualTo(6);
+        assertThat(first.getContent()).extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactly("user-5", "user-4", "user-3", "user-2");
+        assertThat(second.getContent()).extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactly("user-1", "user-0");
+    }
+
+    @Test
+    public void slicesAcrossTheBucketsWithoutCounting() {
+        Slice<PersistentAuditEvent> second = auditEventBuckets.findSliceByDates(null, null, PageRequest.of(1, 2));
+        Slice<PersistentAuditEvent> last = auditEventBuckets.findSliceByDates(null, null, PageRequest.of(1, 4));
+
+        assertThat(second.getContent()).extracting(PersistentAuditEvent::getPrincipal).containsExactly("user-3", "user-2");
+        assertThat(second.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(PersistentAuditEvent::getPrincipal).containsExactly("user-1", "user-0");
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    public void findsTheEventsOfADateRange() {
+        Page<PersistentAuditEvent> page = auditEventBuckets.findByDates(Instant.parse("2019-06-01T00:00:00Z"),
+            Instant.parse("2019-07-01T00:00:00Z"), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(PersistentAuditEvent::getPrincipal).containsExactly("user-4", "user-3");
+    }
+
+    @Test
+    public void findsAnEventById() {
+        PersistentAuditEvent event = auditEventBuckets.findByDates(null, null, PageRequest.of(0, 1)).getContent().get(0);
+
+        assertThat(auditEventBuckets.findById(event.getId())).hasValueSatisfying(found ->
+            assertThat(found.getPrincipal()).isEqualTo(event.getPrincipal()));
+    }
+}
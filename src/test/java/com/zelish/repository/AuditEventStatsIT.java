@@ -0,0 +1,78 @@
+package com.zelish.repository;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.PersistentAuditEvent;
+import com.zelish.domain.PersistentAuditEventStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for {@link AuditEventStats}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class AuditEventStatsIT {
+
+    private static final Instant HOUR = Instant.parse("2019-07-01T10:00:00Z");
+
+    @Autowired
+    private AuditEventStats auditEventStats;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setup() {
+        auditEventStats.flush();
+        mongoTemplate.remove(new Query(), PersistentAuditEventStats.class);
+    }
+
+    @Test
+    public void countsTheEventsByHourTypeAndPrincipal() {
+        auditEventStats.count(event("user-1", "AUTHENTICATION_FAILURE", HOUR.plusSeconds(60)));
+        auditEventStats.count(event("user-1", "AUTHENTICATION_FAILURE", HOUR.plusSeconds(1800)));
+        auditEventStats.count(event("user-1", "AUTHENTICATION_FAILURE", HOUR.plusSeconds(3600)));
+        auditEventStats.count(event("user-2", "AUTHENTICATION_FAILURE", HOUR));
+        auditEventStats.count(event("user-1", "AUTHENTICATION_SUCCESS", HOUR));
+
+        auditEventStats.flush();
+
+        List<PersistentAuditEventStats> stats = auditEventStats.find("AUTHENTICATION_FAILURE", null, HOUR, HOUR.plusSeconds(7200));
+        assertThat(stats).extracting(PersistentAuditEventStats::getHour, PersistentAuditEventStats::getPrincipal,
+            PersistentAuditEventStats::getCount).containsExactly(
+                tuple(HOUR, "user-1", 2L),
+                tuple(HOUR, "user-2", 1L),
+                tuple(HOUR.plusSeconds(3600), "user-1", 1L));
+    }
+
+    @Test
+    public void addsTheCountsOfEachFlush() {
+        auditEventStats.count(event("user-1", "AUTHENTICATION_FAILURE", HOUR));
+        auditEventStats.flush();
+        auditEventStats.count(event("user-1", "AUTHENTICATION_FAILURE", HOUR));
+        auditEventStats.count(event("user-1", "AUTHENTICATION_FAILURE", HOUR));
+        auditEventStats.flush();
+        auditEventStats.flush();
+
+        assertThat(auditEventStats.find(null, "user-1", HOUR, HOUR.plusSeconds(3600)))
+            .extracting(PersistentAuditEventStats::getCount).containsExactly(3L);
+        assertThat(mongoTemplate.count(new Query(), PersistentAuditEventStats.class)).isEqualTo(1);
+    }
+
+    private static PersistentAuditEvent event(String principal, String type, Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventType(type);
+        event.setAuditEventDate(date);
+        return event;
+    }
+}
@@ -0,0 +1,134 @@
+package com.zelish.repository;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.PersistentAuditEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuditEventWriter}.
+ * <p>
+ * The writers under test are not started: their events are only written by {@link AuditEventWriter#flush()}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class AuditEventWriterIT {
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AuditEventBuckets auditEventBuckets;
+
+    private MeterRegistry meterRegistry;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        persistenceAuditEventRepository.deleteAll();
+        meterRegistry = new SimpleMeterRegistry();
+        directory = Files.createTempDirectory("audit-event-writer");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void writesTheBufferedEventsByBatch() {
+        AuditEventWriter writer = writer(ApplicationProperties.Audit.Overflow.BLOCK, 16);
+        for (int i = 0; i < 5; i++) {
+            writer.write(event("user-" + i));
+        }
+        assertThat(persistenceAuditEventRepository.count()).isZero();
+
+        writer.flush();
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactlyInAnyOrder("user-0", "user-1", "user-2", "user-3", "user-4");
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    public void dropsTheOldestEventsOnOverflow() {
+        AuditEventWriter writer = writer(ApplicationProperties.Audit.Overflow.DROP_OLDEST, 2);
+        writer.write(event("user-0"));
+        writer.write(event("user-1"));
+        writer.write(event("user-2"));
+        assertThat(meterRegistry.get("audit.events.buffered").gauge().value()).isEqualTo(2);
+
+        writer.flush();
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactlyInAnyOrder("user-1", "user-2");
+        assertThat(meterRegistry.get("audit.events.dropped").tag("reason", "overflow").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void spillsTheOverflowingEventsAndWritesThemBack() {
+        AuditEventWriter writer = writer(ApplicationProperties.Audit.Overflow.SPILL, 2);
+        writer.write(event("user-0"));
+        writer.write(event("user-1"));
+        writer.write(event("user-2"));
+        assertThat(directory.resolve("spill.ndjson")).exists();
+
+        writer.flush();
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactlyInAnyOrder("user-0", "user-1", "user-2");
+        assertThat(meterRegistry.get("audit.events.spilled").counter().count()).isEqualTo(1);
+        assertThat(directory.resolve("spill.ndjson")).doesNotExist();
+        assertThat(directory.resolve("spill.ndjson.replay")).doesNotExist();
+    }
+
+    @Test
+    public void writesTheEventsRaisedAfterStopRightAway() throws InterruptedException {
+        AuditEventWriter writer = writer(ApplicationProperties.Audit.Overflow.BLOCK, 16);
+        writer.stop();
+
+        writer.write(event("user-0"));
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactly("user-0");
+    }
+
+    private AuditEventWriter writer(ApplicationProperties.Audit.Overflow overflow, int bufferSize) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAudit().setOverflow(overflow);
+        applicationProperties.getAudit().setBufferSize(bufferSize);
+        applicationProperties.getAudit().setSpillFile(directory.resolve("spill.ndjson").toString());
+        return new AuditEventWriter(mongoTemplate, auditEventBuckets, meterRegistry, applicationProperties);
+    }
+
+    private static PersistentAuditEvent event(String principal) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventType("AUTHENTICATION_SUCCESS");
+        event.setAuditEventDate(Instant.now());
+        return event;
+    }
+}
@@ -0,0 +1,137 @@
+package com.zelish.repository;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link BatchingDbRefResolver}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class BatchingDbRefResolverIT {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private BatchingQueryExecutor batchingQueryExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    public void resolvesReferencesOfAPageInBatch() {
+        Department department = departmentRepository.save(new Department().departmentName("Sales"));
+        Job job = jobRepository.save(new Job().jobTitle("Seller"));
+        for (int i = 0; i < 5; i++) {
+            Employee employee = new Employee().firstName("employee-" + i).department(department);
+            employee.getJobs().add(job);
+            employeeRepository.save(employee);
+        }
+        double batchedBefore = resolvedCount("department", "batch");
+        double singleBefore = resolvedCount("department", "single");
+
+        Page<Employee> page = employeeRepository.findAllWithBatchedReferences(PageRequest.of(0, 3, Sort.by("firstName")), Collections.emptySet());
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(Employee::getFirstName)
+            .containsExactly("employee-0", "employee-1", "employee-2");
+        assertThat(page.getContent()).allSatisfy(employee -> {
+            assertThat(employee.getDepartment().getDepartmentName()).isEqualTo("Sales");
+            assertThat(employee.getJobs()).extracting(Job::getJobTitle).containsExactly("Seller");
+        });
+        assertThat(resolvedCount("department", "batch") - batchedBefore).isEqualTo(3);
+        assertThat(resolvedCount("department", "single") - singleBefore).isZero();
+    }
+
+    @Test
+    public void resolvesReferencesOfAStreamByBatch() {
+        Department department = departmentRepository.save(new Department().departmentName("Sales"));
+        for (int i = 0; i < 5; i++) {
+            employeeRepository.save(new Employee().firstName("employee-" + i).department(department));
+        }
+        double batchedBefore = resolvedCount("department", "batch");
+        double singleBefore = resolvedCount("department", "single");
+
+        List<Employee> employees = new ArrayList<>();
+        try (CloseableIterator<Employee> stream = batchingQueryExecutor.stream(new Query().with(Sort.by("firstName")), 2, Employee.class)) {
+            stream.forEachRemaining(employees::add);
+        }
+
+        assertThat(employees).extracting(Employee::getFirstName)
+            .containsExactly("employee-0", "employee-1", "employee-2", "employee-3", "employee-4");
+        assertThat(employees).allSatisfy(employee -> assertThat(employee.getDepartment().getDepartmentName()).isEqualTo("Sales"));
+        assertThat(resolvedCount("department", "batch") - batchedBefore).isEqualTo(5);
+        assertThat(resolvedCount("department", "single") - singleBefore).isZero();
+    }
+
+    @Test
+    public void readsByIdFromTheDocumentCache() {
+        Department department = departmentRepository.save(new Department().departmentName("Sales"));
+        Employee employee = employeeRepository.save(new Employee().firstName("employee").department(department));
+        employeeRepository.findOneWithBatchedReferences(employee.getId());
+        double hitsBefore = cacheHits("employee");
+
+        Employee cached = employeeRepository.findOneWithBatchedReferences(employee.getId()).get();
+
+        assertThat(cached.getDepartment().getDepartmentName()).isEqualTo("Sales");
+        assertThat(cacheHits("employee") - hitsBefore).isEqualTo(1);
+
+        // Saving the department evicts it
+        departmentRepository.save(department.departmentName("Marketing"));
+        assertThat(employeeRepository.findOneWithBatchedReferences(employee.getId()).get().getDepartment().getDepartmentName())
+            .isEqualTo("Marketing");
+
+        // Deleting the employee evicts it
+        employeeRepository.deleteById(employee.getId());
+        assertThat(employeeRepository.findOneWithBatchedReferences(employee.getId())).isEmpty();
+    }
+
+    private double cacheHits(String collection) {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+            .tag("cache", collection)
+            .tag("result", "hit")
+            .functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double resolvedCount(String collection, String source) {
+        Counter counter = meterRegistry.find("mongo.dbref.resolved")
+            .tag("collection", collection)
+            .tag("source", source)
+            .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -4,11 +4,15 @@ import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.config.Constants;
 import com.zelish.config.audit.AuditEventConverter;
 import com.zelish.domain.PersistentAuditEvent;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
@@ -16,11 +20,13 @@ import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import javax.servlet.http.HttpSession;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static com.zelish.repository.CustomAuditEventRepository.EVENT_DATA_COLUMN_MAX_LENGTH;
 
 /**
@@ -35,6 +41,18 @@ public class CustomAuditEventRepositoryIT {
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    @Autowired
+    private AuditEventWriter auditEventWriter;
+
+    @Autowired
+    private AuditEventBuckets auditEventBuckets;
+
+    @Autowired
+    private AuditEventStats auditEventStats;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private CustomAuditEventRepository customAuditEventRepository;
 
     private PersistentAuditEvent testUserEvent;
@@ -45,7 +63,8 @@ public class CustomAuditEventRepositoryIT {
 
     @BeforeEach
     public void setup() {
-        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter);
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter,
+            auditEventWriter, auditEventBuckets, auditEventStats);
         persistenceAuditEventRepository.deleteAll();
         Instant oneHourAgo = Instant.now().minusSeconds(3600);
 
@@ -74,6 +93,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -95,6 +115,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", largeData);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -119,6 +140,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", details);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -132,6 +154,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", null);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -144,6 +167,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent(Constants.ANONYMOUS_USER, "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
@@ -154,8 +178,54 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "AUTHORIZATION_FAILURE", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
 
+    @Test
+    public void storesTheDataInCompactForm() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", "org.springframework.security.authentication.BadCredentialsException");
+        data.put("message", "Bad credentials");
+        data.put("test-key", "test-value");
+        AuditEvent event = new AuditEvent("test-user", "AUTHENTICATION_FAILURE", data);
+        customAuditEventRepository.add(event);
+        auditEventWriter.flush();
+
+        Document stored = mongoTemplate.getCollection(mongoTemplate.getCollectionName(PersistentAuditEvent.class))
+            .find().first().get("data", Document.class);
+        assertThat(stored).containsOnlyKeys("t", "m", "test-key");
+        assertThat(stored.get("t")).isInstanceOf(Integer.class);
+        assertThat(stored.get("m")).isInstanceOf(Integer.class);
+        assertThat(stored.get("test-key")).isEqualTo("test-value");
+        assertThat(size(stored)).isLessThan(size(new Document(data)));
+
+        PersistentAuditEvent persistentAuditEvent = persistenceAuditEventRepository.findAll().get(0);
+        assertThat(persistentAuditEvent.getData()).containsOnly(
+            entry("type", "org.springframework.security.authentication.BadCredentialsException"),
+            entry("message", "Bad credentials"),
+            entry("test-key", "test-value"));
+    }
+
+    @Test
+    public void readsTheDataWrittenBeforeTheCompactForm() {
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(PersistentAuditEvent.class)).insertOne(
+            new Document("principal", "test-user")
+                .append("event_date", new Date())
+                .append("event_type", "AUTHENTICATION_SUCCESS")
+                .append("data", new Document("remoteAddress", "1.2.3.4").append("sessionId", "test-session-id")));
+
+        PersistentAuditEvent persistentAuditEvent = persistenceAuditEventRepository.findAll().get(0);
+
+        assertThat(persistentAuditEvent.getData()).containsOnly(
+            entry("remoteAddress", "1.2.3.4"),
+            entry("sessionId", "test-session-id"));
+        assertThat(auditEventConverter.convertToAuditEvent(persistentAuditEvent).getData())
+            .containsEntry("remoteAddress", "1.2.3.4");
+    }
+
+    private static int size(Document document) {
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
 }
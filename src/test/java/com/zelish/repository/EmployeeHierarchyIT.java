@@ -0,0 +1,104 @@
+package com.zelish.repository;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the reporting hierarchy queries of {@link EmployeeRepository}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class EmployeeHierarchyIT {
+
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Employee ceo;
+
+    private Employee cto;
+
+    private Employee developer;
+
+    private Employee cfo;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll();
+        ceo = employeeRepository.save(new Employee().firstName("ceo"));
+        cto = employeeRepository.save(new Employee().firstName("cto").manager(ceo));
+        developer = employeeRepository.save(new Employee().firstName("developer").manager(cto));
+        cfo = employeeRepository.save(new Employee().firstName("cfo").manager(ceo));
+    }
+
+    @Test
+    public void findReportsByLevel() {
+        assertThat(employeeRepository.findReports(ceo.getId(), 1, PAGE).getContent()).extracting(Employee::getFirstName)
+            .containsExactlyInAnyOrder("cto", "cfo");
+        assertThat(employeeRepository.findReports(ceo.getId(), 2, PAGE).getContent()).extracting(Employee::getFirstName)
+            .containsExactlyInAnyOrder("cto", "cfo", "developer")
+            .endsWith("developer");
+    }
+
+    @Test
+    public void findManagementChain() {
+        assertThat(employeeRepository.findManagementChain(developer.getId(), 10, PAGE).getContent()).extracting(Employee::getFirstName)
+            .containsExactly("cto", "ceo");
+    }
+
+    @Test
+    public void findSubtreeFollowsMoves() {
+        assertThat(employeeRepository.findSubtree(cto.getId(), PageRequest.of(0, 10)).getContent())
+            .extracting(Employee::getFirstName).containsExactly("developer");
+
+        employeeRepository.save(cto.manager(cfo));
+
+        assertThat(employeeRepository.findSubtree(cfo.getId(), PageRequest.of(0, 10)).getContent())
+            .extracting(Employee::getFirstName).containsExactlyInAnyOrder("cto", "developer");
+        assertThat(employeeRepository.findManagementChain(developer.getId(), 10, PAGE).getContent()).extracting(Employee::getFirstName)
+            .containsExactly("cto", "cfo", "ceo");
+    }
+
+    @Test
+    public void findReportsBySlice() {
+        Slice<Employee> first = employeeRepository.findReports(ceo.getId(), 2, PageRequest.of(0, 2));
+        Slice<Employee> second = employeeRepository.findReports(ceo.getId(), 2, PageRequest.of(1, 2));
+
+        assertThat(first.getContent()).extracting(Employee::getFirstName).containsExactlyInAnyOrder("cto", "cfo");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Employee::getFirstName).containsExactly("developer");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    public void deletingAManagerMovesItsReportsToItsManager() {
+        employeeRepository.deleteById(cto.getId());
+
+        Employee movedDeveloper = employeeRepository.findById(developer.getId()).get();
+        assertThat(movedDeveloper.getManager().getId()).isEqualTo(ceo.getId());
+        assertThat(employeeRepository.findManagementChain(developer.getId(), 10, PAGE).getContent())
+            .extracting(Employee::getFirstName).containsExactly("ceo");
+        assertThat(employeeRepository.findSubtree(ceo.getId(), PageRequest.of(0, 10)).getContent())
+            .extracting(Employee::getFirstName).containsExactlyInAnyOrder("cfo", "developer");
+    }
+
+    @Test
+    public void deletingARootMakesItsReportsRoots() {
+        employeeRepository.deleteById(ceo.getId());
+
+        assertThat(employeeRepository.findById(cto.getId()).get().getManager()).isNull();
+        assertThat(employeeRepository.findManagementChain(developer.getId(), 10, PAGE).getContent())
+            .extracting(Employee::getFirstName).containsExactly("cto");
+        assertThat(employeeRepository.findSubtree(cto.getId(), PageRequest.of(0, 10)).getContent())
+            .extracting(Employee::getFirstName).containsExactly("developer");
+    }
+}
@@ -0,0 +1,110 @@
+package com.zelish.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.domain.Task;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the eager queries of {@link JobRepository}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class JobRepositoryIT {
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jobRepository.deleteAll();
+        taskRepository.deleteAll();
+        employeeRepository.deleteAll();
+        for (int i = 0; i < 3; i++) {
+            Employee employee = employeeRepository.save(new Employee().firstName("first-" + i).lastName("last-" + i));
+            Task first = taskRepository.save(new Task().title("first-" + i).description("description"));
+            Task second = taskRepository.save(new Task().title("second-" + i).description("description"));
+            jobRepository.save(new Job().jobTitle("job-" + i).employee(employee).addTask(first).addTask(second));
+            // The back references from the tasks to their job
+            taskRepository.save(first);
+            taskRepository.save(second);
+        }
+    }
+
+    @Test
+    public void findAllWithEagerRelationshipsLoadsTasksInOneCommand() {
+        MongoDatabase db = mongoTemplate.getDb();
+        db.runCommand(new Document("profile", 0));
+        db.getCollection("system.profile").drop();
+        db.runCommand(new Document("profile", 2));
+
+        Page<Job> page = jobRepository.findAllWithEagerRelationships(PageRequest.of(0, 20, Sort.by("jobTitle")));
+
+        db.runCommand(new Document("profile", 0));
+        MongoCollection<Document> profile = db.getCollection("system.profile");
+        List<String> namespaces = Stream.of("job", "task", "employee", "department", "location", "country", "region")
+            .map(collection -> db.getName() + "." + collection)
+            .collect(Collectors.toList());
+        // The aggregation of the page with its tasks, then the batch resolution of the employees of the jobs
+        assertThat(profile.countDocuments(Filters.in("ns", namespaces))).isEqualTo(2);
+        assertThat(profile.countDocuments(Filters.eq("ns", db.getName() + ".job"))).isEqualTo(1);
+        assertThat(profile.countDocuments(Filters.eq("ns", db.getName() + ".employee"))).isEqualTo(1);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(Job::getJobTitle).containsExactly("job-0", "job-1", "job-2");
+        assertThat(page.getContent().get(1).getTasks()).extracting(Task::getTitle)
+            .containsExactlyInAnyOrder("first-1", "second-1");
+        assertThat(page.getContent().get(1).getTasks()).allSatisfy(task -> assertThat(task.getJobs()).isEmpty());
+        assertThat(page.getContent().get(1).getEmployee().getFirstName()).isEqualTo("first-1");
+    }
+
+    @Test
+    public void findAllWithEagerRelationshipsProjectsTaskFields() {
+        Page<Job> page = jobRepository.findAllWithEagerRelationships(PageRequest.of(0, 1, Sort.by("jobTitle")),
+            Collections.singletonList("title"));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent().get(0).getTasks()).allSatisfy(task -> {
+            assertThat(task.getId()).isNotNull();
+            assertThat(task.getTitle()).isNotNull();
+            assertThat(task.getDescription()).isNull();
+        });
+    }
+
+    @Test
+    public void findOneWithEagerRelationships() {
+        Job job = jobRepository.findAll().get(0);
+
+        Job found = jobRepository.findOneWithEagerRelationships(job.getId()).get();
+
+        assertThat(found.getJobTitle()).isEqualTo(job.getJobTitle());
+        assertThat(found.getTasks()).hasSize(2);
+    }
+}
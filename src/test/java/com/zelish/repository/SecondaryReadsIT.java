@@ -0,0 +1,77 @@
+package com.zelish.repository;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Region;
+import com.zelish.service.ExportService;
+import com.mongodb.ReadPreference;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SecondaryReads} and the {@link SecondaryPreferred} methods.
+ * <p>
+ * The embedded database is a standalone server: the reads are served by it whatever their read preference, and it
+ * supports no session.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class SecondaryReadsIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        regionRepository.deleteAll();
+    }
+
+    @Test
+    public void routesTheReadsOfTheScopeToTheSecondaries() {
+        assertThat(mongoTemplate.getDb().getReadPreference()).isEqualTo(ReadPreference.primary());
+        SecondaryReads.begin(null);
+        try {
+            assertThat(mongoTemplate.getDb().getReadPreference()).isEqualTo(ReadPreference.secondaryPreferred());
+        } finally {
+            SecondaryReads.end();
+        }
+        assertThat(mongoTemplate.getDb().getReadPreference()).isEqualTo(ReadPreference.primary());
+    }
+
+    @Test
+    public void countsTheAnnotatedReads() throws Exception {
+        regionRepository.save(new Region().regionName("Europe"));
+        double before = routed();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(Region.class, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name())).contains("Europe");
+        assertThat(routed()).isEqualTo(before + 1);
+        assertThat(SecondaryReads.isActive()).isFalse();
+        assertThat(meterRegistry.find("mongodb.reads").tags("collection", "region", "server", "standalone").counter())
+            .isNotNull();
+    }
+
+    private double routed() {
+        Counter counter = meterRegistry.find("mongodb.reads.secondary-preferred").tags("session", "none").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,118 @@
+package com.zelish.service;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.PersistentAuditEvent;
+import com.zelish.repository.AuditEventBuckets;
+import com.zelish.repository.DeclaredIndexes;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link AuditRetentionService}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class AuditRetentionServiceIT {
+
+    private static final Instant NOW = Instant.parse("2019-07-15T10:00:00Z");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("audit-retention");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+        ApplicationProperties properties = properties(0, false);
+        new AuditRetentionService(mongoTemplate, new AuditEventBuckets(mongoTemplate, properties), properties).ensureTimeToLive();
+        new AuditEventBuckets(mongoTemplate, properties).findBuckets().values().forEach(mongoTemplate::dropCollection);
+    }
+
+    @Test
+    public void matchesTheTimeToLiveIndexWithTheRetention() {
+        service(properties(30, false)).ensureTimeToLive();
+        assertThat(ttlIndex()).isNotNull();
+        assertThat(((Number) ttlIndex().get("expireAfterSeconds")).longValue()).isEqualTo(30L * 24 * 3600);
+
+        service(properties(60, false)).ensureTimeToLive();
+        assertThat(((Number) ttlIndex().get("expireAfterSeconds")).longValue()).isEqualTo(60L * 24 * 3600);
+
+        service(properties(0, false)).ensureTimeToLive();
+        assertThat(ttlIndex()).isNull();
+    }
+
+    @Test
+    public void archivesAndDropsTheExpiredBuckets() throws IOException {
+        ApplicationProperties properties = properties(30, true);
+        AuditEventBuckets buckets = new AuditEventBuckets(mongoTemplate, properties);
+        Instant expired = Instant.parse("2019-05-20T10:00:00Z");
+        Instant current = Instant.parse("2019-06-20T10:00:00Z");
+        mongoTemplate.insert(event("old-user", expired), buckets.collectionFor(expired));
+        mongoTemplate.insert(event("new-user", current), buckets.collectionFor(current));
+
+        List<String> dropped = new AuditRetentionService(mongoTemplate, buckets, properties).removeExpiredBuckets(NOW);
+
+        assertThat(dropped).containsExactly("jhi_persistent_audit_event_2019_05");
+        assertThat(buckets.findBuckets().values()).containsExactly("jhi_persistent_audit_event_2019_06");
+        Path archive = directory.resolve("jhi_persistent_audit_event_2019_05.ndjson.gz");
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+            List<Document> archived = in.lines().map(Document::parse).collect(Collectors.toList());
+            assertThat(archived).extracting(document -> document.getString("principal")).containsExactly("old-user");
+        }
+    }
+
+    private AuditRetentionService service(ApplicationProperties properties) {
+        return new AuditRetentionService(mongoTemplate, new AuditEventBuckets(mongoTemplate, properties), properties);
+    }
+
+    private ApplicationProperties properties(int retentionDays, boolean buckets) {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getAudit().setRetentionDays(retentionDays);
+        properties.getAudit().setBuckets(buckets);
+        properties.getAudit().setArchiveDirectory(directory.toString());
+        return properties;
+    }
+
+    private Document ttlIndex() {
+        for (Document index : mongoTemplate.getCollection("jhi_persistent_audit_event").listIndexes()) {
+            if (DeclaredIndexes.AUDIT_TTL_INDEX.equals(index.getString("name"))) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private static PersistentAuditEvent event(String principal, Instant date) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal(principal);
+        event.setAuditEventType("AUTHENTICATION_SUCCESS");
+        event.setAuditEventDate(date);
+        return event;
+    }
+}
@@ -0,0 +1,94 @@
+package com.zelish.service;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.EmployeeView;
+import com.zelish.domain.Job;
+import com.zelish.repository.DepartmentRepository;
+import com.zelish.repository.EmployeeRepository;
+import com.zelish.repository.EmployeeViewRepository;
+import com.zelish.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link EmployeeViewService} and {@link EmployeeViewEventListener}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class EmployeeViewServiceIT {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private EmployeeViewRepository employeeViewRepository;
+
+    @Autowired
+    private EmployeeViewService employeeViewService;
+
+    private Department department;
+
+    private Job job;
+
+    @BeforeEach
+    public void init() {
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+        jobRepository.deleteAll();
+        employeeViewRepository.deleteAll();
+        department = departmentRepository.save(new Department().departmentName("Sales"));
+        job = jobRepository.save(new Job().jobTitle("Seller"));
+    }
+
+    @Test
+    public void viewIsMaintainedOnWrites() {
+        Employee employee = new Employee().firstName("john").lastName("doe").department(department);
+        employee.getJobs().add(job);
+        employee = employeeRepository.save(employee);
+
+        EmployeeView view = employeeViewRepository.findById(employee.getId()).get();
+        assertThat(view.getLastName()).isEqualTo("doe");
+        assertThat(view.getDepartmentName()).isEqualTo("Sales");
+        assertThat(view.getJobs()).extracting(EmployeeView.JobSummary::getJobTitle).containsExactly("Seller");
+
+        departmentRepository.save(department.departmentName("Marketing"));
+        jobRepository.save(job.jobTitle("Marketer"));
+        view = employeeViewRepository.findById(employee.getId()).get();
+        assertThat(view.getDepartmentName()).isEqualTo("Marketing");
+        assertThat(view.getJobs()).extracting(EmployeeView.JobSummary::getJobTitle).containsExactly("Marketer");
+
+        jobRepository.deleteById(job.getId());
+        assertThat(employeeViewRepository.findById(employee.getId()).get().getJobs()).isEmpty();
+
+        employeeRepository.deleteById(employee.getId());
+        assertThat(employeeViewRepository.findById(employee.getId())).isEmpty();
+    }
+
+    @Test
+    public void rebuildRegeneratesAllViews() {
+        employeeRepository.save(new Employee().firstName("john").department(department));
+        employeeRepository.save(new Employee().firstName("jane").department(department));
+        employeeViewRepository.deleteAll();
+        EmployeeView stale = new EmployeeView();
+        stale.setId("stale");
+        employeeViewRepository.save(stale);
+
+        long count = employeeViewService.rebuild();
+
+        assertThat(count).isEqualTo(2);
+        assertThat(employeeViewRepository.findAll())
+            .extracting(EmployeeView::getFirstName)
+            .containsExactlyInAnyOrder("john", "jane");
+    }
+}
@@ -0,0 +1,190 @@
+package com.zelish.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.domain.JobHistory;
+import com.zelish.domain.enumeration.Language;
+import com.zelish.repository.DepartmentRepository;
+import com.zelish.repository.EmployeeRepository;
+import com.zelish.repository.EmployeeViewRepository;
+import com.zelish.repository.JobHistoryRepository;
+import com.zelish.repository.JobRepository;
+import com.zelish.service.dto.ImportProgressDTO;
+import com.zelish.service.dto.ImportRejectDTO;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zelish.repository.EmployeeRepositoryCustom.MANAGER_PATH_FIELD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link ImportService}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class ImportServiceIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EmployeeViewService employeeViewService;
+
+    @Autowired
+    private SalaryAnalyticsService salaryAnalyticsService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeViewRepository employeeViewRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobHistoryRepository jobHistoryRepository;
+
+    private ImportService importService;
+
+    private final List<ImportRejectDTO> rejects = new ArrayList<>();
+
+    private final ImportService.Listener listener = new ImportService.Listener() {
+        @Override
+        public void onProgress(ImportProgressDTO progress) {
+        }
+
+        @Override
+        public void onReject(ImportRejectDTO reject) {
+            rejects.add(reject);
+        }
+    };
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll();
+        employeeViewRepository.deleteAll();
+        departmentRepository.deleteAll();
+        jobRepository.deleteAll();
+        jobHistoryRepository.deleteAll();
+        departmentRepository.save(new Department().departmentName("Sales"));
+        jobRepository.save(new Job().jobTitle("Seller"));
+        jobRepository.save(new Job().jobTitle("Buyer"));
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getImport().setBatchSize(2);
+        applicationProperties.getImport().setMaxInFlightBatches(2);
+        applicationProperties.getImport().setProgressInterval(1);
+        importService = new ImportService(mongoTemplate, objectMapper, validator, employeeViewService, salaryAnalyticsService,
+            applicationProperties);
+    }
+
+    @Test
+    public void importEmployeesFromCsv() throws Exception {
+        String csv = "firstName,lastName,email,salary,hireDate,department,manager,jobs\n" +
+            "Ada,Boss,ada@example.com,100,2019-01-01T00:00:00Z,Sales,,Seller\n" +
+            "Bob,Report,bob@example.com,50,,Sales,ada@example.com,Seller|Buyer\n" +
+            "Eve,Lost,eve@example.com,10,,Nowhere,,\n" +
+            "Dan,Deep,dan@example.com,20,,,bob@example.com,\n";
+
+        ImportProgressDTO progress = importService.importEmployees(input(csv), ImportService.Format.CSV, listener);
+
+        assertThat(progress.isDone()).isTrue();
+        assertThat(progress.getRead()).isEqualTo(4);
+        assertThat(progress.getImported()).isEqualTo(3);
+        assertThat(progress.getRejected()).isEqualTo(1);
+        assertThat(rejects).extracting(ImportRejectDTO::getRow).containsExactly(3L);
+        assertThat(rejects.get(0).getError()).contains("Nowhere");
+
+        Employee ada = findByEmail("ada@example.com");
+        Employee bob = findByEmail("bob@example.com");
+        Employee dan = findByEmail("dan@example.com");
+        assertThat(ada.getSalary()).isEqualTo(100L);
+        assertThat(ada.getDepartment().getDepartmentName()).isEqualTo("Sales");
+        assertThat(bob.getJobs()).extracting(Job::getJobTitle).containsExactlyInAnyOrder("Seller", "Buyer");
+        assertThat(dan.getManager().getId()).isEqualTo(bob.getId());
+        assertThat(employeeRepository.findReports(ada.getId(), 2, PageRequest.of(0, 10)).getContent()).extracting(Employee::getEmail)
+            .containsExactly("bob@example.com", "dan@example.com");
+        Document stored = mongoTemplate.getCollection("employee").find(new Document("email", "dan@example.com")).first();
+        assertThat(stored.getString(MANAGER_PATH_FIELD)).isEqualTo("/" + ada.getId() + "/" + bob.getId() + "/");
+        assertThat(employeeViewRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void importRejectsTheReportsOfAFailedManager() throws Exception {
+        employeeRepository.save(new Employee().firstName("Old").lastName("Boss").email("old@example.com"));
+        MongoCollection<Document> employees = mongoTemplate.getCollection("employee");
+        String index = employees.createIndex(Indexes.ascending("last_name"), new IndexOptions().unique(true));
+        try {
+            String csv = "firstName,lastName,email,manager\n" +
+                "Ada,Boss,ada@example.com,\n" +
+                "Bob,Report,bob@example.com,ada@example.com\n" +
+                "Cid,Other,cid@example.com,\n" +
+                "Dan,Deep,dan@example.com,bob@example.com\n";
+
+            ImportProgressDTO progress = importService.importEmployees(input(csv), ImportService.Format.CSV, listener);
+
+            assertThat(progress.getImported()).isEqualTo(1);
+            assertThat(rejects).extracting(ImportRejectDTO::getRow).containsExactlyInAnyOrder(1L, 2L, 4L);
+            assertThat(employeeRepository.findAll()).extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("old@example.com", "cid@example.com");
+        } finally {
+            employees.dropIndex(index);
+        }
+    }
+
+    @Test
+    public void importJobHistoriesFromNdjson() throws Exception {
+        employeeRepository.save(new Employee().firstName("Ada").email("ada@example.com"));
+        String ndjson = "{\"employee\":\"ada@example.com\",\"job\":\"Seller\",\"department\":\"Sales\",\"language\":\"FRENCH\"}\n" +
+            "{\"employee\":\"nobody@example.com\",\"job\":\"Seller\"}\n" +
+            "{\"id\":\"existing_id\",\"job\":\"Buyer\"}\n";
+
+        ImportProgressDTO progress = importService.importJobHistories(input(ndjson), ImportService.Format.NDJSON, listener);
+
+        assertThat(progress.getImported()).isEqualTo(1);
+        assertThat(rejects).extracting(ImportRejectDTO::getRow).containsExactly(2L, 3L);
+        List<JobHistory> jobHistories = jobHistoryRepository.findAll();
+        assertThat(jobHistories).hasSize(1);
+        assertThat(jobHistories.get(0).getLanguage()).isEqualTo(Language.FRENCH);
+        assertThat(jobHistories.get(0).getJob().getJobTitle()).isEqualTo("Seller");
+        assertThat(jobHistories.get(0).getEmployee().getEmail()).isEqualTo("ada@example.com");
+    }
+
+    private Employee findByEmail(String email) {
+        return employeeRepository.findAll().stream()
+            .filter(employee -> email.equals(employee.getEmail()))
+            .findFirst().get();
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
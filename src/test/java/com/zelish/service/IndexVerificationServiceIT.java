@@ -0,0 +1,48 @@
+package com.zelish.service;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.service.dto.CollectionIndexesDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link IndexVerificationService}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class IndexVerificationServiceIT {
+
+    @Autowired
+    private IndexVerificationService indexVerificationService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    public void declaredIndexesAreCreated() {
+        assertThat(indexVerificationService.findAll(true)).allSatisfy(collection -> {
+            assertThat(collection.getMissing()).isEmpty();
+        });
+    }
+
+    @Test
+    public void undeclaredIndexIsReported() {
+        mongoTemplate.indexOps("employee").ensureIndex(new Index().on("phone_number", Sort.Direction.ASC));
+
+        try {
+            CollectionIndexesDTO employee = indexVerificationService.findAll(true).stream()
+                .filter(collection -> collection.getCollection().equals("employee"))
+                .findFirst().get();
+
+            assertThat(employee.getUnexpected()).containsExactly("phone_number_1");
+            assertThat(employee.getUsage()).extracting(CollectionIndexesDTO.IndexUsageDTO::getName).contains("phone_number_1");
+        } finally {
+            mongoTemplate.indexOps("employee").dropIndex("phone_number_1");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.zelish.service;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.domain.OutboxMail;
+import com.zelish.domain.enumeration.MailStatus;
+import com.zelish.repository.OutboxMailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link MailOutboxService}, sending to a {@link LocalSmtpServer}.
+ * <p>
+ * The services under test are not started: their mails are only sent by {@link MailOutboxService#sendBatch()}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class MailOutboxServiceIT {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    private LocalSmtpServer smtpServer;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        outboxMailRepository.deleteAll();
+        smtpServer = new LocalSmtpServer();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        smtpServer.close();
+    }
+
+    @Test
+    public void sendsTheMailsOfABatchThroughOneConnection() throws Exception {
+        MailOutboxService mailOutboxService = mailOutboxService(smtpServer.getHost(), smtpServer.getPort(), 8);
+        for (int i = 0; i < 3; i++) {
+            mailOutboxService.add(mail("user-" + i + "@example.com"));
+        }
+
+        assertThat(mailOutboxService.sendBatch()).isEqualTo(3);
+
+        List<MimeMessage> messages = smtpServer.getMessages();
+        assertThat(messages).hasSize(3);
+        assertThat(messages.get(0).getSubject()).isEqualTo("testSubject");
+        assertThat(messages.get(0).getAllRecipients()[0].toString()).isEqualTo("user-0@example.com");
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        assertThat(outboxMailRepository.count()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mail.outbox.latency").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("mail.outbox.backlog").gauge().value()).isZero();
+    }
+
+    @Test
+    public void retriesTheFailedMailsLater() throws Exception {
+        MailOutboxService mailOutboxService = mailOutboxService(smtpServer.getHost(), smtpServer.getPort(), 8);
+        smtpServer.rejectNext(1);
+        mailOutboxService.add(mail("user-0@example.com"));
+        mailOutboxService.add(mail("user-1@example.com"));
+
+        mailOutboxService.sendBatch();
+
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        OutboxMail failed = outboxMailRepository.findAll().get(0);
+        assertThat(failed.getStatus()).isEqualTo(MailStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptDate()).isAfter(Instant.now());
+        assertThat(failed.getLastError()).contains("451");
+        assertThat(mailOutboxService.sendBatch()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.backlog").gauge().value()).isEqualTo(1);
+
+        failed.setNextAttemptDate(Instant.now());
+        outboxMailRepository.save(failed);
+        mailOutboxService.sendBatch();
+
+        assertThat(smtpServer.getMessages()).hasSize(2);
+        assertThat(outboxMailRepository.count()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.failures").tag("outcome", "retry").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void leavesTheMailsFailedAfterTheLastAttempt() throws Exception {
+        smtpServer.close();
+        MailOutboxService mailOutboxService = mailOutboxService(smtpServer.getHost(), smtpServer.getPort(), 1);
+        mailOutboxService.add(mail("user-0@example.com"));
+
+        mailOutboxService.sendBatch();
+
+        assertThat(outboxMailRepository.findByStatus(MailStatus.FAILED)).hasSize(1);
+        assertThat(mailOutboxService.sendBatch()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.failures").tag("outcome", "abandon").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void claimsAgainTheMailsOfAStoppedSender() throws Exception {
+        MailOutboxService mailOutboxService = mailOutboxService(smtpServer.getHost(), smtpServer.getPort(), 8);
+        OutboxMail claimed = mail("user-0@example.com");
+        claimed.setStatus(MailStatus.SENDING);
+        claimed.setCreatedDate(Instant.now().minusSeconds(600));
+        claimed.setNextAttemptDate(Instant.now().minusSeconds(1));
+        mongoTemplate.insert(claimed);
+
+        assertThat(mailOutboxService.sendBatch()).isEqualTo(1);
+
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        assertThat(outboxMailRepository.count()).isZero();
+    }
+
+    private MailOutboxService mailOutboxService(String host, int port, int maxAttempts) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost(host);
+        javaMailSender.setPort(port);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailOutbox().setMaxAttempts(maxAttempts);
+        return new MailOutboxService(mongoTemplate, outboxMailRepository, javaMailSender, meterRegistry, applicationProperties);
+    }
+
+    private static OutboxMail mail(String to) {
+        OutboxMail mail = new OutboxMail();
+        mail.setTo(to);
+        mail.setFrom("test@localhost");
+        mail.setSubject("testSubject");
+        mail.setContent("testContent");
+        return mail;
+    }
+}
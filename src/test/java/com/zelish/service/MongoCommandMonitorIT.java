@@ -0,0 +1,90 @@
+package com.zelish.service;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.config.ApplicationProperties;
+import com.zelish.service.dto.MongoCommandDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Integration tests for {@link MongoCommandMonitor}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class MongoCommandMonitorIT {
+
+    @Autowired
+    private MongoCommandMonitor mongoCommandMonitor;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void timesTheCommandsWithTheirShape() {
+        mongoTemplate.insert(new Document("phone_number", "0123456789"), "mongo_command_monitor");
+        Timer timer = meterRegistry.find("mongodb.commands")
+            .tags("collection", "mongo_command_monitor", "command", "find", "status", "success").timer();
+        long before = timer == null ? 0 : timer.count();
+
+        mongoTemplate.find(Query.query(where("phone_number").is("0123456789")), Document.class, "mongo_command_monitor");
+
+        timer = meterRegistry.find("mongodb.commands")
+            .tags("collection", "mongo_command_monitor", "command", "find", "status", "success").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(before + 1);
+        assertThat(mongoCommandMonitor.findSlowest(Integer.MAX_VALUE))
+            .filteredOn(command -> "mongo_command_monitor".equals(command.getCollection()) && "find".equals(command.getCommand()))
+            .extracting(MongoCommandDTO::getShape)
+            .anySatisfy(shape -> assertThat(shape).contains("phone_number").contains("?").doesNotContain("0123456789"));
+        mongoTemplate.remove(new Query(), "mongo_command_monitor");
+    }
+
+    @Test
+    public void copiesTheCommandOfAShapeOnlyOnceItWasSeenSlow() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMongoCommands().setExplainThreshold(0);
+        MongoCommandMonitor monitor = new MongoCommandMonitor(meterRegistry, applicationProperties);
+        ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+        BsonDocument command = new BsonDocument("find", new BsonString("mongo_command_monitor"))
+            .append("filter", new BsonDocument("phone_number", new BsonString("0123456789")));
+
+        find(monitor, connection, command, 1);
+        assertThat(monitor.pollSlowQuery()).isNull();
+
+        find(monitor, connection, command, 2);
+        MongoCommandMonitor.SlowQuery slowQuery = monitor.pollSlowQuery();
+        assertThat(slowQuery).isNotNull();
+        assertThat(slowQuery.getCommand()).isEqualTo(command);
+
+        find(monitor, connection, command, 3);
+        assertThat(monitor.pollSlowQuery()).isNull();
+    }
+
+    private static void find(MongoCommandMonitor monitor, ConnectionDescription connection, BsonDocument command, int requestId) {
+        monitor.commandStarted(new CommandStartedEvent(requestId, connection, "test", "find", command));
+        monitor.commandSucceeded(new CommandSucceededEvent(requestId, connection, "find", new BsonDocument("ok", new BsonInt32(1)),
+            TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.zelish.service;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.service.dto.QueryPlanDTO;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link QueryPlanService}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class QueryPlanServiceIT {
+
+    private static final String COLLECTION = "query_plan_service";
+
+    @Autowired
+    private QueryPlanService queryPlanService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setup() {
+        mongoTemplate.insert(new Document("_id", "1").append("phone_number", "0123456789"), COLLECTION);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mongoTemplate.remove(new Query(), COLLECTION);
+    }
+
+    @Test
+    public void flagsCollectionScansAndInMemorySorts() {
+        QueryPlanDTO plan = queryPlanService.explain(slowQuery(
+            "{ \"find\" : \"query_plan_service\", \"filter\" : { \"phone_number\" : \"0123456789\" }, \"sort\" : { \"phone_number\" : 1 } }"));
+
+        assertThat(plan.getStages()).contains("COLLSCAN");
+        assertThat(plan.isCollectionScan()).isTrue();
+        assertThat(plan.isInMemorySort()).isTrue();
+        assertThat(queryPlanService.findAll()).extracting(QueryPlanDTO::getShape).contains("phone_number");
+    }
+
+    @Test
+    public void doesNotFlagIndexedQueries() {
+        QueryPlanDTO plan = queryPlanService.explain(slowQuery(
+            "{ \"find\" : \"query_plan_service\", \"filter\" : { \"_id\" : \"1\" } }"));
+
+        assertThat(plan.isCollectionScan()).isFalse();
+        assertThat(plan.isInMemorySort()).isFalse();
+    }
+
+    private MongoCommandMonitor.SlowQuery slowQuery(String command) {
+        BsonDocument document = BsonDocument.parse(command);
+        document.put("$db", new BsonString(mongoTemplate.getDb().getName()));
+        return new MongoCommandMonitor.SlowQuery(mongoTemplate.getDb().getName(), COLLECTION,
+            document.getDocument("filter").getFirstKey(), document, 1000);
+    }
+}
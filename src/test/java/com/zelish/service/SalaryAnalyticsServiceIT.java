@@ -0,0 +1,173 @@
+package com.zelish.service;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Country;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Job;
+import com.zelish.domain.Location;
+import com.zelish.domain.Region;
+import com.zelish.repository.CountryRepository;
+import com.zelish.repository.DepartmentRepository;
+import com.zelish.repository.EmployeeRepository;
+import com.zelish.repository.JobRepository;
+import com.zelish.repository.LocationRepository;
+import com.zelish.repository.RegionRepository;
+import com.zelish.service.dto.SalaryStatsDTO;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link SalaryAnalyticsService} and {@link SalaryRollupEventListener}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class SalaryAnalyticsServiceIT {
+
+    @Autowired
+    private SalaryAnalyticsService salaryAnalyticsService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Department department;
+
+    private Job job;
+
+    @BeforeEach
+    public void init() {
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+        jobRepository.deleteAll();
+        locationRepository.deleteAll();
+        countryRepository.deleteAll();
+        regionRepository.deleteAll();
+        mongoTemplate.getCollection(SalaryAnalyticsService.COLLECTION).deleteMany(new Document());
+        Region region = regionRepository.save(new Region().regionName("Europe"));
+        Country country = countryRepository.save(new Country().countryName("France").region(region));
+        Location location = locationRepository.save(new Location().city("Paris").country(country));
+        department = departmentRepository.save(new Department().departmentName("Sales").location(location));
+        job = jobRepository.save(new Job().jobTitle("Seller").minSalary(50L).maxSalary(500L));
+    }
+
+    @Test
+    public void rollupsAreMaintainedOnWrites() {
+        Employee low = employeeRepository.save(employee(100L, 5L));
+        employeeRepository.save(employee(200L, null));
+        Employee high = employeeRepository.save(employee(300L, null));
+
+        SalaryStatsDTO stats = single(SalaryAnalyticsService.Dimension.DEPARTMENT);
+        assertThat(stats.getName()).isEqualTo("Sales");
+        assertThat(stats.getCount()).isEqualTo(3);
+        assertThat(stats.getMin()).isEqualTo(100L);
+        assertThat(stats.getMax()).isEqualTo(300L);
+        assertThat(stats.getAverage()).isEqualTo(200.0);
+        assertThat(stats.getP50()).isEqualTo(200L);
+        assertThat(stats.getP90()).isEqualTo(300L);
+        assertThat(stats.getAverageCommissionPct()).isEqualTo(5.0);
+        assertThat(single(SalaryAnalyticsService.Dimension.REGION).getName()).isEqualTo("Europe");
+        SalaryStatsDTO jobStats = single(SalaryAnalyticsService.Dimension.JOB);
+        assertThat(jobStats.getCount()).isEqualTo(3);
+        assertThat(jobStats.getJobMaxSalary()).isEqualTo(500L);
+
+        employeeRepository.save(high.salary(150L));
+        stats = single(SalaryAnalyticsService.Dimension.DEPARTMENT);
+        assertThat(stats.getCount()).isEqualTo(3);
+        assertThat(stats.getMax()).isEqualTo(200L);
+
+        employeeRepository.deleteById(low.getId());
+        stats = single(SalaryAnalyticsService.Dimension.DEPARTMENT);
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getMin()).isEqualTo(150L);
+        assertThat(stats.getAverageCommissionPct()).isNull();
+    }
+
+    @Test
+    public void rebuildMatchesIncrementalRollups() {
+        employeeRepository.save(employee(1234L, 10L));
+        employeeRepository.save(employee(98765L, 20L));
+        List<SalaryStatsDTO> incremental = salaryAnalyticsService.findAll(SalaryAnalyticsService.Dimension.JOB);
+
+        mongoTemplate.getCollection(SalaryAnalyticsService.COLLECTION).deleteMany(new Document());
+        salaryAnalyticsService.rebuild(EnumSet.allOf(SalaryAnalyticsService.Dimension.class));
+
+        assertThat(salaryAnalyticsService.findAll(SalaryAnalyticsService.Dimension.JOB))
+            .usingFieldByFieldElementComparator()
+            .containsExactlyElementsOf(incremental);
+        assertThat(incremental.get(0).getP99()).isEqualTo(98700L);
+    }
+
+    @Test
+    public void batchesMergeTheIncrementsByGroup() {
+        Employee low = employeeRepository.save(employee(100L, 5L));
+        Employee middle = employeeRepository.save(employee(200L, null));
+        Employee high = employeeRepository.save(employee(300L, null));
+        List<SalaryStatsDTO> incremental = salaryAnalyticsService.findAll(SalaryAnalyticsService.Dimension.DEPARTMENT);
+
+        mongoTemplate.getCollection(SalaryAnalyticsService.COLLECTION).deleteMany(new Document());
+        salaryAnalyticsService.add(salaryAnalyticsService.findEmployees(Arrays.asList(low.getId(), middle.getId(), high.getId())));
+        assertThat(salaryAnalyticsService.findAll(SalaryAnalyticsService.Dimension.DEPARTMENT))
+            .usingFieldByFieldElementComparator()
+            .containsExactlyElementsOf(incremental);
+
+        salaryAnalyticsService.remove(salaryAnalyticsService.findEmployees(Arrays.asList(low.getId(), high.getId())));
+        SalaryStatsDTO stats = single(SalaryAnalyticsService.Dimension.DEPARTMENT);
+        assertThat(stats.getCount()).isEqualTo(1);
+        assertThat(stats.getMin()).isEqualTo(200L);
+        assertThat(stats.getMax()).isEqualTo(200L);
+        assertThat(stats.getAverageCommissionPct()).isNull();
+    }
+
+    @Test
+    public void movingADepartmentRebuildsTheRollupOfItsNewRegion() {
+        employeeRepository.save(employee(100L, null));
+        Region asia = regionRepository.save(new Region().regionName("Asia"));
+        Country japan = countryRepository.save(new Country().countryName("Japan").region(asia));
+        Location tokyo = locationRepository.save(new Location().city("Tokyo").country(japan));
+        departmentRepository.save(department.location(tokyo));
+
+        salaryAnalyticsService.refreshRegions(Location.class, tokyo.getId());
+
+        assertThat(salaryAnalyticsService.findAll(SalaryAnalyticsService.Dimension.REGION))
+            .filteredOn(stats -> "Asia".equals(stats.getName()))
+            .extracting(SalaryStatsDTO::getCount)
+            .containsExactly(1L);
+    }
+
+    private Employee employee(Long salary, Long commissionPct) {
+        return new Employee().firstName("employee").salary(salary).commissionPct(commissionPct).department(department).addJob(job);
+    }
+
+    private SalaryStatsDTO single(SalaryAnalyticsService.Dimension dimension) {
+        List<SalaryStatsDTO> stats = salaryAnalyticsService.findAll(dimension);
+        assertThat(stats).hasSize(1);
+        return stats.get(0);
+    }
+}
@@ -3,15 +3,21 @@ package com.zelish.web.rest;
 import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.config.audit.AuditEventConverter;
 import com.zelish.domain.PersistentAuditEvent;
+import com.zelish.domain.PersistentAuditEventStats;
+import com.zelish.repository.AuditEventBuckets;
+import com.zelish.repository.AuditEventStats;
 import com.zelish.repository.PersistenceAuditEventRepository;
 
 import com.zelish.service.AuditEventService;
+import com.zelish.service.TotalCountService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.MediaType;
@@ -22,7 +28,9 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.Instant;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -40,9 +48,21 @@ public class AuditResourceIT {
     @Autowired
     private PersistenceAuditEventRepository auditEventRepository;
 
+    @Autowired
+    private TotalCountService totalCountService;
+
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    @Autowired
+    private AuditEventBuckets auditEventBuckets;
+
+    @Autowired
+    private AuditEventStats auditEventStats;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -61,7 +81,8 @@ public class AuditResourceIT {
     public void setup() {
         MockitoAnnotations.initMocks(this);
         AuditEventService auditEventService =
-            new AuditEventService(auditEventRepository, auditEventConverter);
+            new AuditEventService(auditEventRepository, auditEventConverter, auditEventBuckets, auditEventStats,
+                totalCountService);
         AuditResource auditResource = new AuditResource(auditEventService);
         this.restAuditMockMvc = MockMvcBuilders.standaloneSetup(auditResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
@@ -90,6 +111,20 @@ public class AuditResourceIT {
             .andExpect(jsonPath("$.[*].principal").value(hasItem(SAMPLE_PRINCIPAL)));
     }
 
+    @Test
+    public void getAllAuditsWithEstimatedCount() throws Exception {
+        // Initialize the database
+        auditEventRepository.save(auditEvent);
+
+        // Get all the audits, without counting them
+        restAuditMockMvc.perform(get("/management/audits?count=estimated&size=20"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count-Accuracy", "estimated"))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().string("Link", not(containsString("rel=\"last\""))))
+            .andExpect(jsonPath("$.[*].principal").value(hasItem(SAMPLE_PRINCIPAL)));
+    }
+
     @Test
     public void getAudit() throws Exception {
         // Initialize the database
@@ -134,6 +169,26 @@ public class AuditResourceIT {
             .andExpect(header().string("X-Total-Count", "0"));
     }
 
+    @Test
+    public void getAuditStats() throws Exception {
+        // Initialize the statistics
+        mongoTemplate.remove(new Query(), PersistentAuditEventStats.class);
+        auditEventStats.count(auditEvent);
+        auditEventStats.count(auditEvent);
+        auditEventStats.flush();
+
+        String fromDate = SAMPLE_TIMESTAMP.minusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+        String toDate = SAMPLE_TIMESTAMP.plusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+
+        // Get the statistics of the sample type
+        restAuditMockMvc.perform(get("/management/audits/stats?fromDate=" + fromDate + "&toDate=" + toDate + "&type=" + SAMPLE_TYPE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[*].principal").value(hasItem(SAMPLE_PRINCIPAL)))
+            .andExpect(jsonPath("$.[0].hour").value("2015-08-04T10:00:00Z"))
+            .andExpect(jsonPath("$.[0].count").value(2));
+    }
+
     @Test
     public void getNonExistingAudit() throws Exception {
         // Get the audit
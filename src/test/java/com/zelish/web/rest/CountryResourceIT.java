@@ -4,6 +4,7 @@ import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.domain.Country;
 import com.zelish.repository.CountryRepository;
 import com.zelish.service.CountryService;
+import com.zelish.service.MergePatchService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -42,6 +43,9 @@ public class CountryResourceIT {
     @Autowired
     private CountryService countryService;
 
+    @Autowired
+    private MergePatchService mergePatchService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -61,7 +65,7 @@ public class CountryResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final CountryResource countryResource = new CountryResource(countryService);
+        final CountryResource countryResource = new CountryResource(countryService, mergePatchService);
         this.restCountryMockMvc = MockMvcBuilders.standaloneSetup(countryResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
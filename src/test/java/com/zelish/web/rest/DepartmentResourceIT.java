@@ -2,8 +2,13 @@ package com.zelish.web.rest;
 
 import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.domain.Location;
 import com.zelish.repository.DepartmentRepository;
+import com.zelish.repository.EmployeeRepository;
+import com.zelish.repository.LocationRepository;
 import com.zelish.service.DepartmentService;
+import com.zelish.service.MergePatchService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +17,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
@@ -39,9 +45,18 @@ public class DepartmentResourceIT {
     @Autowired
     private DepartmentRepository departmentRepository;
 
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
     @Autowired
     private DepartmentService departmentService;
 
+    @Autowired
+    private MergePatchService mergePatchService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -61,7 +76,7 @@ public class DepartmentResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final DepartmentResource departmentResource = new DepartmentResource(departmentService);
+        final DepartmentResource departmentResource = new DepartmentResource(departmentService, mergePatchService);
         this.restDepartmentMockMvc = MockMvcBuilders.standaloneSetup(departmentResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -165,6 +180,36 @@ public class DepartmentResourceIT {
             .andExpect(jsonPath("$.[*].departmentName").value(hasItem(DEFAULT_DEPARTMENT_NAME.toString())));
     }
     
+    @Test
+    public void getAllDepartmentsAfterLocationUpdate() throws Exception {
+        Location location = locationRepository.save(LocationResourceIT.createEntity());
+        departmentRepository.save(department.location(location));
+
+        String etag = restDepartmentMockMvc.perform(get("/api/departments"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The departments embed their location
+        locationRepository.save(location.city("Updated city"));
+        restDepartmentMockMvc.perform(get("/api/departments").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].location.city").value(hasItem("Updated city")));
+    }
+
+    @Test
+    public void getAllDepartmentsAfterEmployeeUpdate() throws Exception {
+        departmentRepository.save(department);
+
+        String etag = restDepartmentMockMvc.perform(get("/api/departments"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The departments do not embed their employees
+        employeeRepository.save(new Employee().firstName("Ada").department(department));
+        restDepartmentMockMvc.perform(get("/api/departments").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+
     @Test
     public void getDepartment() throws Exception {
         // Initialize the database
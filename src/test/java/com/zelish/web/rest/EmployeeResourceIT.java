@@ -1,29 +1,49 @@
 package com.zelish.web.rest;
 
+import com.mongodb.client.model.Filters;
 import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.config.ApplicationProperties;
 import com.zelish.domain.Employee;
 import com.zelish.repository.EmployeeRepository;
+import com.zelish.repository.EmployeeRepositoryCustom;
+import com.zelish.service.BulkService;
+import com.zelish.service.ConditionalUpdateService;
+import com.zelish.service.ExportService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.TotalCountService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
+import com.zelish.web.rest.util.SparseFieldsResponseBodyAdvice;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.Validator;
 
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static com.zelish.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -58,6 +78,24 @@ public class EmployeeResourceIT {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TotalCountService totalCountService;
+
+    @Autowired
+    private BulkService bulkService;
+
+    @Autowired
+    private ConditionalUpdateService conditionalUpdateService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -70,6 +108,9 @@ public class EmployeeResourceIT {
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private MockMvc restEmployeeMockMvc;
 
     private Employee employee;
@@ -77,10 +118,11 @@ public class EmployeeResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final EmployeeResource employeeResource = new EmployeeResource(employeeRepository);
+        final EmployeeResource employeeResource = new EmployeeResource(employeeRepository, totalCountService, bulkService, exportService,
+            conditionalUpdateService, applicationProperties, mergePatchService);
         this.restEmployeeMockMvc = MockMvcBuilders.standaloneSetup(employeeResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
-            .setControllerAdvice(exceptionTranslator)
+            .setControllerAdvice(exceptionTranslator, new SparseFieldsResponseBodyAdvice())
             .setConversionService(createFormattingConversionService())
             .setMessageConverters(jacksonMessageConverter)
             .setValidator(validator).build();
@@ -188,6 +230,87 @@ public class EmployeeResourceIT {
             .andExpect(jsonPath("$.[*].commissionPct").value(hasItem(DEFAULT_COMMISSION_PCT.intValue())));
     }
     
+    @Test
+    public void getAllEmployeesByKeyset() throws Exception {
+        employeeRepository.deleteAll();
+        for (int i = 0; i < 3; i++) {
+            employeeRepository.save(createEntity().firstName("employee-" + i).hireDate(DEFAULT_HIRE_DATE.plus(i, ChronoUnit.DAYS)));
+        }
+
+        String link = restEmployeeMockMvc.perform(get("/api/employees?size=2&sort=hireDate,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$.[*].firstName").value(contains("employee-2", "employee-1")))
+            .andReturn().getResponse().getHeader("Link");
+        Matcher after = Pattern.compile("[?&]after=([^&>]+)[^,]*rel=\"after\"").matcher(link);
+        assertThat(after.find()).isTrue();
+
+        restEmployeeMockMvc.perform(get("/api/employees?size=2&sort=hireDate,desc&after=" + after.group(1)))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$.[*].firstName").value(contains("employee-0")));
+
+        restEmployeeMockMvc.perform(get("/api/employees?size=2&sort=lastName,asc&after=" + after.group(1)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAllEmployeesByKeysetRejectsOperatorsInTheToken() throws Exception {
+        String token = "{\"sort\": \"hireDate: DESC\", \"key\": [{\"$ne\": null}, {\"$ne\": null}]}";
+        String after = Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+
+        restEmployeeMockMvc.perform(get("/api/employees?size=2&sort=hireDate,desc&after=" + after))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAllEmployeesWithFields() throws Exception {
+        // Initialize the database
+        employeeRepository.save(employee);
+
+        // Get only the names of the employees
+        restEmployeeMockMvc.perform(get("/api/employees?sort=id,desc&fields=firstName,lastName"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(employee.getId()))
+            .andExpect(jsonPath("$.[0].firstName").value(DEFAULT_FIRST_NAME))
+            .andExpect(jsonPath("$.[0].lastName").value(DEFAULT_LAST_NAME))
+            .andExpect(jsonPath("$.[0].email").doesNotExist())
+            .andExpect(jsonPath("$.[0].jobs").doesNotExist());
+
+        restEmployeeMockMvc.perform(get("/api/employees?fields=unknown"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getEmployeeIgnoresFields() throws Exception {
+        // Initialize the database
+        employeeRepository.save(employee);
+
+        // Only the list endpoints support sparse fieldsets
+        restEmployeeMockMvc.perform(get("/api/employees/{id}?fields=firstName", employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.firstName").value(DEFAULT_FIRST_NAME))
+            .andExpect(jsonPath("$.email").value(DEFAULT_EMAIL));
+    }
+
+    @Test
+    public void exportEmployees() throws Exception {
+        employeeRepository.save(employee);
+        employeeRepository.save(createUpdatedEntity());
+
+        MvcResult result = restEmployeeMockMvc.perform(get("/api/employees/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restEmployeeMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ExportService.APPLICATION_NDJSON_VALUE));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").contains("\"firstName\":\"" + DEFAULT_FIRST_NAME + "\"");
+        assertThat(lines[1]).contains("\"firstName\":\"" + UPDATED_FIRST_NAME + "\"");
+    }
+
     @Test
     public void getEmployee() throws Exception {
         // Initialize the database
@@ -250,6 +373,89 @@ public class EmployeeResourceIT {
         assertThat(testEmployee.getCommissionPct()).isEqualTo(UPDATED_COMMISSION_PCT);
     }
 
+    @Test
+    public void getEmployeeNotModified() throws Exception {
+        employeeRepository.save(employee);
+
+        restEmployeeMockMvc.perform(get("/api/employees/{id}", employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        restEmployeeMockMvc.perform(get("/api/employees/{id}", employee.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    public void updateEmployeeIfMatch() throws Exception {
+        employeeRepository.save(employee);
+        Employee updatedEmployee = employeeRepository.findById(employee.getId()).get().firstName(UPDATED_FIRST_NAME);
+
+        restEmployeeMockMvc.perform(put("/api/employees")
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(updatedEmployee)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // The same update again no longer matches
+        restEmployeeMockMvc.perform(put("/api/employees")
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(updatedEmployee.lastName(UPDATED_LAST_NAME))))
+            .andExpect(status().isPreconditionFailed());
+
+        // Without If-Match, the outdated version of the body conflicts
+        restEmployeeMockMvc.perform(put("/api/employees")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(updatedEmployee)))
+            .andExpect(status().isConflict());
+
+        Employee testEmployee = employeeRepository.findById(employee.getId()).get();
+        assertThat(testEmployee.getFirstName()).isEqualTo(UPDATED_FIRST_NAME);
+        assertThat(testEmployee.getLastName()).isEqualTo(DEFAULT_LAST_NAME);
+        assertThat(testEmployee.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void patchEmployee() throws Exception {
+        employeeRepository.save(employee);
+
+        restEmployeeMockMvc.perform(patch("/api/employees/{id}", employee.getId())
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE)
+            .content("{\"phoneNumber\":\"" + UPDATED_PHONE_NUMBER + "\",\"commissionPct\":null}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.phoneNumber").value(UPDATED_PHONE_NUMBER))
+            .andExpect(jsonPath("$.firstName").value(DEFAULT_FIRST_NAME));
+
+        Employee testEmployee = employeeRepository.findById(employee.getId()).get();
+        assertThat(testEmployee.getPhoneNumber()).isEqualTo(UPDATED_PHONE_NUMBER);
+        assertThat(testEmployee.getCommissionPct()).isNull();
+        assertThat(testEmployee.getFirstName()).isEqualTo(DEFAULT_FIRST_NAME);
+        assertThat(testEmployee.getSalary()).isEqualTo(DEFAULT_SALARY);
+        assertThat(testEmployee.getVersion()).isEqualTo(1L);
+
+        // The patched version is outdated
+        restEmployeeMockMvc.perform(patch("/api/employees/{id}", employee.getId())
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE)
+            .content("{\"firstName\":\"" + UPDATED_FIRST_NAME + "\"}"))
+            .andExpect(status().isPreconditionFailed());
+
+        restEmployeeMockMvc.perform(patch("/api/employees/{id}", employee.getId())
+            .contentType(MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE)
+            .content("{\"unknown\":1}"))
+            .andExpect(status().isBadRequest());
+
+        restEmployeeMockMvc.perform(patch("/api/employees/{id}", Long.MAX_VALUE)
+            .contentType(MergePatchService.APPLICATION_MERGE_PATCH_JSON_VALUE)
+            .content("{\"firstName\":\"" + UPDATED_FIRST_NAME + "\"}"))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     public void updateNonExistingEmployee() throws Exception {
         int databaseSizeBeforeUpdate = employeeRepository.findAll().size();
@@ -284,6 +490,98 @@ public class EmployeeResourceIT {
         assertThat(employeeList).hasSize(databaseSizeBeforeDelete - 1);
     }
 
+    @Test
+    public void bulkCreateEmployees() throws Exception {
+        Employee existing = createEntity();
+        existing.setId("existing_id");
+
+        restEmployeeMockMvc.perform(post("/api/employees/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(employee, existing, createUpdatedEntity()))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 400, 201)))
+            .andExpect(jsonPath("$.[1].error").isNotEmpty());
+
+        List<Employee> employeeList = employeeRepository.findAll();
+        assertThat(employeeList).extracting(Employee::getFirstName).containsExactlyInAnyOrder(DEFAULT_FIRST_NAME, UPDATED_FIRST_NAME);
+    }
+
+    @Test
+    public void bulkUpdateAndDeleteEmployees() throws Exception {
+        employeeRepository.save(employee);
+        Employee unknown = createUpdatedEntity();
+        unknown.setId("000000000000000000000000");
+        Employee updatedEmployee = createUpdatedEntity();
+        updatedEmployee.setId(employee.getId());
+        updatedEmployee.setPhoneNumber(null);
+
+        restEmployeeMockMvc.perform(put("/api/employees/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedEmployee, unknown))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(200, 404)));
+
+        Employee testEmployee = employeeRepository.findById(employee.getId()).get();
+        assertThat(testEmployee.getFirstName()).isEqualTo(UPDATED_FIRST_NAME);
+        assertThat(testEmployee.getPhoneNumber()).isNull();
+
+        restEmployeeMockMvc.perform(delete("/api/employees/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(employee.getId(), unknown.getId()))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(204, 404)));
+
+        assertThat(employeeRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    public void bulkUpdateRejectsStaleVersions() throws Exception {
+        employeeRepository.save(employee);
+        Employee updatedEmployee = createUpdatedEntity();
+        updatedEmployee.setId(employee.getId());
+        updatedEmployee.setVersion(0L);
+
+        restEmployeeMockMvc.perform(put("/api/employees/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedEmployee))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(200))
+            .andExpect(jsonPath("$.[0].etag").value("\"1\""));
+
+        updatedEmployee.setFirstName(DEFAULT_FIRST_NAME);
+        restEmployeeMockMvc.perform(put("/api/employees/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedEmployee))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(409))
+            .andExpect(jsonPath("$.[0].etag").isEmpty());
+
+        Employee testEmployee = employeeRepository.findById(employee.getId()).get();
+        assertThat(testEmployee.getFirstName()).isEqualTo(UPDATED_FIRST_NAME);
+        assertThat(testEmployee.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void bulkUpdateMovesTheReportsOfAMovedManager() throws Exception {
+        Employee manager = employeeRepository.save(createUpdatedEntity());
+        employeeRepository.save(employee.manager(manager));
+        Employee root = employeeRepository.save(createUpdatedEntity().email("root@example.com"));
+        manager.setManager(root);
+
+        restEmployeeMockMvc.perform(put("/api/employees/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(manager))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(200)));
+
+        Document report = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Employee.class))
+            .find(Filters.eq("_id", new ObjectId(employee.getId())))
+            .first();
+        assertThat(report.getString(EmployeeRepositoryCustom.MANAGER_PATH_FIELD))
+            .isEqualTo("/" + root.getId() + "/" + manager.getId() + "/");
+    }
+
     @Test
     public void equalsVerifier() throws Exception {
         TestUtil.equalsVerifier(Employee.class);
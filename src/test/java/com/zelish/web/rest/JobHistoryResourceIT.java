@@ -3,7 +3,11 @@ package com.zelish.web.rest;
 import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.domain.JobHistory;
 import com.zelish.repository.JobHistoryRepository;
+import com.zelish.service.BulkService;
+import com.zelish.service.ExportService;
 import com.zelish.service.JobHistoryService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.TotalCountService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +52,18 @@ public class JobHistoryResourceIT {
     @Autowired
     private JobHistoryRepository jobHistoryRepository;
 
+    @Autowired
+    private TotalCountService totalCountService;
+
+    @Autowired
+    private BulkService bulkService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
     @Autowired
     private JobHistoryService jobHistoryService;
 
@@ -70,7 +86,7 @@ public class JobHistoryResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final JobHistoryResource jobHistoryResource = new JobHistoryResource(jobHistoryService);
+        final JobHistoryResource jobHistoryResource = new JobHistoryResource(jobHistoryService, totalCountService, bulkService, exportService, mergePatchService);
         this.restJobHistoryMockMvc = MockMvcBuilders.standaloneSetup(jobHistoryResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -3,6 +3,10 @@ package com.zelish.web.rest;
 import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.domain.Job;
 import com.zelish.repository.JobRepository;
+import com.zelish.service.BulkService;
+import com.zelish.service.ConditionalUpdateService;
+import com.zelish.service.MergePatchService;
+import com.zelish.service.TotalCountService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -49,6 +53,18 @@ public class JobResourceIT {
     @Autowired
     private JobRepository jobRepository;
 
+    @Autowired
+    private TotalCountService totalCountService;
+
+    @Autowired
+    private BulkService bulkService;
+
+    @Autowired
+    private ConditionalUpdateService conditionalUpdateService;
+
+    @Autowired
+    private MergePatchService mergePatchService;
+
     @Mock
     private JobRepository jobRepositoryMock;
 
@@ -71,7 +87,7 @@ public class JobResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final JobResource jobResource = new JobResource(jobRepository);
+        final JobResource jobResource = new JobResource(jobRepository, totalCountService, bulkService, conditionalUpdateService, mergePatchService);
         this.restJobMockMvc = MockMvcBuilders.standaloneSetup(jobResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -168,7 +184,7 @@ public class JobResourceIT {
     
     @SuppressWarnings({"unchecked"})
     public void getAllJobsWithEagerRelationshipsIsEnabled() throws Exception {
-        JobResource jobResource = new JobResource(jobRepositoryMock);
+        JobResource jobResource = new JobResource(jobRepositoryMock, totalCountService, bulkService, conditionalUpdateService, mergePatchService);
         when(jobRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
 
         MockMvc restJobMockMvc = MockMvcBuilders.standaloneSetup(jobResource)
@@ -185,7 +201,7 @@ public class JobResourceIT {
 
     @SuppressWarnings({"unchecked"})
     public void getAllJobsWithEagerRelationshipsIsNotEnabled() throws Exception {
-        JobResource jobResource = new JobResource(jobRepositoryMock);
+        JobResource jobResource = new JobResource(jobRepositoryMock, totalCountService, bulkService, conditionalUpdateService, mergePatchService);
             when(jobRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
             MockMvc restJobMockMvc = MockMvcBuilders.standaloneSetup(jobResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
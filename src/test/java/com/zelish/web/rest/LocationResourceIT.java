@@ -4,6 +4,7 @@ import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.domain.Location;
 import com.zelish.repository.LocationRepository;
 import com.zelish.service.LocationService;
+import com.zelish.service.MergePatchService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -51,6 +52,9 @@ public class LocationResourceIT {
     @Autowired
     private LocationService locationService;
 
+    @Autowired
+    private MergePatchService mergePatchService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -70,7 +74,7 @@ public class LocationResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final LocationResource locationResource = new LocationResource(locationService);
+        final LocationResource locationResource = new LocationResource(locationService, mergePatchService);
         this.restLocationMockMvc = MockMvcBuilders.standaloneSetup(locationResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -3,6 +3,7 @@ package com.zelish.web.rest;
 import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.domain.Region;
 import com.zelish.repository.RegionRepository;
+import com.zelish.service.MergePatchService;
 import com.zelish.service.RegionService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
 
@@ -12,6 +13,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
@@ -42,6 +44,9 @@ public class RegionResourceIT {
     @Autowired
     private RegionService regionService;
 
+    @Autowired
+    private MergePatchService mergePatchService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -61,7 +66,7 @@ public class RegionResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final RegionResource regionResource = new RegionResource(regionService);
+        final RegionResource regionResource = new RegionResource(regionService, mergePatchService);
         this.restRegionMockMvc = MockMvcBuilders.standaloneSetup(regionResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -148,6 +153,26 @@ public class RegionResourceIT {
             .andExpect(jsonPath("$.[*].regionName").value(hasItem(DEFAULT_REGION_NAME.toString())));
     }
     
+    @Test
+    public void getAllRegionsNotModified() throws Exception {
+        regionRepository.save(region);
+
+        String etag = restRegionMockMvc.perform(get("/api/regions"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // The cached list is unchanged
+        restRegionMockMvc.perform(get("/api/regions").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        // Saving a region invalidates it
+        regionRepository.save(createUpdatedEntity());
+        restRegionMockMvc.perform(get("/api/regions").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].regionName").value(hasItem(UPDATED_REGION_NAME)));
+    }
+
     @Test
     public void getRegion() throws Exception {
         // Initialize the database
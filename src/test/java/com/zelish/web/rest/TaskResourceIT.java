@@ -3,6 +3,7 @@ package com.zelish.web.rest;
 import com.zelish.JhipsterSampleApplicationApp;
 import com.zelish.domain.Task;
 import com.zelish.repository.TaskRepository;
+import com.zelish.service.MergePatchService;
 import com.zelish.service.TaskService;
 import com.zelish.web.rest.errors.ExceptionTranslator;
 
@@ -45,6 +46,9 @@ public class TaskResourceIT {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private MergePatchService mergePatchService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -64,7 +68,7 @@ public class TaskResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final TaskResource taskResource = new TaskResource(taskService);
+        final TaskResource taskResource = new TaskResource(taskService, mergePatchService);
         this.restTaskMockMvc = MockMvcBuilders.standaloneSetup(taskResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -6,6 +6,7 @@ import com.zelish.domain.User;
 import com.zelish.repository.UserRepository;
 import com.zelish.security.AuthoritiesConstants;
 import com.zelish.service.MailService;
+import com.zelish.service.TotalCountService;
 import com.zelish.service.UserService;
 import com.zelish.service.dto.UserDTO;
 import com.zelish.service.mapper.UserMapper;
@@ -63,6 +64,9 @@ public class UserResourceIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TotalCountService totalCountService;
+
     @Autowired
     private MailService mailService;
 
@@ -87,7 +91,7 @@ public class UserResourceIT {
 
     @BeforeEach
     public void setup() {
-        UserResource userResource = new UserResource(userService, userRepository, mailService);
+        UserResource userResource = new UserResource(userService, userRepository, mailService, totalCountService);
 
         this.restUserMockMvc = MockMvcBuilders.standaloneSetup(userResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
@@ -255,6 +259,19 @@ public class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    public void getAllUsersWithEstimatedCount() throws Exception {
+        userRepository.save(user);
+        totalCountService.estimate(User.class);
+        totalCountService.refreshCounts();
+
+        // The anonymous user is not listed, nor counted
+        restUserMockMvc.perform(get("/api/users?count=estimated")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", Long.toString(userRepository.count() - 1)));
+    }
+
     @Test
     public void getUser() throws Exception {
         // Initialize the database
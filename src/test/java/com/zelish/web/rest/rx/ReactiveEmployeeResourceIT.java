@@ -0,0 +1,103 @@
+package com.zelish.web.rest.rx;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Department;
+import com.zelish.domain.Employee;
+import com.zelish.repository.DepartmentRepository;
+import com.zelish.repository.EmployeeRepository;
+import com.zelish.repository.reactive.ReactiveEmployeeRepository;
+import com.zelish.web.rest.errors.ExceptionTranslator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link ReactiveEmployeeResource} REST controller.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class)
+public class ReactiveEmployeeResourceIT {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ReactiveEmployeeRepository reactiveEmployeeRepository;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private PageableHandlerMethodArgumentResolver pageableArgumentResolver;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc restReactiveEmployeeMockMvc;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll();
+        ReactiveEmployeeResource reactiveEmployeeResource = new ReactiveEmployeeResource(reactiveEmployeeRepository);
+        this.restReactiveEmployeeMockMvc = MockMvcBuilders.standaloneSetup(reactiveEmployeeResource)
+            .setCustomArgumentResolvers(pageableArgumentResolver)
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @Test
+    public void getAllEmployeesWithReferencesById() throws Exception {
+        Department department = departmentRepository.save(new Department().departmentName("Sales"));
+        Employee employee = employeeRepository.save(new Employee().firstName("AAAAAAAAAA").department(department));
+
+        MvcResult result = restReactiveEmployeeMockMvc.perform(get("/api/rx/employees?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restReactiveEmployeeMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId())))
+            .andExpect(jsonPath("$.[*].firstName").value(hasItem("AAAAAAAAAA")))
+            .andExpect(jsonPath("$.[*].department.id").value(hasItem(department.getId())));
+    }
+
+    @Test
+    public void getEmployee() throws Exception {
+        Employee employee = employeeRepository.save(new Employee().firstName("AAAAAAAAAA"));
+
+        MvcResult result = restReactiveEmployeeMockMvc.perform(get("/api/rx/employees/{id}", employee.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restReactiveEmployeeMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(employee.getId()))
+            .andExpect(jsonPath("$.firstName").value("AAAAAAAAAA"));
+    }
+
+    @Test
+    public void getNonExistingEmployee() throws Exception {
+        MvcResult result = restReactiveEmployeeMockMvc.perform(get("/api/rx/employees/{id}", Long.MAX_VALUE))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restReactiveEmployeeMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,151 @@
+package com.zelish.web.rest.rx;
+
+import com.zelish.JhipsterSampleApplicationApp;
+import com.zelish.domain.Employee;
+import com.zelish.repository.EmployeeRepository;
+import com.zelish.security.AuthoritiesConstants;
+import com.zelish.security.jwt.JWTFilter;
+import com.zelish.security.jwt.TokenProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the reactive {@code /api/rx} read endpoints against the servlet ones, under a burst of concurrent
+ * requests on a real server.
+ * <p>
+ * It reports the throughput and the peak number of live threads, client threads included, of each API. It is only
+ * run with {@code -Dbenchmark=true}, such as {@code ./mvnw verify -Dbenchmark=true -Dit.test=ReactiveReadBenchmarkIT}.
+ */
+@SpringBootTest(classes = JhipsterSampleApplicationApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReactiveReadBenchmarkIT {
+
+    private static final int EMPLOYEES = 1000;
+
+    private static final int CLIENTS = 256;
+
+    private static final int REQUESTS = 5000;
+
+    private static final String PAGE = "?page=0&size=100&sort=id";
+
+    private final Logger log = LoggerFactory.getLogger(ReactiveReadBenchmarkIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee().firstName("employee-" + i).lastName("benchmark").salary((long) i));
+        }
+        employeeRepository.saveAll(employees);
+        token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+    }
+
+    @Test
+    public void compareServletAndReactiveReads() throws Exception {
+        // Warm up both stacks
+        run("/api/employees" + PAGE, MediaType.APPLICATION_JSON_VALUE, REQUESTS / 10);
+        run("/api/rx/employees" + PAGE, MediaType.APPLICATION_STREAM_JSON_VALUE, REQUESTS / 10);
+
+        Result servlet = run("/api/employees" + PAGE, MediaType.APPLICATION_JSON_VALUE, REQUESTS);
+        Result reactive = run("/api/rx/employees" + PAGE, MediaType.APPLICATION_STREAM_JSON_VALUE, REQUESTS);
+        log.info("Servlet:  {} requests/s, {} threads at peak", String.format("%.0f", servlet.throughput), servlet.peakThreads);
+        log.info("Reactive: {} requests/s, {} threads at peak", String.format("%.0f", reactive.throughput), reactive.peakThreads);
+
+        assertThat(servlet.errors).isZero();
+        assertThat(reactive.errors).isZero();
+    }
+
+    private Result run(String path, String accept, int requests) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        AtomicInteger errors = new AtomicInteger();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            clients.execute(() -> {
+                if (!get(path, accept)) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        clients.shutdown();
+        assertThat(clients.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(requests / seconds, threads.getPeakThreadCount(), errors.get());
+    }
+
+    private boolean get(String path, String accept) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+            connection.setRequestProperty(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+            connection.setRequestProperty(HttpHeaders.ACCEPT, accept);
+            if (connection.getResponseCode() != 200) {
+                return false;
+            }
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[8192];
+                while (in.read(buffer) != -1) {
+                    // Read the whole page, as a client would.
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static final class Result {
+
+        private final double throughput;
+
+        private final int peakThreads;
+
+        private final int errors;
+
+        private Result(double throughput, int peakThreads, int errors) {
+            this.throughput = throughput;
+            this.peakThreads = peakThreads;
+            this.errors = errors;
+        }
+    }
+}